@@ -0,0 +1,36 @@
+package com.example.common.archive;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+import org.bson.Document;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Which documents of a collection {@link ArchiveService} moves to its archive, declared as a bean
+ * by the service that owns the collection. A document is archived once {@code dateField} is older
+ * than {@code retention} and it also matches {@code filter}.
+ */
+@Getter
+@Builder
+public class ArchivePolicy {
+
+    private final String collection;
+
+    private final String dateField;
+
+    private final Duration retention;
+
+    // Extra conditions, e.g. to keep unfinished work live however old it is
+    @Builder.Default
+    private final Document filter = new Document();
+
+    // Fields the fall-through reads query the archive by
+    @Singular
+    private final List<String> archiveIndexes;
+
+    @Builder.Default
+    private final int batchSize = 500;
+}
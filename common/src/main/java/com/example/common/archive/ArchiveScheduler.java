@@ -0,0 +1,164 @@
+package com.example.common.archive;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.Updates;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every archive policy every {@code app.archive.interval} (default 6h) when
+ * {@code app.archive.enabled} is set. A per-collection lease in {@code archive_leases} keeps
+ * two instances from archiving the same collection at once. The holder renews it between batches
+ * however long the run takes, and stops at the next batch if it finds the lease gone.
+ */
+@Slf4j
+@Component
+public class ArchiveScheduler implements SmartLifecycle {
+
+    private static final String LEASE_COLLECTION = "archive_leases";
+    private static final Duration LEASE = Duration.ofMinutes(30);
+
+    private final ArchiveService archiveService;
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final Duration interval;
+    private final String owner;
+
+    private volatile ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    public ArchiveScheduler(ArchiveService archiveService, MongoTemplate mongoTemplate, Environment environment) {
+        this.archiveService = archiveService;
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = environment.getProperty("app.archive.enabled", Boolean.class, false);
+        this.interval = DurationStyle.detectAndParse(environment.getProperty("app.archive.interval", "6h"));
+        this.owner = environment.getProperty("spring.application.name", "app") + "-" + UUID.randomUUID();
+    }
+
+    /**
+     * Archive one collection now, if no other instance is doing so.
+     *
+     * @return documents moved, or -1 when another instance holds the lease
+     */
+    public long runNow(ArchivePolicy policy) {
+        if (!acquireLease(policy.getCollection())) {
+            return -1;
+        }
+        String collection = policy.getCollection();
+        long[] renewAt = {System.currentTimeMillis() + LEASE.toMillis() / 3};
+        try {
+            return archiveService.archive(policy, () -> running && keepLease(collection, renewAt));
+        } finally {
+            releaseLease(policy.getCollection());
+        }
+    }
+
+    private void runAll() {
+        for (ArchivePolicy policy : archiveService.getPolicies()) {
+            if (!running) {
+                return;
+            }
+            try {
+                runNow(policy);
+            } catch (MongoException e) {
+                log.warn("Archiving {} failed: {}", policy.getCollection(), e.getMessage());
+            }
+        }
+    }
+
+    private boolean acquireLease(String collection) {
+        Date now = new Date();
+        try {
+            mongoTemplate.getCollection(LEASE_COLLECTION).findOneAndUpdate(
+                    Filters.and(Filters.eq("_id", collection), Filters.lt("leaseUntil", now)),
+                    Updates.combine(
+                            Updates.set("owner", owner),
+                            Updates.set("leaseUntil", new Date(now.getTime() + LEASE.toMillis()))),
+                    new FindOneAndUpdateOptions().upsert(true));
+            return true;
+        } catch (MongoException e) {
+            // Duplicate key on upsert: the lease exists and has not expired
+            if (e.getCode() == 11000) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Renew the lease once a third of it has run out; false when it was lost to another instance.
+     */
+    private boolean keepLease(String collection, long[] renewAt) {
+        long now = System.currentTimeMillis();
+        if (now < renewAt[0]) {
+            return true;
+        }
+        long renewed = mongoTemplate.getCollection(LEASE_COLLECTION).updateOne(
+                Filters.and(Filters.eq("_id", collection), Filters.eq("owner", owner)),
+                Updates.set("leaseUntil", new Date(now + LEASE.toMillis()))).getMatchedCount();
+        if (renewed == 0) {
+            log.warn("Lost the archive lease for {}, stopping", collection);
+            return false;
+        }
+        renewAt[0] = now + LEASE.toMillis() / 3;
+        return true;
+    }
+
+    private void releaseLease(String collection) {
+        try {
+            mongoTemplate.getCollection(LEASE_COLLECTION).deleteOne(
+                    Filters.and(Filters.eq("_id", collection), Filters.eq("owner", owner)));
+        } catch (MongoException e) {
+            log.warn("Could not release archive lease for {}: {}", collection, e.getMessage());
+        }
+    }
+
+    // ===================================
+    // Lifecycle
+    // ===================================
+
+    @Override
+    public void start() {
+        running = true;
+        if (!enabled || archiveService.getPolicies().isEmpty()) {
+            return;
+        }
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "archiver");
+            t.setDaemon(true);
+            return t;
+        });
+        // First run a few minutes after startup, off the deployment's busiest moment
+        scheduler.scheduleWithFixedDelay(this::runAll, 5, Math.max(1, interval.toMinutes()), TimeUnit.MINUTES);
+        executor = scheduler;
+        log.info("Archiving {} collection(s) every {}", archiveService.getPolicies().size(), interval);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        ScheduledExecutorService scheduler = executor;
+        executor = null;
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.common.archive;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.*;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Moves aged documents out of the hot collections into {@code <collection>_archive} collections,
+ * which are created with zstd block compression and hold nothing but history.
+ *
+ * Each batch is upserted into the archive before it is deleted from the live collection, and the
+ * delete only matches documents that are still exactly as copied; a crash or a concurrent update
+ * therefore never loses data, it only leaves a document in both places until the next run, and
+ * readers treat the live copy as authoritative. Throughput is capped by
+ * {@code app.archive.max-docs-per-second} so archiving never competes with real traffic.
+ *
+ * Reads that may reach back past a policy's retention use {@link #withArchived} or
+ * {@link #findArchivedById} to fall through to the archive.
+ */
+@Slf4j
+@Service
+public class ArchiveService {
+
+    public static final String ARCHIVED_AT = "archivedAt";
+    public static final String RESTORED_AT = "restoredAt";
+
+    private static final String ARCHIVE_SUFFIX = "_archive";
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectProvider<ArchivePolicy> policyProvider;
+    private final int maxDocsPerSecond;
+    private final Set<String> preparedCollections = ConcurrentHashMap.newKeySet();
+
+    public ArchiveService(MongoTemplate mongoTemplate, ObjectProvider<ArchivePolicy> policyProvider, Environment environment) {
+        this.mongoTemplate = mongoTemplate;
+        this.policyProvider = policyProvider;
+        this.maxDocsPerSecond = Math.max(1, environment.getProperty("app.archive.max-docs-per-second", Integer.class, 500));
+    }
+
+    public static String archiveName(String collection) {
+        return collection + ARCHIVE_SUFFIX;
+    }
+
+    public List<ArchivePolicy> getPolicies() {
+        return policyProvider.orderedStream().toList();
+    }
+
+    public Optional<ArchivePolicy> getPolicy(String collection) {
+        return policyProvider.orderedStream().filter(p -> p.getCollection().equals(collection)).findFirst();
+    }
+
+    // ===================================
+    // ARCHIVING
+    // ===================================
+
+    /**
+     * Archive everything currently eligible under {@code policy}, batch by batch.
+     *
+     * @param keepGoing checked between batches, so a shutdown can stop a long run early
+     * @return the number of documents moved
+     */
+    public long archive(ArchivePolicy policy, BooleanSupplier keepGoing) {
+        prepare(policy);
+        MongoCollection<Document> live = mongoTemplate.getCollection(policy.getCollection());
+        MongoCollection<Document> archive = mongoTemplate.getCollection(archiveName(policy.getCollection()));
+        Document eligible = eligibleFilter(policy);
+
+        long moved = 0;
+        while (keepGoing.getAsBoolean()) {
+            long started = System.currentTimeMillis();
+            List<Document> batch = live.find(eligible)
+                    .sort(Sorts.ascending(policy.getDateField()))
+                    .limit(policy.getBatchSize())
+                    .into(new ArrayList<>());
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            Date now = new Date();
+            List<WriteModel<Document>> copies = new ArrayList<>(batch.size());
+            List<DeleteOneModel<Document>> deletes = new ArrayList<>(batch.size());
+            for (Document original : batch) {
+                // Only delete the live document if nobody changed it after we copied it
+                deletes.add(new DeleteOneModel<>(new Document(original)));
+                Document copy = new Document(original).append(ARCHIVED_AT, now);
+                copies.add(new ReplaceOneModel<>(Filters.eq("_id", original.get("_id")), copy,
+                        new ReplaceOptions().upsert(true)));
+            }
+            archive.bulkWrite(copies, new BulkWriteOptions().ordered(false));
+            long deleted = live.bulkWrite(deletes, new BulkWriteOptions().ordered(false)).getDeletedCount();
+            moved += deleted;
+
+            // Either the tail of the backlog, or every document in the batch is being edited right now
+            if (batch.size() < policy.getBatchSize() || deleted == 0) {
+                break;
+            }
+            throttle(batch.size(), started);
+        }
+
+        if (moved > 0) {
+            log.info("Archived {} document(s) from {}", moved, policy.getCollection());
+        }
+        return moved;
+    }
+
+    /**
+     * How many live documents the policy would archive right now.
+     */
+    public long countEligible(ArchivePolicy policy) {
+        return mongoTemplate.getCollection(policy.getCollection()).countDocuments(eligibleFilter(policy));
+    }
+
+    // ===================================
+    // RESTORE / EXPORT
+    // ===================================
+
+    /**
+     * Move archived documents matching {@code filter} back into the live collection. They are stamped
+     * with {@code restoredAt}, which keeps them live for another full retention period.
+     *
+     * @return the number of documents restored
+     */
+    public long restore(String collection, Document filter) {
+        MongoCollection<Document> live = mongoTemplate.getCollection(collection);
+        MongoCollection<Document> archive = mongoTemplate.getCollection(archiveName(collection));
+
+        long restored = 0;
+        List<Document> batch = new ArrayList<>();
+        for (Document doc : archive.find(filter)) {
+            batch.add(doc);
+            if (batch.size() == 500) {
+                restored += restoreBatch(live, archive, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            restored += restoreBatch(live, archive, batch);
+        }
+        log.info("Restored {} document(s) into {}", restored, collection);
+        return restored;
+    }
+
+    private long restoreBatch(MongoCollection<Document> live, MongoCollection<Document> archive, List<Document> batch) {
+        Date now = new Date();
+        List<WriteModel<Document>> inserts = new ArrayList<>(batch.size());
+        List<Object> ids = new ArrayList<>(batch.size());
+        for (Document doc : batch) {
+            Document copy = new Document(doc);
+            copy.remove(ARCHIVED_AT);
+            copy.put(RESTORED_AT, now);
+            // A live document with the same id is newer than the archived copy; keep it
+            inserts.add(new InsertOneModel<>(copy));
+            ids.add(doc.get("_id"));
+        }
+        try {
+            live.bulkWrite(inserts, new BulkWriteOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            for (BulkWriteError error : e.getWriteErrors()) {
+                if (error.getCode() != 11000) {
+                    throw e;
+                }
+            }
+        }
+        return archive.deleteMany(Filters.in("_id", ids)).getDeletedCount();
+    }
+
+    /**
+     * Cursor over archived documents matching {@code filter}, oldest first; close it when done.
+     */
+    public Stream<Document> streamArchived(String collection, Document filter, String dateField) {
+        Query query = new BasicQuery(filter)
+                .with(Sort.by(Sort.Direction.ASC, dateField != null ? dateField : "_id"));
+        return mongoTemplate.stream(query, Document.class, archiveName(collection));
+    }
+
+    // ===================================
+    // FALL-THROUGH READS
+    // ===================================
+
+    /**
+     * {@code live} plus any archived documents matching {@code archiveCriteria} that are not in it.
+     * Archived rows are appended in the order of {@code sort}.
+     */
+    public <T> List<T> withArchived(List<T> live, Criteria archiveCriteria, Sort sort,
+                                    Class<T> type, String collection, Function<T, String> idOf) {
+        Query query = new Query(archiveCriteria);
+        if (sort != null) {
+            query.with(sort);
+        }
+        List<T> archived = mongoTemplate.find(query, type, archiveName(collection));
+        if (archived.isEmpty()) {
+            return live;
+        }
+        Set<String> liveIds = new HashSet<>();
+        live.forEach(item -> liveIds.add(idOf.apply(item)));
+        List<T> merged = new ArrayList<>(live);
+        for (T item : archived) {
+            if (!liveIds.contains(idOf.apply(item))) {
+                merged.add(item);
+            }
+        }
+        return merged;
+    }
+
+    public <T> Optional<T> findArchivedById(String id, Class<T> type, String collection) {
+        return Optional.ofNullable(mongoTemplate.findById(id, type, archiveName(collection)));
+    }
+
+    // ===================================
+    // HELPERS
+    // ===================================
+
+    private Document eligibleFilter(ArchivePolicy policy) {
+        Date cutoff = Date.from(Instant.now().minus(policy.getRetention()));
+        List<Document> clauses = new ArrayList<>();
+        if (!policy.getFilter().isEmpty()) {
+            clauses.add(policy.getFilter());
+        }
+        clauses.add(new Document(policy.getDateField(), new Document("$lt", cutoff)));
+        // Restored documents get a fresh retention period from the time they were restored
+        clauses.add(new Document("$or", List.of(
+                new Document(RESTORED_AT, new Document("$exists", false)),
+                new Document(RESTORED_AT, new Document("$lt", cutoff)))));
+        return new Document("$and", clauses);
+    }
+
+    private void prepare(ArchivePolicy policy) {
+        if (!preparedCollections.add(policy.getCollection())) {
+            return;
+        }
+        String archiveName = archiveName(policy.getCollection());
+        try {
+            if (!mongoTemplate.collectionExists(archiveName)) {
+                mongoTemplate.getDb().createCollection(archiveName, new CreateCollectionOptions()
+                        .storageEngineOptions(new Document("wiredTiger",
+                                new Document("configString", "block_compressor=zstd"))));
+            }
+        } catch (MongoCommandException e) {
+            // Already created by another instance, or a storage engine without that option
+            log.warn("Could not create compressed archive {}: {}", archiveName, e.getErrorMessage());
+        }
+        try {
+            mongoTemplate.indexOps(policy.getCollection())
+                    .ensureIndex(new Index().on(policy.getDateField(), Sort.Direction.ASC));
+            mongoTemplate.indexOps(archiveName)
+                    .ensureIndex(new Index().on(policy.getDateField(), Sort.Direction.ASC));
+            for (String field : policy.getArchiveIndexes()) {
+                mongoTemplate.indexOps(archiveName).ensureIndex(new Index().on(field, Sort.Direction.ASC));
+            }
+        } catch (MongoException e) {
+            preparedCollections.remove(policy.getCollection());
+            log.warn("Could not create archive indexes for {}: {}", policy.getCollection(), e.getMessage());
+        }
+    }
+
+    private void throttle(int documents, long startedMillis) {
+        long budgetMillis = documents * 1000L / maxDocsPerSecond;
+        long sleep = budgetMillis - (System.currentTimeMillis() - startedMillis);
+        if (sleep > 0) {
+            try {
+                Thread.sleep(sleep);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
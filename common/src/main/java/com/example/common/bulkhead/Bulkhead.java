@@ -0,0 +1,21 @@
+package com.example.common.bulkhead;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a controller method on the named bulkhead's own bounded executor instead of a Tomcat
+ * worker, so a slow dependency behind it can only exhaust its own threads.
+ *
+ * The servlet thread is released while the method runs (async servlet processing). When the
+ * bulkhead's threads and queue are full the request fails fast with 503 and {@code Retry-After}.
+ * Sizes and timeout come from {@code app.bulkheads.<name>.*}, see {@link BulkheadRegistry}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    String value();
+}
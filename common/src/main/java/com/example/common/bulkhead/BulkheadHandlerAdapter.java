@@ -0,0 +1,36 @@
+package com.example.common.bulkhead;
+
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+
+/**
+ * Swaps in a {@link RequestMappingHandlerAdapter} that runs {@link Bulkhead} methods on their
+ * compartment; everything else is invoked exactly as before. Boot still applies all of its
+ * usual configuration to the adapter returned here.
+ */
+@Component
+public class BulkheadHandlerAdapter implements WebMvcRegistrations {
+
+    private final BulkheadRegistry registry;
+
+    public BulkheadHandlerAdapter(BulkheadRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+        return new RequestMappingHandlerAdapter() {
+            @Override
+            protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+                Bulkhead bulkhead = handlerMethod.getMethodAnnotation(Bulkhead.class);
+                if (bulkhead == null) {
+                    return super.createInvocableHandlerMethod(handlerMethod);
+                }
+                return new BulkheadInvocableHandlerMethod(handlerMethod, registry.get(bulkhead.value()));
+            }
+        };
+    }
+}
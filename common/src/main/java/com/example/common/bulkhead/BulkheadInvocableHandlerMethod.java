@@ -0,0 +1,73 @@
+package com.example.common.bulkhead;
+
+import com.example.common.exceptions.ServiceUnavailableException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Invokes a {@link Bulkhead} handler on its compartment's executor. Arguments are still resolved on
+ * the servlet thread; only the method body moves. Returning a {@link WebAsyncTask} instead of the
+ * method's own value makes Spring MVC start async processing and render the real result on dispatch.
+ */
+class BulkheadInvocableHandlerMethod extends ServletInvocableHandlerMethod {
+
+    private final BulkheadRegistry.Compartment compartment;
+
+    BulkheadInvocableHandlerMethod(HandlerMethod handlerMethod, BulkheadRegistry.Compartment compartment) {
+        super(handlerMethod);
+        this.compartment = compartment;
+    }
+
+    @Override
+    protected Object doInvoke(Object... args) throws Exception {
+        if (!compartment.tryEnter()) {
+            if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+                HttpServletResponse response = attributes.getResponse();
+                if (response != null) {
+                    response.setHeader("Retry-After", "1");
+                }
+            }
+            throw new ServiceUnavailableException("Service is busy, please retry shortly");
+        }
+
+        // Whoever flips this first owns the permit: the task when it starts running, or the
+        // completion callback when the request ended (timeout, client gone) before it ever started
+        AtomicBoolean started = new AtomicBoolean();
+        Callable<Object> call = () -> {
+            if (!started.compareAndSet(false, true)) {
+                throw new CancellationException();
+            }
+            try {
+                Object result = super.doInvoke(args);
+                compartment.getCompleted().increment();
+                return result;
+            } catch (Exception e) {
+                compartment.getFailed().increment();
+                throw e;
+            } finally {
+                compartment.exit();
+            }
+        };
+
+        WebAsyncTask<Object> task = new WebAsyncTask<>(compartment.getTimeout().toMillis(), compartment.getExecutor(), call);
+        task.onTimeout(() -> {
+            compartment.getTimedOut().increment();
+            return CallableProcessingInterceptor.RESULT_NONE;
+        });
+        task.onCompletion(() -> {
+            if (started.compareAndSet(false, true)) {
+                compartment.exit();
+            }
+        });
+        return task;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.common.bulkhead;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Named bulkheads, created on first use and configured with
+ * <pre>
+ * app.bulkheads.&lt;name&gt;.max-concurrent=10   # executor threads
+ * app.bulkheads.&lt;name&gt;.queue-capacity=20   # requests allowed to wait for a thread
+ * app.bulkheads.&lt;name&gt;.timeout=60s         # async request timeout, the call is interrupted after it
+ * </pre>
+ * Admission is a semaphore sized threads + queue, checked on the servlet thread before anything is
+ * submitted, so rejection is immediate and never reaches the executor.
+ */
+@Slf4j
+@Component
+public class BulkheadRegistry implements DisposableBean {
+
+    private static final int DEFAULT_MAX_CONCURRENT = 10;
+    private static final int DEFAULT_QUEUE_CAPACITY = 20;
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(60);
+
+    private final Environment environment;
+    private final Map<String, Compartment> compartments = new ConcurrentHashMap<>();
+
+    public BulkheadRegistry(Environment environment) {
+        this.environment = environment;
+    }
+
+    Compartment get(String name) {
+        return compartments.computeIfAbsent(name, this::create);
+    }
+
+    public List<Map<String, Object>> getStats() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        new TreeMap<>(compartments).values().forEach(c -> result.add(c.stats()));
+        return result;
+    }
+
+    private Compartment create(String name) {
+        String prefix = "app.bulkheads." + name + ".";
+        int maxConcurrent = environment.getProperty(prefix + "max-concurrent", Integer.class, DEFAULT_MAX_CONCURRENT);
+        int queueCapacity = environment.getProperty(prefix + "queue-capacity", Integer.class, DEFAULT_QUEUE_CAPACITY);
+        String timeout = environment.getProperty(prefix + "timeout");
+        Duration timeoutDuration = timeout != null ? DurationStyle.detectAndParse(timeout) : DEFAULT_TIMEOUT;
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        // Unbounded here because the semaphore already caps waiting work at queueCapacity
+        executor.setQueueCapacity(Integer.MAX_VALUE);
+        executor.setThreadNamePrefix("bulkhead-" + name + "-");
+        executor.setDaemon(true);
+        // Carry the caller's requestId/userId onto the bulkhead thread so its log lines stay correlated
+        executor.setTaskDecorator(task -> {
+            Map<String, String> context = MDC.getCopyOfContextMap();
+            return () -> {
+                if (context != null) {
+                    MDC.setContextMap(context);
+                }
+                try {
+                    task.run();
+                } finally {
+                    MDC.clear();
+                }
+            };
+        });
+        executor.initialize();
+
+        log.info("Bulkhead '{}' created: {} threads, {} queued, timeout {}", name, maxConcurrent, queueCapacity, timeoutDuration);
+        return new Compartment(name, maxConcurrent, queueCapacity, timeoutDuration, executor);
+    }
+
+    @Override
+    public void destroy() {
+        compartments.values().forEach(c -> c.getExecutor().shutdown());
+    }
+
+    @Getter
+    static class Compartment {
+
+        private final String name;
+        private final int maxConcurrent;
+        private final int queueCapacity;
+        private final Duration timeout;
+        private final ThreadPoolTaskExecutor executor;
+        private final Semaphore permits;
+
+        private final LongAdder accepted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder timedOut = new LongAdder();
+
+        Compartment(String name, int maxConcurrent, int queueCapacity, Duration timeout, ThreadPoolTaskExecutor executor) {
+            this.name = name;
+            this.maxConcurrent = maxConcurrent;
+            this.queueCapacity = queueCapacity;
+            this.timeout = timeout;
+            this.executor = executor;
+            this.permits = new Semaphore(maxConcurrent + queueCapacity);
+        }
+
+        boolean tryEnter() {
+            if (permits.tryAcquire()) {
+                accepted.increment();
+                return true;
+            }
+            rejected.increment();
+            return false;
+        }
+
+        void exit() {
+            permits.release();
+        }
+
+        Map<String, Object> stats() {
+            int active = executor.getActiveCount();
+            int inFlight = maxConcurrent + queueCapacity - permits.availablePermits();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("name", name);
+            stats.put("maxConcurrent", maxConcurrent);
+            stats.put("queueCapacity", queueCapacity);
+            stats.put("timeoutMs", timeout.toMillis());
+            stats.put("active", active);
+            stats.put("queued", executor.getThreadPoolExecutor().getQueue().size());
+            stats.put("saturation", (double) inFlight / (maxConcurrent + queueCapacity));
+            stats.put("accepted", accepted.sum());
+            stats.put("rejected", rejected.sum());
+            stats.put("completed", completed.sum());
+            stats.put("failed", failed.sum());
+            stats.put("timedOut", timedOut.sum());
+            return stats;
+        }
+    }
+}
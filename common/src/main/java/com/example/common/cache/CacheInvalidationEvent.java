@@ -0,0 +1,18 @@
+package com.example.common.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when a watched collection changed, whether the write came from this instance,
+ * another instance or another service. {@code documentId} is the hex/string form of the _id.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class CacheInvalidationEvent {
+    private final String collection;
+    private final String documentId;
+    private final String operationType;
+}
@@ -0,0 +1,358 @@
+package com.example.common.cache;
+
+import com.example.common.config.CacheNames;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the local caches coherent with writes made by other instances and services.
+ *
+ * A single database-level change stream is opened over the watched collections; each change is
+ * republished as a {@link CacheInvalidationEvent} and evicts the matching local cache entries.
+ * The resume token is persisted in {@value #TOKEN_COLLECTION} so a reconnect or restart picks
+ * up where it left off. Change streams need a replica set (a single-node one is enough locally,
+ * e.g. {@code mongod --replSet rs0} + {@code rs.initiate()}); on a standalone server the
+ * invalidator logs once and the caches fall back to their CacheConfig TTLs.
+ */
+@Slf4j
+@Component
+public class ChangeStreamCacheInvalidator implements SmartLifecycle {
+
+    public enum Mode { DISABLED, CONNECTING, CHANGE_STREAM, TTL_ONLY }
+
+    static final String TOKEN_COLLECTION = "cache_invalidation_tokens";
+
+    // Caches keyed by the changed document's id: only that entry is evicted
+    private static final Map<String, List<String>> CACHES_BY_DOCUMENT_ID = Map.of(
+            "users", List.of(CacheNames.USER_DISPLAY_NAMES),
+            "courses", List.of(CacheNames.COURSES, CacheNames.COURSE_NAMES),
+            "exams", List.of(CacheNames.EXAMS, CacheNames.GRADING_PLANS, CacheNames.EXAM_SNAPSHOTS));
+
+    // Caches whose key can't be derived from the change event: cleared whole
+    private static final Map<String, List<String>> CACHES_CLEARED_ON_CHANGE = Map.of(
+            "departments", List.of(CacheNames.DEPARTMENTS),
+            "grade_columns", List.of(CacheNames.GRADE_COLUMNS));
+
+    // No cache of its own here; watched only so service-level listeners receive the event
+    private static final Set<String> EVENT_ONLY_COLLECTIONS = Set.of("enrollments");
+
+    // NoReplicationEnabled / IllegalOperation / CommandNotSupported: change streams are not available here
+    private static final Set<Integer> UNSUPPORTED_ERROR_CODES = Set.of(40573, 20, 115);
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private static final long TOKEN_FLUSH_INTERVAL_MS = 5_000;
+    private static final long INITIAL_BACKOFF_MS = 1_000;
+    private static final long MAX_BACKOFF_MS = 60_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final String consumerId;
+
+    private final AtomicLong eventsReceived = new AtomicLong();
+    private volatile Mode mode = Mode.DISABLED;
+    private volatile boolean running;
+    private volatile Thread worker;
+    private volatile BsonDocument resumeToken;
+    private volatile long lastTokenFlush;
+    private volatile LocalDateTime lastEventAt;
+
+    public ChangeStreamCacheInvalidator(MongoTemplate mongoTemplate,
+                                        CacheManager cacheManager,
+                                        ApplicationEventPublisher eventPublisher,
+                                        Environment environment) {
+        this.mongoTemplate = mongoTemplate;
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.enabled = environment.getProperty("app.cache.invalidation.enabled", Boolean.class, true);
+        this.consumerId = environment.getProperty("app.cache.invalidation.consumer-id",
+                environment.getProperty("spring.application.name", "app") + "@" + hostName());
+    }
+
+    // ===================================
+    // LIFECYCLE
+    // ===================================
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("Change-stream cache invalidation disabled; caches rely on TTL expiry only");
+            return;
+        }
+        running = true;
+        mode = Mode.CONNECTING;
+        worker = new Thread(this::watchLoop, "cache-invalidation");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = worker;
+        if (current != null) {
+            try {
+                // The cursor polls with a 1s max await, so the loop notices the flag quickly
+                current.join(3_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        worker = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // ===================================
+    // CHANGE STREAM
+    // ===================================
+
+    private void watchLoop() {
+        resumeToken = loadResumeToken();
+        long backoff = INITIAL_BACKOFF_MS;
+
+        try {
+            while (running) {
+                try {
+                    consumeChangeStream();
+                    backoff = INITIAL_BACKOFF_MS;
+                } catch (MongoCommandException e) {
+                    if (UNSUPPORTED_ERROR_CODES.contains(e.getErrorCode())) {
+                        mode = Mode.TTL_ONLY;
+                        log.warn("Change streams unavailable ({}); caches rely on TTL expiry only", e.getErrorMessage());
+                        return;
+                    }
+                    if (e.getErrorCode() == CHANGE_STREAM_HISTORY_LOST) {
+                        // The stored position fell off the oplog: anything may have changed meanwhile
+                        log.warn("Cache invalidation resume token expired; clearing watched caches and restarting from now");
+                        resumeToken = null;
+                        clearAllWatchedCaches();
+                        continue;
+                    }
+                    backoff = waitBeforeReconnect(e, backoff);
+                } catch (MongoException e) {
+                    backoff = waitBeforeReconnect(e, backoff);
+                }
+            }
+        } finally {
+            flushResumeToken();
+        }
+    }
+
+    private void consumeChangeStream() {
+        List<Bson> pipeline = List.of(Aggregates.match(Filters.and(
+                Filters.in("ns.coll", watchedCollections()),
+                Filters.in("operationType", List.of("insert", "update", "replace", "delete")))));
+
+        ChangeStreamIterable<Document> stream = mongoTemplate.getDb().watch(pipeline).maxAwaitTime(1, TimeUnit.SECONDS);
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        }
+
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+            mode = Mode.CHANGE_STREAM;
+            while (running) {
+                ChangeStreamDocument<Document> change = cursor.tryNext();
+                if (change != null) {
+                    handleChange(change);
+                }
+                // Post-batch token: keeps advancing even while the watched collections are idle
+                BsonDocument token = cursor.getResumeToken();
+                if (token != null) {
+                    resumeToken = token;
+                }
+                if (System.currentTimeMillis() - lastTokenFlush >= TOKEN_FLUSH_INTERVAL_MS) {
+                    flushResumeToken();
+                }
+            }
+        }
+    }
+
+    private void handleChange(ChangeStreamDocument<Document> change) {
+        if (change.getNamespace() == null || change.getDocumentKey() == null) {
+            return;
+        }
+        eventsReceived.incrementAndGet();
+        lastEventAt = LocalDateTime.now();
+
+        CacheInvalidationEvent event = new CacheInvalidationEvent(
+                change.getNamespace().getCollectionName(),
+                idAsString(change.getDocumentKey().get("_id")),
+                change.getOperationTypeString());
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            // A failing listener must not stop the stream for everyone else
+            log.error("Cache invalidation listener failed for {}", event, e);
+        }
+    }
+
+    private long waitBeforeReconnect(MongoException e, long backoff) {
+        if (!running) {
+            return backoff;
+        }
+        mode = Mode.CONNECTING;
+        log.warn("Cache invalidation stream interrupted ({}); reconnecting in {} ms", e.getMessage(), backoff);
+        try {
+            Thread.sleep(backoff);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+        return Math.min(backoff * 2, MAX_BACKOFF_MS);
+    }
+
+    // ===================================
+    // LOCAL CACHE EVICTION
+    // ===================================
+
+    @EventListener
+    public void onInvalidation(CacheInvalidationEvent event) {
+        List<String> perDocument = CACHES_BY_DOCUMENT_ID.get(event.getCollection());
+        if (perDocument != null && event.getDocumentId() != null) {
+            for (String name : perDocument) {
+                Cache cache = cacheManager.getCache(name);
+                if (cache != null) {
+                    cache.evict(event.getDocumentId());
+                }
+            }
+        }
+
+        List<String> cleared = CACHES_CLEARED_ON_CHANGE.get(event.getCollection());
+        if (cleared != null) {
+            for (String name : cleared) {
+                Cache cache = cacheManager.getCache(name);
+                if (cache != null) {
+                    cache.clear();
+                }
+            }
+        }
+    }
+
+    private void clearAllWatchedCaches() {
+        List<String> names = new ArrayList<>();
+        CACHES_BY_DOCUMENT_ID.values().forEach(names::addAll);
+        CACHES_CLEARED_ON_CHANGE.values().forEach(names::addAll);
+        for (String name : names) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    // ===================================
+    // RESUME TOKEN PERSISTENCE
+    // ===================================
+
+    private BsonDocument loadResumeToken() {
+        try {
+            mongoTemplate.indexOps(TOKEN_COLLECTION)
+                    .ensureIndex(new Index().on("updatedAt", Sort.Direction.ASC).expire(Duration.ofDays(7)));
+
+            Document stored = tokenCollection().find(Filters.eq("_id", consumerId)).first();
+            if (stored != null && stored.getString("token") != null) {
+                return BsonDocument.parse(stored.getString("token"));
+            }
+        } catch (MongoException e) {
+            log.warn("Could not load cache invalidation resume token for {}: {}", consumerId, e.getMessage());
+        }
+        return null;
+    }
+
+    private void flushResumeToken() {
+        BsonDocument token = resumeToken;
+        lastTokenFlush = System.currentTimeMillis();
+        if (token == null) {
+            return;
+        }
+        try {
+            Document doc = new Document("_id", consumerId)
+                    .append("token", token.toJson())
+                    .append("updatedAt", new Date());
+            tokenCollection().replaceOne(Filters.eq("_id", consumerId), doc, new ReplaceOptions().upsert(true));
+        } catch (MongoException e) {
+            log.warn("Could not persist cache invalidation resume token for {}: {}", consumerId, e.getMessage());
+        }
+    }
+
+    private MongoCollection<Document> tokenCollection() {
+        return mongoTemplate.getCollection(TOKEN_COLLECTION);
+    }
+
+    // ===================================
+    // STATUS
+    // ===================================
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("mode", mode);
+        status.put("consumerId", consumerId);
+        status.put("collections", watchedCollections());
+        status.put("eventsReceived", eventsReceived.get());
+        status.put("lastEventAt", lastEventAt);
+        return status;
+    }
+
+    private static List<String> watchedCollections() {
+        Set<String> collections = new TreeSet<>(CACHES_BY_DOCUMENT_ID.keySet());
+        collections.addAll(CACHES_CLEARED_ON_CHANGE.keySet());
+        collections.addAll(EVENT_ONLY_COLLECTIONS);
+        return new ArrayList<>(collections);
+    }
+
+    private static String idAsString(BsonValue id) {
+        if (id == null) {
+            return null;
+        }
+        if (id instanceof BsonObjectId objectId) {
+            return objectId.getValue().toHexString();
+        }
+        if (id.isString()) {
+            return id.asString().getValue();
+        }
+        return id.toString();
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown-host";
+        }
+    }
+}
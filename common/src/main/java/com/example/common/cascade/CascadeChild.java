@@ -0,0 +1,46 @@
+package com.example.common.cascade;
+
+import com.mongodb.client.model.Filters;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import java.util.List;
+
+/**
+ * One child collection in a {@link CascadePlan}: the documents in {@code collection} whose
+ * {@code field} points at a deleted parent.
+ *
+ * Set {@code reference} when the field holds the parent's raw {@code _id} (a {@code @DBRef}, matched
+ * as {@code "parent.$id"}); otherwise the parent id is matched as a string, which is how plain
+ * {@code xxxId} fields are stored.
+ */
+@Getter
+@Builder
+public class CascadeChild {
+
+    private final String collection;
+
+    private final String field;
+
+    private final boolean reference;
+
+    /** Narrows which children are deleted, e.g. only auto-created rows. */
+    @Builder.Default
+    private final Document filter = new Document();
+
+    /** Fields holding upload paths or URLs; dotted paths and arrays are followed. */
+    @Singular
+    private final List<String> fileFields;
+
+    @Singular
+    private final List<CascadeChild> children;
+
+    Bson filterFor(List<Object> parentIds) {
+        List<Object> keys = reference ? parentIds : parentIds.stream().<Object>map(String::valueOf).toList();
+        Bson match = keys.size() == 1 ? Filters.eq(field, keys.get(0)) : Filters.in(field, keys);
+        return filter.isEmpty() ? match : Filters.and(match, filter);
+    }
+}
@@ -0,0 +1,423 @@
+package com.example.common.cascade;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.*;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Deletes a document and everything hanging off it, as declared by a {@link CascadePlan}.
+ *
+ * Each child collection is cleared with a single {@code deleteMany} per batch of parent ids rather
+ * than loading and deleting entities one at a time, and upload paths found on the deleted documents
+ * are queued in {@code cascade_files} for {@link CascadeFileReaper} to remove in the background.
+ *
+ * Every run is recorded in {@code cascade_deletions}, which doubles as the progress handle. Trees
+ * with up to {@code app.cascade.inline-limit} direct children are deleted on the calling thread;
+ * bigger ones are handed to a small pool and the caller gets the handle back straight away. An inline
+ * run that fails is retried on the pool at once, and the handle returned carries the error. The root
+ * goes first, so the item disappears immediately, and every step is idempotent: a run cut short by a
+ * crash or redeploy keeps its RUNNING record, and once its heartbeat goes stale another instance of
+ * the same service picks it up and finishes it.
+ *
+ * Deletes go straight to the driver, so an {@link AfterDeleteEvent} carrying the delete filter is
+ * published for every mapped collection touched; cache-evicting Mongo listeners keep working.
+ */
+@Slf4j
+@Service
+public class CascadeDeleteService implements SmartLifecycle {
+
+    static final String DELETIONS = "cascade_deletions";
+    static final String FILES = "cascade_files";
+
+    private static final int ID_BATCH = 1000;
+    private static final int FILE_BATCH = 500;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final Duration STALE_AFTER = Duration.ofMinutes(10);
+    private static final Duration RESUME_SCAN = Duration.ofMinutes(1);
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectProvider<CascadePlan> planProvider;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long inlineLimit;
+    private final int threads;
+    private final String service;
+    private final String owner;
+    private final AtomicBoolean indexesReady = new AtomicBoolean();
+
+    private volatile ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    public CascadeDeleteService(MongoTemplate mongoTemplate,
+                                ObjectProvider<CascadePlan> planProvider,
+                                ApplicationEventPublisher eventPublisher,
+                                Environment environment) {
+        this.mongoTemplate = mongoTemplate;
+        this.planProvider = planProvider;
+        this.eventPublisher = eventPublisher;
+        this.inlineLimit = environment.getProperty("app.cascade.inline-limit", Long.class, 2000L);
+        this.threads = Math.max(1, environment.getProperty("app.cascade.threads", Integer.class, 2));
+        this.service = environment.getProperty("spring.application.name", "app");
+        this.owner = service + "-" + UUID.randomUUID();
+    }
+
+    public Optional<CascadePlan> getPlan(String name) {
+        return planProvider.orderedStream().filter(p -> p.getName().equals(name)).findFirst();
+    }
+
+    /**
+     * Delete {@code rootId} and its children under plan {@code planName}. Callers check permissions
+     * first; this does no authorization of its own.
+     *
+     * @return the progress handle; {@link CascadeDeletion#isDone()} is already true for small trees,
+     * and {@link CascadeDeletion#getError()} is set when their inline run failed and is being retried
+     */
+    public CascadeDeletion delete(String planName, String rootId, String requestedBy) {
+        CascadePlan plan = getPlan(planName)
+                .orElseThrow(() -> new IllegalArgumentException("No cascade plan named " + planName));
+        ensureIndexes();
+
+        String id = UUID.randomUUID().toString();
+        Date now = new Date();
+        Document record = new Document("_id", id)
+                .append("plan", planName)
+                .append("rootId", rootId)
+                .append("requestedBy", requestedBy)
+                .append("service", service)
+                .append("status", CascadeDeletion.RUNNING)
+                .append("owner", owner)
+                .append("heartbeat", now)
+                .append("attempts", 0)
+                .append("stepsTotal", plan.stepCount())
+                .append("stepsDone", new ArrayList<String>())
+                .append("deleted", new Document())
+                .append("filesQueued", 0L)
+                .append("startedAt", now);
+        deletions().insertOne(record);
+
+        ScheduledExecutorService pool = executor;
+        if (pool == null || countDirectChildren(plan, rootId) <= inlineLimit) {
+            if (!run(plan, record) && pool != null) {
+                // Retried now rather than after the stale window; steps already done are skipped
+                pool.execute(() -> retry(plan, id));
+            }
+        } else {
+            log.info("Deleting {} {} in the background ({})", planName, rootId, id);
+            pool.execute(() -> run(plan, record));
+        }
+        return get(id).orElseThrow();
+    }
+
+    public Optional<CascadeDeletion> get(String id) {
+        return Optional.ofNullable(deletions().find(Filters.eq("_id", id)).first()).map(CascadeDeletion::from);
+    }
+
+    // ===================================
+    // EXECUTION
+    // ===================================
+
+    private void retry(CascadePlan plan, String id) {
+        Document record = deletions().find(Filters.and(
+                Filters.eq("_id", id),
+                Filters.eq("status", CascadeDeletion.RUNNING))).first();
+        if (record != null) {
+            log.info("Retrying cascade delete of {} {} ({})", plan.getName(), record.getString("rootId"), id);
+            run(plan, record);
+        }
+    }
+
+    /**
+     * @return false when the run stopped on an error and is left to be resumed
+     */
+    private boolean run(CascadePlan plan, Document record) {
+        String id = record.getString("_id");
+        String rootId = record.getString("rootId");
+        Set<String> done = new HashSet<>(record.getList("stepsDone", String.class, List.of()));
+        List<Object> root = List.of(rawId(rootId));
+
+        try {
+            if (!done.contains(plan.getCollection())) {
+                Bson rootFilter = Filters.eq("_id", root.get(0));
+                queueFiles(id, plan.getCollection(), rootFilter, plan.getFileFields());
+                recordDeleted(id, plan.getCollection(), deleteMany(plan.getCollection(), rootFilter));
+                stepDone(id, plan.getCollection());
+            }
+            for (CascadeChild child : plan.getChildren()) {
+                if (!done.contains(child.getCollection())) {
+                    deleteSubtree(id, child, root);
+                    stepDone(id, child.getCollection());
+                }
+            }
+            deletions().updateOne(Filters.eq("_id", id), Updates.combine(
+                    Updates.set("status", CascadeDeletion.DONE),
+                    Updates.set("finishedAt", new Date()),
+                    Updates.unset("error")));
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Cascade delete of {} {} stopped, will be resumed: {}", plan.getName(), rootId, e.getMessage());
+            Document failed = deletions().findOneAndUpdate(Filters.eq("_id", id),
+                    Updates.combine(Updates.inc("attempts", 1), Updates.set("error", e.getMessage())),
+                    new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER));
+            if (failed != null && failed.getInteger("attempts", 0) >= MAX_ATTEMPTS) {
+                deletions().updateOne(Filters.eq("_id", id), Updates.set("status", CascadeDeletion.FAILED));
+                log.error("Cascade delete of {} {} gave up after {} attempts", plan.getName(), rootId, MAX_ATTEMPTS);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Children first, a batch of parent ids at a time, then {@code child} itself in one deleteMany.
+     */
+    private void deleteSubtree(String id, CascadeChild child, List<Object> parentIds) {
+        Bson filter = child.filterFor(parentIds);
+        if (!child.getChildren().isEmpty()) {
+            List<Object> batch = new ArrayList<>(ID_BATCH);
+            try (MongoCursor<Document> cursor = collection(child.getCollection()).find(filter)
+                    .projection(Projections.include("_id"))
+                    .batchSize(ID_BATCH)
+                    .iterator()) {
+                while (cursor.hasNext()) {
+                    batch.add(cursor.next().get("_id"));
+                    if (batch.size() == ID_BATCH) {
+                        deleteGrandchildren(id, child, batch);
+                        batch = new ArrayList<>(ID_BATCH);
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                deleteGrandchildren(id, child, batch);
+            }
+        }
+        queueFiles(id, child.getCollection(), filter, child.getFileFields());
+        recordDeleted(id, child.getCollection(), deleteMany(child.getCollection(), filter));
+    }
+
+    private void deleteGrandchildren(String id, CascadeChild child, List<Object> parentIds) {
+        for (CascadeChild grandchild : child.getChildren()) {
+            deleteSubtree(id, grandchild, parentIds);
+        }
+    }
+
+    private long deleteMany(String collection, Bson filter) {
+        long deleted = collection(collection).deleteMany(filter).getDeletedCount();
+        if (deleted > 0) {
+            Class<?> type = entityType(collection);
+            if (type != null) {
+                BsonDocument bson = filter.toBsonDocument(BsonDocument.class, collection(collection).getCodecRegistry());
+                Document source = new DocumentCodec().decode(new BsonDocumentReader(bson), DecoderContext.builder().build());
+                eventPublisher.publishEvent(new AfterDeleteEvent<>(source, type, collection));
+            }
+        }
+        return deleted;
+    }
+
+    private Class<?> entityType(String collection) {
+        for (MongoPersistentEntity<?> entity : mongoTemplate.getConverter().getMappingContext().getPersistentEntities()) {
+            if (entity.getCollection().equals(collection)) {
+                return entity.getType();
+            }
+        }
+        return null;
+    }
+
+    private void queueFiles(String id, String collection, Bson filter, List<String> fileFields) {
+        if (fileFields.isEmpty()) {
+            return;
+        }
+        Date now = new Date();
+        List<Document> batch = new ArrayList<>();
+        long queued = 0;
+        for (Document doc : collection(collection).find(filter).projection(Projections.include(fileFields))) {
+            for (String field : fileFields) {
+                for (String path : values(doc, field)) {
+                    // The document the path was read from: only a file uploaded for it gets deleted
+                    batch.add(new Document("deletionId", id)
+                            .append("service", service)
+                            .append("path", path)
+                            .append("collection", collection)
+                            .append("documentId", String.valueOf(doc.get("_id")))
+                            .append("queuedAt", now));
+                }
+            }
+            if (batch.size() >= FILE_BATCH) {
+                mongoTemplate.getCollection(FILES).insertMany(batch);
+                queued += batch.size();
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            mongoTemplate.getCollection(FILES).insertMany(batch);
+            queued += batch.size();
+        }
+        if (queued > 0) {
+            deletions().updateOne(Filters.eq("_id", id), Updates.inc("filesQueued", queued));
+        }
+    }
+
+    private void recordDeleted(String id, String collection, long count) {
+        deletions().updateOne(Filters.eq("_id", id), Updates.combine(
+                Updates.inc("deleted." + collection, count),
+                Updates.set("heartbeat", new Date())));
+    }
+
+    private void stepDone(String id, String step) {
+        deletions().updateOne(Filters.eq("_id", id), Updates.combine(
+                Updates.addToSet("stepsDone", step),
+                Updates.set("heartbeat", new Date())));
+    }
+
+    // ===================================
+    // RESUME
+    // ===================================
+
+    private void resumeStalled() {
+        try {
+            while (running) {
+                Date staleBefore = new Date(System.currentTimeMillis() - STALE_AFTER.toMillis());
+                Document record = deletions().findOneAndUpdate(
+                        Filters.and(
+                                Filters.eq("service", service),
+                                Filters.eq("status", CascadeDeletion.RUNNING),
+                                Filters.lt("heartbeat", staleBefore)),
+                        Updates.combine(Updates.set("owner", owner), Updates.set("heartbeat", new Date())),
+                        new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER));
+                if (record == null) {
+                    return;
+                }
+                Optional<CascadePlan> plan = getPlan(record.getString("plan"));
+                if (plan.isEmpty()) {
+                    deletions().updateOne(Filters.eq("_id", record.get("_id")), Updates.combine(
+                            Updates.set("status", CascadeDeletion.FAILED),
+                            Updates.set("error", "Unknown cascade plan " + record.getString("plan"))));
+                    continue;
+                }
+                log.info("Resuming cascade delete of {} {} ({})",
+                        record.getString("plan"), record.getString("rootId"), record.get("_id"));
+                run(plan.get(), record);
+            }
+        } catch (MongoException e) {
+            log.warn("Could not resume cascade deletes: {}", e.getMessage());
+        }
+    }
+
+    // ===================================
+    // HELPERS
+    // ===================================
+
+    private long countDirectChildren(CascadePlan plan, String rootId) {
+        List<Object> root = List.of(rawId(rootId));
+        long total = 0;
+        for (CascadeChild child : plan.getChildren()) {
+            total += collection(child.getCollection()).countDocuments(child.filterFor(root));
+        }
+        return total;
+    }
+
+    /** Spring Data stores String ids that look like ObjectIds as ObjectIds. */
+    private static Object rawId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    private static List<String> values(Document doc, String dottedField) {
+        List<Object> current = List.of(doc);
+        for (String part : dottedField.split("\\.")) {
+            List<Object> next = new ArrayList<>();
+            for (Object value : current) {
+                if (value instanceof Document d && d.get(part) != null) {
+                    Object field = d.get(part);
+                    if (field instanceof List<?> list) {
+                        next.addAll(list);
+                    } else {
+                        next.add(field);
+                    }
+                }
+            }
+            current = next;
+        }
+        List<String> paths = new ArrayList<>();
+        for (Object value : current) {
+            if (value instanceof String s && !s.isBlank()) {
+                paths.add(s);
+            }
+        }
+        return paths;
+    }
+
+    private MongoCollection<Document> collection(String name) {
+        return mongoTemplate.getCollection(name);
+    }
+
+    private MongoCollection<Document> deletions() {
+        return mongoTemplate.getCollection(DELETIONS);
+    }
+
+    private void ensureIndexes() {
+        if (!indexesReady.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            deletions().createIndex(Indexes.ascending("service", "status", "heartbeat"));
+            mongoTemplate.getCollection(FILES).createIndex(Indexes.ascending("service", "queuedAt"));
+        } catch (MongoException e) {
+            indexesReady.set(false);
+            log.warn("Could not create cascade delete indexes: {}", e.getMessage());
+        }
+    }
+
+    // ===================================
+    // Lifecycle
+    // ===================================
+
+    @Override
+    public void start() {
+        AtomicInteger counter = new AtomicInteger();
+        ScheduledExecutorService pool = Executors.newScheduledThreadPool(threads, r -> {
+            Thread t = new Thread(r, "cascade-delete-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        running = true;
+        pool.scheduleWithFixedDelay(this::resumeStalled, RESUME_SCAN.toSeconds(), RESUME_SCAN.toSeconds(), TimeUnit.SECONDS);
+        executor = pool;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        ScheduledExecutorService pool = executor;
+        executor = null;
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
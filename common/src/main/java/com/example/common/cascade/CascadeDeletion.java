@@ -0,0 +1,67 @@
+package com.example.common.cascade;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.bson.Document;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Progress handle for one cascade delete, read from its {@code cascade_deletions} record.
+ */
+@Getter
+@Builder
+public class CascadeDeletion {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    private final String id;
+    private final String plan;
+    private final String rootId;
+    private final String requestedBy;
+    private final String status;
+    private final int stepsDone;
+    private final int stepsTotal;
+    /** Documents removed so far, per collection. */
+    private final Map<String, Long> deleted;
+    private final long filesQueued;
+    private final String error;
+    private final Instant startedAt;
+    private final Instant finishedAt;
+
+    public boolean isDone() {
+        return DONE.equals(status);
+    }
+
+    static CascadeDeletion from(Document record) {
+        Map<String, Long> deleted = new LinkedHashMap<>();
+        Document counts = record.get("deleted", Document.class);
+        if (counts != null) {
+            counts.forEach((collection, count) -> deleted.put(collection, ((Number) count).longValue()));
+        }
+        return CascadeDeletion.builder()
+                .id(record.getString("_id"))
+                .plan(record.getString("plan"))
+                .rootId(record.getString("rootId"))
+                .requestedBy(record.getString("requestedBy"))
+                .status(record.getString("status"))
+                .stepsDone(record.getList("stepsDone", String.class, List.of()).size())
+                .stepsTotal(record.getInteger("stepsTotal", 0))
+                .deleted(deleted)
+                .filesQueued(((Number) record.get("filesQueued", 0L)).longValue())
+                .error(record.getString("error"))
+                .startedAt(toInstant(record.getDate("startedAt")))
+                .finishedAt(toInstant(record.getDate("finishedAt")))
+                .build();
+    }
+
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.common.cascade;
+
+import com.example.common.upload.UploadRegistry;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Removes the upload files queued by {@link CascadeDeleteService}, a batch at a time, so deleting a
+ * big tree never waits on the disk. Each service only reaps its own queue entries, resolved against
+ * its {@code app.upload.dir}.
+ *
+ * The paths come from fields of the deleted documents, which clients can set to anything, so a file
+ * is only removed when {@link UploadRegistry} has it as uploaded for the very document the entry was
+ * queued from. Other entries (someone else's upload, another host, files from before the registry)
+ * are dropped without touching the disk.
+ */
+@Slf4j
+@Component
+public class CascadeFileReaper implements SmartLifecycle {
+
+    private static final int BATCH = 200;
+    private static final long INTERVAL_SECONDS = 30;
+
+    private final MongoTemplate mongoTemplate;
+    private final UploadRegistry uploadRegistry;
+    private final Path uploadRoot;
+    private final String service;
+
+    private volatile ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    public CascadeFileReaper(MongoTemplate mongoTemplate, UploadRegistry uploadRegistry, Environment environment) {
+        this.mongoTemplate = mongoTemplate;
+        this.uploadRegistry = uploadRegistry;
+        this.uploadRoot = Paths.get(environment.getProperty("app.upload.dir", "uploads")).toAbsolutePath().normalize();
+        this.service = environment.getProperty("spring.application.name", "app");
+    }
+
+    private void reap() {
+        MongoCollection<Document> queue = mongoTemplate.getCollection(CascadeDeleteService.FILES);
+        try {
+            while (running) {
+                List<Document> batch = queue.find(Filters.eq("service", service))
+                        .sort(Sorts.ascending("queuedAt"))
+                        .limit(BATCH)
+                        .into(new ArrayList<>());
+                if (batch.isEmpty()) {
+                    return;
+                }
+                List<Object> ids = new ArrayList<>(batch.size());
+                int removed = 0;
+                for (Document entry : batch) {
+                    ids.add(entry.get("_id"));
+                    if (deleteQuietly(entry)) {
+                        removed++;
+                    }
+                }
+                queue.deleteMany(Filters.in("_id", ids));
+                log.debug("Reaped {} of {} queued upload(s)", removed, batch.size());
+                if (batch.size() < BATCH) {
+                    return;
+                }
+            }
+        } catch (MongoException e) {
+            log.warn("Could not reap deleted uploads: {}", e.getMessage());
+        }
+    }
+
+    private boolean deleteQuietly(Document entry) {
+        String stored = entry.getString("path");
+        String relative = uploadRegistry.release(stored, entry.getString("collection"), entry.getString("documentId"));
+        Path path = resolve(relative);
+        if (path == null) {
+            log.debug("Skipping upload not owned by the deleted document: {}", stored);
+            return false;
+        }
+        try {
+            return Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete upload {}: {}", path, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * A path relative to the upload directory, as released by {@link UploadRegistry}, mapped under it.
+     */
+    Path resolve(String relative) {
+        if (relative == null || relative.isBlank()) {
+            return null;
+        }
+        try {
+            Path path = uploadRoot.resolve(relative).normalize();
+            return path.startsWith(uploadRoot) && !path.equals(uploadRoot) ? path : null;
+        } catch (InvalidPathException e) {
+            return null;
+        }
+    }
+
+    // ===================================
+    // Lifecycle
+    // ===================================
+
+    @Override
+    public void start() {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cascade-file-reaper");
+            t.setDaemon(true);
+            return t;
+        });
+        running = true;
+        scheduler.scheduleWithFixedDelay(this::reap, INTERVAL_SECONDS, INTERVAL_SECONDS, TimeUnit.SECONDS);
+        executor = scheduler;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        ScheduledExecutorService scheduler = executor;
+        executor = null;
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.common.cascade;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+
+import java.util.List;
+
+/**
+ * Declares what goes when a document in {@code collection} is deleted. Each service registers its
+ * plans as beans; {@link CascadeDeleteService#delete} runs one by {@code name}.
+ */
+@Getter
+@Builder
+public class CascadePlan {
+
+    private final String name;
+
+    /** The root document's collection. */
+    private final String collection;
+
+    @Singular
+    private final List<String> fileFields;
+
+    @Singular
+    private final List<CascadeChild> children;
+
+    /** The root, then one step per direct child (each with everything below it). */
+    int stepCount() {
+        return 1 + children.size();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.common.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, per-cache configured Caffeine caches.
+ * Each cache's size and TTL can be overridden with {@code app.cache.spec.<name>} using the
+ * Caffeine spec syntax, e.g. {@code app.cache.spec.courses=maximumSize=2000,expireAfterWrite=5m}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    private static final Map<String, String> DEFAULT_SPECS = new LinkedHashMap<>();
+
+    static {
+        DEFAULT_SPECS.put(CacheNames.MONGO_QUERIES, "maximumSize=500,expireAfterWrite=1h");
+        DEFAULT_SPECS.put(CacheNames.COURSES, "maximumSize=1000,expireAfterWrite=10m");
+        DEFAULT_SPECS.put(CacheNames.COURSE_NAMES, "maximumSize=5000,expireAfterWrite=30m");
+        DEFAULT_SPECS.put(CacheNames.GRADE_COLUMNS, "maximumSize=1000,expireAfterWrite=10m");
+        DEFAULT_SPECS.put(CacheNames.EXAMS, "maximumSize=500,expireAfterWrite=5m");
+        DEFAULT_SPECS.put(CacheNames.GRADING_PLANS, "maximumSize=500,expireAfterAccess=1h");
+        DEFAULT_SPECS.put(CacheNames.EXAM_SNAPSHOTS, "maximumSize=1000,expireAfterWrite=10m");
+        DEFAULT_SPECS.put(CacheNames.DEPARTMENTS, "maximumSize=10,expireAfterWrite=1h");
+        DEFAULT_SPECS.put(CacheNames.USER_DISPLAY_NAMES, "maximumSize=10000,expireAfterWrite=30m");
+        DEFAULT_SPECS.put(CacheNames.MY_COURSES, "maximumSize=10000,expireAfterWrite=10m");
+        DEFAULT_SPECS.put(CacheNames.ACCESS_DECISIONS, "maximumSize=50000,expireAfterWrite=5m");
+    }
+
+    @Bean
+    public CacheManager cacheManager(Environment environment) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        // Static mode: only the caches registered below exist; an unknown name fails when first used
+        cacheManager.setCacheNames(Collections.emptyList());
+
+        DEFAULT_SPECS.forEach((name, defaultSpec) -> {
+            String spec = environment.getProperty("app.cache.spec." + name, defaultSpec);
+            cacheManager.registerCustomCache(name, Caffeine.from(spec).recordStats().build());
+        });
+        return cacheManager;
+    }
+}
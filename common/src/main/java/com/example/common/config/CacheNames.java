@@ -0,0 +1,25 @@
+package com.example.common.config;
+
+/**
+ * Names of the application caches. Every name listed here gets its own bounded Caffeine cache
+ * in {@link CacheConfig}. A name that isn't listed is not created on the fly: the first call of a
+ * method cached under it fails with "Cannot find cache named ...", instead of silently getting an
+ * unbounded cache. That happens at call time, not at startup.
+ */
+public final class CacheNames {
+
+    public static final String MONGO_QUERIES = "mongoQueries";
+    public static final String COURSES = "courses";
+    public static final String COURSE_NAMES = "courseNames";
+    public static final String GRADE_COLUMNS = "gradeColumns";
+    public static final String EXAMS = "exams";
+    public static final String GRADING_PLANS = "gradingPlans";
+    public static final String EXAM_SNAPSHOTS = "examSnapshots";
+    public static final String DEPARTMENTS = "departments";
+    public static final String USER_DISPLAY_NAMES = "userDisplayNames";
+    public static final String MY_COURSES = "myCourses";
+    public static final String ACCESS_DECISIONS = "accessDecisions";
+
+    private CacheNames() {
+    }
+}
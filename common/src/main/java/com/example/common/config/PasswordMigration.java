@@ -7,7 +7,9 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
 import java.util.List;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Component
 public class PasswordMigration implements CommandLineRunner {
 
@@ -42,8 +44,7 @@ public class PasswordMigration implements CommandLineRunner {
             }
 
         } catch (Exception e) {
-            System.err.println("Migration failed: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Migration failed", e);
         }
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.example.common.config;
 
 import com.example.common.repository.UserRepository;
 import com.example.common.security.JwtRequestFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -45,6 +46,8 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // Async re-dispatch of a request that was already authorized (bulkheads, streaming)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Public Endpoints (must be defined first)
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .requestMatchers("/api/register", "/api/login").permitAll()
@@ -68,6 +71,8 @@ public class SecurityConfig {
                         .requestMatchers("/api/users/search").authenticated()
                         .requestMatchers("/api/students/**").authenticated()
                         .requestMatchers("/api/lecturers/**").authenticated()
+                        // Ahead of the /api/courses/** rule below, which would match first
+                        .requestMatchers(HttpMethod.POST, "/api/courses/*/enroll/bulk").hasAuthority("ROLE_ADMIN")
                         .requestMatchers("/api/courses/**").authenticated()
                         .requestMatchers("/api/grades/**").authenticated()
                         .requestMatchers("/api/resources/**").authenticated()
@@ -77,6 +82,15 @@ public class SecurityConfig {
 
                         // Role-based Endpoints (must be defined last before anyRequest)
                         .requestMatchers("/api/reports/**").hasAuthority("ROLE_ADMIN")
+                        .requestMatchers("/api/admin/caches/**").hasAuthority("ROLE_ADMIN")
+                        .requestMatchers("/api/admin/enrollments/**").hasAuthority("ROLE_ADMIN")
+                        .requestMatchers("/api/admin/events/**").hasAuthority("ROLE_ADMIN")
+                        .requestMatchers("/api/admin/ratelimits/**").hasAuthority("ROLE_ADMIN")
+                        .requestMatchers("/api/admin/bulkheads/**").hasAuthority("ROLE_ADMIN")
+                        .requestMatchers("/api/admin/read-routing/**").hasAuthority("ROLE_ADMIN")
+                        .requestMatchers("/api/admin/archive/**").hasAuthority("ROLE_ADMIN")
+                        .requestMatchers("/api/admin/exams/**").hasAuthority("ROLE_ADMIN")
+                        .requestMatchers("/api/exam-responses/export-detailed", "/api/exam-responses/exports/**").hasAnyAuthority("ROLE_LECTURER", "ROLE_ADMIN")
                         .requestMatchers(HttpMethod.POST, "/api/grades").hasAnyAuthority("ROLE_ADMIN", "ROLE_LECTURER")
                         .requestMatchers(HttpMethod.PUT, "/api/grades/**").hasAnyAuthority("ROLE_ADMIN", "ROLE_LECTURER")
                         .requestMatchers(HttpMethod.DELETE, "/api/grades/**").hasAnyAuthority("ROLE_ADMIN", "ROLE_LECTURER")
@@ -134,7 +148,9 @@ public class SecurityConfig {
                 "Accept",
                 "Origin",
                 "Access-Control-Request-Method",
-                "Access-Control-Request-Headers"
+                "Access-Control-Request-Headers",
+                "Idempotent-Replayed",
+                "Retry-After"
         ));
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -1,12 +1,25 @@
 package com.example.common.config;
 
+import com.example.common.idempotency.IdempotencyInterceptor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final IdempotencyInterceptor idempotencyInterceptor;
+
+    public WebConfig(IdempotencyInterceptor idempotencyInterceptor) {
+        this.idempotencyInterceptor = idempotencyInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(idempotencyInterceptor);
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         // Serve static files from uploads directory
@@ -0,0 +1,118 @@
+package com.example.common.controller;
+
+import com.example.common.archive.ArchivePolicy;
+import com.example.common.archive.ArchiveScheduler;
+import com.example.common.archive.ArchiveService;
+import com.example.common.exceptions.BadRequestException;
+import com.example.common.streaming.StreamFormat;
+import com.example.common.streaming.StreamingResponseWriter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonParseException;
+import org.bson.json.JsonWriterSettings;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Admin operations on the archive: policy status, on-demand runs, restore of archived documents
+ * back into the live collection, and NDJSON export (relaxed extended JSON, so ids and dates survive
+ * a round trip). Filters are Mongo query documents, e.g. {@code {"studentId": "..."}}.
+ */
+@RestController
+@RequestMapping("/api/admin/archive")
+public class ArchiveAdminController {
+
+    private static final JsonWriterSettings EXPORT_JSON = JsonWriterSettings.builder().outputMode(JsonMode.RELAXED).build();
+
+    private final ArchiveService archiveService;
+    private final ArchiveScheduler archiveScheduler;
+    private final StreamingResponseWriter streamingResponseWriter;
+    private final ObjectMapper objectMapper;
+
+    public ArchiveAdminController(ArchiveService archiveService,
+                                  ArchiveScheduler archiveScheduler,
+                                  StreamingResponseWriter streamingResponseWriter,
+                                  ObjectMapper objectMapper) {
+        this.archiveService = archiveService;
+        this.archiveScheduler = archiveScheduler;
+        this.streamingResponseWriter = streamingResponseWriter;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> getPolicies() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (ArchivePolicy policy : archiveService.getPolicies()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("collection", policy.getCollection());
+            entry.put("archive", ArchiveService.archiveName(policy.getCollection()));
+            entry.put("dateField", policy.getDateField());
+            entry.put("retention", policy.getRetention().toString());
+            entry.put("eligible", archiveService.countEligible(policy));
+            result.add(entry);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/{collection}/run")
+    public ResponseEntity<?> run(@PathVariable String collection) {
+        ArchivePolicy policy = policy(collection);
+        long moved = archiveScheduler.runNow(policy);
+        if (moved < 0) {
+            return ResponseEntity.status(409).body(Map.of("error", "Archiving of " + collection + " is already running"));
+        }
+        return ResponseEntity.ok(Map.of("collection", collection, "archived", moved));
+    }
+
+    @PostMapping("/{collection}/restore")
+    public ResponseEntity<Map<String, Object>> restore(@PathVariable String collection, @RequestBody String filter) {
+        policy(collection);
+        Document query = parseFilter(filter);
+        if (query.isEmpty()) {
+            throw new BadRequestException("Restore needs a non-empty filter");
+        }
+        return ResponseEntity.ok(Map.of("collection", collection, "restored", archiveService.restore(collection, query)));
+    }
+
+    @GetMapping("/{collection}/export")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable String collection,
+                                                       @RequestParam(required = false) String filter) {
+        ArchivePolicy policy = policy(collection);
+        Document query = parseFilter(filter);
+        return streamingResponseWriter.stream(StreamFormat.NDJSON,
+                () -> archiveService.streamArchived(collection, query, policy.getDateField()).map(this::toJson),
+                List.of(),
+                ArchiveService.archiveName(collection));
+    }
+
+    private ArchivePolicy policy(String collection) {
+        return archiveService.getPolicy(collection)
+                .orElseThrow(() -> new BadRequestException("No archive policy for collection: " + collection));
+    }
+
+    private Document parseFilter(String filter) {
+        if (filter == null || filter.isBlank()) {
+            return new Document();
+        }
+        try {
+            return Document.parse(filter);
+        } catch (JsonParseException e) {
+            throw new BadRequestException("Invalid filter: " + e.getMessage());
+        }
+    }
+
+    private JsonNode toJson(Document document) {
+        try {
+            return objectMapper.readTree(document.toJson(EXPORT_JSON));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
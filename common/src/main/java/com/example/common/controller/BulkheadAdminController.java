@@ -0,0 +1,30 @@
+package com.example.common.controller;
+
+import com.example.common.bulkhead.BulkheadRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin view of bulkhead saturation: active and queued calls, and accepted, rejected
+ * and timed-out counts per compartment.
+ */
+@RestController
+@RequestMapping("/api/admin/bulkheads")
+public class BulkheadAdminController {
+
+    private final BulkheadRegistry bulkheadRegistry;
+
+    public BulkheadAdminController(BulkheadRegistry bulkheadRegistry) {
+        this.bulkheadRegistry = bulkheadRegistry;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> getStats() {
+        return ResponseEntity.ok(bulkheadRegistry.getStats());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.common.controller;
+
+import com.example.common.cache.ChangeStreamCacheInvalidator;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin view of the application caches: per-cache size and hit/miss/eviction counters,
+ * plus a manual clear for when data was changed outside the application.
+ */
+@RestController
+@RequestMapping("/api/admin/caches")
+public class CacheAdminController {
+
+    private final CacheManager cacheManager;
+    private final ChangeStreamCacheInvalidator cacheInvalidator;
+
+    public CacheAdminController(CacheManager cacheManager, ChangeStreamCacheInvalidator cacheInvalidator) {
+        this.cacheManager = cacheManager;
+        this.cacheInvalidator = cacheInvalidator;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> getCacheStats() {
+        List<Map<String, Object>> result = new ArrayList<>();
+
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (!(cache instanceof CaffeineCache caffeineCache)) {
+                continue;
+            }
+
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
+            CacheStats stats = nativeCache.stats();
+
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", name);
+            entry.put("size", nativeCache.estimatedSize());
+            entry.put("hits", stats.hitCount());
+            entry.put("misses", stats.missCount());
+            entry.put("hitRate", stats.hitRate());
+            entry.put("evictions", stats.evictionCount());
+            result.add(entry);
+        }
+
+        return ResponseEntity.ok(result);
+    }
+
+    // Whether cross-instance invalidation is live (CHANGE_STREAM) or caches are on TTL expiry only
+    @GetMapping("/invalidation")
+    public ResponseEntity<Map<String, Object>> getInvalidationStatus() {
+        return ResponseEntity.ok(cacheInvalidator.getStatus());
+    }
+
+    @DeleteMapping("/{name}")
+    public ResponseEntity<?> clearCache(@PathVariable String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            return ResponseEntity.notFound().build();
+        }
+        cache.clear();
+        return ResponseEntity.ok(Map.of("message", "Cache cleared: " + name));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.common.controller;
+
+import com.example.common.cascade.CascadeDeleteService;
+import com.example.common.cascade.CascadeDeletion;
+import com.example.common.entity.UserEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Progress of a background cascade delete, for the user who started it (or an admin).
+ */
+@RestController
+@RequestMapping("/api/deletions")
+public class CascadeDeletionController {
+
+    private final CascadeDeleteService cascadeDeleteService;
+
+    public CascadeDeletionController(CascadeDeleteService cascadeDeleteService) {
+        this.cascadeDeleteService = cascadeDeleteService;
+    }
+
+    @GetMapping("/{deletionId}")
+    public ResponseEntity<CascadeDeletion> getDeletion(@PathVariable String deletionId, Authentication authentication) {
+        return cascadeDeleteService.get(deletionId)
+                .filter(deletion -> canView(deletion, authentication))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private boolean canView(CascadeDeletion deletion, Authentication authentication) {
+        if (authentication == null) {
+            return false;
+        }
+        if (authentication.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()))) {
+            return true;
+        }
+        return authentication.getPrincipal() instanceof UserEntity user
+                && user.getId() != null
+                && user.getId().equals(deletion.getRequestedBy());
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.common.controller;
+
+import com.example.common.events.DomainEventBus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin view of the async event bus: buffer and per-listener queue depth, retry and
+ * dead-letter counters, and replay of dead-lettered events once the cause is fixed.
+ */
+@RestController
+@RequestMapping("/api/admin/events")
+public class DomainEventAdminController {
+
+    private final DomainEventBus eventBus;
+
+    public DomainEventAdminController(DomainEventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(eventBus.getStats());
+    }
+
+    @GetMapping("/dead-letters")
+    public ResponseEntity<List<Map<String, Object>>> getDeadLetters(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(eventBus.getDeadLetters(Math.min(Math.max(limit, 1), 500)));
+    }
+
+    @PostMapping("/dead-letters/{id}/replay")
+    public ResponseEntity<?> replay(@PathVariable String id) {
+        if (!eventBus.replayDeadLetter(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Map.of("message", "Dead letter queued for redelivery: " + id));
+    }
+}
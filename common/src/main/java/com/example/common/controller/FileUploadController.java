@@ -1,5 +1,11 @@
 package com.example.common.controller;
 
+import com.example.common.bulkhead.Bulkhead;
+import com.example.common.entity.UserEntity;
+import com.example.common.exceptions.FileStorageException;
+import com.example.common.repository.UserRepository;
+import com.example.common.upload.UploadRegistry;
+import com.example.common.upload.UploadStorage;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
@@ -7,6 +13,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -36,9 +43,15 @@ public class FileUploadController {
     @Value("${app.upload.dir}")
     private String uploadDir;
 
-    @Value("${app.base.url}")
-    private String baseUrl;
+    private final UploadStorage uploadStorage;
+    private final UploadRegistry uploadRegistry;
+    private final UserRepository userRepository;
 
+    public FileUploadController(UploadStorage uploadStorage, UploadRegistry uploadRegistry, UserRepository userRepository) {
+        this.uploadStorage = uploadStorage;
+        this.uploadRegistry = uploadRegistry;
+        this.userRepository = userRepository;
+    }
 
     private final String uploadRoot = "uploads"; // adjust path as needed
     @GetMapping("/download/{context}/{type}/{filename}")
@@ -63,88 +76,32 @@ public class FileUploadController {
         }
     }
     @PostMapping("/upload/{context}/{type}")
+    @Bulkhead("uploads")
     public ResponseEntity<Map<String, String>> uploadFile(
             @PathVariable String context, // "community" or "edusphere"
             @PathVariable String type, // "image" or "file"
-            @RequestParam("file") MultipartFile file) {
-        // Validate context
-        if (!context.equals("community") && !context.equals("edusphere")) {
-            return ResponseEntity.badRequest().body(Map.of("error", "Invalid context"));
-        }
-
-        // Validate type
-        if (!type.equals("image") && !type.equals("file")) {
-            return ResponseEntity.badRequest().body(Map.of("error", "Invalid upload type"));
-        }
-
+            @RequestParam("file") MultipartFile file,
+            Authentication authentication) {
         try {
-            // Validate file
-            if (file.isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of("error", "File is empty"));
-            }
-
-            // Validate file type based on upload type
-            String contentType = file.getContentType();
-            if (type.equals("image")) {
-                if (contentType == null || !contentType.startsWith("image/")) {
-                    return ResponseEntity.badRequest().body(Map.of("error", "File must be an image"));
-                }
-            } else if (type.equals("file")) {
-                // Allow additional file types
-                if (contentType == null || !(
-                        contentType.equals("application/pdf") ||
-                                contentType.equals("application/msword") ||
-                                contentType.equals("application/vnd.openxmlformats-officedocument.wordprocessingml.document") ||
-                                contentType.equals("application/vnd.ms-powerpoint") ||
-                                contentType.equals("application/vnd.openxmlformats-officedocument.presentationml.presentation") ||
-                                contentType.equals("text/plain") ||
-                                contentType.equals("application/zip") ||
-                                contentType.equals("application/x-rar-compressed") ||
-                                contentType.equals("application/x-7z-compressed") ||
-                                contentType.equals("image/jpeg") ||
-                                contentType.equals("image/png") ||
-                                contentType.equals("image/gif") ||
-                                contentType.equals("image/svg+xml") ||
-                                contentType.equals("audio/mpeg") ||
-                                contentType.equals("audio/wav") ||
-                                contentType.equals("video/mp4") ||
-                                contentType.equals("video/x-msvideo") ||
-                                contentType.equals("text/csv") ||
-                                contentType.equals("application/json")
-                )) {
-                    return ResponseEntity.badRequest().body(Map.of("error", "File type not supported"));
-                }
+            UploadStorage.StoredFile stored = uploadStorage.store(context, type, file);
+            // Only the uploader can later attach it to a document that may delete it
+            if (authentication != null) {
+                userRepository.findByUsername(authentication.getName())
+                        .map(UserEntity::getId)
+                        .ifPresent(userId -> uploadRegistry.recordUpload(stored.url(), userId));
             }
-
-            // Create context and type specific directory structure
-            Path contextPath = Paths.get(uploadDir, context, type + "s"); // "images" or "files"
-            if (!Files.exists(contextPath)) {
-                Files.createDirectories(contextPath);
-            }
-
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = originalFilename != null ?
-                    originalFilename.substring(originalFilename.lastIndexOf(".")) :
-                    (type.equals("image") ? ".jpg" : ".pdf");
-            String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-
-            // Save file in context/type directory
-            Path filePath = contextPath.resolve(uniqueFilename);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-            // Return the file URL with context and type
-            String fileUrl = baseUrl + "/api/files/" + context + "/" + type + "s/" + uniqueFilename;
             Map<String, String> response = new HashMap<>();
-            response.put("url", fileUrl);
-            response.put("filename", uniqueFilename);
-            response.put("originalName", originalFilename);
-            response.put("context", context);
-            response.put("type", type);
-            response.put("size", String.valueOf(file.getSize()));
+            response.put("url", stored.url());
+            response.put("filename", stored.filename());
+            response.put("originalName", stored.originalName());
+            response.put("context", stored.context());
+            response.put("type", stored.type());
+            response.put("size", String.valueOf(stored.size()));
             return ResponseEntity.ok(response);
-        } catch (IOException e) {
-            return ResponseEntity.status(500).body(Map.of("error", "File upload failed: " + e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (FileStorageException e) {
+            return ResponseEntity.status(500).body(Map.of("error", e.getMessage()));
         }
     }
 
@@ -184,14 +141,12 @@ public class FileUploadController {
             @PathVariable String type,
             @PathVariable String filename) {
         try {
-            Path filePath = Paths.get(uploadDir, context, type + "s", filename);
-            if (Files.exists(filePath)) {
-                Files.delete(filePath);
+            if (uploadStorage.delete(context, type, filename)) {
                 return ResponseEntity.ok(Map.of("message", "File deleted successfully"));
             } else {
                 return ResponseEntity.notFound().build();
             }
-        } catch (IOException e) {
+        } catch (FileStorageException e) {
             return ResponseEntity.status(500).body(Map.of("error", "Failed to delete file"));
         }
     }
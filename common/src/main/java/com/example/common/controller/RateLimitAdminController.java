@@ -0,0 +1,28 @@
+package com.example.common.controller;
+
+import com.example.common.ratelimit.RateLimiter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Admin view of the configured rate limits with allowed and rejected counts per route.
+ */
+@RestController
+@RequestMapping("/api/admin/ratelimits")
+public class RateLimitAdminController {
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitAdminController(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(rateLimiter.getStats());
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.common.controller;
+
+import com.example.common.mongo.ReadRoutingMonitor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Admin view of read routing: how many routed reads landed on a secondary versus the primary,
+ * and which replica set member served them.
+ */
+@RestController
+@RequestMapping("/api/admin/read-routing")
+public class ReadRoutingAdminController {
+
+    private final ReadRoutingMonitor readRoutingMonitor;
+
+    public ReadRoutingAdminController(ReadRoutingMonitor readRoutingMonitor) {
+        this.readRoutingMonitor = readRoutingMonitor;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(readRoutingMonitor.getStats());
+    }
+}
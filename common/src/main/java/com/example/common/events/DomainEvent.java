@@ -0,0 +1,21 @@
+package com.example.common.events;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Base class of the events published on the {@link DomainEventBus}.
+ *
+ * Events are plain data: durable ones are stored as JSON in the outbox and read back with Jackson,
+ * so subclasses need a no-args constructor and setters.
+ */
+@Getter
+@Setter
+public abstract class DomainEvent {
+
+    private String eventId = UUID.randomUUID().toString();
+    private Instant occurredAt = Instant.now();
+}
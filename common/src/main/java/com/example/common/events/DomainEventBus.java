@@ -0,0 +1,626 @@
+package com.example.common.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.Updates;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * In-process bus that moves side effects off the request path.
+ *
+ * {@link #publish} puts the event in a bounded buffer and returns; a dispatcher thread hands it to
+ * the executor of every {@link DomainEventListener} registered for its type. Failed deliveries are
+ * retried with backoff and then written to {@value #DEAD_LETTER_COLLECTION}. The dispatcher never
+ * waits for a listener: when one listener's queue is full, its copy of the event goes to the outbox
+ * for that listener alone (or to the dead letters without an outbox), and the others carry on.
+ *
+ * {@link #publishDurable} first records the event in {@value #OUTBOX_COLLECTION} with the listeners
+ * still owed a delivery; each listener is struck off once it succeeds (or is dead-lettered) and the
+ * entry is removed when none is left. Entries whose lease ran out, because the instance died or the
+ * buffer was full, are claimed again by the outbox poller of any instance. Plain {@link #publish}
+ * events only live in memory and are lost on a crash, so use it for derived data that can be
+ * recomputed (counters, notifications) and the durable variant for anything else.
+ */
+@Slf4j
+@Component
+public class DomainEventBus implements SmartLifecycle {
+
+    static final String OUTBOX_COLLECTION = "domain_event_outbox";
+    static final String DEAD_LETTER_COLLECTION = "domain_event_dead_letters";
+
+    // How long a claimed outbox entry is left to the claiming instance before another may redeliver it
+    private static final long OUTBOX_LEASE_MS = 60_000;
+    private static final long OUTBOX_POLL_INTERVAL_MS = 5_000;
+    private static final int OUTBOX_CLAIM_BATCH = 100;
+    private static final long INITIAL_RETRY_BACKOFF_MS = 200;
+    private static final long SHUTDOWN_DRAIN_MS = 5_000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<DomainEventListener<?>> listenerProvider;
+    private final BlockingQueue<Envelope> buffer;
+    private final int bufferCapacity;
+    private final boolean outboxEnabled;
+    // The services share one database; each only claims and lists its own outbox entries and dead letters
+    private final String application;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong overflowedToOutbox = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile List<ListenerLane> lanes;
+    private volatile boolean running;
+    private volatile Thread dispatcher;
+    private volatile Thread outboxPoller;
+
+    public DomainEventBus(MongoTemplate mongoTemplate,
+                          ObjectMapper objectMapper,
+                          ObjectProvider<DomainEventListener<?>> listenerProvider,
+                          Environment environment) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.listenerProvider = listenerProvider;
+        this.bufferCapacity = environment.getProperty("app.events.buffer-size", Integer.class, 4_096);
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.outboxEnabled = environment.getProperty("app.events.outbox.enabled", Boolean.class, true);
+        this.application = environment.getProperty("spring.application.name", "app");
+    }
+
+    // ===================================
+    // PUBLISHING
+    // ===================================
+
+    /**
+     * Hand the event to its listeners asynchronously. Never blocks: when the buffer is full the
+     * event is parked in the outbox instead, or dropped (and counted) if the outbox is disabled.
+     */
+    public void publish(DomainEvent event) {
+        List<ListenerLane> targets = lanesFor(event);
+        if (targets.isEmpty()) {
+            return;
+        }
+        published.incrementAndGet();
+        if (buffer.offer(new Envelope(event, null, null))) {
+            return;
+        }
+
+        if (outboxEnabled && writeOutbox(event, targets, false) != null) {
+            overflowedToOutbox.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+            log.warn("Event buffer full, dropped {} {}", event.getClass().getSimpleName(), event.getEventId());
+        }
+    }
+
+    /**
+     * Record the event in the outbox before dispatching it, so every listener gets it even if
+     * this instance stops first. Call after the business write has been saved.
+     */
+    public void publishDurable(DomainEvent event) {
+        List<ListenerLane> targets = lanesFor(event);
+        if (targets.isEmpty()) {
+            return;
+        }
+        if (!outboxEnabled) {
+            publish(event);
+            return;
+        }
+        published.incrementAndGet();
+
+        String outboxId = writeOutbox(event, targets, true);
+        if (outboxId == null) {
+            // Could not persist: still deliver in memory rather than not at all
+            if (!buffer.offer(new Envelope(event, null, null))) {
+                dropped.incrementAndGet();
+                log.error("Outbox write failed and event buffer full, dropped durable {} {}",
+                        event.getClass().getSimpleName(), event.getEventId());
+            }
+            return;
+        }
+        Set<String> names = targets.stream().map(ListenerLane::getName).collect(Collectors.toSet());
+        if (!buffer.offer(new Envelope(event, outboxId, names))) {
+            overflowedToOutbox.incrementAndGet();
+            releaseLease(outboxId);
+        }
+    }
+
+    // ===================================
+    // LIFECYCLE
+    // ===================================
+
+    @Override
+    public void start() {
+        lanes();
+        if (outboxEnabled) {
+            ensureIndexes();
+        }
+        running = true;
+
+        dispatcher = new Thread(this::dispatchLoop, "domain-events-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+
+        if (outboxEnabled) {
+            outboxPoller = new Thread(this::outboxLoop, "domain-events-outbox");
+            outboxPoller.setDaemon(true);
+            outboxPoller.start();
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        join(outboxPoller);
+        // The dispatcher keeps draining the buffer until it is empty or the drain timeout passes
+        join(dispatcher);
+        for (ListenerLane lane : lanes()) {
+            lane.executor.shutdown();
+        }
+        long deadline = System.currentTimeMillis() + SHUTDOWN_DRAIN_MS;
+        for (ListenerLane lane : lanes()) {
+            try {
+                lane.executor.awaitTermination(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!buffer.isEmpty()) {
+            log.warn("{} in-memory events not delivered at shutdown", buffer.size());
+        }
+        dispatcher = null;
+        outboxPoller = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Start before the web server accepts requests and stop only after it has stopped
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private static void join(Thread thread) {
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join(SHUTDOWN_DRAIN_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ===================================
+    // DISPATCH
+    // ===================================
+
+    private void dispatchLoop() {
+        long drainDeadline = Long.MAX_VALUE;
+        while (running || (!buffer.isEmpty() && System.currentTimeMillis() < drainDeadline)) {
+            if (!running && drainDeadline == Long.MAX_VALUE) {
+                drainDeadline = System.currentTimeMillis() + SHUTDOWN_DRAIN_MS;
+            }
+            try {
+                Envelope envelope = buffer.poll(500, TimeUnit.MILLISECONDS);
+                if (envelope != null) {
+                    fanOut(envelope);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Event dispatch failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void fanOut(Envelope envelope) {
+        for (ListenerLane lane : lanesFor(envelope.event)) {
+            if (envelope.listenerNames != null && !envelope.listenerNames.contains(lane.name)) {
+                continue;
+            }
+            try {
+                lane.executor.execute(() -> deliver(lane, envelope));
+            } catch (RejectedExecutionException e) {
+                overflow(lane, envelope);
+            }
+        }
+    }
+
+    /**
+     * The listener's queue is full (or it is shutting down). A durable event is left to its outbox
+     * entry, which still lists this listener and is redelivered once its lease runs out; an in-memory
+     * one is parked in the outbox for this listener only, or dead-lettered so it can be replayed.
+     */
+    private void overflow(ListenerLane lane, Envelope envelope) {
+        lane.overflowed.incrementAndGet();
+        if (envelope.outboxId != null) {
+            return;
+        }
+        if (outboxEnabled && writeOutbox(envelope.event, List.of(lane), false) != null) {
+            overflowedToOutbox.incrementAndGet();
+            return;
+        }
+        log.warn("Listener {} is full, dead-lettering {} {}", lane.name,
+                envelope.event.getClass().getSimpleName(), envelope.event.getEventId());
+        lane.deadLettered.incrementAndGet();
+        deadLetter(envelope.event, lane.name, 0, new RejectedExecutionException("Listener " + lane.name + " queue is full"));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void deliver(ListenerLane lane, Envelope envelope) {
+        lane.active.incrementAndGet();
+        try {
+            long backoff = INITIAL_RETRY_BACKOFF_MS;
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    ((DomainEventListener) lane.listener).onEvent(envelope.event);
+                    lane.processed.incrementAndGet();
+                    markDelivered(envelope.outboxId, lane.name);
+                    return;
+                } catch (Exception e) {
+                    if (attempt >= lane.maxAttempts) {
+                        lane.deadLettered.incrementAndGet();
+                        log.error("Listener {} gave up on {} {} after {} attempts: {}", lane.name,
+                                envelope.event.getClass().getSimpleName(), envelope.event.getEventId(), attempt, e.getMessage(), e);
+                        deadLetter(envelope.event, lane.name, attempt, e);
+                        markDelivered(envelope.outboxId, lane.name);
+                        return;
+                    }
+                    lane.retried.incrementAndGet();
+                    Thread.sleep(backoff);
+                    backoff *= 4;
+                }
+            }
+        } catch (InterruptedException e) {
+            // Shutting down mid-retry: a durable event stays in the outbox for redelivery
+            Thread.currentThread().interrupt();
+        } finally {
+            lane.active.decrementAndGet();
+        }
+    }
+
+    private List<ListenerLane> lanesFor(DomainEvent event) {
+        List<ListenerLane> result = new ArrayList<>();
+        for (ListenerLane lane : lanes()) {
+            if (lane.listener.eventType().isInstance(event)) {
+                result.add(lane);
+            }
+        }
+        return result;
+    }
+
+    private List<ListenerLane> lanes() {
+        List<ListenerLane> current = lanes;
+        if (current == null) {
+            synchronized (this) {
+                current = lanes;
+                if (current == null) {
+                    current = listenerProvider.orderedStream().map(ListenerLane::new).collect(Collectors.toUnmodifiableList());
+                    lanes = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    // ===================================
+    // OUTBOX
+    // ===================================
+
+    private void outboxLoop() {
+        while (running) {
+            try {
+                claimExpiredOutboxEntries();
+            } catch (MongoException e) {
+                log.warn("Outbox poll failed: {}", e.getMessage());
+            } catch (RuntimeException e) {
+                log.error("Outbox poll failed: {}", e.getMessage(), e);
+            }
+            try {
+                Thread.sleep(OUTBOX_POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void claimExpiredOutboxEntries() {
+        for (int i = 0; i < OUTBOX_CLAIM_BATCH && running; i++) {
+            // Keep some headroom for live traffic
+            if (buffer.remainingCapacity() < bufferCapacity / 4) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            Document claimed = outbox().findOneAndUpdate(
+                    Filters.and(Filters.eq("app", application), Filters.lte("leaseUntil", new Date(now))),
+                    Updates.combine(Updates.set("leaseUntil", new Date(now + OUTBOX_LEASE_MS)), Updates.inc("deliveries", 1)),
+                    new FindOneAndUpdateOptions().sort(Sorts.ascending("leaseUntil")).returnDocument(ReturnDocument.AFTER));
+            if (claimed == null) {
+                return;
+            }
+
+            String outboxId = claimed.getObjectId("_id").toHexString();
+            DomainEvent event;
+            try {
+                event = readEvent(claimed.getString("eventType"), claimed.getString("payload"));
+            } catch (Exception e) {
+                // Unreadable (e.g. the event class was removed): park it for inspection instead of retrying forever
+                for (String listener : claimed.getList("pendingListeners", String.class, List.of())) {
+                    writeDeadLetter(claimed.getString("eventType"), claimed.getString("payload"), listener, 0, e);
+                }
+                outbox().deleteOne(Filters.eq("_id", claimed.getObjectId("_id")));
+                continue;
+            }
+
+            Set<String> pending = new HashSet<>(claimed.getList("pendingListeners", String.class, List.of()));
+            pending.retainAll(lanesFor(event).stream().map(ListenerLane::getName).collect(Collectors.toSet()));
+            if (pending.isEmpty()) {
+                log.warn("Dropping outbox entry {}: no listener left for {}", outboxId, claimed.getString("eventType"));
+                outbox().deleteOne(Filters.eq("_id", claimed.getObjectId("_id")));
+                continue;
+            }
+            if (!buffer.offer(new Envelope(event, outboxId, pending))) {
+                releaseLease(outboxId);
+                return;
+            }
+        }
+    }
+
+    private String writeOutbox(DomainEvent event, List<ListenerLane> targets, boolean leased) {
+        try {
+            ObjectId id = new ObjectId();
+            Date now = new Date();
+            Document entry = new Document("_id", id)
+                    .append("app", application)
+                    .append("eventType", event.getClass().getName())
+                    .append("eventId", event.getEventId())
+                    .append("payload", objectMapper.writeValueAsString(event))
+                    .append("pendingListeners", targets.stream().map(ListenerLane::getName).collect(Collectors.toList()))
+                    .append("createdAt", now)
+                    .append("leaseUntil", leased ? new Date(now.getTime() + OUTBOX_LEASE_MS) : now)
+                    .append("deliveries", leased ? 1 : 0);
+            outbox().insertOne(entry);
+            return id.toHexString();
+        } catch (Exception e) {
+            log.error("Could not write {} {} to the outbox: {}", event.getClass().getSimpleName(), event.getEventId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void markDelivered(String outboxId, String listenerName) {
+        if (outboxId == null) {
+            return;
+        }
+        try {
+            ObjectId id = new ObjectId(outboxId);
+            outbox().updateOne(Filters.eq("_id", id), Updates.pull("pendingListeners", listenerName));
+            outbox().deleteOne(Filters.and(Filters.eq("_id", id), Filters.size("pendingListeners", 0)));
+        } catch (MongoException e) {
+            // The entry is redelivered to this listener after its lease; listeners are idempotent
+            log.warn("Could not mark outbox entry {} delivered to {}: {}", outboxId, listenerName, e.getMessage());
+        }
+    }
+
+    private void releaseLease(String outboxId) {
+        try {
+            outbox().updateOne(Filters.eq("_id", new ObjectId(outboxId)), Updates.set("leaseUntil", new Date()));
+        } catch (MongoException e) {
+            log.warn("Could not release outbox entry {}: {}", outboxId, e.getMessage());
+        }
+    }
+
+    private void ensureIndexes() {
+        try {
+            mongoTemplate.indexOps(OUTBOX_COLLECTION)
+                    .ensureIndex(new Index().on("app", Sort.Direction.ASC).on("leaseUntil", Sort.Direction.ASC));
+            mongoTemplate.indexOps(DEAD_LETTER_COLLECTION)
+                    .ensureIndex(new Index().on("failedAt", Sort.Direction.ASC).expire(Duration.ofDays(30)));
+        } catch (MongoException e) {
+            log.warn("Could not create event outbox indexes: {}", e.getMessage());
+        }
+    }
+
+    private MongoCollection<Document> outbox() {
+        return mongoTemplate.getCollection(OUTBOX_COLLECTION);
+    }
+
+    private DomainEvent readEvent(String eventType, String payload) throws Exception {
+        Class<?> type = Class.forName(eventType);
+        if (!DomainEvent.class.isAssignableFrom(type)) {
+            throw new IllegalArgumentException("Not a domain event: " + eventType);
+        }
+        return (DomainEvent) objectMapper.readValue(payload, type);
+    }
+
+    // ===================================
+    // DEAD LETTERS
+    // ===================================
+
+    private void deadLetter(DomainEvent event, String listenerName, int attempts, Exception error) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (Exception e) {
+            payload = null;
+        }
+        writeDeadLetter(event.getClass().getName(), payload, listenerName, attempts, error);
+    }
+
+    private void writeDeadLetter(String eventType, String payload, String listenerName, int attempts, Exception error) {
+        try {
+            mongoTemplate.getCollection(DEAD_LETTER_COLLECTION).insertOne(new Document("app", application)
+                    .append("eventType", eventType)
+                    .append("payload", payload)
+                    .append("listener", listenerName)
+                    .append("attempts", attempts)
+                    .append("error", String.valueOf(error.getMessage()))
+                    .append("failedAt", new Date()));
+        } catch (MongoException e) {
+            log.error("Could not write dead letter for {} / {}: {}", eventType, listenerName, e.getMessage());
+        }
+    }
+
+    public List<Map<String, Object>> getDeadLetters(int limit) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Document doc : mongoTemplate.getCollection(DEAD_LETTER_COLLECTION).find(Filters.eq("app", application))
+                .sort(Sorts.descending("failedAt")).limit(limit)) {
+            Map<String, Object> entry = new LinkedHashMap<>(doc);
+            entry.put("_id", doc.getObjectId("_id").toHexString());
+            result.add(entry);
+        }
+        return result;
+    }
+
+    /**
+     * Send a dead-lettered event to its listener again, through the outbox. Returns false if the
+     * entry is unknown, unreadable, or its listener no longer exists.
+     */
+    public boolean replayDeadLetter(String deadLetterId) {
+        if (!ObjectId.isValid(deadLetterId)) {
+            return false;
+        }
+        MongoCollection<Document> deadLetters = mongoTemplate.getCollection(DEAD_LETTER_COLLECTION);
+        Document doc = deadLetters.find(Filters.and(Filters.eq("_id", new ObjectId(deadLetterId)), Filters.eq("app", application))).first();
+        if (doc == null || doc.getString("payload") == null) {
+            return false;
+        }
+
+        List<ListenerLane> targets = lanes().stream()
+                .filter(lane -> lane.name.equals(doc.getString("listener")))
+                .collect(Collectors.toList());
+        DomainEvent event;
+        try {
+            event = readEvent(doc.getString("eventType"), doc.getString("payload"));
+        } catch (Exception e) {
+            return false;
+        }
+        if (targets.isEmpty() || !targets.get(0).listener.eventType().isInstance(event)) {
+            return false;
+        }
+
+        if (outboxEnabled) {
+            // Not leased: the poller picks it up like any other pending entry
+            if (writeOutbox(event, targets, false) == null) {
+                return false;
+            }
+        } else if (!buffer.offer(new Envelope(event, null, Set.of(targets.get(0).name)))) {
+            return false;
+        }
+        deadLetters.deleteOne(Filters.eq("_id", doc.getObjectId("_id")));
+        return true;
+    }
+
+    // ===================================
+    // STATUS
+    // ===================================
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("running", running);
+        stats.put("buffered", buffer.size());
+        stats.put("bufferCapacity", bufferCapacity);
+        stats.put("published", published.get());
+        stats.put("overflowedToOutbox", overflowedToOutbox.get());
+        stats.put("dropped", dropped.get());
+        if (outboxEnabled) {
+            try {
+                stats.put("outboxPending", outbox().countDocuments(Filters.eq("app", application)));
+                stats.put("deadLetters", mongoTemplate.getCollection(DEAD_LETTER_COLLECTION).countDocuments(Filters.eq("app", application)));
+            } catch (MongoException e) {
+                stats.put("outboxError", e.getMessage());
+            }
+        }
+
+        List<Map<String, Object>> listeners = new ArrayList<>();
+        for (ListenerLane lane : lanes()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", lane.name);
+            entry.put("eventType", lane.listener.eventType().getSimpleName());
+            entry.put("threads", lane.executor.getMaximumPoolSize());
+            entry.put("queued", lane.executor.getQueue().size());
+            entry.put("active", lane.active.get());
+            entry.put("processed", lane.processed.get());
+            entry.put("retried", lane.retried.get());
+            entry.put("deadLettered", lane.deadLettered.get());
+            entry.put("overflowed", lane.overflowed.get());
+            listeners.add(entry);
+        }
+        stats.put("listeners", listeners);
+        return stats;
+    }
+
+    // ===================================
+    // INTERNALS
+    // ===================================
+
+    private static final class Envelope {
+        private final DomainEvent event;
+        // Set for durable events: the outbox entry to strike listeners off, and which listeners still need it
+        private final String outboxId;
+        private final Set<String> listenerNames;
+
+        private Envelope(DomainEvent event, String outboxId, Set<String> listenerNames) {
+            this.event = event;
+            this.outboxId = outboxId;
+            this.listenerNames = listenerNames;
+        }
+    }
+
+    @Getter
+    private static final class ListenerLane {
+        private final String name;
+        private final DomainEventListener<?> listener;
+        private final int maxAttempts;
+        private final ThreadPoolExecutor executor;
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong retried = new AtomicLong();
+        private final AtomicLong deadLettered = new AtomicLong();
+        private final AtomicLong overflowed = new AtomicLong();
+
+        private ListenerLane(DomainEventListener<?> listener) {
+            this.name = listener.name();
+            this.listener = listener;
+            this.maxAttempts = Math.max(1, listener.maxAttempts());
+
+            int threads = Math.max(1, listener.concurrency());
+            AtomicInteger threadCount = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, listener.queueCapacity())),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "event-" + name + "-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    // Full or shut down: the dispatcher reroutes the event instead of waiting
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+    }
+}
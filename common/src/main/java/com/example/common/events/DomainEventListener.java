@@ -0,0 +1,37 @@
+package com.example.common.events;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * A side effect run off the request path for every event of {@link #eventType()}.
+ *
+ * Each listener gets its own bounded executor, so a slow listener only backs up its own queue.
+ * Delivery is at-least-once: a failed call is retried up to {@link #maxAttempts()} times and then
+ * dead-lettered, and durable events may be redelivered after a restart, so implementations should be
+ * idempotent or tolerate the occasional repeat.
+ */
+public interface DomainEventListener<E extends DomainEvent> {
+
+    Class<E> eventType();
+
+    void onEvent(E event) throws Exception;
+
+    /**
+     * Stable name; recorded in the outbox and dead letters, so don't derive it from anything that changes between releases.
+     */
+    default String name() {
+        return ClassUtils.getUserClass(this).getSimpleName();
+    }
+
+    default int concurrency() {
+        return 1;
+    }
+
+    default int queueCapacity() {
+        return 1_000;
+    }
+
+    default int maxAttempts() {
+        return 3;
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.common.idempotency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.RequestPath;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Buffers requests carrying an {@code Idempotency-Key} so {@link IdempotencyInterceptor} can
+ * fingerprint them, and captures the response so a claimed key can be completed with it.
+ *
+ * Whether a key is actually claimed is up to the interceptor (only {@link Idempotent} handlers are);
+ * this filter finishes the job afterwards: a 2xx response is stored, anything else releases the key.
+ * Only requests mapped to an {@link Idempotent} handler are touched at all. Their JSON bodies are
+ * buffered up to {@code app.idempotency.max-body} (larger ones get 413); form posts are fingerprinted
+ * by their parameters and uploads by target only, both left unwrapped.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    static final String HASH_ATTRIBUTE = IdempotencyFilter.class.getName() + ".HASH";
+    static final String CLAIM_ATTRIBUTE = IdempotencyFilter.class.getName() + ".CLAIM";
+
+    private final IdempotencyService idempotencyService;
+    private final ObjectProvider<RequestMappingHandlerMapping> handlerMapping;
+    private final int maxBody;
+
+    // Mappings of the @Idempotent handlers, looked up once the handler mapping is ready
+    private volatile List<RequestMappingInfo> idempotentMappings;
+
+    public IdempotencyFilter(IdempotencyService idempotencyService,
+                             @Qualifier("requestMappingHandlerMapping") ObjectProvider<RequestMappingHandlerMapping> handlerMapping,
+                             Environment environment) {
+        this.idempotencyService = idempotencyService;
+        this.handlerMapping = handlerMapping;
+        this.maxBody = (int) Math.min(Integer.MAX_VALUE - 1,
+                environment.getProperty("app.idempotency.max-body", DataSize.class, DataSize.ofMegabytes(1)).toBytes());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String key = request.getHeader(HEADER);
+        if (key == null || key.isBlank() || HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        // Async re-dispatches of a filtered request always go through to finish it
+        return !isAsyncDispatch(request) && !isIdempotentRoute(request);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // Bulkhead handlers finish on an async dispatch; that is when the response is complete
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        HttpServletRequest target = request;
+        if (!isAsyncDispatch(request)) {
+            byte[] body = new byte[0];
+            String contentType = request.getContentType() == null ? "" : request.getContentType().toLowerCase();
+            if (contentType.startsWith(MediaType.APPLICATION_FORM_URLENCODED_VALUE)) {
+                // The container parses form posts from the stream itself; hash what it parsed
+                body = formParameters(request);
+            } else if (!contentType.startsWith("multipart/")) {
+                // Multipart boundaries change on every retry, so uploads are fingerprinted by target only
+                CachedBodyRequest cached = CachedBodyRequest.read(request, maxBody);
+                if (cached == null) {
+                    response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                            "Requests with an Idempotency-Key may carry at most " + maxBody + " bytes");
+                    return;
+                }
+                target = cached;
+                body = cached.getBody();
+            }
+            target.setAttribute(HASH_ATTRIBUTE, fingerprint(request, body));
+        }
+
+        // On an async dispatch the container hands back the wrapper given to startAsync
+        HttpServletResponse targetResponse = response;
+        ContentCachingResponseWrapper wrapped = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        if (wrapped == null) {
+            wrapped = new ContentCachingResponseWrapper(response);
+            targetResponse = wrapped;
+        }
+
+        boolean succeeded = false;
+        try {
+            chain.doFilter(target, targetResponse);
+            succeeded = true;
+        } finally {
+            if (!isAsyncStarted(target)) {
+                finish(target, wrapped, succeeded);
+            }
+        }
+    }
+
+    private void finish(HttpServletRequest request, ContentCachingResponseWrapper response, boolean succeeded)
+            throws IOException {
+        String claimId = (String) request.getAttribute(CLAIM_ATTRIBUTE);
+        if (claimId != null) {
+            byte[] content = response.getContentAsByteArray();
+            int status = response.getStatus();
+            if (succeeded && status >= 200 && status < 300 && content.length <= IdempotencyService.MAX_STORED_BODY) {
+                idempotencyService.complete(claimId, status, response.getContentType(), content);
+            } else {
+                idempotencyService.release(claimId);
+            }
+        }
+        response.copyBodyToResponse();
+    }
+
+    private boolean isIdempotentRoute(HttpServletRequest request) {
+        List<RequestMappingInfo> mappings = idempotentMappings;
+        if (mappings == null) {
+            RequestMappingHandlerMapping mapping = handlerMapping.getIfAvailable();
+            if (mapping == null) {
+                return false;
+            }
+            mappings = mapping.getHandlerMethods().entrySet().stream()
+                    .filter(entry -> entry.getValue().hasMethodAnnotation(Idempotent.class))
+                    .map(Map.Entry::getKey)
+                    .toList();
+            idempotentMappings = mappings;
+        }
+        if (mappings.isEmpty()) {
+            return false;
+        }
+
+        // Matching needs the parsed path the dispatcher would set; put back whatever was there
+        RequestPath previous = ServletRequestPathUtils.hasParsedRequestPath(request)
+                ? ServletRequestPathUtils.getParsedRequestPath(request) : null;
+        ServletRequestPathUtils.parseAndCache(request);
+        try {
+            for (RequestMappingInfo info : mappings) {
+                if (info.getMatchingCondition(request) != null) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            ServletRequestPathUtils.setParsedRequestPath(previous, request);
+        }
+    }
+
+    private static byte[] formParameters(HttpServletRequest request) {
+        StringBuilder form = new StringBuilder();
+        new TreeMap<>(request.getParameterMap()).forEach((name, values) -> {
+            for (String value : values) {
+                form.append(name).append('=').append(value).append('&');
+            }
+        });
+        return form.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ' ');
+            digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            if (request.getQueryString() != null) {
+                digest.update((byte) '?');
+                digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
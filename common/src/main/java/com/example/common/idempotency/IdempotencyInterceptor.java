@@ -0,0 +1,83 @@
+package com.example.common.idempotency;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Claims the {@code Idempotency-Key} of requests routed to an {@link Idempotent} handler,
+ * or answers them directly when the key has been seen before.
+ */
+@Component
+public class IdempotencyInterceptor implements HandlerInterceptor {
+
+    private final IdempotencyService idempotencyService;
+
+    public IdempotencyInterceptor(IdempotencyService idempotencyService) {
+        this.idempotencyService = idempotencyService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        // The claim was taken on the original dispatch; an async re-dispatch only renders the result
+        if (!(handler instanceof HandlerMethod method) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        Idempotent idempotent = method.getMethodAnnotation(Idempotent.class);
+        String hash = (String) request.getAttribute(IdempotencyFilter.HASH_ATTRIBUTE);
+        if (idempotent == null || hash == null) {
+            return true;
+        }
+
+        String key = request.getHeader(IdempotencyFilter.HEADER).trim();
+        if (key.length() > 255) {
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST, "Idempotency-Key must be at most 255 characters");
+            return false;
+        }
+
+        IdempotencyService.Outcome outcome = idempotencyService.begin(
+                principal(), key, hash, Duration.ofHours(idempotent.ttlHours()));
+        switch (outcome.getType()) {
+            case ACQUIRED:
+                request.setAttribute(IdempotencyFilter.CLAIM_ATTRIBUTE, outcome.getId());
+                return true;
+            case REPLAY:
+                response.setStatus(outcome.getStatus());
+                if (outcome.getContentType() != null) {
+                    response.setContentType(outcome.getContentType());
+                }
+                response.setHeader("Idempotent-Replayed", "true");
+                response.getOutputStream().write(outcome.getBody());
+                return false;
+            case MISMATCH:
+                writeError(response, 422, "Idempotency-Key was already used for a different request");
+                return false;
+            default:
+                response.setHeader("Retry-After", "1");
+                writeError(response, HttpServletResponse.SC_CONFLICT, "A request with this Idempotency-Key is still being processed");
+                return false;
+        }
+    }
+
+    private static String principal() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.isAuthenticated() ? auth.getName() : "anonymous";
+    }
+
+    private static void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        String json = "{\"error\":\"" + message + "\"}";
+        response.getOutputStream().write(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.common.idempotency;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stores idempotency keys and the responses they produced in the shared {@code idempotency_keys}
+ * collection, so duplicates are caught across instances and services.
+ *
+ * A key is claimed by inserting it as IN_PROGRESS; the unique {@code _id} makes the insert the lock.
+ * A duplicate that arrives while the first request is still running polls until it completes
+ * (then replays it) or gives up with a conflict. The lock carries a lease so a key held by a
+ * crashed instance can be taken over. While the request runs, the holding instance renews the lease
+ * every third of its length, so a slow request (a large upload) keeps its key however long it takes,
+ * up to {@code app.idempotency.max-hold}. Entries expire through a TTL index on {@code expiresAt}.
+ */
+@Slf4j
+@Service
+public class IdempotencyService implements SmartLifecycle {
+
+    private static final String COLLECTION = "idempotency_keys";
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+    private static final String COMPLETED = "COMPLETED";
+
+    private static final long LOCK_MILLIS = 30_000;
+    private static final long WAIT_MILLIS = 10_000;
+    private static final long POLL_MILLIS = 100;
+
+    // Responses above this are not kept; a retry then simply runs again
+    static final int MAX_STORED_BODY = 512 * 1024;
+
+    private final MongoTemplate mongoTemplate;
+    private final String application;
+    private final Duration maxHold;
+    // Keys this instance holds, with when they were claimed
+    private final Map<String, Long> held = new ConcurrentHashMap<>();
+    private volatile boolean indexesEnsured;
+    private volatile ScheduledExecutorService renewer;
+    private volatile boolean running;
+
+    public IdempotencyService(MongoTemplate mongoTemplate, Environment environment) {
+        this.mongoTemplate = mongoTemplate;
+        this.application = environment.getProperty("spring.application.name", "app");
+        this.maxHold = environment.getProperty("app.idempotency.max-hold", Duration.class, Duration.ofMinutes(10));
+    }
+
+    /**
+     * Claim {@code key} for the given caller, or find out what already happened to it.
+     *
+     * @param principal   the authenticated user, so keys from different users never collide
+     * @param key         the client-supplied Idempotency-Key
+     * @param requestHash fingerprint of the request; reusing a key for a different request is rejected
+     */
+    public Outcome begin(String principal, String key, String requestHash, Duration ttl) {
+        ensureIndexes();
+        String id = application + "|" + principal + "|" + key;
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+
+        while (true) {
+            Date now = new Date();
+            try {
+                keys().insertOne(new Document("_id", id)
+                        .append("requestHash", requestHash)
+                        .append("state", IN_PROGRESS)
+                        .append("lockedUntil", new Date(now.getTime() + LOCK_MILLIS))
+                        .append("createdAt", now)
+                        .append("expiresAt", new Date(now.getTime() + ttl.toMillis())));
+                return acquired(id);
+            } catch (MongoWriteException e) {
+                if (e.getError().getCategory() != ErrorCategory.DUPLICATE_KEY) {
+                    throw e;
+                }
+            }
+
+            Document existing = keys().find(Filters.eq("_id", id)).first();
+            if (existing == null) {
+                // Expired or released between our insert and read; try to claim it again
+                continue;
+            }
+            if (!requestHash.equals(existing.getString("requestHash"))) {
+                return Outcome.of(Outcome.Type.MISMATCH, id);
+            }
+            if (COMPLETED.equals(existing.getString("state"))) {
+                return Outcome.replay(id, existing);
+            }
+
+            Date lockedUntil = existing.getDate("lockedUntil");
+            if (lockedUntil != null && lockedUntil.before(now)) {
+                // The holder died without completing or releasing; take the lease over
+                long taken = keys().updateOne(
+                        Filters.and(Filters.eq("_id", id), Filters.eq("state", IN_PROGRESS),
+                                Filters.eq("lockedUntil", lockedUntil)),
+                        Updates.set("lockedUntil", new Date(now.getTime() + LOCK_MILLIS))).getModifiedCount();
+                if (taken == 1) {
+                    return acquired(id);
+                }
+            }
+
+            if (System.currentTimeMillis() >= deadline) {
+                return Outcome.of(Outcome.Type.IN_PROGRESS, id);
+            }
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Outcome.of(Outcome.Type.IN_PROGRESS, id);
+            }
+        }
+    }
+
+    private Outcome acquired(String id) {
+        held.put(id, System.currentTimeMillis());
+        return Outcome.acquired(id);
+    }
+
+    /**
+     * Record the response for a claimed key so later duplicates are answered with it.
+     */
+    public void complete(String id, int status, String contentType, byte[] body) {
+        held.remove(id);
+        try {
+            keys().updateOne(Filters.and(Filters.eq("_id", id), Filters.eq("state", IN_PROGRESS)),
+                    Updates.combine(
+                            Updates.set("state", COMPLETED),
+                            Updates.set("status", status),
+                            Updates.set("contentType", contentType),
+                            Updates.set("body", new Binary(body)),
+                            Updates.set("completedAt", new Date()),
+                            Updates.unset("lockedUntil")));
+        } catch (MongoException e) {
+            log.warn("Could not store response for idempotency key {}: {}", id, e.getMessage());
+            release(id);
+        }
+    }
+
+    /**
+     * Drop a claimed key without a stored response, so the client can retry it.
+     */
+    public void release(String id) {
+        held.remove(id);
+        try {
+            keys().deleteOne(Filters.and(Filters.eq("_id", id), Filters.eq("state", IN_PROGRESS)));
+        } catch (MongoException e) {
+            log.warn("Could not release idempotency key {}: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * Push out the lease of every key still held here. A key held past max-hold is no longer renewed
+     * (its request was lost without completing or releasing), so another instance can take it over.
+     */
+    private void renewLeases() {
+        if (held.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<String> ids = new ArrayList<>();
+        held.forEach((id, claimedAt) -> {
+            if (now - claimedAt > maxHold.toMillis()) {
+                held.remove(id);
+            } else {
+                ids.add(id);
+            }
+        });
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            keys().updateMany(Filters.and(Filters.in("_id", ids), Filters.eq("state", IN_PROGRESS)),
+                    Updates.set("lockedUntil", new Date(now + LOCK_MILLIS)));
+        } catch (MongoException e) {
+            log.warn("Could not renew {} idempotency lease(s): {}", ids.size(), e.getMessage());
+        }
+    }
+
+    private void ensureIndexes() {
+        if (indexesEnsured) {
+            return;
+        }
+        try {
+            mongoTemplate.indexOps(COLLECTION)
+                    .ensureIndex(new Index().on("expiresAt", Sort.Direction.ASC).expire(Duration.ZERO));
+            indexesEnsured = true;
+        } catch (MongoException e) {
+            log.warn("Could not create idempotency key indexes: {}", e.getMessage());
+        }
+    }
+
+    private MongoCollection<Document> keys() {
+        return mongoTemplate.getCollection(COLLECTION);
+    }
+
+    // ===================================
+    // Lifecycle
+    // ===================================
+
+    @Override
+    public void start() {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "idempotency-lease-renewer");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = LOCK_MILLIS / 3;
+        scheduler.scheduleWithFixedDelay(this::renewLeases, interval, interval, TimeUnit.MILLISECONDS);
+        renewer = scheduler;
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        ScheduledExecutorService scheduler = renewer;
+        renewer = null;
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Getter
+    public static class Outcome {
+
+        public enum Type { ACQUIRED, REPLAY, MISMATCH, IN_PROGRESS }
+
+        private final Type type;
+        private final String id;
+        private int status;
+        private String contentType;
+        private byte[] body;
+
+        private Outcome(Type type, String id) {
+            this.type = type;
+            this.id = id;
+        }
+
+        static Outcome of(Type type, String id) {
+            return new Outcome(type, id);
+        }
+
+        static Outcome acquired(String id) {
+            return new Outcome(Type.ACQUIRED, id);
+        }
+
+        static Outcome replay(String id, Document stored) {
+            Outcome outcome = new Outcome(Type.REPLAY, id);
+            outcome.status = stored.getInteger("status", 200);
+            outcome.contentType = stored.getString("contentType");
+            Binary body = stored.get("body", Binary.class);
+            outcome.body = body != null ? body.getData() : new byte[0];
+            return outcome;
+        }
+    }
+}
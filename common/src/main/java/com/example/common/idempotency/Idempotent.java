@@ -0,0 +1,23 @@
+package com.example.common.idempotency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a mutating endpoint as safe to retry with an {@code Idempotency-Key} header.
+ *
+ * The first request with a key runs normally and its 2xx response is stored; a retry with the same
+ * key and the same request is answered from the store without running the handler again, and a
+ * concurrent duplicate waits for the first one to finish. Requests without the header are unaffected.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Idempotent {
+
+    /**
+     * How long a stored response is replayed for.
+     */
+    int ttlHours() default 24;
+}
@@ -0,0 +1,95 @@
+package com.example.common.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Puts the request's correlation id (and, once authenticated, the user id) into the logging MDC,
+ * so every JSON log line written while serving it carries them.
+ *
+ * The id is taken from an incoming {@code X-Request-Id} when it looks sane, otherwise generated,
+ * and echoed back on the response. A fraction of requests, {@code app.logging.trace-sample-rate}
+ * (0 to 1), is marked as sampled; {@link SampledTraceTurboFilter} then lets their DEBUG output
+ * through regardless of the configured level.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Request-Id";
+
+    public static final String MDC_REQUEST_ID = "requestId";
+    public static final String MDC_USER_ID = "userId";
+    public static final String MDC_TRACE_SAMPLED = "traceSampled";
+
+    private static final String ATTRIBUTE_PREFIX = CorrelationIdFilter.class.getName() + ".";
+    private static final Pattern SAFE_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final double sampleRate;
+
+    public CorrelationIdFilter(Environment environment) {
+        this.sampleRate = environment.getProperty("app.logging.trace-sample-rate", Double.class, 0.0);
+    }
+
+    /**
+     * Record the authenticated user for the rest of the request; called by the JWT filter.
+     */
+    public static void bindUser(HttpServletRequest request, String userId) {
+        if (userId != null) {
+            MDC.put(MDC_USER_ID, userId);
+            request.setAttribute(ATTRIBUTE_PREFIX + MDC_USER_ID, userId);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // Async dispatches run on another thread and need the context restored
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = (String) request.getAttribute(ATTRIBUTE_PREFIX + MDC_REQUEST_ID);
+        Boolean sampled = (Boolean) request.getAttribute(ATTRIBUTE_PREFIX + MDC_TRACE_SAMPLED);
+        if (requestId == null) {
+            String incoming = request.getHeader(HEADER);
+            requestId = incoming != null && SAFE_ID.matcher(incoming).matches()
+                    ? incoming
+                    : UUID.randomUUID().toString().replace("-", "").substring(0, 16);
+            sampled = sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+            request.setAttribute(ATTRIBUTE_PREFIX + MDC_REQUEST_ID, requestId);
+            request.setAttribute(ATTRIBUTE_PREFIX + MDC_TRACE_SAMPLED, sampled);
+            response.setHeader(HEADER, requestId);
+        }
+
+        MDC.put(MDC_REQUEST_ID, requestId);
+        if (Boolean.TRUE.equals(sampled)) {
+            MDC.put(MDC_TRACE_SAMPLED, "true");
+        }
+        String userId = (String) request.getAttribute(ATTRIBUTE_PREFIX + MDC_USER_ID);
+        if (userId != null) {
+            MDC.put(MDC_USER_ID, userId);
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_REQUEST_ID);
+            MDC.remove(MDC_USER_ID);
+            MDC.remove(MDC_TRACE_SAMPLED);
+        }
+    }
+}
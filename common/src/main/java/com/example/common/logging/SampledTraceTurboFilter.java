@@ -0,0 +1,27 @@
+package com.example.common.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Lets DEBUG output from application loggers through for requests that
+ * {@link CorrelationIdFilter} sampled, without lowering the level for everyone else.
+ * Framework loggers are left alone so a sampled request doesn't dump Spring and driver internals.
+ * Wired up in {@code logback-spring.xml}.
+ */
+public class SampledTraceTurboFilter extends TurboFilter {
+
+    private static final String APPLICATION_PREFIX = "com.example.";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level.levelInt < Level.DEBUG_INT || !logger.getName().startsWith(APPLICATION_PREFIX)) {
+            return FilterReply.NEUTRAL;
+        }
+        return "true".equals(MDC.get(CorrelationIdFilter.MDC_TRACE_SAMPLED)) ? FilterReply.ACCEPT : FilterReply.NEUTRAL;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.common.mongo;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sends the Mongo reads made while this service method runs to a secondary
+ * ({@code secondaryPreferred} with bounded staleness, see {@link ReadRouting}).
+ *
+ * Only for methods that can tolerate data a little behind the primary: dashboards, analytics,
+ * reports. Writes inside the method still go to the primary, but reads of data just written by
+ * the same request may not see it; wrap those in {@link ReadRouting#onPrimary}.
+ * Like other proxy-based annotations it has no effect on calls from within the same class.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadFromSecondary {
+}
@@ -0,0 +1,54 @@
+package com.example.common.mongo;
+
+import com.mongodb.ReadPreference;
+
+import java.util.function.Supplier;
+
+/**
+ * Thread-bound read preference for the current call. {@link RoutingMongoTemplate} applies it to every
+ * database handle it prepares, so repositories and template queries both follow it.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<ReadPreference> CURRENT = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    /**
+     * The preference reads on this thread should use, or null for the template default (primary).
+     */
+    public static ReadPreference current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Run {@code work} with reads forced back to the primary, e.g. to read back a just-written
+     * document from inside a {@link ReadFromSecondary} method.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        return with(ReadPreference.primary(), work);
+    }
+
+    static <T> T with(ReadPreference preference, Supplier<T> work) {
+        ReadPreference previous = CURRENT.get();
+        CURRENT.set(preference);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    static void set(ReadPreference preference) {
+        if (preference == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(preference);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.common.mongo;
+
+import com.mongodb.ReadPreference;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.config.AopConfigUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wires {@link ReadFromSecondary} routing:
+ * <pre>
+ * app.mongo.read-routing.enabled=true
+ * app.mongo.read-routing.max-staleness=90s   # a secondary further behind is not used (Mongo minimum is 90s)
+ * </pre>
+ * Against a standalone server (no secondaries) {@code secondaryPreferred} simply reads from it.
+ * To try it locally, start a three-member replica set and point
+ * {@code spring.data.mongodb.uri} at all members with {@code ?replicaSet=<name>}.
+ *
+ * The advisor is an infrastructure bean, applied by the infrastructure auto-proxy creator. That
+ * creator is registered here explicitly, as {@code @EnableCaching} and {@code @EnableTransactionManagement}
+ * do for their own advisors, so routing doesn't depend on caching (or Boot's AOP auto-configuration)
+ * happening to register it. There is no AspectJ on the classpath, so {@code @EnableAspectJAutoProxy}
+ * is not an option.
+ */
+@Slf4j
+@Configuration
+@Import(ReadRoutingConfig.AutoProxyRegistrar.class)
+public class ReadRoutingConfig {
+
+    private static final Duration MIN_MAX_STALENESS = Duration.ofSeconds(90);
+
+    @Bean
+    public MongoTemplate mongoTemplate(MongoDatabaseFactory mongoDatabaseFactory, MongoConverter mongoConverter) {
+        return new RoutingMongoTemplate(mongoDatabaseFactory, mongoConverter);
+    }
+
+    @Bean
+    public ReadRoutingMonitor readRoutingMonitor() {
+        return new ReadRoutingMonitor();
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer readRoutingCommandListener(ReadRoutingMonitor readRoutingMonitor) {
+        return builder -> builder.addCommandListener(readRoutingMonitor);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor readFromSecondaryAdvisor(Environment environment) {
+        boolean enabled = environment.getProperty("app.mongo.read-routing.enabled", Boolean.class, true);
+        String configured = environment.getProperty("app.mongo.read-routing.max-staleness", "90s");
+        Duration maxStaleness = DurationStyle.detectAndParse(configured);
+        if (maxStaleness.compareTo(MIN_MAX_STALENESS) < 0) {
+            log.warn("app.mongo.read-routing.max-staleness={} is below the 90s Mongo accepts, using 90s", configured);
+            maxStaleness = MIN_MAX_STALENESS;
+        }
+        ReadPreference secondary = ReadPreference.secondaryPreferred(maxStaleness.toMillis(), TimeUnit.MILLISECONDS);
+
+        MethodInterceptor interceptor = invocation -> {
+            // A routed or explicitly primary caller further up the stack keeps its decision
+            if (!enabled || ReadRouting.current() != null) {
+                return invocation.proceed();
+            }
+            ReadRouting.set(secondary);
+            try {
+                return invocation.proceed();
+            } finally {
+                ReadRouting.set(null);
+            }
+        };
+        return new DefaultPointcutAdvisor(AnnotationMatchingPointcut.forMethodAnnotation(ReadFromSecondary.class), interceptor);
+    }
+
+    /**
+     * Registers the auto-proxy creator that applies infrastructure advisors, unless a more capable
+     * one is already there (which is then kept).
+     */
+    static class AutoProxyRegistrar implements ImportBeanDefinitionRegistrar {
+
+        @Override
+        public void registerBeanDefinitions(AnnotationMetadata importingClassMetadata, BeanDefinitionRegistry registry) {
+            AopConfigUtils.registerAutoProxyCreatorIfNecessary(registry);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.common.mongo;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerType;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Driver command listener recording which replica set member served each routed read.
+ * Per-member counts are exposed through the read routing admin endpoint, and with
+ * {@code logging.level.com.example.common.mongo=DEBUG} every routed read is logged with its node.
+ * The sync driver notifies on the calling thread, so {@link ReadRouting#current()} is still set here.
+ */
+@Slf4j
+public class ReadRoutingMonitor implements CommandListener {
+
+    private static final Set<String> READ_COMMANDS = Set.of("find", "getMore", "aggregate", "count", "distinct");
+
+    private final Map<String, LongAdder> servedBy = new ConcurrentHashMap<>();
+    private final LongAdder servedBySecondary = new LongAdder();
+    private final LongAdder servedByPrimary = new LongAdder();
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        ReadPreference routed = ReadRouting.current();
+        if (routed == null || !routed.isSecondaryOk() || !READ_COMMANDS.contains(event.getCommandName())) {
+            return;
+        }
+        ConnectionDescription connection = event.getConnectionDescription();
+        String server = connection.getServerAddress().toString();
+        boolean secondary = connection.getServerType() == ServerType.REPLICA_SET_SECONDARY;
+        (secondary ? servedBySecondary : servedByPrimary).increment();
+        servedBy.computeIfAbsent(server, k -> new LongAdder()).increment();
+        log.debug("Routed {} on {} served by {} ({}) in {} ms", event.getCommandName(), event.getDatabaseName(),
+                server, connection.getServerType(), event.getElapsedTime(TimeUnit.MILLISECONDS));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("routedReadsOnSecondary", servedBySecondary.sum());
+        stats.put("routedReadsOnPrimary", servedByPrimary.sum());
+        Map<String, Long> perServer = new TreeMap<>();
+        servedBy.forEach((server, count) -> perServer.put(server, count.sum()));
+        stats.put("servedBy", perServer);
+        return stats;
+    }
+}
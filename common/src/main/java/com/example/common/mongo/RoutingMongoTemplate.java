@@ -0,0 +1,25 @@
+package com.example.common.mongo;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.client.MongoDatabase;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+/**
+ * {@link MongoTemplate} that honours the thread's {@link ReadRouting} preference. Every template
+ * operation (and so every repository call) goes through {@link #prepareDatabase}; collections
+ * obtained directly with {@code getCollection} keep the client default.
+ */
+public class RoutingMongoTemplate extends MongoTemplate {
+
+    public RoutingMongoTemplate(MongoDatabaseFactory mongoDbFactory, MongoConverter mongoConverter) {
+        super(mongoDbFactory, mongoConverter);
+    }
+
+    @Override
+    protected MongoDatabase prepareDatabase(MongoDatabase database) {
+        ReadPreference routed = ReadRouting.current();
+        return routed != null ? database.withReadPreference(routed) : database;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.common.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Standard envelope for keyset-paginated lists.
+ * {@code nextCursor} is null on the last page; otherwise pass it back as {@code ?cursor=} to continue.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+    private int limit;
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = items.stream().map(mapper).collect(Collectors.toList());
+        return new CursorPage<>(mapped, nextCursor, hasMore, limit);
+    }
+}
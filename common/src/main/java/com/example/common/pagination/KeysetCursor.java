@@ -0,0 +1,61 @@
+package com.example.common.pagination;
+
+import com.example.common.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last row a client has seen: the sort key plus the document id as a tie-breaker.
+ * Clients only ever see the encoded form and pass it back unchanged.
+ */
+public class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime sortValue;
+    private final String id;
+
+    public KeysetCursor(LocalDateTime sortValue, String id) {
+        this.sortValue = sortValue;
+        this.id = id;
+    }
+
+    public LocalDateTime getSortValue() {
+        return sortValue;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = (sortValue == null ? "" : sortValue.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}; returns null for a blank cursor (first page).
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0 || separator == raw.length() - 1) {
+                throw new BadRequestException("Invalid page cursor");
+            }
+
+            String sortPart = raw.substring(0, separator);
+            String idPart = raw.substring(separator + 1);
+            return new KeysetCursor(sortPart.isEmpty() ? null : LocalDateTime.parse(sortPart), idPart);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid page cursor");
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.common.pagination;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Turns an opaque cursor into a range query on (sortField, _id), so every page costs the same
+ * index seek regardless of how deep the client has scrolled.
+ * Callers should have an index on {@code {filter fields..., sortField, _id}} for the query to stay cheap.
+ */
+@Component
+public class KeysetPaginator {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private final MongoTemplate mongoTemplate;
+
+    public KeysetPaginator(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Fetch one page.
+     *
+     * @param filter      base criteria for the list (may be null)
+     * @param entityClass mapped document class; property names are translated to stored field names
+     * @param sortField   entity property holding the sort key
+     * @param direction   sort direction of the list
+     * @param cursor      cursor from the previous page, or null for the first page
+     * @param limit       requested page size, clamped to [1, MAX_LIMIT]
+     * @param sortKey     reads the sort key from a row, used to build the next cursor
+     * @param idKey       reads the id from a row
+     */
+    public <T> CursorPage<T> fetch(Criteria filter,
+                                   Class<T> entityClass,
+                                   String sortField,
+                                   Sort.Direction direction,
+                                   String cursor,
+                                   Integer limit,
+                                   Function<T, LocalDateTime> sortKey,
+                                   Function<T, String> idKey) {
+        int pageSize = normalizeLimit(limit);
+        KeysetCursor position = KeysetCursor.decode(cursor);
+
+        List<Criteria> clauses = new ArrayList<>();
+        if (filter != null) {
+            clauses.add(filter);
+        }
+        if (position != null) {
+            clauses.add(afterPosition(sortField, direction, position));
+        }
+
+        Query query = new Query();
+        if (clauses.size() == 1) {
+            query.addCriteria(clauses.get(0));
+        } else if (clauses.size() > 1) {
+            query.addCriteria(new Criteria().andOperator(clauses.toArray(new Criteria[0])));
+        }
+        query.with(Sort.by(direction, sortField).and(Sort.by(direction, "id")));
+        query.limit(pageSize + 1);
+
+        List<T> rows = mongoTemplate.find(query, entityClass);
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = new ArrayList<>(rows.subList(0, pageSize));
+        }
+
+        String nextCursor = null;
+        if (hasMore && !rows.isEmpty()) {
+            T last = rows.get(rows.size() - 1);
+            nextCursor = new KeysetCursor(sortKey.apply(last), idKey.apply(last)).encode();
+        }
+
+        return new CursorPage<>(rows, nextCursor, hasMore, pageSize);
+    }
+
+    public static int normalizeLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    // Mongo sorts missing/null values before everything else, so they come last in a descending
+    // list and first in an ascending one; the null branches keep those rows reachable.
+    private Criteria afterPosition(String sortField, Sort.Direction direction, KeysetCursor position) {
+        LocalDateTime value = position.getSortValue();
+        String id = position.getId();
+
+        if (direction == Sort.Direction.DESC) {
+            if (value == null) {
+                return new Criteria().andOperator(
+                        Criteria.where(sortField).is(null),
+                        Criteria.where("id").lt(id));
+            }
+            return new Criteria().orOperator(
+                    Criteria.where(sortField).lt(value),
+                    new Criteria().andOperator(Criteria.where(sortField).is(value), Criteria.where("id").lt(id)),
+                    Criteria.where(sortField).is(null));
+        }
+
+        if (value == null) {
+            return new Criteria().orOperator(
+                    new Criteria().andOperator(Criteria.where(sortField).is(null), Criteria.where("id").gt(id)),
+                    Criteria.where(sortField).ne(null));
+        }
+        return new Criteria().orOperator(
+                Criteria.where(sortField).gt(value),
+                new Criteria().andOperator(Criteria.where(sortField).is(value), Criteria.where("id").gt(id)));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.common.ratelimit;
+
+import lombok.Getter;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One configured limit: {@code <METHOD|*> <ant-pattern> <capacity>/<period>}, e.g.
+ * {@code POST /api/reports/generate 5/1m} allows a burst of 5 and refills 5 tokens per minute.
+ */
+@Getter
+class RateLimitRule {
+
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    private final String name;
+    private final String method;
+    private final String pattern;
+    private final int capacity;
+    private final Duration period;
+    // Literal part of the pattern before the first wildcard; most requests are rejected on this alone
+    private final String prefix;
+    private final boolean literal;
+
+    // Token bucket expressed as nanos: one token is added every emissionNanos, and a full
+    // bucket is burstNanos worth of tokens ahead of the current time
+    private final long emissionNanos;
+    private final long burstNanos;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private RateLimitRule(String name, String method, String pattern, int capacity, Duration period) {
+        this.name = name;
+        this.method = method;
+        this.pattern = pattern;
+        this.capacity = capacity;
+        this.period = period;
+        int wildcard = indexOfWildcard(pattern);
+        this.prefix = wildcard < 0 ? pattern : pattern.substring(0, wildcard);
+        this.literal = wildcard < 0;
+        this.emissionNanos = Math.max(1, period.toNanos() / capacity);
+        this.burstNanos = emissionNanos * (capacity - 1);
+    }
+
+    static RateLimitRule parse(String name, String spec) {
+        String[] parts = spec.trim().split("\\s+");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Rate limit rule '" + name + "' must be '<METHOD> <pattern> <capacity>/<period>': " + spec);
+        }
+        String[] rate = parts[2].split("/", 2);
+        if (rate.length != 2) {
+            throw new IllegalArgumentException("Rate limit rule '" + name + "' has no period: " + spec);
+        }
+        int capacity = Integer.parseInt(rate[0]);
+        Duration period = DurationStyle.detectAndParse(rate[1]);
+        if (capacity < 1 || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Rate limit rule '" + name + "' needs a positive capacity and period: " + spec);
+        }
+        String method = "*".equals(parts[0]) ? null : parts[0].toUpperCase();
+        return new RateLimitRule(name, method, parts[1], capacity, period);
+    }
+
+    boolean matches(String requestMethod, String path) {
+        if (method != null && !method.equals(requestMethod)) {
+            return false;
+        }
+        if (literal) {
+            return pattern.equals(path);
+        }
+        return path.startsWith(prefix) && MATCHER.match(pattern, path);
+    }
+
+    private static int indexOfWildcard(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '*' || c == '?' || c == '{') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.common.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory token buckets keyed by rule and caller, configured per service with
+ * {@code app.ratelimit.rules.<name>=<METHOD|*> <ant-pattern> <capacity>/<period>}.
+ *
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will be full again
+ * (the GCRA form of a token bucket), so taking a token is one CAS with no locks and no refill
+ * bookkeeping. Buckets that have refilled completely carry no information and are swept every minute.
+ * Limits are per instance; with N instances behind a balancer a client can get up to N times the rate.
+ */
+@Slf4j
+@Component
+public class RateLimiter implements SmartLifecycle {
+
+    private static final long SWEEP_SECONDS = 60;
+
+    private final boolean enabled;
+    private final List<RateLimitRule> rules;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    private volatile ScheduledExecutorService sweeper;
+
+    public RateLimiter(Environment environment) {
+        this.enabled = environment.getProperty("app.ratelimit.enabled", Boolean.class, true);
+        Map<String, String> specs = Binder.get(environment)
+                .bind("app.ratelimit.rules", Bindable.mapOf(String.class, String.class))
+                .orElse(Collections.emptyMap());
+        List<RateLimitRule> parsed = new ArrayList<>();
+        specs.forEach((name, spec) -> {
+            parsed.add(RateLimitRule.parse(name, spec));
+        });
+        this.rules = List.copyOf(parsed);
+    }
+
+    /**
+     * The first rule matching the request, or null when it is not limited.
+     */
+    RateLimitRule match(String method, String path) {
+        if (!enabled) {
+            return null;
+        }
+        for (RateLimitRule rule : rules) {
+            if (rule.matches(method, path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Take a token for {@code caller} under {@code rule}.
+     *
+     * @return 0 when allowed, otherwise the nanoseconds until a token is available
+     */
+    long tryAcquire(RateLimitRule rule, String caller) {
+        AtomicLong bucket = buckets.computeIfAbsent(rule.getName() + '|' + caller, k -> new AtomicLong(System.nanoTime()));
+        long emission = rule.getEmissionNanos();
+        long burst = rule.getBurstNanos();
+        while (true) {
+            long now = System.nanoTime();
+            long fullAt = bucket.get();
+            long base = fullAt - now < 0 ? now : fullAt;
+            long wait = base - burst - now;
+            if (wait > 0) {
+                rule.getRejected().increment();
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, base + emission)) {
+                rule.getAllowed().increment();
+                return 0;
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        List<Map<String, Object>> perRule = new ArrayList<>();
+        for (RateLimitRule rule : rules) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", rule.getName());
+            entry.put("method", rule.getMethod() != null ? rule.getMethod() : "*");
+            entry.put("pattern", rule.getPattern());
+            entry.put("capacity", rule.getCapacity());
+            entry.put("period", rule.getPeriod().toString());
+            entry.put("allowed", rule.getAllowed().sum());
+            entry.put("rejected", rule.getRejected().sum());
+            perRule.add(entry);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("activeBuckets", buckets.size());
+        result.put("rules", perRule);
+        return result;
+    }
+
+    private void sweep() {
+        long now = System.nanoTime();
+        // A bucket whose refill point has passed is full, which is the same as not existing.
+        // Racing a caller that still holds the removed bucket costs at most one extra token.
+        buckets.values().removeIf(bucket -> bucket.get() - now < 0);
+    }
+
+    // ===================================
+    // Lifecycle
+    // ===================================
+
+    @Override
+    public void start() {
+        if (rules.isEmpty() || !enabled) {
+            return;
+        }
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "rate-limit-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.scheduleWithFixedDelay(this::sweep, SWEEP_SECONDS, SWEEP_SECONDS, TimeUnit.SECONDS);
+        sweeper = executor;
+        log.info("Rate limiting {} route(s)", rules.size());
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService executor = sweeper;
+        sweeper = null;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return sweeper != null;
+    }
+}
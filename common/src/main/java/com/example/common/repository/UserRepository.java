@@ -1,9 +1,11 @@
 package com.example.common.repository;
 
 import com.example.common.entity.UserEntity;
+import com.example.common.repository.projection.UserSummaryView;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,4 +30,7 @@ public interface UserRepository extends MongoRepository<UserEntity, String> {
 
     List<UserEntity> findByNameContainingIgnoreCase(String name);
 
+    // Slim lookup for list screens that only need display fields
+    List<UserSummaryView> findSummariesByIdIn(Collection<String> ids);
+
 }
\ No newline at end of file
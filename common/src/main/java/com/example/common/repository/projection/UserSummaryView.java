@@ -0,0 +1,13 @@
+package com.example.common.repository.projection;
+
+/**
+ * Closed projection over users: only these fields are read from MongoDB,
+ * so passwords, bios and other profile data never leave the database for list screens.
+ */
+public interface UserSummaryView {
+    String getId();
+    String getUsername();
+    String getName();
+    String getProfilePic();
+    String getRole();
+}
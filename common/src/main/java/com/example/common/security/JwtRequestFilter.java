@@ -2,6 +2,7 @@
 package com.example.common.security;
 
 import com.example.common.entity.UserEntity;
+import com.example.common.logging.CorrelationIdFilter;
 import com.example.common.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -59,6 +60,7 @@ public class JwtRequestFilter extends OncePerRequestFilter {
                                 userDetails, null, userDetails.getAuthorities());
                         authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                         SecurityContextHolder.getContext().setAuthentication(authToken);
+                        CorrelationIdFilter.bindUser(request, userDetails.getId());
                     }
                 }
             }
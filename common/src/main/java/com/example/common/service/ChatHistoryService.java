@@ -0,0 +1,53 @@
+package com.example.common.service;
+
+import com.example.common.archive.ArchiveService;
+import com.example.common.entity.ChatMessageEntity;
+import com.example.common.repository.ChatMessageRepository;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Conversation history for one chat context, including messages that have been moved to
+ * {@code chat_messages_archive}. Both services' chat controllers read history through here.
+ */
+@Service
+public class ChatHistoryService {
+
+    private static final String COLLECTION = "chat_messages";
+
+    private final ChatMessageRepository chatMessageRepository;
+    private final ArchiveService archiveService;
+
+    public ChatHistoryService(ChatMessageRepository chatMessageRepository, ArchiveService archiveService) {
+        this.chatMessageRepository = chatMessageRepository;
+        this.archiveService = archiveService;
+    }
+
+    /**
+     * Every message between {@code user1} and {@code user2} in {@code context}, oldest first.
+     */
+    public List<ChatMessageEntity> getConversation(String user1, String user2, String context) {
+        List<ChatMessageEntity> live = chatMessageRepository
+                .findBySenderIdAndReceiverIdOrReceiverIdAndSenderIdAndContext(user1, user2, context);
+
+        Criteria conversation = new Criteria().andOperator(
+                new Criteria().orOperator(
+                        Criteria.where("senderId").is(user1).and("receiverId").is(user2),
+                        Criteria.where("senderId").is(user2).and("receiverId").is(user1)),
+                Criteria.where("context").is(context));
+        List<ChatMessageEntity> history = archiveService.withArchived(live, conversation, null,
+                ChatMessageEntity.class, COLLECTION, ChatMessageEntity::getId);
+        if (history == live) {
+            return live;
+        }
+
+        List<ChatMessageEntity> sorted = new ArrayList<>(history);
+        sorted.sort(Comparator.comparing(ChatMessageEntity::getTimestamp,
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+        return sorted;
+    }
+}
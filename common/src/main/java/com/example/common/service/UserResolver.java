@@ -0,0 +1,124 @@
+package com.example.common.service;
+
+import com.example.common.repository.UserRepository;
+import com.example.common.repository.projection.UserSummaryView;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Request-scoped, batching user lookup for list screens.
+ *
+ * Callers {@link #prime} the ids a response will need, then {@link #resolve} them one row at a time;
+ * the first resolve loads every pending id with a single {@code $in} query over the slim
+ * {@link UserSummaryView} projection and the results are memoized for the rest of the request.
+ * Outside a web request (schedulers, background jobs) nothing is memoized between calls,
+ * so prefer {@link #resolveAll} there.
+ */
+@Service
+public class UserResolver {
+
+    private static final String MEMO_ATTRIBUTE = UserResolver.class.getName() + ".MEMO";
+
+    private final UserRepository userRepository;
+
+    public UserResolver(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Register ids to be fetched with the next lookup; does not query by itself.
+     */
+    public void prime(Collection<String> userIds) {
+        Memo memo = memo();
+        synchronized (memo) {
+            for (String id : userIds) {
+                if (id != null && !id.isEmpty() && !memo.loaded.containsKey(id)) {
+                    memo.pending.add(id);
+                }
+            }
+        }
+    }
+
+    public Optional<UserSummaryView> resolve(String userId) {
+        if (userId == null || userId.isEmpty()) {
+            return Optional.empty();
+        }
+        Memo memo = memo();
+        synchronized (memo) {
+            load(memo, List.of(userId));
+            return memo.loaded.get(userId);
+        }
+    }
+
+    /**
+     * Resolve all ids at once; unknown ids are simply absent from the result.
+     */
+    public Map<String, UserSummaryView> resolveAll(Collection<String> userIds) {
+        Memo memo = memo();
+        synchronized (memo) {
+            load(memo, userIds);
+            Map<String, UserSummaryView> result = new LinkedHashMap<>();
+            for (String id : userIds) {
+                Optional<UserSummaryView> user = id != null ? memo.loaded.get(id) : null;
+                if (user != null && user.isPresent()) {
+                    result.put(id, user.get());
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * The user's name, falling back to the username, then to the given fallback.
+     */
+    public String displayName(String userId, String fallback) {
+        return resolve(userId)
+                .map(u -> u.getName() != null ? u.getName() : u.getUsername())
+                .orElse(fallback);
+    }
+
+    private void load(Memo memo, Collection<String> wanted) {
+        Set<String> missing = new LinkedHashSet<>(memo.pending);
+        for (String id : wanted) {
+            if (id != null && !id.isEmpty()) {
+                missing.add(id);
+            }
+        }
+        missing.removeAll(memo.loaded.keySet());
+        memo.pending.clear();
+
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        Map<String, UserSummaryView> found = userRepository.findSummariesByIdIn(missing).stream()
+                .collect(Collectors.toMap(UserSummaryView::getId, Function.identity(), (a, b) -> a));
+        // Remember misses too, so a deleted user isn't looked up again on every row
+        for (String id : missing) {
+            memo.loaded.put(id, Optional.ofNullable(found.get(id)));
+        }
+    }
+
+    private Memo memo() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return new Memo();
+        }
+        Memo memo = (Memo) attributes.getAttribute(MEMO_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            memo = new Memo();
+            attributes.setAttribute(MEMO_ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return memo;
+    }
+
+    private static class Memo {
+        private final Map<String, Optional<UserSummaryView>> loaded = new HashMap<>();
+        private final Set<String> pending = new LinkedHashSet<>();
+    }
+}
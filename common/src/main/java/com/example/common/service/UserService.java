@@ -21,6 +21,9 @@ public interface UserService {
 
     UserEntity getUserById(String userId);
 
+    // Name (or username when no name is set) for display; null when the user does not exist
+    String getDisplayName(String userId);
+
     List<UserEntity> findUsersByRole(String role);
 
     List<UserEntity> findUsersByIds(List<String> userIds);
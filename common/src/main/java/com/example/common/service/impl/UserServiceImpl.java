@@ -1,5 +1,6 @@
 package com.example.common.service.impl;
 
+import com.example.common.config.CacheNames;
 import com.example.common.exceptions.BadRequestException;
 import com.example.common.security.JwtUtil;
 import com.example.common.dto.request.AdminCreateUserRequest;
@@ -12,6 +13,8 @@ import com.example.common.service.MailService;
 import com.example.common.service.UserService;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -79,6 +82,18 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
+    @Override
+    @Cacheable(value = CacheNames.USER_DISPLAY_NAMES, key = "#userId", unless = "#result == null")
+    public String getDisplayName(String userId) {
+        if (userId == null) {
+            return null;
+        }
+        return userRepository.findSummariesByIdIn(List.of(userId)).stream()
+                .findFirst()
+                .map(u -> u.getName() != null ? u.getName() : u.getUsername())
+                .orElse(null);
+    }
+
     @Override
     public List<UserEntity> findUsersByRole(String role) {
         return userRepository.findByRole(role);
@@ -142,6 +157,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(value = CacheNames.USER_DISPLAY_NAMES, key = "#userId")
     public UserEntity updateUser(String userId, AdminCreateUserRequest request) {
         UserEntity user = userRepository.findById(userId)
                 .orElseThrow(() -> new BadRequestException("User not found with ID: " + userId));
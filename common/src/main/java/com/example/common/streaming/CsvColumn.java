@@ -0,0 +1,29 @@
+package com.example.common.streaming;
+
+import java.util.function.Function;
+
+/**
+ * A single CSV column: the header text and how to read the cell value from a row.
+ */
+public class CsvColumn<T> {
+
+    private final String header;
+    private final Function<? super T, ?> extractor;
+
+    private CsvColumn(String header, Function<? super T, ?> extractor) {
+        this.header = header;
+        this.extractor = extractor;
+    }
+
+    public static <T> CsvColumn<T> of(String header, Function<? super T, ?> extractor) {
+        return new CsvColumn<>(header, extractor);
+    }
+
+    public String getHeader() {
+        return header;
+    }
+
+    public Object valueOf(T row) {
+        return extractor.apply(row);
+    }
+}
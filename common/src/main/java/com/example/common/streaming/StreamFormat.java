@@ -0,0 +1,54 @@
+package com.example.common.streaming;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Incremental response formats an endpoint can opt into.
+ * Endpoints keep their regular JSON array response unless the client asks
+ * for one of these through {@code ?format=} or the {@code Accept} header.
+ */
+public enum StreamFormat {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String extension;
+
+    StreamFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return MediaType.parseMediaType(mediaType);
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Resolves the requested streaming format, or null when the caller wants the regular JSON body.
+     */
+    public static StreamFormat resolve(String format, String acceptHeader) {
+        if (format != null && !format.isBlank()) {
+            String normalized = format.trim().toLowerCase();
+            for (StreamFormat candidate : values()) {
+                if (candidate.extension.equals(normalized)) {
+                    return candidate;
+                }
+            }
+            return null;
+        }
+
+        if (acceptHeader != null) {
+            for (StreamFormat candidate : values()) {
+                if (acceptHeader.contains(candidate.mediaType)) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.common.streaming;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes a cursor-backed {@link Stream} to the HTTP response one row at a time.
+ * The source is only opened once the servlet starts writing, and is always closed
+ * afterwards, so at most one row plus the output buffer is held in memory.
+ */
+@Component
+public class StreamingResponseWriter {
+
+    // Rows written between explicit flushes, so the first bytes reach the client early
+    private static final int FLUSH_INTERVAL = 200;
+
+    private final ObjectMapper objectMapper;
+
+    public StreamingResponseWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public <T> ResponseEntity<StreamingResponseBody> stream(StreamFormat format,
+                                                            Supplier<Stream<T>> source,
+                                                            List<CsvColumn<T>> columns,
+                                                            String filename) {
+        StreamingResponseBody body = format == StreamFormat.CSV
+                ? out -> writeCsv(out, source, columns)
+                : out -> writeNdjson(out, source);
+
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + filename + "." + format.getExtension() + "\"")
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .header("X-Accel-Buffering", "no")
+                .body(body);
+    }
+
+    private <T> void writeNdjson(OutputStream out, Supplier<Stream<T>> source) throws IOException {
+        try (Stream<T> rows = source.get()) {
+            Iterator<T> iterator = rows.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+                if (++written % FLUSH_INTERVAL == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        }
+    }
+
+    private <T> void writeCsv(OutputStream out, Supplier<Stream<T>> source, List<CsvColumn<T>> columns)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) writer.write(',');
+            writer.write(escapeCsv(columns.get(i).getHeader()));
+        }
+        writer.write('\n');
+
+        try (Stream<T> rows = source.get()) {
+            Iterator<T> iterator = rows.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                T row = iterator.next();
+                for (int i = 0; i < columns.size(); i++) {
+                    if (i > 0) writer.write(',');
+                    Object value = columns.get(i).valueOf(row);
+                    writer.write(escapeCsv(value == null ? "" : value.toString()));
+                }
+                writer.write('\n');
+                if (++written % FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private String escapeCsv(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
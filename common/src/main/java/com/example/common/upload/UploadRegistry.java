@@ -0,0 +1,225 @@
+package com.example.common.upload;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Which uploaded files this service wrote, who uploaded them and which document they belong to, in
+ * the shared {@code uploaded_files} collection. Documents only name their files by URL, and those
+ * URLs often come from the client; this record is what says a file may be deleted along with a
+ * document. An upload is claimed by the first document its own uploader attaches it to, and only
+ * that document's deletion releases it (see {@link com.example.common.cascade.CascadeFileReaper}).
+ * A URL pointing at someone else's upload, at a file uploaded before this record existed or at
+ * another host is never released.
+ *
+ * Entries are keyed by service and by the file's path relative to {@code app.upload.dir}, as given
+ * by {@link #relativePath}.
+ */
+@Slf4j
+@Service
+public class UploadRegistry {
+
+    static final String COLLECTION = "uploaded_files";
+    private static final String UPLOADS_PREFIX = "uploads/";
+    private static final String FILES_API_PREFIX = "api/files/";
+
+    private final MongoTemplate mongoTemplate;
+    private final String service;
+    // host[:port] our upload URLs are issued under, from app.base.url
+    private final String uploadHost;
+
+    public UploadRegistry(MongoTemplate mongoTemplate, Environment environment) {
+        this.mongoTemplate = mongoTemplate;
+        this.service = environment.getProperty("spring.application.name", "app");
+        this.uploadHost = authority(environment.getProperty("app.base.url"));
+    }
+
+    /**
+     * Record a file this service just stored for {@code uploadedBy} (a user id), not yet part of any document.
+     */
+    public void recordUpload(String stored, String uploadedBy) {
+        String path = relativePath(stored);
+        if (path == null) {
+            return;
+        }
+        try {
+            uploads().insertOne(new Document("_id", key(path))
+                    .append("service", service)
+                    .append("path", path)
+                    .append("uploadedBy", uploadedBy)
+                    .append("uploadedAt", new Date()));
+        } catch (MongoWriteException e) {
+            if (e.getError().getCategory() != ErrorCategory.DUPLICATE_KEY) {
+                log.warn("Could not record upload {}: {}", path, e.getMessage());
+            }
+        } catch (MongoException e) {
+            log.warn("Could not record upload {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Record a file this service stored directly for a document, e.g. an image sent along with the form.
+     */
+    public void recordOwned(String stored, String uploadedBy, String collection, String documentId) {
+        String path = relativePath(stored);
+        if (path == null) {
+            return;
+        }
+        try {
+            uploads().updateOne(Filters.eq("_id", key(path)), Updates.combine(
+                    Updates.setOnInsert("service", service),
+                    Updates.setOnInsert("path", path),
+                    Updates.setOnInsert("uploadedBy", uploadedBy),
+                    Updates.setOnInsert("uploadedAt", new Date()),
+                    Updates.set("ownerCollection", collection),
+                    Updates.set("ownerId", documentId)), new UpdateOptions().upsert(true));
+        } catch (MongoException e) {
+            log.warn("Could not record upload {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Attach an upload named by a document to that document, if {@code uploadedBy} uploaded it and it
+     * isn't attached to another one yet.
+     *
+     * @return false when the file stays unowned by the document (and is never deleted with it)
+     */
+    public boolean attach(String stored, String uploadedBy, String collection, String documentId) {
+        String path = relativePath(stored);
+        if (path == null || uploadedBy == null) {
+            return false;
+        }
+        try {
+            return uploads().updateOne(
+                    Filters.and(Filters.eq("_id", key(path)),
+                            Filters.eq("uploadedBy", uploadedBy),
+                            Filters.eq("ownerCollection", null)),
+                    Updates.combine(
+                            Updates.set("ownerCollection", collection),
+                            Updates.set("ownerId", documentId))).getModifiedCount() == 1;
+        } catch (MongoException e) {
+            log.warn("Could not attach upload {} to {} {}: {}", path, collection, documentId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Release the upload {@code stored} names because the document owning it was deleted.
+     *
+     * @return the file's path relative to the upload directory, or null when the document didn't own it
+     */
+    public String release(String stored, String collection, String documentId) {
+        String path = relativePath(stored);
+        if (path == null || collection == null || documentId == null) {
+            return null;
+        }
+        long released = uploads().deleteOne(Filters.and(
+                Filters.eq("_id", key(path)),
+                Filters.eq("ownerCollection", collection),
+                Filters.eq("ownerId", documentId))).getDeletedCount();
+        return released == 1 ? path : null;
+    }
+
+    /**
+     * The upload a stored value points at, relative to the upload directory: {@code /uploads/...} and
+     * {@code /api/files/...} paths, optionally as absolute URLs on our own upload host. Anything else
+     * (another host, a path outside those two, one climbing out with {@code ..}) is null.
+     */
+    public String relativePath(String stored) {
+        if (stored == null || stored.isBlank()) {
+            return null;
+        }
+        String path = stored.trim();
+        if (path.contains("://")) {
+            try {
+                URI uri = new URI(path);
+                if (uploadHost == null || !uploadHost.equals(authority(uri))) {
+                    return null;
+                }
+                path = uri.getPath();
+            } catch (URISyntaxException e) {
+                return null;
+            }
+            if (path == null) {
+                return null;
+            }
+        } else {
+            int query = indexOfAny(path, '?', '#');
+            if (query >= 0) {
+                path = path.substring(0, query);
+            }
+        }
+
+        path = path.replaceFirst("^/+", "");
+        if (path.startsWith(UPLOADS_PREFIX)) {
+            path = path.substring(UPLOADS_PREFIX.length());
+        } else if (path.startsWith(FILES_API_PREFIX)) {
+            path = path.substring(FILES_API_PREFIX.length());
+        } else {
+            return null;
+        }
+        try {
+            Path relative = Paths.get(path).normalize();
+            if (relative.isAbsolute() || relative.toString().isEmpty() || relative.startsWith("..")) {
+                return null;
+            }
+            return relative.toString().replace('\\', '/');
+        } catch (InvalidPathException e) {
+            return null;
+        }
+    }
+
+    private String key(String path) {
+        return service + "|" + path;
+    }
+
+    private static String authority(String url) {
+        if (url == null || url.isBlank()) {
+            return null;
+        }
+        try {
+            return authority(new URI(url.trim()));
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    private static String authority(URI uri) {
+        if (uri.getHost() == null) {
+            return null;
+        }
+        String host = uri.getHost().toLowerCase(Locale.ROOT);
+        return uri.getPort() >= 0 ? host + ":" + uri.getPort() : host;
+    }
+
+    private static int indexOfAny(String value, char a, char b) {
+        int first = value.indexOf(a);
+        int second = value.indexOf(b);
+        if (first < 0) {
+            return second;
+        }
+        return second < 0 ? first : Math.min(first, second);
+    }
+
+    private MongoCollection<Document> uploads() {
+        return mongoTemplate.getCollection(COLLECTION);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.common.upload;
+
+import com.example.common.exceptions.FileStorageException;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Stores and removes files under {@code app.upload.dir}, laid out as {@code <context>/<type>s/<uuid><ext>}
+ * and served back by {@link com.example.common.controller.FileUploadController}. Used by that controller
+ * and by services storing files on a user's behalf; callers record who uploaded what in
+ * {@link UploadRegistry}.
+ */
+@Service
+public class UploadStorage {
+
+    private static final Set<String> CONTEXTS = Set.of("community", "edusphere");
+    private static final Set<String> TYPES = Set.of("image", "file");
+    private static final Set<String> FILE_CONTENT_TYPES = Set.of(
+            "application/pdf",
+            "application/msword",
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+            "application/vnd.ms-powerpoint",
+            "application/vnd.openxmlformats-officedocument.presentationml.presentation",
+            "text/plain",
+            "application/zip",
+            "application/x-rar-compressed",
+            "application/x-7z-compressed",
+            "image/jpeg",
+            "image/png",
+            "image/gif",
+            "image/svg+xml",
+            "audio/mpeg",
+            "audio/wav",
+            "video/mp4",
+            "video/x-msvideo",
+            "text/csv",
+            "application/json");
+
+    private final String uploadDir;
+    private final String baseUrl;
+
+    public UploadStorage(Environment environment) {
+        this.uploadDir = environment.getRequiredProperty("app.upload.dir");
+        this.baseUrl = environment.getRequiredProperty("app.base.url");
+    }
+
+    /**
+     * A file written by {@link #store}.
+     */
+    public record StoredFile(String url, String filename, String originalName, String context, String type, long size) {
+    }
+
+    /**
+     * Validate and write an uploaded file.
+     *
+     * @param context "community" or "edusphere"
+     * @param type    "image" or "file"
+     * @throws IllegalArgumentException when the context, type or file is not accepted
+     * @throws FileStorageException     when the file could not be written
+     */
+    public StoredFile store(String context, String type, MultipartFile file) {
+        if (!CONTEXTS.contains(context)) {
+            throw new IllegalArgumentException("Invalid context");
+        }
+        if (!TYPES.contains(type)) {
+            throw new IllegalArgumentException("Invalid upload type");
+        }
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("File is empty");
+        }
+
+        // Validate file type based on upload type
+        String contentType = file.getContentType();
+        if (type.equals("image")) {
+            if (contentType == null || !contentType.startsWith("image/")) {
+                throw new IllegalArgumentException("File must be an image");
+            }
+        } else if (contentType == null || !FILE_CONTENT_TYPES.contains(contentType)) {
+            throw new IllegalArgumentException("File type not supported");
+        }
+
+        try {
+            // Create context and type specific directory structure
+            Path contextPath = Paths.get(uploadDir, context, type + "s"); // "images" or "files"
+            if (!Files.exists(contextPath)) {
+                Files.createDirectories(contextPath);
+            }
+
+            // Generate unique filename
+            String originalFilename = file.getOriginalFilename();
+            String fileExtension = originalFilename != null && originalFilename.lastIndexOf(".") >= 0
+                    ? originalFilename.substring(originalFilename.lastIndexOf("."))
+                    : (type.equals("image") ? ".jpg" : ".pdf");
+            String uniqueFilename = UUID.randomUUID() + fileExtension;
+
+            Files.copy(file.getInputStream(), contextPath.resolve(uniqueFilename), StandardCopyOption.REPLACE_EXISTING);
+
+            String fileUrl = baseUrl + "/api/files/" + context + "/" + type + "s/" + uniqueFilename;
+            return new StoredFile(fileUrl, uniqueFilename, originalFilename, context, type, file.getSize());
+        } catch (IOException e) {
+            throw new FileStorageException("File upload failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Delete a stored file.
+     *
+     * @return false when there was no such file
+     * @throws FileStorageException when it could not be deleted
+     */
+    public boolean delete(String context, String type, String filename) {
+        Path filePath = Paths.get(uploadDir, context, type + "s", filename);
+        try {
+            return Files.deleteIfExists(filePath);
+        } catch (IOException e) {
+            throw new FileStorageException("Failed to delete file", e);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.common.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.OutputStreamAppender;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request-thread latency of the old {@code System.err.println} error reporting against the
+ * logging setup in {@code logback-spring.xml}: a JSON encoder behind a non-blocking async appender,
+ * with {@link SampledTraceTurboFilter} installed. Four threads log at once, as concurrent requests
+ * did when they contended on stderr. Every variant writes to its own temp file, not the terminal.
+ *
+ * The async figures are the cost on the calling thread only. When the loop outruns the writer,
+ * the appender drops events, which is the production behaviour.
+ *
+ * <pre>
+ * mvn -pl common test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=target/test.classpath
+ * java -cp common/target/test-classes:common/target/classes:$(cat common/target/test.classpath) \
+ *     com.example.common.logging.LoggingBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class LoggingBenchmark {
+
+    private static final String QUESTION_ID = "65f0c0ffee0000000000f001";
+    private static final String MESSAGE = "Cannot parse answer index: For input string: \"b\"";
+
+    private Path directory;
+    private PrintStream stderr;
+    private LoggerContext context;
+    private org.slf4j.Logger asyncJson;
+    private org.slf4j.Logger syncJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("logging-benchmark");
+        // Like System.err: autoflush, so every line is a write syscall on the calling thread
+        stderr = new PrintStream(new FileOutputStream(directory.resolve("stderr.log").toFile()), true);
+
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        SampledTraceTurboFilter sampling = new SampledTraceTurboFilter();
+        sampling.setContext(context);
+        sampling.start();
+        context.addTurboFilter(sampling);
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(8192);
+        async.setNeverBlock(true);
+        async.addAppender(jsonFile("async.log"));
+        async.start();
+
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(async);
+        asyncJson = context.getLogger("com.example.edusphere.service.impl.ExamServiceImpl");
+
+        Logger sync = context.getLogger("com.example.edusphere.service.impl.SyncExamServiceImpl");
+        sync.setAdditive(false);
+        sync.addAppender(jsonFile("sync.log"));
+        syncJson = sync;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop();
+        stderr.close();
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public void stderrPrintln() {
+        stderr.println("Error grading question " + QUESTION_ID + ": " + MESSAGE);
+    }
+
+    @Benchmark
+    public void syncJsonWarn() {
+        syncJson.warn("Error grading question {}: {}", QUESTION_ID, MESSAGE);
+    }
+
+    @Benchmark
+    public void asyncJsonWarn() {
+        asyncJson.warn("Error grading question {}: {}", QUESTION_ID, MESSAGE);
+    }
+
+    @Benchmark
+    public void debugDisabled() {
+        // The per-question grading lines: level INFO and the request not sampled
+        asyncJson.debug("Graded question {}: {}", QUESTION_ID, MESSAGE);
+    }
+
+    private OutputStreamAppender<ILoggingEvent> jsonFile(String name) throws IOException {
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(new FileOutputStream(directory.resolve(name).toFile()));
+        appender.start();
+        return appender;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(LoggingBenchmark.class.getName())
+                .build()).run();
+    }
+}
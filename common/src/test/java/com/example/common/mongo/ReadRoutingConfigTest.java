@@ -0,0 +1,72 @@
+package com.example.common.mongo;
+
+import com.mongodb.ReadPreference;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.env.Environment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The {@link ReadFromSecondary} advisor applies without caching or any other auto-proxying
+ * feature in the context.
+ */
+class ReadRoutingConfigTest {
+
+    @Test
+    void routesAnnotatedMethodsWithoutCachingEnabled() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(RoutingOnly.class)) {
+            Reports reports = context.getBean(Reports.class);
+
+            ReadPreference routed = reports.routed();
+            assertThat(routed).isNotNull();
+            assertThat(routed.getName()).isEqualTo("secondaryPreferred");
+            assertThat(reports.notRouted()).isNull();
+            assertThat(ReadRouting.current()).isNull();
+        }
+    }
+
+    @Test
+    void keepsAnExplicitPrimaryFurtherUpTheStack() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(RoutingOnly.class)) {
+            Reports reports = context.getBean(Reports.class);
+
+            assertThat(ReadRouting.onPrimary(reports::routed)).isEqualTo(ReadPreference.primary());
+        }
+    }
+
+    @Configuration
+    @Import(ReadRoutingConfig.AutoProxyRegistrar.class)
+    static class RoutingOnly {
+
+        // Declared like the production bean: the infrastructure auto-proxy creator only applies advisors with this role
+        @Bean
+        @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+        static Advisor readFromSecondaryAdvisor(Environment environment) {
+            return ReadRoutingConfig.readFromSecondaryAdvisor(environment);
+        }
+
+        @Bean
+        Reports reports() {
+            return new Reports();
+        }
+    }
+
+    static class Reports {
+
+        @ReadFromSecondary
+        public ReadPreference routed() {
+            return ReadRouting.current();
+        }
+
+        public ReadPreference notRouted() {
+            return ReadRouting.current();
+        }
+    }
+}
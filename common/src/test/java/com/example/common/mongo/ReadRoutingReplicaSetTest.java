@@ -0,0 +1,88 @@
+package com.example.common.mongo;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routed reads reach a secondary of a real replica set, and primary-pinned ones don't. Needs a
+ * replica set with at least one secondary, given as {@code READ_ROUTING_RS_URI}, e.g. three local
+ * members started with {@code mongod --replSet rs0 --port 2701x} and {@code rs.initiate(...)}:
+ * <pre>
+ * READ_ROUTING_RS_URI="mongodb://localhost:27017,localhost:27018,localhost:27019/routing_test?replicaSet=rs0" \
+ *     mvn -pl common test -Dtest=ReadRoutingReplicaSetTest
+ * </pre>
+ * Skipped when the variable is not set.
+ */
+@EnabledIfEnvironmentVariable(named = "READ_ROUTING_RS_URI", matches = ".+")
+class ReadRoutingReplicaSetTest {
+
+    private ReadRoutingMonitor monitor;
+    private MongoClient client;
+    private RoutingMongoTemplate template;
+
+    @BeforeEach
+    void connect() {
+        ConnectionString uri = new ConnectionString(System.getenv("READ_ROUTING_RS_URI"));
+        monitor = new ReadRoutingMonitor();
+        client = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(uri)
+                .addCommandListener(monitor)
+                .build());
+        SimpleMongoClientDatabaseFactory factory = new SimpleMongoClientDatabaseFactory(
+                client, uri.getDatabase() != null ? uri.getDatabase() : "routing_test");
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+        template = new RoutingMongoTemplate(factory, converter);
+
+        template.getCollection("routing_probe").withWriteConcern(WriteConcern.MAJORITY)
+                .insertOne(new Document("probe", true));
+    }
+
+    @AfterEach
+    void close() {
+        template.dropCollection("routing_probe");
+        client.close();
+    }
+
+    @Test
+    void routedReadsAreServedBySecondaries() {
+        ReadPreference secondary = ReadPreference.secondaryPreferred(90, TimeUnit.SECONDS);
+        for (int i = 0; i < 5; i++) {
+            ReadRouting.with(secondary, () -> template.find(Query.query(Criteria.where("probe").is(true)), Document.class, "routing_probe"));
+        }
+
+        Map<String, Object> stats = monitor.getStats();
+        assertThat((Long) stats.get("routedReadsOnSecondary")).isEqualTo(5L);
+        assertThat((Long) stats.get("routedReadsOnPrimary")).isZero();
+    }
+
+    @Test
+    void primaryReadsAreNotRouted() {
+        ReadRouting.with(ReadPreference.primary(), () -> template.find(new Query(), Document.class, "routing_probe"));
+        template.find(new Query(), Document.class, "routing_probe");
+
+        Map<String, Object> stats = monitor.getStats();
+        assertThat((Long) stats.get("routedReadsOnSecondary")).isZero();
+        assertThat((Long) stats.get("routedReadsOnPrimary")).isZero();
+    }
+}
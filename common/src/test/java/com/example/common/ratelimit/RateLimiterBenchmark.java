@@ -0,0 +1,112 @@
+package com.example.common.ratelimit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of {@link RateLimitFilter}'s hot path: rule matching for limited and unlimited
+ * routes, and taking a token for one caller, many callers, and one caller from several threads.
+ * The rules are the ones the services ship with.
+ *
+ * <pre>
+ * mvn -pl common test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=target/test.classpath
+ * java -cp common/target/test-classes:common/target/classes:$(cat common/target/test.classpath) \
+ *     com.example.common.ratelimit.RateLimiterBenchmark
+ * </pre>
+ * Any JMH option can be appended, e.g. {@code -f 1 -wi 2 -i 3} for a quick run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int CALLERS = 10_000;
+
+    private RateLimiter limiter;
+    private RateLimitRule saveProgress;
+    private RateLimitRule unbounded;
+    private String[] callers;
+
+    @Setup
+    public void setUp() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("app.ratelimit.rules.report-generate", "POST /api/reports/generate 5/1m");
+        properties.put("app.ratelimit.rules.exam-save-progress", "PUT /api/**/save-progress 30/1m");
+        properties.put("app.ratelimit.rules.cv-ai-extract", "POST /api/cv/ai-extract 10/1m");
+        properties.put("app.ratelimit.rules.cv-ai", "POST /api/cv/ai/** 10/1m");
+        properties.put("app.ratelimit.rules.user-search", "GET /api/users/search 60/1m");
+        properties.put("app.ratelimit.rules.group-search", "GET /api/groups/search 60/1m");
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        limiter = new RateLimiter(environment);
+
+        saveProgress = limiter.match("PUT", "/api/student/exams/65f0c0ffee0000000000e001/save-progress");
+        // Never exhausted during a run, so the acquire benchmarks measure the allowed path
+        unbounded = RateLimitRule.parse("unbounded", "* /** 1000000000/1s");
+        callers = new String[CALLERS];
+        for (int i = 0; i < CALLERS; i++) {
+            callers[i] = "user-" + i;
+        }
+    }
+
+    @Benchmark
+    public RateLimitRule matchUnlimitedRoute() {
+        return limiter.match("GET", "/api/courses/65f0c0ffee0000000000c001/tasks");
+    }
+
+    @Benchmark
+    public RateLimitRule matchLimitedRoute() {
+        return limiter.match("PUT", "/api/student/exams/65f0c0ffee0000000000e001/save-progress");
+    }
+
+    @Benchmark
+    public long acquireLimited() {
+        // Mostly rejections once the 30-token burst is spent, the path an abusive client takes
+        return limiter.tryAcquire(saveProgress, "user-1");
+    }
+
+    @Benchmark
+    public long acquireOneCaller() {
+        return limiter.tryAcquire(unbounded, "user-1");
+    }
+
+    @Benchmark
+    public long acquireManyCallers() {
+        return limiter.tryAcquire(unbounded, callers[ThreadLocalRandom.current().nextInt(CALLERS)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long acquireOneCallerContended() {
+        return limiter.tryAcquire(unbounded, "user-1");
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(RateLimiterBenchmark.class.getName())
+                .build()).run();
+    }
+}
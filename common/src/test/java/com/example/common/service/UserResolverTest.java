@@ -0,0 +1,143 @@
+package com.example.common.service;
+
+import com.example.common.repository.UserRepository;
+import com.example.common.repository.projection.UserSummaryView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query counts for {@link UserResolver}: every call into the repository is one round trip, so
+ * the repository is a counting proxy and the tests assert how many lookups a list screen costs.
+ */
+class UserResolverTest {
+
+    private final AtomicInteger queries = new AtomicInteger();
+    private final List<Collection<String>> queried = new ArrayList<>();
+    private UserResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new UserResolver(countingRepository());
+        RequestContextHolder.setRequestAttributes(new RequestScope());
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void primedRowsCostOneQuery() {
+        List<String> ids = ids(50);
+        resolver.prime(ids);
+
+        for (String id : ids) {
+            assertThat(resolver.displayName(id, "Unknown")).isEqualTo("User " + id);
+        }
+
+        assertThat(queries.get()).isEqualTo(1);
+        assertThat(queried.get(0).size()).isEqualTo(50);
+    }
+
+    @Test
+    void unprimedRowsAreMemoizedForTheRequest() {
+        for (int pass = 0; pass < 3; pass++) {
+            resolver.resolve("u1");
+            resolver.resolve("u2");
+        }
+
+        assertThat(queries.get()).isEqualTo(2);
+    }
+
+    @Test
+    void missingUsersAreNotLookedUpAgain() {
+        resolver.prime(List.of("u1", "missing"));
+
+        for (int row = 0; row < 10; row++) {
+            assertThat(resolver.displayName("missing", "Unknown")).isEqualTo("Unknown");
+        }
+
+        assertThat(queries.get()).isEqualTo(1);
+    }
+
+    @Test
+    void resolveAllOutsideARequestIsOneQuery() {
+        RequestContextHolder.resetRequestAttributes();
+
+        Map<String, UserSummaryView> users = resolver.resolveAll(ids(20));
+
+        assertThat(users).hasSize(20);
+        assertThat(queries.get()).isEqualTo(1);
+    }
+
+    // ===================================
+    // HELPERS
+    // ===================================
+
+    private static List<String> ids(int count) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add("u" + i);
+        }
+        return ids;
+    }
+
+    @SuppressWarnings("unchecked")
+    private UserRepository countingRepository() {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("findSummariesByIdIn")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    Collection<String> wanted = new ArrayList<>((Collection<String>) args[0]);
+                    queries.incrementAndGet();
+                    queried.add(wanted);
+                    List<UserSummaryView> found = new ArrayList<>();
+                    for (String id : wanted) {
+                        if (!id.startsWith("missing")) {
+                            found.add(summary(id));
+                        }
+                    }
+                    return found;
+                });
+    }
+
+    private static UserSummaryView summary(String id) {
+        return new UserSummaryView() {
+            public String getId() { return id; }
+            public String getUsername() { return id; }
+            public String getName() { return "User " + id; }
+            public String getProfilePic() { return null; }
+            public String getRole() { return "1300"; }
+        };
+    }
+
+    /**
+     * Request attributes without a servlet container, enough for the resolver's memo.
+     */
+    private static class RequestScope implements RequestAttributes {
+        private final Map<String, Object> attributes = new HashMap<>();
+
+        public Object getAttribute(String name, int scope) { return attributes.get(name); }
+        public void setAttribute(String name, Object value, int scope) { attributes.put(name, value); }
+        public void removeAttribute(String name, int scope) { attributes.remove(name); }
+        public String[] getAttributeNames(int scope) { return attributes.keySet().toArray(new String[0]); }
+        public void registerDestructionCallback(String name, Runnable callback, int scope) { }
+        public Object resolveReference(String key) { return null; }
+        public String getSessionId() { return "test"; }
+        public Object getSessionMutex() { return this; }
+    }
+}
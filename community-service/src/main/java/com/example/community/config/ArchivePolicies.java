@@ -0,0 +1,34 @@
+package com.example.community.config;
+
+import com.example.common.archive.ArchivePolicy;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * What the community service moves to the archive collections; see
+ * {@link com.example.common.archive.ArchiveService}. Chat history is archived by eduSphere,
+ * which owns the shared {@code chat_messages} policy.
+ */
+@Configuration
+public class ArchivePolicies {
+
+    public static final String NOTIFICATIONS = "notifications";
+
+    @Bean
+    public ArchivePolicy notificationArchivePolicy(@Value("${app.archive.retention.notifications:180d}") Duration retention) {
+        return ArchivePolicy.builder()
+                .collection(NOTIFICATIONS)
+                .dateField("createdAt")
+                .retention(retention)
+                // Unread notifications stay in the inbox
+                .filter(new Document("$or", List.of(
+                        new Document("isRead", true),
+                        new Document("isDeleted", true))))
+                .build();
+    }
+}
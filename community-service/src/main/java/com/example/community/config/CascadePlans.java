@@ -0,0 +1,71 @@
+package com.example.community.config;
+
+import com.example.common.cascade.CascadeChild;
+import com.example.common.cascade.CascadePlan;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * What goes with a group or a job post when it is deleted; see
+ * {@link com.example.common.cascade.CascadeDeleteService}. {@code @DBRef} fields are matched on
+ * their {@code $id}.
+ */
+@Configuration
+public class CascadePlans {
+
+    public static final String GROUP = "group";
+    public static final String JOB = "job";
+
+    @Bean
+    public CascadePlan groupCascadePlan() {
+        return CascadePlan.builder()
+                .name(GROUP)
+                .collection("groups")
+                .fileField("img")
+                .child(CascadeChild.builder()
+                        .collection("group_memberships")
+                        .field("group.$id")
+                        .reference(true)
+                        .build())
+                .child(CascadeChild.builder()
+                        .collection("group_invitations")
+                        .field("group.$id")
+                        .reference(true)
+                        .build())
+                .child(CascadeChild.builder()
+                        .collection("posts")
+                        .field("groupId")
+                        .fileField("img")
+                        .fileField("file.url")
+                        .child(CascadeChild.builder()
+                                .collection("comments")
+                                .field("postId")
+                                .build())
+                        .child(CascadeChild.builder()
+                                .collection("saved_posts")
+                                .field("post.$id")
+                                .reference(true)
+                                .build())
+                        .build())
+                .build();
+    }
+
+    @Bean
+    public CascadePlan jobCascadePlan() {
+        return CascadePlan.builder()
+                .name(JOB)
+                .collection("job_posts")
+                .child(CascadeChild.builder()
+                        .collection("job_applications")
+                        .field("jobPost.$id")
+                        .reference(true)
+                        // cvFilePath is the applicant's own CV, which outlives the job
+                        .build())
+                .child(CascadeChild.builder()
+                        .collection("saved_jobs")
+                        .field("jobPost.$id")
+                        .reference(true)
+                        .build())
+                .build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.community.controller;
 
 import com.example.community.service.CVService;
+import com.example.common.bulkhead.Bulkhead;
 import com.example.common.service.UserService;
 import com.example.community.dto.CVDto;
 import com.example.community.dto.request.SaveCVRequest;
@@ -51,6 +52,7 @@ public class CVController {
     }
 
     @PostMapping("/upload")
+    @Bulkhead("uploads")
     public ResponseEntity<Map<String, String>> uploadCV(
             @RequestParam("cv") MultipartFile file,
             Authentication authentication) {
@@ -71,6 +73,7 @@ public class CVController {
     }
 
     @PostMapping("/ai-extract")
+    @Bulkhead("openai")
     public ResponseEntity<Map<String, String>> aiExtractCV(
             @RequestBody AIExtractRequest request,
             Authentication authentication) {
@@ -81,6 +84,7 @@ public class CVController {
     }
 
     @PostMapping("/ai/generate")
+    @Bulkhead("openai")
     public ResponseEntity<CvAiResponse> generateCVWithAI(
             @RequestBody CvAiRequest request,
             Authentication authentication) {
@@ -91,6 +95,7 @@ public class CVController {
     }
 
     @PostMapping("/ai/improve-section")
+    @Bulkhead("openai")
     public ResponseEntity<CvAiResponse> improveCVSection(
             @RequestBody CvAiRequest request,
             Authentication authentication) {
@@ -121,6 +126,7 @@ public class CVController {
     }
 
     @PostMapping("/generate-pdf")
+    @Bulkhead("pdf")
     public ResponseEntity<Resource> generateCVPDF(
             @RequestBody SaveCVRequest request,
             Authentication authentication) {
@@ -4,6 +4,7 @@ package com.example.community.controller;
 import com.example.common.dto.request.ChatMessage;
 import com.example.common.entity.ChatMessageEntity;
 import com.example.common.repository.ChatMessageRepository;
+import com.example.common.service.ChatHistoryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
@@ -15,7 +16,9 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/chat")
 public class ChatController {
@@ -26,6 +29,9 @@ public class ChatController {
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
+    @Autowired
+    private ChatHistoryService chatHistoryService;
+
     // TEST ENDPOINT
     @GetMapping("/test")
     public Map<String, Object> testConnection() {
@@ -41,7 +47,7 @@ public class ChatController {
     public void sendCommunityMessage(@Payload ChatMessage message, SimpMessageHeaderAccessor headerAccessor) {
         Object user = headerAccessor.getUser();
         if (user == null) {
-            System.err.println("⚠️ Unauthorized message attempt: " + message);
+            log.warn("Unauthorized message attempt: {}", message);
             return;
         }
 
@@ -77,9 +83,7 @@ public class ChatController {
             @PathVariable String user1,
             @PathVariable String user2
     ) {
-        return chatMessageRepository.findBySenderIdAndReceiverIdOrReceiverIdAndSenderIdAndContext(
-                user1, user2, "community"
-        );
+        return chatHistoryService.getConversation(user1, user2, "community");
     }
 
     // Unread count
@@ -1,6 +1,7 @@
 package com.example.community.controller;
 
 import com.example.community.service.GroupsService;
+import com.example.common.cascade.CascadeDeletion;
 import com.example.common.service.UserService;
 import com.example.community.dto.*;
 import com.example.community.dto.request.*;
@@ -10,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.multipart.MultipartFile;
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -78,10 +80,13 @@ public class GroupsController {
     }
 
     @DeleteMapping("/{groupId}")
-    public ResponseEntity<Void> deleteGroup(@PathVariable String groupId, Authentication authentication) {
+    public ResponseEntity<?> deleteGroup(@PathVariable String groupId, Authentication authentication) {
         String username = authentication.getName();
         String userId = userService.getUserByUsername(username).getId();
-        groupsService.deleteGroup(groupId, userId);
+        CascadeDeletion deletion = groupsService.deleteGroup(groupId, userId);
+        if (!deletion.isDone()) {
+            return ResponseEntity.accepted().location(URI.create("/api/deletions/" + deletion.getId())).body(deletion);
+        }
         return ResponseEntity.ok().build();
     }
 
@@ -1,6 +1,7 @@
 package com.example.community.controller;
 
 import com.example.community.service.JobsService;
+import com.example.common.cascade.CascadeDeletion;
 import com.example.common.service.UserService;
 import com.example.community.dto.JobDto;
 import com.example.community.dto.JobApplicationDto;
@@ -13,6 +14,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.core.Authentication;
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -79,10 +81,13 @@ public class JobsController {
     }
 
     @DeleteMapping("/{jobId}")
-    public ResponseEntity<Void> deleteJob(@PathVariable String jobId, Authentication authentication) {
+    public ResponseEntity<?> deleteJob(@PathVariable String jobId, Authentication authentication) {
         String username = authentication.getName();
         String userId = userService.getUserByUsername(username).getId();
-        jobsService.deleteJob(jobId, userId);
+        CascadeDeletion deletion = jobsService.deleteJob(jobId, userId);
+        if (!deletion.isDone()) {
+            return ResponseEntity.accepted().location(URI.create("/api/deletions/" + deletion.getId())).body(deletion);
+        }
         return ResponseEntity.ok().build();
     }
 
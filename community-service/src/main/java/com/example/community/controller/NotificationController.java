@@ -23,9 +23,14 @@ public class NotificationController {
     private UserService userService;
 
     @GetMapping
-    public ResponseEntity<List<NotificationDto>> getNotifications(Authentication authentication) {
+    public ResponseEntity<?> getNotifications(Authentication authentication,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer limit) {
         String username = authentication.getName();
         String userId = userService.getUserByUsername(username).getId();
+        if (cursor != null || limit != null) {
+            return ResponseEntity.ok(notificationService.getUserNotificationsPage(userId, cursor, limit));
+        }
         List<NotificationDto> notifications = notificationService.getUserNotifications(userId);
         return ResponseEntity.ok(notifications);
     }
@@ -3,6 +3,7 @@ package com.example.community.controller;
 import com.example.community.service.PostsService;
 import com.example.community.service.FriendsService;
 import com.example.common.service.UserService;
+import com.example.common.idempotency.Idempotent;
 import com.example.community.dto.PostDto;
 import com.example.community.dto.CommentDto;
 import com.example.community.dto.UserDto;
@@ -30,8 +31,13 @@ public class PostsController {
     @Autowired
     private UserService userService;
 
+    /**
+     * Returns the full feed as before; pass {@code cursor} and/or {@code limit} to get a keyset page instead.
+     */
     @GetMapping("/feed")
-    public ResponseEntity<List<PostDto>> getFeed(Authentication authentication) {
+    public ResponseEntity<?> getFeed(Authentication authentication,
+                                     @RequestParam(required = false) String cursor,
+                                     @RequestParam(required = false) Integer limit) {
         if (authentication == null || authentication.getName() == null) {
             return ResponseEntity.status(401).build();
         }
@@ -48,6 +54,10 @@ public class PostsController {
                     .collect(Collectors.toList());
         } catch (Exception ignored) {}
 
+        if (cursor != null || limit != null) {
+            return ResponseEntity.ok(postsService.getFeedPage(currentUserId, friendIds, cursor, limit));
+        }
+
         List<PostDto> posts = postsService.getFeed(currentUserId, friendIds);
         return ResponseEntity.ok(posts);
     }
@@ -59,6 +69,7 @@ public class PostsController {
     }
 
     @PostMapping
+    @Idempotent
     public ResponseEntity<PostDto> createPost(@RequestBody CreatePostRequest request, Authentication authentication) {
         if (authentication == null || authentication.getName() == null) {
             return ResponseEntity.status(401).build();
@@ -123,7 +134,12 @@ public class PostsController {
     }
 
     @GetMapping("/{postId}/comments")
-    public ResponseEntity<List<CommentDto>> getComments(@PathVariable String postId) {
+    public ResponseEntity<?> getComments(@PathVariable String postId,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limit) {
+        if (cursor != null || limit != null) {
+            return ResponseEntity.ok(postsService.getCommentsPage(postId, cursor, limit));
+        }
         List<CommentDto> comments = postsService.getComments(postId);
         return ResponseEntity.ok(comments);
     }
@@ -13,7 +13,9 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/community/stories")
 @CrossOrigin(origins = "http://localhost:3000", allowCredentials = "false")
@@ -65,7 +67,7 @@ public class StoriesController {
             StoryDto story = storiesService.createStory(currentUserId, name, profilePic, text, img);
             return ResponseEntity.ok(story);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(500).build();
         }
     }
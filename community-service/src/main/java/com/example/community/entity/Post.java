@@ -6,6 +6,7 @@ import lombok.Setter;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import java.time.LocalDateTime;
@@ -15,6 +16,7 @@ import java.util.Map;
 @Getter
 @Setter
 @Document(collection = "posts")
+@CompoundIndex(name = "user_created_idx", def = "{'user': 1, 'createdAt': -1, '_id': -1}")
 public class Post {
 
     @Id
@@ -0,0 +1,25 @@
+package com.example.community.event;
+
+import com.example.common.events.DomainEventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PostCommentNotifier implements DomainEventListener<CommentCreatedEvent> {
+
+    private final PostNotifications postNotifications;
+
+    public PostCommentNotifier(PostNotifications postNotifications) {
+        this.postNotifications = postNotifications;
+    }
+
+    @Override
+    public Class<CommentCreatedEvent> eventType() {
+        return CommentCreatedEvent.class;
+    }
+
+    @Override
+    public void onEvent(CommentCreatedEvent event) {
+        postNotifications.notifyAuthor(event.getPostAuthorId(), event.getCommenterId(),
+                "POST_COMMENTED", "New comment", "commented on your post", event.getPostId());
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.community.event;
+
+import com.example.common.events.DomainEventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PostLikeNotifier implements DomainEventListener<PostLikedEvent> {
+
+    private final PostNotifications postNotifications;
+
+    public PostLikeNotifier(PostNotifications postNotifications) {
+        this.postNotifications = postNotifications;
+    }
+
+    @Override
+    public Class<PostLikedEvent> eventType() {
+        return PostLikedEvent.class;
+    }
+
+    @Override
+    public void onEvent(PostLikedEvent event) {
+        postNotifications.notifyAuthor(event.getPostAuthorId(), event.getLikerId(),
+                "POST_LIKED", "New like", "liked your post", event.getPostId());
+    }
+}
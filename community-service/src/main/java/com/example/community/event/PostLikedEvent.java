@@ -0,0 +1,17 @@
+package com.example.community.event;
+
+import com.example.common.events.DomainEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostLikedEvent extends DomainEvent {
+    private String postId;
+    private String postAuthorId;
+    private String likerId;
+}
@@ -0,0 +1,48 @@
+package com.example.community.event;
+
+import com.example.common.entity.UserEntity;
+import com.example.common.repository.UserRepository;
+import com.example.community.entity.Notification;
+import com.example.community.repository.NotificationRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Creates the notification a post's author gets for likes and comments; used by the post event listeners.
+ */
+@Component
+public class PostNotifications {
+
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+
+    public PostNotifications(NotificationRepository notificationRepository, UserRepository userRepository) {
+        this.notificationRepository = notificationRepository;
+        this.userRepository = userRepository;
+    }
+
+    public void notifyAuthor(String authorId, String actorId, String type, String title, String action, String postId) {
+        // No notification for your own activity
+        if (authorId == null || authorId.equals(actorId)) {
+            return;
+        }
+        Optional<UserEntity> recipient = userRepository.findById(authorId);
+        if (recipient.isEmpty()) {
+            return;
+        }
+        UserEntity sender = actorId != null ? userRepository.findById(actorId).orElse(null) : null;
+
+        Notification notification = new Notification();
+        notification.setRecipient(recipient.get());
+        notification.setSender(sender);
+        notification.setType(type);
+        notification.setTitle(title);
+        notification.setMessage((sender != null ? sender.getName() : "Someone") + " " + action);
+        notification.setRelatedEntityId(postId);
+        notification.setRelatedEntityType("POST");
+        notification.setCreatedAt(LocalDateTime.now());
+        notificationRepository.save(notification);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.community.service;
 
+import com.example.common.entity.UserEntity;
 import com.example.community.dto.CVDto;
 import com.example.community.dto.JobApplicationDto;
 import com.example.community.dto.request.SaveCVRequest;
@@ -23,6 +24,7 @@ public interface CVService {
     Resource downloadApplicantCV(String applicantId, String employerId);
     Resource generateCVPDF(SaveCVRequest request, String userId);
     JobApplicationDto.CVApplicationDataDto getCVForJobApplication(String applicantId, String employerId);
+    JobApplicationDto.CVApplicationDataDto getCVForJobApplication(UserEntity applicant, String employerId);
     boolean userHasValidCVForApplication(String userId);
     String getCVPreviewText(String applicantId, int maxLength);
     boolean userHasCV(String userId);
@@ -1,6 +1,7 @@
 // GroupsService.java - Enhanced Interface with New Methods
 package com.example.community.service;
 
+import com.example.common.cascade.CascadeDeletion;
 import com.example.community.dto.*;
 import com.example.community.dto.request.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -14,7 +15,7 @@ public interface GroupsService {
     GroupDto getGroupDetails(String groupId);
     GroupDto createGroup(CreateGroupRequest request, MultipartFile img, String userId);
     GroupDto updateGroup(String groupId, UpdateGroupRequest request, String userId);
-    void deleteGroup(String groupId, String userId);
+    CascadeDeletion deleteGroup(String groupId, String userId);
     void joinGroup(String groupId, String userId);
     void leaveGroup(String groupId, String userId);
     List<GroupMemberDto> getGroupMembers(String groupId);
@@ -1,5 +1,6 @@
 package com.example.community.service;
 
+import com.example.common.cascade.CascadeDeletion;
 import com.example.community.dto.JobDto;
 import com.example.community.dto.JobApplicationDto;
 import com.example.community.dto.request.CreateJobRequest;
@@ -45,9 +46,9 @@ public interface JobsService {
     JobDto updateJob(String jobId, UpdateJobRequest request, String userId);
 
     /**
-     * Delete a job posting
+     * Delete a job posting with its applications and saves
      */
-    void deleteJob(String jobId, String userId);
+    CascadeDeletion deleteJob(String jobId, String userId);
 
     // ============================================================================
     // JOB APPLICATION METHODS
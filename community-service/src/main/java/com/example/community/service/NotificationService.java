@@ -2,10 +2,12 @@ package com.example.community.service;
 
 import com.example.community.dto.NotificationDto;
 import com.example.community.dto.request.SendNotificationRequest;
+import com.example.common.pagination.CursorPage;
 import java.util.List;
 
 public interface NotificationService {
     List<NotificationDto> getUserNotifications(String userId);
+    CursorPage<NotificationDto> getUserNotificationsPage(String userId, String cursor, Integer limit);
     void sendNotification(SendNotificationRequest request, String senderId);
     void markAsRead(String notificationId, String userId);
     int getUnreadCount(String userId);
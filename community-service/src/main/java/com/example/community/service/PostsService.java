@@ -4,10 +4,12 @@ import com.example.community.dto.PostDto;
 import com.example.community.dto.CommentDto;
 import com.example.community.dto.request.CreatePostRequest;
 import com.example.community.dto.request.CreateCommentRequest;
+import com.example.common.pagination.CursorPage;
 import java.util.List;
 
 public interface PostsService {
     List<PostDto> getFeed(String userId, List<String> friendIds);
+    CursorPage<PostDto> getFeedPage(String userId, List<String> friendIds, String cursor, Integer limit);
     List<PostDto> getUserPosts(String userId);
     PostDto createPost(CreatePostRequest request, String userId);
     PostDto toggleLike(String postId, String userId);
@@ -15,5 +17,6 @@ public interface PostsService {
     void unsavePost(String postId, String userId);
     List<PostDto> getSavedPosts(String userId);
     List<CommentDto> getComments(String postId);
+    CursorPage<CommentDto> getCommentsPage(String postId, String cursor, Integer limit);
     CommentDto createComment(String postId, CreateCommentRequest request, String userId);
 }
\ No newline at end of file
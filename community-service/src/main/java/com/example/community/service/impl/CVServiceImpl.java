@@ -25,7 +25,9 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.*;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 public class CVServiceImpl implements CVService {
 
@@ -358,7 +360,7 @@ public class CVServiceImpl implements CVService {
                 return new CvAiResponse(content);
             }
         } catch (Exception ex) {
-            ex.printStackTrace();
+            log.error("Unexpected error", ex);
         }
 
         return new CvAiResponse("Failed to generate CV content. Please try again.");
@@ -448,7 +450,25 @@ public class CVServiceImpl implements CVService {
     @Override
     public JobApplicationDto.CVApplicationDataDto getCVForJobApplication(String applicantId, String employerId) {
         try {
-            UserEntity applicant = getUserById(applicantId);
+            return getCVForJobApplication(getUserById(applicantId), employerId);
+        } catch (Exception e) {
+            log.warn("Error fetching CV for job application: {}", e.getMessage());
+
+            JobApplicationDto.CVApplicationDataDto fallbackData = new JobApplicationDto.CVApplicationDataDto();
+            fallbackData.setName("Unknown Applicant");
+            fallbackData.setTitle("Not specified");
+            fallbackData.setSummary("CV information unavailable");
+            fallbackData.setHasFile(false);
+            fallbackData.setCompleteness(0);
+
+            return fallbackData;
+        }
+    }
+
+    // For callers that already hold the applicant (e.g. from the application's DBRef): skips re-reading the user
+    @Override
+    public JobApplicationDto.CVApplicationDataDto getCVForJobApplication(UserEntity applicant, String employerId) {
+        try {
             Optional<CV> cvOpt = cvRepository.findByUser(applicant);
 
             JobApplicationDto.CVApplicationDataDto cvData = new JobApplicationDto.CVApplicationDataDto();
@@ -490,7 +510,7 @@ public class CVServiceImpl implements CVService {
 
         } catch (Exception e) {
             // Log error and return minimal data
-            System.err.println("Error fetching CV for job application: " + e.getMessage());
+            log.warn("Error fetching CV for job application: {}", e.getMessage());
 
             JobApplicationDto.CVApplicationDataDto fallbackData = new JobApplicationDto.CVApplicationDataDto();
             fallbackData.setName("Unknown Applicant");
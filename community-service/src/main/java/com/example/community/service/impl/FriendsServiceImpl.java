@@ -19,6 +19,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
 import java.util.Optional;
@@ -51,13 +52,15 @@ public class FriendsServiceImpl implements FriendsService {
 
         List<String> friendIds = getRobustFriendIds(userId);
 
+        // Friend cards need the full profile (bio, cover, links), so load them all with one $in
+        // rather than the slim UserResolver projection; friendIds order is preserved
+        Map<String, UserEntity> friendsById = userRepository.findAllById(friendIds).stream()
+                .collect(Collectors.toMap(UserEntity::getId, friend -> friend, (a, b) -> a));
+
         return friendIds.stream()
-                .map(friendId -> {
-                    UserEntity friend = userRepository.findById(friendId)
-                            .orElse(null);
-                    return friend != null ? userMapper.toDto(friend) : null;
-                })
+                .map(friendsById::get)
                 .filter(friend -> friend != null)
+                .map(userMapper::toDto)
                 .collect(Collectors.toList());
     }
 
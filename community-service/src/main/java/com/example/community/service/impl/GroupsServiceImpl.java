@@ -1,8 +1,11 @@
 package com.example.community.service.impl;
 
 import com.example.community.mapper.PostMapper;
+import com.example.common.cascade.CascadeDeleteService;
+import com.example.common.cascade.CascadeDeletion;
 import com.example.common.entity.UserEntity;
 import com.example.common.repository.UserRepository;
+import com.example.common.upload.UploadRegistry;
 import com.example.community.entity.Group;
 import com.example.community.entity.GroupMembership;
 import com.example.community.entity.GroupInvitation;
@@ -11,6 +14,7 @@ import com.example.community.repository.GroupRepository;
 import com.example.community.repository.GroupMembershipRepository;
 import com.example.community.repository.GroupInvitationRepository;
 import com.example.community.repository.PostRepository;
+import com.example.community.config.CascadePlans;
 import com.example.community.service.GroupsService;
 import com.example.community.service.FriendsService;
 import com.example.community.service.FileStorageService;
@@ -64,6 +68,12 @@ public class GroupsServiceImpl implements GroupsService {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private CascadeDeleteService cascadeDeleteService;
+
+    @Autowired
+    private UploadRegistry uploadRegistry;
+
     // EXISTING METHODS
     @Override
     public List<GroupDto> getAllGroups(String userId, Boolean joined) {
@@ -136,6 +146,9 @@ public class GroupsServiceImpl implements GroupsService {
         }
 
         Group savedGroup = groupRepository.save(group);
+        if (savedGroup.getImg() != null) {
+            uploadRegistry.recordOwned(savedGroup.getImg(), userId, "groups", savedGroup.getId());
+        }
 
         GroupMembership membership = new GroupMembership();
         membership.setGroup(savedGroup);
@@ -164,21 +177,22 @@ public class GroupsServiceImpl implements GroupsService {
         group.setUpdatedAt(LocalDateTime.now());
 
         Group savedGroup = groupRepository.save(group);
+        if (request.getImg() != null) {
+            uploadRegistry.attach(request.getImg(), userId, "groups", groupId);
+        }
         return groupMapper.toDto(savedGroup);
     }
 
     @Override
-    public void deleteGroup(String groupId, String userId) {
+    public CascadeDeletion deleteGroup(String groupId, String userId) {
         Group group = getGroupById(groupId);
 
         if (!group.getFounder().getId().equals(userId)) {
             throw new RuntimeException("Only the founder can delete this group");
         }
 
-        List<GroupMembership> memberships = groupMembershipRepository.findByGroupOrderByJoinDateAsc(group);
-        groupMembershipRepository.deleteAll(memberships);
-
-        groupRepository.delete(group);
+        // Group, memberships, invitations and group posts with their comments and saves
+        return cascadeDeleteService.delete(CascadePlans.GROUP, groupId, userId);
     }
 
     @Override
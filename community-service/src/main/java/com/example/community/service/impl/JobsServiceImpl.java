@@ -4,6 +4,7 @@ import com.example.community.entity.JobPost;
 import com.example.community.entity.JobApplication;
 import com.example.community.repository.JobPostRepository;
 import com.example.community.repository.JobApplicationRepository;
+import com.example.community.config.CascadePlans;
 import com.example.community.service.JobsService;
 import com.example.community.service.CVService;
 import com.example.community.dto.JobDto;
@@ -11,6 +12,8 @@ import com.example.community.dto.JobApplicationDto;
 import com.example.community.dto.request.CreateJobRequest;
 import com.example.community.dto.request.UpdateJobRequest;
 import com.example.community.dto.request.ApplyToJobRequest;
+import com.example.common.cascade.CascadeDeleteService;
+import com.example.common.cascade.CascadeDeletion;
 import com.example.common.entity.UserEntity;
 import com.example.common.repository.UserRepository;
 import com.example.common.service.MailService;
@@ -25,7 +28,9 @@ import java.util.Optional;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 public class JobsServiceImpl implements JobsService {
 
@@ -44,6 +49,9 @@ public class JobsServiceImpl implements JobsService {
     @Autowired
     private MailService mailService;
 
+    @Autowired
+    private CascadeDeleteService cascadeDeleteService;
+
     // ============================================================================
     // JOB MANAGEMENT METHODS
     // ============================================================================
@@ -153,7 +161,7 @@ public class JobsServiceImpl implements JobsService {
     }
 
     @Override
-    public void deleteJob(String jobId, String userId) {
+    public CascadeDeletion deleteJob(String jobId, String userId) {
         JobPost job = jobPostRepository.findById(jobId)
                 .orElseThrow(() -> new RuntimeException("Job not found"));
 
@@ -162,12 +170,8 @@ public class JobsServiceImpl implements JobsService {
             throw new RuntimeException("Unauthorized to delete this job");
         }
 
-        // Delete associated job applications
-        List<JobApplication> applications = jobApplicationRepository.findByJobPost(job);
-        jobApplicationRepository.deleteAll(applications);
-
-        // Delete the job
-        jobPostRepository.delete(job);
+        // Job, its applications and saved-job entries
+        return cascadeDeleteService.delete(CascadePlans.JOB, jobId, userId);
     }
 
     // ============================================================================
@@ -246,8 +250,9 @@ public class JobsServiceImpl implements JobsService {
 
             // Enhanced CV data mapping
             try {
+                // The applicant is already loaded with the application, don't fetch it again per row
                 JobApplicationDto.CVApplicationDataDto cvData = cvService.getCVForJobApplication(
-                        application.getApplicant().getId(),
+                        application.getApplicant(),
                         employerId
                 );
                 dto.setCvData(cvData);
@@ -286,7 +291,7 @@ public class JobsServiceImpl implements JobsService {
             sendAcceptanceEmail(application);
         } catch (Exception e) {
             // Log error but don't fail the whole operation
-            System.err.println("Failed to send acceptance email: " + e.getMessage());
+            log.warn("Failed to send acceptance email: {}", e.getMessage());
         }
     }
 
@@ -310,7 +315,7 @@ public class JobsServiceImpl implements JobsService {
             sendRejectionEmail(application);
         } catch (Exception e) {
             // Log error but don't fail the whole operation
-            System.err.println("Failed to send rejection email: " + e.getMessage());
+            log.warn("Failed to send rejection email: {}", e.getMessage());
         }
     }
 
@@ -509,7 +514,7 @@ public class JobsServiceImpl implements JobsService {
                         return LocalDate.parse(deadlineString, DateTimeFormatter.ofPattern("yyyy/MM/dd"));
                     } catch (DateTimeParseException e4) {
                         // If all parsing fails, log error and return null
-                        System.err.println("Unable to parse deadline date: " + deadlineString);
+                        log.warn("Unable to parse deadline date: {}", deadlineString);
                         return null;
                     }
                 }
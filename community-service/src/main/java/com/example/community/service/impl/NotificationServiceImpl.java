@@ -7,7 +7,11 @@ import com.example.community.dto.NotificationDto;
 import com.example.community.dto.request.SendNotificationRequest;
 import com.example.common.entity.UserEntity;
 import com.example.common.repository.UserRepository;
+import com.example.common.pagination.CursorPage;
+import com.example.common.pagination.KeysetPaginator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -22,6 +26,9 @@ public class NotificationServiceImpl implements NotificationService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private KeysetPaginator keysetPaginator;
+
     @Override
     public List<NotificationDto> getUserNotifications(String userId) {
         List<Notification> notifications = notificationRepository
@@ -32,6 +39,14 @@ public class NotificationServiceImpl implements NotificationService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public CursorPage<NotificationDto> getUserNotificationsPage(String userId, String cursor, Integer limit) {
+        Criteria filter = Criteria.where("recipient.id").is(userId).and("isDeleted").is(false);
+        return keysetPaginator.fetch(filter, Notification.class, "createdAt", Sort.Direction.DESC, cursor, limit,
+                Notification::getCreatedAt, Notification::getId
+        ).map(this::convertToDto);
+    }
+
     @Override
     public void sendNotification(SendNotificationRequest request, String senderId) {
         UserEntity recipient = userRepository.findById(request.getRecipientId())
@@ -3,9 +3,12 @@ package com.example.community.service.impl;
 import com.example.community.mapper.PostMapper;
 import com.example.common.entity.UserEntity;
 import com.example.common.repository.UserRepository;
+import com.example.common.upload.UploadRegistry;
 import com.example.community.entity.Post;
 import com.example.community.entity.Comment;
 import com.example.community.entity.SavedPost;
+import com.example.community.event.CommentCreatedEvent;
+import com.example.community.event.PostLikedEvent;
 import com.example.community.repository.PostRepository;
 import com.example.community.repository.CommentRepository;
 import com.example.community.repository.SavedPostRepository;
@@ -15,7 +18,12 @@ import com.example.community.dto.CommentDto;
 import com.example.community.dto.request.CreatePostRequest;
 import com.example.community.dto.request.CreateCommentRequest;
 import com.example.community.mapper.CommentMapper;
+import com.example.common.events.DomainEventBus;
+import com.example.common.pagination.CursorPage;
+import com.example.common.pagination.KeysetPaginator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -44,6 +52,15 @@ public class PostsServiceImpl implements PostsService {
     @Autowired
     private CommentMapper commentMapper;
 
+    @Autowired
+    private KeysetPaginator keysetPaginator;
+
+    @Autowired
+    private DomainEventBus eventBus;
+
+    @Autowired
+    private UploadRegistry uploadRegistry;
+
     @Override
     public List<PostDto> getFeed(String userId, List<String> friendIds) {
         List<String> userIds = new ArrayList<>();
@@ -92,6 +109,23 @@ public class PostsServiceImpl implements PostsService {
         return new ArrayList<>();
     }
 
+    @Override
+    public CursorPage<PostDto> getFeedPage(String userId, List<String> friendIds, String cursor, Integer limit) {
+        List<String> userIds = new ArrayList<>();
+        userIds.add(userId);
+
+        if (friendIds != null && !friendIds.isEmpty()) {
+            userIds.addAll(friendIds);
+        }
+
+        List<UserEntity> users = userRepository.findAllById(userIds);
+        return keysetPaginator.fetch(
+                Criteria.where("user").in(users),
+                Post.class, "createdAt", Sort.Direction.DESC, cursor, limit,
+                Post::getCreatedAt, Post::getId
+        ).map(postMapper::toDto);
+    }
+
     @Override
     public List<PostDto> getUserPosts(String userId) {
         UserEntity user = getUserById(userId);
@@ -120,6 +154,11 @@ public class PostsServiceImpl implements PostsService {
         post.setCreatedAt(LocalDateTime.now());
 
         Post savedPost = postRepository.save(post);
+        // Client-supplied URLs: the post owns (and deletes with it) only files its author uploaded
+        uploadRegistry.attach(savedPost.getImg(), userId, "posts", savedPost.getId());
+        if (savedPost.getFile() != null) {
+            uploadRegistry.attach(savedPost.getFile().get("url"), userId, "posts", savedPost.getId());
+        }
         return postMapper.toDto(savedPost);
     }
 
@@ -128,16 +167,20 @@ public class PostsServiceImpl implements PostsService {
         Post post = getPostById(postId);
 
         List<String> likes = post.getLikes();
-        if (likes.contains(userId)) {
-            likes.remove(userId);
-        } else {
+        boolean liked = !likes.contains(userId);
+        if (liked) {
             likes.add(userId);
+        } else {
+            likes.remove(userId);
         }
 
         post.setLikes(likes);
         post.setUpdatedAt(LocalDateTime.now());
 
         Post savedPost = postRepository.save(post);
+        if (liked) {
+            eventBus.publish(new PostLikedEvent(postId, authorId(savedPost), userId));
+        }
         return postMapper.toDto(savedPost);
     }
 
@@ -185,6 +228,15 @@ public class PostsServiceImpl implements PostsService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public CursorPage<CommentDto> getCommentsPage(String postId, String cursor, Integer limit) {
+        return keysetPaginator.fetch(
+                Criteria.where("postId").is(postId),
+                Comment.class, "createdAt", Sort.Direction.ASC, cursor, limit,
+                Comment::getCreatedAt, Comment::getId
+        ).map(commentMapper::toDto);
+    }
+
     @Override
     public CommentDto createComment(String postId, CreateCommentRequest request, String userId) {
         UserEntity user = getUserById(userId);
@@ -203,6 +255,7 @@ public class PostsServiceImpl implements PostsService {
         post.setCommentCount(post.getCommentCount() + 1);
         postRepository.save(post);
 
+        eventBus.publish(new CommentCreatedEvent(postId, savedComment.getId(), authorId(post), userId));
         return commentMapper.toDto(savedComment);
     }
 
@@ -211,6 +264,10 @@ public class PostsServiceImpl implements PostsService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
+    private static String authorId(Post post) {
+        return post.getUser() != null ? post.getUser().getId() : null;
+    }
+
     private Post getPostById(String postId) {
         return postRepository.findById(postId)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
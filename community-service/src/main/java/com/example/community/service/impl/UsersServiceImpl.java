@@ -1,5 +1,6 @@
 package com.example.community.service.impl;
 
+import com.example.common.config.CacheNames;
 import com.example.common.entity.UserEntity; // Main project
 import com.example.common.repository.UserRepository; // Main project
 import com.example.community.service.UsersService;
@@ -9,6 +10,7 @@ import com.example.community.dto.request.UpdateProfileRequest;
 import com.example.community.dto.request.ReportRequest;
 import com.example.community.mapper.UserMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import java.time.LocalDateTime;
@@ -36,6 +38,7 @@ public class UsersServiceImpl implements UsersService {
     }
 
     @Override
+    @CacheEvict(value = CacheNames.USER_DISPLAY_NAMES, key = "#userId")
     public UserDto updateProfile(UpdateProfileRequest request, String userId) {
         UserEntity user = getUserById(userId);
 
@@ -0,0 +1,304 @@
+package com.example.edusphere.attempt;
+
+import com.example.edusphere.entity.ExamResponse;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Updates;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces answer autosaves per attempt. The first autosave of an attempt opens a window of
+ * {@code app.exam.autosave.window}; everything arriving in that window is merged in memory (per
+ * question, highest sequence wins) and written as one update, so a class typing through an exam
+ * costs roughly one write per student per window regardless of how often the client saves.
+ *
+ * The write only touches {@code answers.<questionId>} and is guarded twice: the attempt must still
+ * be IN_PROGRESS, and each answer is only replaced when its sequence is higher than the stored
+ * {@code answerSeq.<questionId>}. The latter is what keeps two tabs, or two instances each holding
+ * part of the edits, from rolling each other's answers back.
+ *
+ * Submitting flushes the attempt's pending answers first ({@link #flush}); anything still
+ * buffered is written on shutdown.
+ */
+@Slf4j
+@Component
+public class AnswerAutosaveBuffer implements SmartLifecycle {
+
+    private static final String ACTIVE = "IN_PROGRESS";
+    private static final Duration CLOSED_TTL = Duration.ofMinutes(10);
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration window;
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    // Students found without an attempt in progress on the last flush: further autosaves are refused
+    // after one indexed lookup instead of being buffered, until a new attempt starts (see attemptStarted)
+    private final Map<String, Long> closedUntil = new ConcurrentHashMap<>();
+
+    private volatile ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    public AnswerAutosaveBuffer(MongoTemplate mongoTemplate, Environment environment) {
+        this.mongoTemplate = mongoTemplate;
+        this.window = environment.getProperty("app.exam.autosave.window", Duration.class, Duration.ofSeconds(2));
+    }
+
+    /**
+     * Queue changed answers for the student's active attempt at {@code examId}.
+     *
+     * @throws IllegalArgumentException for a question id that can't be a field name
+     * @throws RuntimeException when the attempt is known to be submitted or abandoned
+     */
+    public void save(String examId, String studentId, Map<String, String> answers, long seq, Integer timeSpent) {
+        for (String questionId : answers.keySet()) {
+            if (!isValidQuestionId(questionId)) {
+                throw new IllegalArgumentException("Invalid question ID: " + questionId);
+            }
+        }
+        String key = key(examId, studentId);
+        Long closed = closedUntil.get(key);
+        if (closed != null) {
+            // A retake started on another instance doesn't clear the mark here, so check before refusing
+            if (closed > System.currentTimeMillis() && !hasActiveAttempt(examId, studentId)) {
+                throw new RuntimeException("No active exam attempt found");
+            }
+            closedUntil.remove(key, closed);
+        }
+
+        boolean[] opened = new boolean[1];
+        pending.compute(key, (k, current) -> {
+            Pending merged = current;
+            if (merged == null) {
+                merged = new Pending(examId, studentId);
+                opened[0] = true;
+            }
+            merged.merge(answers, seq, timeSpent);
+            return merged;
+        });
+
+        ScheduledExecutorService scheduler = executor;
+        if (scheduler == null) {
+            flush(examId, studentId);
+        } else if (opened[0]) {
+            scheduler.schedule(() -> flushKey(key), window.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Write the attempt's buffered answers now, e.g. right before it is submitted.
+     */
+    public void flush(String examId, String studentId) {
+        flushKey(key(examId, studentId));
+    }
+
+    /**
+     * Unbuffered save for the older full-progress endpoint: the given answers are {@code $set}
+     * field by field (no sequence guard, that client never sent one) and the attempt is returned.
+     */
+    public ExamResponse saveNow(String examId, String studentId, Map<String, String> answers, Integer timeSpent) {
+        flush(examId, studentId);
+
+        List<Bson> updates = new ArrayList<>();
+        answers.forEach((questionId, answer) -> {
+            if (isValidQuestionId(questionId)) {
+                updates.add(Updates.set("answers." + questionId, answer));
+            }
+        });
+        if (timeSpent != null) {
+            updates.add(Updates.set("timeSpent", timeSpent));
+        }
+        updates.add(Updates.set("updatedAt", new Date()));
+
+        Document stored = responses().findOneAndUpdate(activeAttempt(examId, studentId), Updates.combine(updates),
+                new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER));
+        if (stored == null) {
+            throw new RuntimeException("No active exam attempt found");
+        }
+        return mongoTemplate.getConverter().read(ExamResponse.class, stored);
+    }
+
+    private void flushKey(String key) {
+        Pending batch = pending.remove(key);
+        if (batch == null) {
+            return;
+        }
+        try {
+            long matched = responses().updateOne(activeAttempt(batch.examId, batch.studentId), batch.toUpdate()).getMatchedCount();
+            if (matched == 0) {
+                closedUntil.put(key, System.currentTimeMillis() + CLOSED_TTL.toMillis());
+                log.debug("Dropped {} autosaved answer(s): no active attempt of exam {} for {}",
+                        batch.answers.size(), batch.examId, batch.studentId);
+            }
+        } catch (MongoException e) {
+            log.warn("Autosave for exam {} / {} failed, retrying: {}", batch.examId, batch.studentId, e.getMessage());
+            requeue(key, batch);
+        }
+    }
+
+    private void requeue(String key, Pending batch) {
+        ScheduledExecutorService scheduler = executor;
+        if (scheduler == null) {
+            return;
+        }
+        boolean[] opened = new boolean[1];
+        pending.compute(key, (k, current) -> {
+            if (current == null) {
+                opened[0] = true;
+                return batch;
+            }
+            current.mergeFrom(batch);
+            return current;
+        });
+        if (opened[0]) {
+            scheduler.schedule(() -> flushKey(key), window.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * A new attempt of the student at {@code examId} was created: accept its autosaves again.
+     */
+    public void attemptStarted(String examId, String studentId) {
+        closedUntil.remove(key(examId, studentId));
+    }
+
+    private boolean hasActiveAttempt(String examId, String studentId) {
+        return responses().find(activeAttempt(examId, studentId)).projection(new Document("_id", 1)).first() != null;
+    }
+
+    private static Bson activeAttempt(String examId, String studentId) {
+        return Filters.and(
+                Filters.eq("examId", examId),
+                Filters.eq("studentId", studentId),
+                Filters.eq("status", ACTIVE));
+    }
+
+    /** Question ids become field names under {@code answers}. */
+    private static boolean isValidQuestionId(String questionId) {
+        return questionId != null && !questionId.isEmpty() && !questionId.contains(".") && !questionId.startsWith("$");
+    }
+
+    private MongoCollection<Document> responses() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(ExamResponse.class));
+    }
+
+    private static String key(String examId, String studentId) {
+        return examId + ":" + studentId;
+    }
+
+    private void pruneClosed() {
+        long now = System.currentTimeMillis();
+        closedUntil.values().removeIf(until -> until <= now);
+    }
+
+    // ===================================
+    // PENDING ANSWERS
+    // ===================================
+
+    private static final class Pending {
+
+        private final String examId;
+        private final String studentId;
+        private final Map<String, String> answers = new HashMap<>();
+        private final Map<String, Long> seqs = new HashMap<>();
+        private Integer timeSpent;
+
+        Pending(String examId, String studentId) {
+            this.examId = examId;
+            this.studentId = studentId;
+        }
+
+        void merge(Map<String, String> changed, long seq, Integer spent) {
+            changed.forEach((questionId, answer) -> put(questionId, answer, seq));
+            if (spent != null && (timeSpent == null || spent > timeSpent)) {
+                timeSpent = spent;
+            }
+        }
+
+        void mergeFrom(Pending older) {
+            older.answers.forEach((questionId, answer) -> put(questionId, answer, older.seqs.get(questionId)));
+            if (older.timeSpent != null && (timeSpent == null || older.timeSpent > timeSpent)) {
+                timeSpent = older.timeSpent;
+            }
+        }
+
+        private void put(String questionId, String answer, long seq) {
+            Long current = seqs.get(questionId);
+            if (current == null || seq >= current) {
+                answers.put(questionId, answer);
+                seqs.put(questionId, seq);
+            }
+        }
+
+        /**
+         * Pipeline update: each answer is set only if its sequence beats the stored one, evaluated
+         * per question inside the single write.
+         */
+        List<Document> toUpdate() {
+            Document set = new Document();
+            answers.forEach((questionId, answer) -> {
+                long seq = seqs.get(questionId);
+                String storedSeq = "$answerSeq." + questionId;
+                Document newer = new Document("$lt", List.of(new Document("$ifNull", Arrays.asList(storedSeq, -1L)), seq));
+                set.append("answers." + questionId,
+                        new Document("$cond", Arrays.asList(newer, new Document("$literal", answer), "$answers." + questionId)));
+                set.append("answerSeq." + questionId,
+                        new Document("$cond", Arrays.asList(newer, seq, storedSeq)));
+            });
+            if (timeSpent != null) {
+                set.append("timeSpent", new Document("$max", Arrays.asList(new Document("$ifNull", Arrays.asList("$timeSpent", 0)), timeSpent)));
+            }
+            set.append("updatedAt", new Date());
+            return List.of(new Document("$set", set));
+        }
+    }
+
+    // ===================================
+    // Lifecycle
+    // ===================================
+
+    @Override
+    public void start() {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "exam-autosave");
+            t.setDaemon(true);
+            return t;
+        });
+        running = true;
+        scheduler.scheduleWithFixedDelay(this::pruneClosed, 1, 1, TimeUnit.MINUTES);
+        executor = scheduler;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        ScheduledExecutorService scheduler = executor;
+        executor = null;
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        // Don't lose what students typed in the last window
+        for (String key : new ArrayList<>(pending.keySet())) {
+            flushKey(key);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,341 @@
+package com.example.edusphere.attempt;
+
+import com.example.common.events.DomainEventBus;
+import com.example.edusphere.entity.Exam;
+import com.example.edusphere.entity.ExamResponse;
+import com.example.edusphere.event.ExamSubmittedEvent;
+import com.example.edusphere.grading.AutoGradeJobService;
+import com.example.edusphere.repository.ExamRepository;
+import com.example.edusphere.stats.ExamLiveStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Submits attempts for the student when their time is up, on exams with auto-submit on.
+ *
+ * Every attempt's deadline is stored on the response when it starts ({@link ExamSnapshot#deadlineFor})
+ * and put on a {@link DeadlineWheel} ticking every {@code app.exam.auto-submit.tick}, so a tick costs
+ * the same with ten or ten thousand attempts running. Expired attempts are closed in batches on a
+ * separate thread: one conditional update claims those still IN_PROGRESS and past their deadline plus
+ * {@code app.exam.auto-submit.grace} (which lets the last autosaves land), and the claimed ones are
+ * graded together through {@link AutoGradeJobService#gradeSubmitted}.
+ *
+ * The wheel is only a local index of what is in Mongo. It is rebuilt from the active attempts on
+ * startup, and every {@code app.exam.auto-submit.rescan} the attempts due before the next rescan are
+ * picked up again, which covers attempts started on other instances. The same attempt may therefore
+ * sit on several wheels; each claim writes its own token, and an instance only grades what carries
+ * its token, so an attempt is submitted and graded once.
+ */
+@Slf4j
+@Component
+public class AutoSubmitScheduler implements SmartLifecycle {
+
+    private static final String ACTIVE = "IN_PROGRESS";
+    private static final int BATCH = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final ExamRepository examRepository;
+    private final ExamSnapshotCache examSnapshotCache;
+    private final AnswerAutosaveBuffer answerAutosaveBuffer;
+    private final AutoGradeJobService autoGradeJobService;
+    private final DomainEventBus eventBus;
+    private final ExamLiveStats examLiveStats;
+    private final boolean enabled;
+    private final Duration tick;
+    private final int wheelSize;
+    private final Duration grace;
+    private final Duration rescan;
+
+    private volatile DeadlineWheel wheel;
+    private volatile ScheduledExecutorService ticker;
+    private volatile ExecutorService submitter;
+    private volatile boolean running;
+
+    public AutoSubmitScheduler(MongoTemplate mongoTemplate,
+                               ExamRepository examRepository,
+                               ExamSnapshotCache examSnapshotCache,
+                               AnswerAutosaveBuffer answerAutosaveBuffer,
+                               AutoGradeJobService autoGradeJobService,
+                               DomainEventBus eventBus,
+                               ExamLiveStats examLiveStats,
+                               Environment environment) {
+        this.mongoTemplate = mongoTemplate;
+        this.examRepository = examRepository;
+        this.examSnapshotCache = examSnapshotCache;
+        this.answerAutosaveBuffer = answerAutosaveBuffer;
+        this.autoGradeJobService = autoGradeJobService;
+        this.eventBus = eventBus;
+        this.examLiveStats = examLiveStats;
+        this.enabled = environment.getProperty("app.exam.auto-submit.enabled", Boolean.class, true);
+        this.tick = environment.getProperty("app.exam.auto-submit.tick", Duration.class, Duration.ofSeconds(1));
+        this.wheelSize = environment.getProperty("app.exam.auto-submit.wheel-size", Integer.class, 512);
+        this.grace = environment.getProperty("app.exam.auto-submit.grace", Duration.class, Duration.ofSeconds(30));
+        this.rescan = environment.getProperty("app.exam.auto-submit.rescan", Duration.class, Duration.ofMinutes(1));
+    }
+
+    /**
+     * Schedule the attempt {@code responseId} to be submitted at {@code deadline}. A null deadline
+     * (no auto-submit) or an attempt already scheduled is ignored.
+     */
+    public void register(String responseId, LocalDateTime deadline) {
+        DeadlineWheel current = wheel;
+        if (current == null || deadline == null) {
+            return;
+        }
+        current.schedule(responseId, epochMillis(deadline.plus(grace)));
+    }
+
+    // ===================================
+    // TICKING
+    // ===================================
+
+    private void tick() {
+        DeadlineWheel current = wheel;
+        if (current == null) {
+            return;
+        }
+        try {
+            List<String> expired = current.advance(System.currentTimeMillis());
+            for (int from = 0; from < expired.size(); from += BATCH) {
+                List<String> batch = expired.subList(from, Math.min(expired.size(), from + BATCH));
+                List<String> ids = new ArrayList<>(batch);
+                submitter.execute(() -> submitExpired(ids));
+            }
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the tick
+            log.error("Auto-submit tick failed", e);
+        }
+    }
+
+    /**
+     * Submit and grade those of {@code ids} still in progress and past their deadline plus grace.
+     *
+     * @return how many this call submitted
+     */
+    int submitExpired(List<String> ids) {
+        try {
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+            // Answers still in this instance's autosave window go in before the attempt closes
+            Query active = Query.query(Criteria.where("_id").in(ids).and("status").is(ACTIVE));
+            active.fields().include("examId", "studentId");
+            for (ExamResponse response : mongoTemplate.find(active, ExamResponse.class)) {
+                answerAutosaveBuffer.flush(response.getExamId(), response.getStudentId());
+            }
+
+            String claim = UUID.randomUUID().toString();
+            Query due = Query.query(Criteria.where("_id").in(ids)
+                    .and("status").is(ACTIVE)
+                    .and("deadline").lte(now.minus(grace)));
+            long claimed = mongoTemplate.updateMulti(due, new Update()
+                    .set("status", "SUBMITTED")
+                    .set("submittedAt", now)
+                    .set("autoSubmitted", true)
+                    .set("autoSubmitClaim", claim)
+                    .set("updatedAt", now), ExamResponse.class).getModifiedCount();
+            if (claimed == 0) {
+                // Submitted by the student, or by another instance
+                return 0;
+            }
+
+            List<ExamResponse> submitted = mongoTemplate.find(
+                    Query.query(Criteria.where("_id").in(ids).and("autoSubmitClaim").is(claim)), ExamResponse.class);
+            log.info("Auto-submitted {} exam attempt(s) at their deadline", submitted.size());
+            submitted.stream()
+                    .collect(Collectors.groupingBy(ExamResponse::getExamId, Collectors.counting()))
+                    .forEach((examId, count) -> examLiveStats.attemptsSubmitted(examId, count.intValue()));
+            grade(submitted);
+            return submitted.size();
+        } catch (RuntimeException e) {
+            // The attempts stay IN_PROGRESS and come back with the next rescan
+            log.error("Failed to auto-submit {} expired exam attempt(s)", ids.size(), e);
+            return 0;
+        }
+    }
+
+    /** How long after its deadline an attempt is submitted, leaving time for the last autosaves. */
+    Duration grace() {
+        return grace;
+    }
+
+    private void grade(List<ExamResponse> submitted) {
+        Map<String, List<ExamResponse>> byExam = submitted.stream()
+                .collect(Collectors.groupingBy(ExamResponse::getExamId));
+        byExam.forEach((examId, responses) -> {
+            try {
+                Exam exam = examRepository.findById(examId)
+                        .orElseThrow(() -> new RuntimeException("Exam not found with ID: " + examId));
+                autoGradeJobService.gradeSubmitted(exam, responses);
+            } catch (RuntimeException e) {
+                log.warn("Batch grading of auto-submitted attempts of exam {} failed, grading them one by one: {}",
+                        examId, e.getMessage());
+                for (ExamResponse response : responses) {
+                    eventBus.publishDurable(new ExamSubmittedEvent(response.getId(), examId, response.getStudentId()));
+                }
+            }
+        });
+    }
+
+    // ===================================
+    // REBUILDING FROM MONGO
+    // ===================================
+
+    /**
+     * Attempts started before deadlines were stored get theirs from the exam once, on startup.
+     */
+    private void backfillDeadlines() {
+        Query missing = Query.query(Criteria.where("status").is(ACTIVE).and("deadline").is(null));
+        missing.fields().include("examId", "startedAt");
+
+        BulkOperations updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ExamResponse.class);
+        int pending = 0;
+        try (Stream<ExamResponse> responses = mongoTemplate.stream(missing, ExamResponse.class)) {
+            for (Iterator<ExamResponse> it = responses.iterator(); it.hasNext(); ) {
+                ExamResponse response = it.next();
+                LocalDateTime deadline = deadlineOf(response);
+                if (deadline == null) {
+                    continue;
+                }
+                updates.updateOne(Query.query(Criteria.where("_id").is(response.getId())
+                                .and("status").is(ACTIVE)
+                                .and("deadline").is(null)),
+                        new Update().set("deadline", deadline));
+                if (++pending == BATCH) {
+                    execute(updates);
+                    updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ExamResponse.class);
+                    pending = 0;
+                }
+            }
+        }
+        if (pending > 0) {
+            execute(updates);
+        }
+    }
+
+    private LocalDateTime deadlineOf(ExamResponse response) {
+        if (response.getStartedAt() == null) {
+            return null;
+        }
+        try {
+            return examSnapshotCache.get(response.getExamId()).deadlineFor(response.getStartedAt());
+        } catch (RuntimeException e) {
+            // Exam deleted: nothing to submit against
+            return null;
+        }
+    }
+
+    private static void execute(BulkOperations updates) {
+        try {
+            updates.execute();
+        } catch (BulkOperationException e) {
+            log.warn("Failed to backfill {} attempt deadline(s): {}", e.getErrors().size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Puts every active attempt due before the next rescan on the wheel (those already on it are
+     * skipped by the wheel), and grades auto-submitted attempts whose grading was cut short.
+     */
+    private void rescan() {
+        try {
+            Query due = Query.query(Criteria.where("status").is(ACTIVE)
+                    .and("deadline").lte(LocalDateTime.now().plus(rescan.multipliedBy(2))));
+            due.fields().include("deadline");
+            try (Stream<ExamResponse> responses = mongoTemplate.stream(due, ExamResponse.class)) {
+                responses.forEach(response -> register(response.getId(), response.getDeadline()));
+            }
+
+            Query ungraded = Query.query(Criteria.where("status").is("SUBMITTED")
+                            .and("autoSubmitted").is(true)
+                            .and("graded").ne(true)
+                            .and("submittedAt").lte(LocalDateTime.now().minus(rescan)))
+                    .limit(BATCH);
+            List<ExamResponse> orphaned = mongoTemplate.find(ungraded, ExamResponse.class);
+            if (!orphaned.isEmpty()) {
+                log.info("Grading {} auto-submitted exam attempt(s) left ungraded", orphaned.size());
+                grade(orphaned);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Auto-submit rescan failed: {}", e.getMessage());
+        }
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // ===================================
+    // Lifecycle
+    // ===================================
+
+    @Override
+    public void start() {
+        running = true;
+        if (!enabled) {
+            return;
+        }
+        wheel = new DeadlineWheel(tick.toMillis(), wheelSize, System.currentTimeMillis());
+        submitter = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "exam-auto-submit");
+            t.setDaemon(true);
+            return t;
+        });
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "exam-deadline-wheel");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.execute(() -> {
+            try {
+                backfillDeadlines();
+            } catch (DataAccessException e) {
+                log.warn("Could not backfill attempt deadlines: {}", e.getMessage());
+            }
+        });
+        scheduler.scheduleWithFixedDelay(this::rescan, 0, rescan.toMillis(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleAtFixedRate(this::tick, tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+        ticker = scheduler;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        wheel = null;
+        ScheduledExecutorService scheduler = ticker;
+        ticker = null;
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        ExecutorService pool = submitter;
+        if (pool != null) {
+            // Attempts left unsubmitted are picked up by the rescan after the restart
+            pool.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
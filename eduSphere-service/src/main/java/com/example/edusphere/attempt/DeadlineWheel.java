@@ -0,0 +1,96 @@
+package com.example.edusphere.attempt;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashed timing wheel of attempt deadlines. Each deadline lands in the slot for its tick modulo
+ * the wheel size; a tick only looks at its own slot, so the per-tick cost depends on how many
+ * deadlines share that slot, not on how many are scheduled overall. Deadlines more than one
+ * revolution away just stay in their slot until the wheel comes round to them.
+ *
+ * {@link #schedule} may be called from any thread; new deadlines are queued and moved into their
+ * slots by the ticking thread, which is the only one touching the slots. Not a general timer:
+ * each id is scheduled at most once until it expires.
+ */
+final class DeadlineWheel {
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<Entry>[] slots;
+    private final Queue<Entry> incoming = new ConcurrentLinkedQueue<>();
+    private final Set<String> scheduled = ConcurrentHashMap.newKeySet();
+    private final long origin;
+    private long currentTick;
+
+    private record Entry(String id, long tick) {
+    }
+
+    @SuppressWarnings("unchecked")
+    DeadlineWheel(long tickMillis, int wheelSize, long nowMillis) {
+        int size = Integer.highestOneBit(Math.max(16, wheelSize - 1) << 1);
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.slots = new List[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new ArrayList<>();
+        }
+        this.origin = nowMillis;
+    }
+
+    /**
+     * @return false when {@code id} is already on the wheel
+     */
+    boolean schedule(String id, long deadlineMillis) {
+        if (!scheduled.add(id)) {
+            return false;
+        }
+        long tick = Math.max(0, (deadlineMillis - origin + tickMillis - 1) / tickMillis);
+        incoming.add(new Entry(id, tick));
+        return true;
+    }
+
+    boolean isScheduled(String id) {
+        return scheduled.contains(id);
+    }
+
+    int size() {
+        return scheduled.size();
+    }
+
+    /**
+     * Advance to {@code nowMillis}, returning the ids whose deadline has passed. Ticking thread only.
+     */
+    List<String> advance(long nowMillis) {
+        long target = (nowMillis - origin) / tickMillis;
+        List<String> expired = new ArrayList<>();
+
+        Entry entry;
+        while ((entry = incoming.poll()) != null) {
+            if (entry.tick() <= currentTick) {
+                // Already due (or overdue when rebuilt after a restart)
+                expired.add(entry.id());
+            } else {
+                slots[(int) (entry.tick() & mask)].add(entry);
+            }
+        }
+
+        // Catch up one slot at a time after a stall, but never more than a full revolution
+        long from = Math.max(currentTick + 1, target - mask);
+        for (long tick = from; tick <= target; tick++) {
+            List<Entry> slot = slots[(int) (tick & mask)];
+            for (Iterator<Entry> it = slot.iterator(); it.hasNext(); ) {
+                Entry candidate = it.next();
+                if (candidate.tick() <= target) {
+                    expired.add(candidate.id());
+                    it.remove();
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, target);
+
+        expired.forEach(scheduled::remove);
+        return expired;
+    }
+}
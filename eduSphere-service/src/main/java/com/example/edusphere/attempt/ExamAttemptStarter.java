@@ -0,0 +1,139 @@
+package com.example.edusphere.attempt;
+
+import com.example.edusphere.entity.ExamResponse;
+import com.example.edusphere.stats.ExamLiveStats;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.ReturnDocument;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Creates exam attempts with a single conditional upsert on (exam, student, IN_PROGRESS): if the
+ * student already has an active attempt it is returned untouched, otherwise the new attempt is
+ * inserted in the same operation. A unique partial index on active attempts backs this up, so two
+ * Start clicks racing each other still end with one attempt; the loser reads the winner's.
+ */
+@Slf4j
+@Component
+public class ExamAttemptStarter {
+
+    private static final String ACTIVE = "IN_PROGRESS";
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final AutoSubmitScheduler autoSubmitScheduler;
+    private final ExamLiveStats examLiveStats;
+    private final AnswerAutosaveBuffer answerAutosaveBuffer;
+    private final AtomicBoolean indexesReady = new AtomicBoolean();
+
+    public ExamAttemptStarter(MongoTemplate mongoTemplate, AutoSubmitScheduler autoSubmitScheduler, ExamLiveStats examLiveStats,
+                              AnswerAutosaveBuffer answerAutosaveBuffer) {
+        this.mongoTemplate = mongoTemplate;
+        this.autoSubmitScheduler = autoSubmitScheduler;
+        this.examLiveStats = examLiveStats;
+        this.answerAutosaveBuffer = answerAutosaveBuffer;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Attempt {
+        private final ExamResponse response;
+        /** False when the student already had an active attempt, which is what {@link #getResponse()} holds. */
+        private final boolean created;
+    }
+
+    /**
+     * Start attempt {@code attemptNumber} of {@code exam} for {@code studentId}, unless one is
+     * already in progress. Eligibility (window, attempt limit) is the caller's check.
+     */
+    public Attempt start(ExamSnapshot exam, String studentId, int attemptNumber) {
+        ensureIndexes();
+
+        ObjectId id = new ObjectId();
+        LocalDateTime now = LocalDateTime.now();
+        ExamResponse response = new ExamResponse();
+        response.setId(id.toHexString());
+        response.setExamId(exam.getId());
+        response.setStudentId(studentId);
+        response.setCourseId(exam.getCourseId());
+        response.setStartedAt(now);
+        response.setDeadline(exam.deadlineFor(now));
+        response.setStatus(ACTIVE);
+        response.setMaxScore(exam.getTotalPoints());
+        response.setAttemptNumber(attemptNumber);
+        response.setAnswers(new HashMap<>());
+        response.setQuestionScores(new HashMap<>());
+        response.setCreatedAt(now);
+        response.setUpdatedAt(now);
+
+        Document insert = new Document();
+        mongoTemplate.getConverter().write(response, insert);
+        // Filled in from the filter on insert
+        insert.remove("examId");
+        insert.remove("studentId");
+        insert.remove("status");
+
+        Document active = new Document("examId", exam.getId())
+                .append("studentId", studentId)
+                .append("status", ACTIVE);
+        Document stored;
+        try {
+            stored = responses().findOneAndUpdate(active, new Document("$setOnInsert", insert),
+                    new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+        } catch (MongoException e) {
+            if (e.getCode() != DUPLICATE_KEY) {
+                throw e;
+            }
+            // A concurrent start inserted first; its attempt is the active one
+            stored = responses().find(active).first();
+            if (stored == null) {
+                throw e;
+            }
+        }
+
+        Attempt attempt = new Attempt(mongoTemplate.getConverter().read(ExamResponse.class, stored), id.equals(stored.get("_id")));
+        if (attempt.isCreated()) {
+            autoSubmitScheduler.register(attempt.getResponse().getId(), attempt.getResponse().getDeadline());
+            examLiveStats.attemptStarted(exam.getId());
+            // A retake right after submitting: the previous attempt's closed mark must not refuse this one
+            answerAutosaveBuffer.attemptStarted(exam.getId(), studentId);
+        }
+        return attempt;
+    }
+
+    private MongoCollection<Document> responses() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(ExamResponse.class));
+    }
+
+    /**
+     * Created here rather than declared on the entity so that legacy data with duplicate active
+     * attempts logs a warning instead of stopping the service from starting. Tried once per process;
+     * the upsert alone still prevents duplicates outside of a truly simultaneous double start.
+     */
+    private void ensureIndexes() {
+        if (!indexesReady.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            responses().createIndex(Indexes.ascending("examId", "studentId"), new IndexOptions()
+                    .name("one_active_attempt_uq")
+                    .unique(true)
+                    .partialFilterExpression(new Document("status", ACTIVE)));
+        } catch (MongoException e) {
+            log.warn("Could not create the active attempt index on exam_responses: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.edusphere.attempt;
+
+import com.example.edusphere.entity.Exam;
+import com.example.edusphere.entity.ExamQuestion;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * What starting or resuming an attempt needs to know about an exam, copied out of the entity once:
+ * the availability window, attempt limit and point total, plus the student-facing view of the exam
+ * (questions without answer keys). Immutable, so one instance is shared by every request.
+ */
+@Getter
+public final class ExamSnapshot {
+
+    private final String id;
+    private final String courseId;
+    private final String status;
+    private final boolean visibleToStudents;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+    private final Integer duration;
+    private final int maxAttempts;
+    private final int totalPoints;
+    private final boolean shuffleOptions;
+    private final boolean autoSubmit;
+    private final LocalDateTime version;
+    /** The exam as students see it; no correct answers, explanations or acceptable answers. */
+    private final Map<String, Object> studentView;
+
+    private ExamSnapshot(Exam exam) {
+        this.id = exam.getId();
+        this.courseId = exam.getCourseId();
+        this.status = exam.getStatus();
+        this.visibleToStudents = Boolean.TRUE.equals(exam.getVisibleToStudents());
+        this.startTime = exam.getStartTime();
+        this.endTime = exam.getEndTime();
+        this.duration = exam.getDuration();
+        this.maxAttempts = exam.getMaxAttempts() != null ? exam.getMaxAttempts() : 1;
+        this.totalPoints = exam.getTotalPoints();
+        this.shuffleOptions = Boolean.TRUE.equals(exam.getShuffleOptions());
+        this.autoSubmit = Boolean.TRUE.equals(exam.getAutoSubmit());
+        this.version = exam.getUpdatedAt();
+        this.studentView = studentView(exam);
+    }
+
+    public static ExamSnapshot of(Exam exam) {
+        return new ExamSnapshot(exam);
+    }
+
+    /**
+     * @return why a new attempt can't be started at {@code now}, or null when the exam is open
+     */
+    public String unavailableReason(LocalDateTime now) {
+        if (!"PUBLISHED".equals(status)) {
+            return "Exam is not published";
+        }
+        if (!visibleToStudents) {
+            return "Exam is not visible to students";
+        }
+        if (startTime != null && now.isBefore(startTime)) {
+            return "Exam has not started yet";
+        }
+        if (endTime != null && now.isAfter(endTime)) {
+            return "Exam time has expired";
+        }
+        return null;
+    }
+
+    public boolean isOpenAt(LocalDateTime now) {
+        return unavailableReason(now) == null;
+    }
+
+    /**
+     * @return when an attempt started at {@code startedAt} is submitted for the student (the end of
+     *         its duration, or the end of the exam if that comes first), or null when the exam
+     *         doesn't auto-submit or has no time limit at all
+     */
+    public LocalDateTime deadlineFor(LocalDateTime startedAt) {
+        if (!autoSubmit) {
+            return null;
+        }
+        LocalDateTime deadline = duration != null && duration > 0 ? startedAt.plusMinutes(duration) : null;
+        if (endTime != null && (deadline == null || endTime.isBefore(deadline))) {
+            deadline = endTime;
+        }
+        return deadline;
+    }
+
+    public static Map<String, Object> studentView(Exam exam) {
+        Map<String, Object> sanitizedExam = new HashMap<>();
+
+        // Basic information
+        sanitizedExam.put("id", exam.getId());
+        sanitizedExam.put("title", exam.getTitle());
+        sanitizedExam.put("description", exam.getDescription());
+        sanitizedExam.put("instructions", exam.getInstructions());
+        sanitizedExam.put("duration", exam.getDuration());
+        sanitizedExam.put("totalPoints", exam.getTotalPoints());
+        sanitizedExam.put("passPercentage", exam.getPassPercentage());
+
+        // Student settings
+        sanitizedExam.put("showResults", exam.getShowResults());
+        sanitizedExam.put("shuffleQuestions", exam.getShuffleQuestions());
+        sanitizedExam.put("shuffleOptions", exam.getShuffleOptions());
+        sanitizedExam.put("allowNavigation", exam.getAllowNavigation());
+        sanitizedExam.put("showTimer", exam.getShowTimer());
+        sanitizedExam.put("autoSubmit", exam.getAutoSubmit());
+        sanitizedExam.put("requireSafeBrowser", exam.getRequireSafeBrowser());
+
+        // Sanitize questions - remove correct answers and explanations
+        if (exam.getQuestions() != null) {
+            List<Map<String, Object>> sanitizedQuestions = new ArrayList<>();
+
+            for (ExamQuestion question : exam.getQuestions()) {
+                Map<String, Object> sanitizedQuestion = new HashMap<>();
+                sanitizedQuestion.put("id", question.getId());
+                sanitizedQuestion.put("type", question.getType());
+                sanitizedQuestion.put("question", question.getQuestion());
+                sanitizedQuestion.put("points", question.getPoints());
+                sanitizedQuestion.put("required", question.getRequired());
+                sanitizedQuestion.put("timeLimit", question.getTimeLimit());
+                sanitizedQuestion.put("displayOrder", question.getDisplayOrder());
+                sanitizedQuestion.put("caseSensitive", question.getCaseSensitive());
+                sanitizedQuestion.put("maxLength", question.getMaxLength());
+
+                // Include options for multiple choice but not correct answers
+                if ("multiple-choice".equals(question.getType()) && question.getOptions() != null) {
+                    sanitizedQuestion.put("options", List.copyOf(question.getOptions()));
+                    // Include correct answer index for frontend shuffling logic
+                    sanitizedQuestion.put("correctAnswerIndex", question.getCorrectAnswerIndex());
+                }
+
+                // Don't include: correctAnswer, explanation, acceptableAnswers for security
+                sanitizedQuestions.add(Collections.unmodifiableMap(sanitizedQuestion));
+            }
+
+            sanitizedExam.put("questions", Collections.unmodifiableList(sanitizedQuestions));
+        }
+
+        return Collections.unmodifiableMap(sanitizedExam);
+    }
+}
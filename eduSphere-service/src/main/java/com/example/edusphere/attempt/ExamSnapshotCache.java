@@ -0,0 +1,128 @@
+package com.example.edusphere.attempt;
+
+import com.example.common.config.CacheNames;
+import com.example.edusphere.entity.Exam;
+import com.example.edusphere.repository.ExamRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ExamSnapshot}s by exam id, kept warm ahead of the start time so the burst of students
+ * pressing Start at the same second never reads the exam. Every {@code app.exam.snapshot.warm-interval}
+ * the exams that are open or open within {@code app.exam.snapshot.warm-ahead} are re-snapshotted;
+ * anything else is loaded once on first use, with concurrent misses for the same exam sharing the
+ * load. Saving an exam evicts its snapshot ({@code ExamSnapshotEvictionListener}, and the change
+ * stream for other instances).
+ */
+@Slf4j
+@Component
+public class ExamSnapshotCache implements SmartLifecycle {
+
+    private final ExamRepository examRepository;
+    private final MongoTemplate mongoTemplate;
+    private final Cache cache;
+    private final Duration warmAhead;
+    private final Duration warmInterval;
+
+    private volatile ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    public ExamSnapshotCache(ExamRepository examRepository,
+                             MongoTemplate mongoTemplate,
+                             CacheManager cacheManager,
+                             Environment environment) {
+        this.examRepository = examRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.cache = cacheManager.getCache(CacheNames.EXAM_SNAPSHOTS);
+        this.warmAhead = environment.getProperty("app.exam.snapshot.warm-ahead", Duration.class, Duration.ofMinutes(30));
+        this.warmInterval = environment.getProperty("app.exam.snapshot.warm-interval", Duration.class, Duration.ofMinutes(1));
+    }
+
+    public ExamSnapshot get(String examId) {
+        try {
+            return cache.get(examId, () -> load(examId));
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public void evict(String examId) {
+        cache.evict(examId);
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    private ExamSnapshot load(String examId) {
+        Exam exam = examRepository.findById(examId)
+                .orElseThrow(() -> new RuntimeException("Exam not found with ID: " + examId));
+        return ExamSnapshot.of(exam);
+    }
+
+    private void warm() {
+        LocalDateTime now = LocalDateTime.now();
+        Query upcoming = Query.query(Criteria.where("status").is("PUBLISHED")
+                .and("visibleToStudents").is(true)
+                .and("startTime").lte(now.plus(warmAhead))
+                .and("endTime").gte(now));
+        try {
+            int warmed = 0;
+            for (Exam exam : mongoTemplate.find(upcoming, Exam.class)) {
+                cache.put(exam.getId(), ExamSnapshot.of(exam));
+                warmed++;
+            }
+            log.debug("Warmed {} exam snapshot(s)", warmed);
+        } catch (DataAccessException e) {
+            log.warn("Could not warm exam snapshots: {}", e.getMessage());
+        }
+    }
+
+    // ===================================
+    // Lifecycle
+    // ===================================
+
+    @Override
+    public void start() {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "exam-snapshot-warmer");
+            t.setDaemon(true);
+            return t;
+        });
+        running = true;
+        scheduler.scheduleWithFixedDelay(this::warm, 0, warmInterval.toSeconds(), TimeUnit.SECONDS);
+        executor = scheduler;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        ScheduledExecutorService scheduler = executor;
+        executor = null;
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
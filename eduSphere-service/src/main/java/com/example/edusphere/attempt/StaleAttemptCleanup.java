@@ -0,0 +1,206 @@
+package com.example.edusphere.attempt;
+
+import com.example.edusphere.dto.response.ExamCleanupReport;
+import com.example.edusphere.entity.Exam;
+import com.example.edusphere.entity.ExamResponse;
+import com.example.edusphere.stats.ExamLiveStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Finalizes or removes exam attempts nobody is going to finish:
+ * <ul>
+ *     <li>overdue: still in progress past their deadline plus the auto-submit grace (auto-submit
+ *     was off or the instance holding them died). They are submitted and graded through
+ *     {@link AutoSubmitScheduler#submitExpired}, with the same claim, so an attempt the scheduler
+ *     gets to first is not submitted twice.</li>
+ *     <li>abandoned: in progress without a deadline (the exam doesn't auto-submit) and started more
+ *     than {@code app.exam.cleanup.abandon-after} ago. They are marked ABANDONED, answers kept.</li>
+ *     <li>orphaned: responses of exams that no longer exist. They are deleted.</li>
+ * </ul>
+ * The first two are read off {@code status_deadline_idx}, the orphans off the distinct exam ids of
+ * {@code exam_submitted_idx}; everything is done {@value #BATCH} attempts or exams at a time. A dry
+ * run only counts.
+ */
+@Slf4j
+@Component
+public class StaleAttemptCleanup {
+
+    private static final String ACTIVE = "IN_PROGRESS";
+    private static final int BATCH = 500;
+    // Orphaned exam ids listed in the report
+    private static final int REPORTED_ORPHANS = 100;
+
+    private final MongoTemplate mongoTemplate;
+    private final AutoSubmitScheduler autoSubmitScheduler;
+    private final ExamLiveStats examLiveStats;
+    private final Duration abandonAfter;
+
+    public StaleAttemptCleanup(MongoTemplate mongoTemplate,
+                               AutoSubmitScheduler autoSubmitScheduler,
+                               ExamLiveStats examLiveStats,
+                               Environment environment) {
+        this.mongoTemplate = mongoTemplate;
+        this.autoSubmitScheduler = autoSubmitScheduler;
+        this.examLiveStats = examLiveStats;
+        this.abandonAfter = environment.getProperty("app.exam.cleanup.abandon-after", Duration.class, Duration.ofDays(7));
+    }
+
+    /** Attempts in progress with a deadline before this are overdue. */
+    public LocalDateTime overdueBefore(LocalDateTime now) {
+        return now.minus(autoSubmitScheduler.grace());
+    }
+
+    /** Attempts in progress without a deadline and started before this are abandoned. */
+    public LocalDateTime abandonedBefore(LocalDateTime now) {
+        return now.minus(abandonAfter);
+    }
+
+    public ExamCleanupReport run(boolean dryRun) {
+        LocalDateTime startedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        ExamCleanupReport report = ExamCleanupReport.builder()
+                .dryRun(dryRun)
+                .startedAt(startedAt)
+                .build();
+
+        submitOverdue(overdueBefore(startedAt), dryRun, report);
+        markAbandoned(abandonedBefore(startedAt), dryRun, report);
+        deleteOrphans(dryRun, report);
+
+        report.setFinishedAt(LocalDateTime.now());
+        if (!dryRun) {
+            log.info("Exam cleanup: submitted {} overdue, abandoned {} and deleted {} orphaned attempt(s)",
+                    report.getOverdueSubmitted(), report.getAbandonedMarked(), report.getOrphanedDeleted());
+        }
+        return report;
+    }
+
+    // ===================================
+    // IN-PROGRESS ATTEMPTS
+    // ===================================
+
+    private void submitOverdue(LocalDateTime before, boolean dryRun, ExamCleanupReport report) {
+        Criteria overdue = Criteria.where("status").is(ACTIVE).and("deadline").lte(before);
+        report.setOverdueAttempts(mongoTemplate.count(Query.query(overdue), ExamResponse.class));
+
+        long submitted = 0;
+        if (!dryRun) {
+            List<String> ids;
+            while (!(ids = idsOf(overdue)).isEmpty()) {
+                int claimed = autoSubmitScheduler.submitExpired(ids);
+                submitted += claimed;
+                if (claimed == 0) {
+                    // Taken by the scheduler meanwhile, or failed; either way not ours to retry now
+                    break;
+                }
+            }
+        }
+        report.setOverdueSubmitted(submitted);
+    }
+
+    private void markAbandoned(LocalDateTime before, boolean dryRun, ExamCleanupReport report) {
+        Criteria abandoned = Criteria.where("status").is(ACTIVE)
+                .and("deadline").is(null)
+                .and("startedAt").lte(before);
+        report.setAbandonedAttempts(mongoTemplate.count(Query.query(abandoned), ExamResponse.class));
+
+        long marked = 0;
+        if (!dryRun) {
+            Map<String, Integer> byExam = new HashMap<>();
+            List<ExamResponse> batch;
+            while (!(batch = attemptsOf(abandoned)).isEmpty()) {
+                List<String> ids = batch.stream().map(ExamResponse::getId).toList();
+                LocalDateTime markedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+                // Re-checked per attempt: one the student resumes meanwhile stays in progress
+                long modified = mongoTemplate.updateMulti(
+                        Query.query(Criteria.where("_id").in(ids).andOperator(abandoned)),
+                        new Update()
+                                .set("status", "ABANDONED")
+                                .set("updatedAt", markedAt),
+                        ExamResponse.class).getModifiedCount();
+                marked += modified;
+                if (modified == 0) {
+                    break;
+                }
+                // Only the attempts this update closed leave the live counts, not the whole batch
+                attemptsOf(Criteria.where("_id").in(ids)
+                        .and("status").is("ABANDONED")
+                        .and("updatedAt").is(markedAt))
+                        .forEach(response -> byExam.merge(response.getExamId(), 1, Integer::sum));
+            }
+            byExam.forEach(examLiveStats::attemptsAbandoned);
+        }
+        report.setAbandonedMarked(marked);
+    }
+
+    private List<String> idsOf(Criteria criteria) {
+        return attemptsOf(criteria).stream().map(ExamResponse::getId).toList();
+    }
+
+    private List<ExamResponse> attemptsOf(Criteria criteria) {
+        Query query = Query.query(criteria).limit(BATCH);
+        query.fields().include("examId");
+        return mongoTemplate.find(query, ExamResponse.class);
+    }
+
+    // ===================================
+    // ORPHANED RESPONSES
+    // ===================================
+
+    private void deleteOrphans(boolean dryRun, ExamCleanupReport report) {
+        List<String> examIds = new ArrayList<>();
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(ExamResponse.class))
+                .distinct("examId", String.class)
+                .forEach(examId -> {
+                    if (examId != null) {
+                        examIds.add(examId);
+                    }
+                });
+
+        List<String> orphanedExamIds = new ArrayList<>();
+        long orphaned = 0;
+        long deleted = 0;
+        for (int from = 0; from < examIds.size(); from += BATCH) {
+            List<String> chunk = examIds.subList(from, Math.min(examIds.size(), from + BATCH));
+            Query existing = Query.query(Criteria.where("_id").in(chunk));
+            existing.fields().include("_id");
+            Set<String> found = mongoTemplate.find(existing, Exam.class).stream()
+                    .map(Exam::getId)
+                    .collect(Collectors.toSet());
+            List<String> missing = chunk.stream().filter(examId -> !found.contains(examId)).toList();
+            if (missing.isEmpty()) {
+                continue;
+            }
+
+            Query responses = Query.query(Criteria.where("examId").in(missing));
+            if (dryRun) {
+                orphaned += mongoTemplate.count(responses, ExamResponse.class);
+            } else {
+                long removed = mongoTemplate.remove(responses, ExamResponse.class).getDeletedCount();
+                orphaned += removed;
+                deleted += removed;
+                examLiveStats.discard(missing);
+            }
+            for (String examId : missing) {
+                if (orphanedExamIds.size() < REPORTED_ORPHANS) {
+                    orphanedExamIds.add(examId);
+                }
+            }
+        }
+
+        report.setOrphanedExamIds(orphanedExamIds);
+        report.setOrphanedResponses(orphaned);
+        report.setOrphanedDeleted(deleted);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.edusphere.config;
+
+import com.example.common.archive.ArchivePolicy;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * What eduSphere moves to the archive collections, and when. Retention is counted from
+ * submission (or send time for chat); see {@link com.example.common.archive.ArchiveService}.
+ */
+@Configuration
+public class ArchivePolicies {
+
+    public static final String EXAM_RESPONSES = "exam_responses";
+    public static final String TASK_SUBMISSIONS = "task_submissions";
+    public static final String CHAT_MESSAGES = "chat_messages";
+
+    @Bean
+    public ArchivePolicy examResponseArchivePolicy(@Value("${app.archive.retention.exam-responses:730d}") Duration retention) {
+        return ArchivePolicy.builder()
+                .collection(EXAM_RESPONSES)
+                .dateField("submittedAt")
+                .retention(retention)
+                // An attempt still in progress is never archived, however old it is
+                .filter(new Document("status", new Document("$ne", "IN_PROGRESS")))
+                .archiveIndex("studentId")
+                .archiveIndex("examId")
+                .build();
+    }
+
+    @Bean
+    public ArchivePolicy taskSubmissionArchivePolicy(@Value("${app.archive.retention.task-submissions:730d}") Duration retention) {
+        return ArchivePolicy.builder()
+                .collection(TASK_SUBMISSIONS)
+                .dateField("submittedAt")
+                .retention(retention)
+                .archiveIndex("student_id")
+                .archiveIndex("task_id")
+                .build();
+    }
+
+    @Bean
+    public ArchivePolicy chatMessageArchivePolicy(@Value("${app.archive.retention.chat-messages:365d}") Duration retention) {
+        return ArchivePolicy.builder()
+                .collection(CHAT_MESSAGES)
+                .dateField("timestamp")
+                .retention(retention)
+                .archiveIndex("senderId")
+                .archiveIndex("receiverId")
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.edusphere.config;
+
+import com.example.common.archive.ArchiveService;
+import com.example.common.cascade.CascadeChild;
+import com.example.common.cascade.CascadePlan;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * What goes with a task or an exam when it is deleted; see
+ * {@link com.example.common.cascade.CascadeDeleteService}. Archived submissions and responses (see
+ * {@link ArchivePolicies}) go too.
+ */
+@Configuration
+public class CascadePlans {
+
+    public static final String TASK = "task";
+    public static final String EXAM = "exam";
+
+    @Bean
+    public CascadePlan taskCascadePlan() {
+        return CascadePlan.builder()
+                .name(TASK)
+                .collection("tasks")
+                .fileField("file_url")
+                .child(CascadeChild.builder()
+                        .collection("task_submissions")
+                        .field("task_id")
+                        .fileField("file_urls")
+                        .build())
+                .child(CascadeChild.builder()
+                        .collection(ArchiveService.archiveName(ArchivePolicies.TASK_SUBMISSIONS))
+                        .field("task_id")
+                        .build())
+                .child(linkedGradeColumns())
+                .build();
+    }
+
+    @Bean
+    public CascadePlan examCascadePlan() {
+        return CascadePlan.builder()
+                .name(EXAM)
+                .collection("exams")
+                .child(CascadeChild.builder()
+                        .collection("exam_responses")
+                        .field("examId")
+                        .build())
+                .child(CascadeChild.builder()
+                        .collection(ArchiveService.archiveName(ArchivePolicies.EXAM_RESPONSES))
+                        .field("examId")
+                        .build())
+                .child(CascadeChild.builder()
+                        .collection("exam_live_stats")
+                        .field("_id")
+                        .build())
+                .child(linkedGradeColumns())
+                .build();
+    }
+
+    private static CascadeChild linkedGradeColumns() {
+        return CascadeChild.builder()
+                .collection("grade_columns")
+                .field("linked_assignment_id")
+                .build();
+    }
+}
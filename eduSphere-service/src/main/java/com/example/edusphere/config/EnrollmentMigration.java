@@ -0,0 +1,45 @@
+package com.example.edusphere.config;
+
+import com.example.edusphere.service.EnrollmentService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Copies enrollments still embedded in course documents into the enrollments collection.
+ *
+ * Runs once all singletons exist but before the web server starts, so no request reads the
+ * collection half-filled. The copy is an idempotent upsert, so every instance may run it; while
+ * app.enrollments.legacy-dual-write is on, courses enrolled through an older instance during a
+ * rolling deploy are picked up by the next restart or by POST /api/admin/enrollments/backfill.
+ */
+@Slf4j
+@Component
+public class EnrollmentMigration implements SmartInitializingSingleton {
+
+    private final EnrollmentService enrollmentService;
+    private final boolean migrateOnStartup;
+
+    public EnrollmentMigration(EnrollmentService enrollmentService,
+                               @Value("${app.enrollments.migrate-on-startup:true}") boolean migrateOnStartup) {
+        this.enrollmentService = enrollmentService;
+        this.migrateOnStartup = migrateOnStartup;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!migrateOnStartup) {
+            return;
+        }
+        try {
+            Map<String, Object> result = enrollmentService.backfillFromEmbedded();
+            log.info("Enrollment backfill finished: {}", result);
+        } catch (Exception e) {
+            // Don't block startup; the admin endpoint can rerun it
+            log.error("Enrollment backfill failed: {}", e.getMessage(), e);
+        }
+    }
+}
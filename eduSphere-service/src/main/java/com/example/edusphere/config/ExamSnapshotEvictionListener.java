@@ -0,0 +1,35 @@
+package com.example.edusphere.config;
+
+import com.example.edusphere.attempt.ExamSnapshotCache;
+import com.example.edusphere.entity.Exam;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops an exam's start-path snapshot whenever the exam is saved, so a publish, a time change or an
+ * edited question is seen by the next Start; the warmer puts a fresh one back on its next pass.
+ */
+@Component
+public class ExamSnapshotEvictionListener extends AbstractMongoEventListener<Exam> {
+
+    private final ExamSnapshotCache examSnapshotCache;
+
+    public ExamSnapshotEvictionListener(ExamSnapshotCache examSnapshotCache) {
+        this.examSnapshotCache = examSnapshotCache;
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Exam> event) {
+        if (event.getSource().getId() != null) {
+            examSnapshotCache.evict(event.getSource().getId());
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Exam> event) {
+        // Only the delete filter is known here
+        examSnapshotCache.clear();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.edusphere.config;
+
+import com.example.common.config.CacheNames;
+import com.example.edusphere.entity.GradeColumn;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Grade columns are written from the grade, exam, task and submission services, so the
+ * per-course column cache is evicted here on every save/delete instead of at each call site.
+ */
+@Component
+public class GradeColumnCacheEvictionListener extends AbstractMongoEventListener<GradeColumn> {
+
+    private final CacheManager cacheManager;
+
+    public GradeColumnCacheEvictionListener(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<GradeColumn> event) {
+        Cache cache = cacheManager.getCache(CacheNames.GRADE_COLUMNS);
+        if (cache != null && event.getSource().getCourseId() != null) {
+            cache.evict(event.getSource().getCourseId());
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<GradeColumn> event) {
+        // Only the delete filter is known here, not the course, so drop every course's entry
+        Cache cache = cacheManager.getCache(CacheNames.GRADE_COLUMNS);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.edusphere.controller;
+
+import com.example.edusphere.service.CourseAccessService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Hit rates and audit-mode counters of the course access decision cache.
+ * Lives under /api/admin/caches so it shares the admin-only security rule.
+ */
+@RestController
+@RequestMapping("/api/admin/caches/access-decisions")
+public class AccessDecisionController {
+
+    private final CourseAccessService courseAccessService;
+
+    public AccessDecisionController(CourseAccessService courseAccessService) {
+        this.courseAccessService = courseAccessService;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(courseAccessService.getStats());
+    }
+
+    @DeleteMapping
+    public ResponseEntity<?> clear() {
+        courseAccessService.evictAll();
+        return ResponseEntity.ok(Map.of("message", "Access decisions cleared"));
+    }
+}
@@ -7,7 +7,11 @@ import com.example.edusphere.dto.response.CourseDto;
 import com.example.edusphere.dto.response.DepartmentDto;
 import com.example.common.entity.UserEntity;
 import com.example.edusphere.service.AnnouncementService;
+import com.example.common.streaming.CsvColumn;
+import com.example.common.streaming.StreamFormat;
+import com.example.common.streaming.StreamingResponseWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -26,11 +30,39 @@ public class AnnouncementController {
     @Autowired
     private AnnouncementService announcementService;
 
+    @Autowired
+    private StreamingResponseWriter streamingResponseWriter;
+
+    private static final List<CsvColumn<AnnouncementResponse>> ANNOUNCEMENT_CSV_COLUMNS = List.of(
+            CsvColumn.of("id", AnnouncementResponse::getId),
+            CsvColumn.of("title", AnnouncementResponse::getTitle),
+            CsvColumn.of("creatorName", AnnouncementResponse::getCreatorName),
+            CsvColumn.of("priority", AnnouncementResponse::getPriority),
+            CsvColumn.of("status", AnnouncementResponse::getStatus),
+            CsvColumn.of("targetAudienceType", AnnouncementResponse::getTargetAudienceType),
+            CsvColumn.of("targetCourseId", AnnouncementResponse::getTargetCourseId),
+            CsvColumn.of("createdAt", AnnouncementResponse::getCreatedAt),
+            CsvColumn.of("expiryDate", AnnouncementResponse::getExpiryDate)
+    );
+
     // --- Endpoints for all authenticated users ---
 
     @GetMapping
-    public ResponseEntity<List<AnnouncementResponse>> getAnnouncementsForUser(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getAnnouncementsForUser(@AuthenticationPrincipal UserDetails userDetails,
+                                                     @RequestParam(value = "format", required = false) String format,
+                                                     @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer limit) {
         UserEntity currentUser = (UserEntity) userDetails;
+        if (cursor != null || limit != null) {
+            return ResponseEntity.ok(announcementService.getAnnouncementsForUserPage(currentUser.getId(), currentUser.getRole(), cursor, limit));
+        }
+        StreamFormat streamFormat = StreamFormat.resolve(format, accept);
+        if (streamFormat != null) {
+            return streamingResponseWriter.stream(streamFormat,
+                    () -> announcementService.streamAnnouncementsForUser(currentUser.getId(), currentUser.getRole()),
+                    ANNOUNCEMENT_CSV_COLUMNS, "announcements");
+        }
         List<AnnouncementResponse> announcements = announcementService.getAnnouncementsForUser(currentUser.getId(), currentUser.getRole());
         return ResponseEntity.ok(announcements);
     }
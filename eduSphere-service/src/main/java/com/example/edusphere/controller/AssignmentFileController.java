@@ -17,7 +17,9 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/assignment-files")
 @CrossOrigin(origins = "http://localhost:3000", allowCredentials = "false")
@@ -59,11 +61,10 @@ public class AssignmentFileController {
             return new ResponseEntity<>(fileResponse, HttpStatus.CREATED);
 
         } catch (RuntimeException e) {
-            System.err.println("Runtime error uploading assignment file: " + e.getMessage());
+            log.warn("Runtime error uploading assignment file: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Unexpected error uploading assignment file: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error uploading assignment file", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -106,12 +107,11 @@ public class AssignmentFileController {
                     .body(fileResource);
 
         } catch (RuntimeException e) {
-            System.err.println("Runtime error downloading assignment file: " + e.getMessage());
+            log.warn("Runtime error downloading assignment file: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Unexpected error downloading assignment file: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error downloading assignment file", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -153,12 +153,11 @@ public class AssignmentFileController {
                     .body(fileResource);
 
         } catch (RuntimeException e) {
-            System.err.println("Runtime error viewing assignment file: " + e.getMessage());
+            log.warn("Runtime error viewing assignment file: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Unexpected error viewing assignment file: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error viewing assignment file", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -188,12 +187,11 @@ public class AssignmentFileController {
             return ResponseEntity.ok(fileInfo);
 
         } catch (RuntimeException e) {
-            System.err.println("Runtime error getting assignment file info: " + e.getMessage());
+            log.warn("Runtime error getting assignment file info: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Unexpected error getting assignment file info: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error getting assignment file info", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -224,12 +222,11 @@ public class AssignmentFileController {
             return ResponseEntity.ok(Map.of("message", "Assignment file deleted successfully"));
 
         } catch (RuntimeException e) {
-            System.err.println("Runtime error deleting assignment file: " + e.getMessage());
+            log.warn("Runtime error deleting assignment file: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Unexpected error deleting assignment file: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error deleting assignment file", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -257,11 +254,10 @@ public class AssignmentFileController {
             return ResponseEntity.ok(files);
 
         } catch (RuntimeException e) {
-            System.err.println("Runtime error getting assignment files: " + e.getMessage());
+            log.warn("Runtime error getting assignment files: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Unexpected error getting assignment files: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error getting assignment files", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -289,11 +285,10 @@ public class AssignmentFileController {
             return ResponseEntity.ok(files);
 
         } catch (RuntimeException e) {
-            System.err.println("Runtime error getting course files: " + e.getMessage());
+            log.warn("Runtime error getting course files: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Unexpected error getting course files: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error getting course files", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -327,11 +322,10 @@ public class AssignmentFileController {
             return ResponseEntity.ok(updatedFile);
 
         } catch (RuntimeException e) {
-            System.err.println("Runtime error updating assignment file metadata: " + e.getMessage());
+            log.warn("Runtime error updating assignment file metadata: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Unexpected error updating assignment file metadata: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error updating assignment file metadata", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -351,11 +345,10 @@ public class AssignmentFileController {
             return ResponseEntity.ok(stats);
 
         } catch (RuntimeException e) {
-            System.err.println("Runtime error getting assignment file stats: " + e.getMessage());
+            log.warn("Runtime error getting assignment file stats: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Unexpected error getting assignment file stats: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error getting assignment file stats", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -375,11 +368,10 @@ public class AssignmentFileController {
             return ResponseEntity.ok(stats);
 
         } catch (RuntimeException e) {
-            System.err.println("Runtime error getting course file stats: " + e.getMessage());
+            log.warn("Runtime error getting course file stats: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Unexpected error getting course file stats: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error getting course file stats", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -402,8 +394,7 @@ public class AssignmentFileController {
             ));
 
         } catch (Exception e) {
-            System.err.println("Error cleaning up orphaned files: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error cleaning up orphaned files", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -434,11 +425,10 @@ public class AssignmentFileController {
             return ResponseEntity.ok(files);
 
         } catch (RuntimeException e) {
-            System.err.println("Runtime error getting files by uploader: " + e.getMessage());
+            log.warn("Runtime error getting files by uploader: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Unexpected error getting files by uploader: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error getting files by uploader", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -11,6 +11,7 @@ import com.example.common.repository.UserRepository;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +20,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
 
+@Slf4j
 @RestController
 @AllArgsConstructor
 @RequestMapping("/api")
@@ -125,12 +127,11 @@ public class AuthController {
             return ResponseEntity.ok(response);
 
         } catch (RuntimeException e) {
-            System.err.println("Extension auth error: " + e.getMessage());
+            log.warn("Extension auth error: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Unexpected extension auth error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected extension auth error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -181,7 +182,7 @@ public class AuthController {
             ));
 
         } catch (Exception e) {
-            System.err.println("Token verification error: " + e.getMessage());
+            log.warn("Token verification error: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Token verification failed"));
         }
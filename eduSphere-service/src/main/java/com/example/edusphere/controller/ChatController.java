@@ -5,8 +5,10 @@ import com.example.common.dto.request.ChatRequest;
 import com.example.common.dto.response.ChatResponse;
 import com.example.common.entity.ChatMessageEntity;
 import com.example.common.repository.ChatMessageRepository;
+import com.example.common.service.ChatHistoryService;
 import com.example.edusphere.service.ChatService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.MessageMapping;
@@ -20,6 +22,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/chat")
 @RequiredArgsConstructor
@@ -31,6 +34,9 @@ public class ChatController {
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
+    @Autowired
+    private ChatHistoryService chatHistoryService;
+
     private final ChatService chatService;
 
     /**
@@ -61,7 +67,7 @@ public class ChatController {
     public void sendMessage(@Payload ChatMessage message, SimpMessageHeaderAccessor headerAccessor) {
         Object user = headerAccessor.getUser();
         if (user == null) {
-            System.err.println("⚠️ Unauthorized EduSphere message attempt");
+            log.warn("Unauthorized EduSphere message attempt");
             return;
         }
 
@@ -98,9 +104,7 @@ public class ChatController {
             @PathVariable String user1,
             @PathVariable String user2
     ) {
-        return chatMessageRepository.findBySenderIdAndReceiverIdOrReceiverIdAndSenderIdAndContext(
-                user1, user2, "eduSphere"
-        );
+        return chatHistoryService.getConversation(user1, user2, "eduSphere");
     }
 
 }
\ No newline at end of file
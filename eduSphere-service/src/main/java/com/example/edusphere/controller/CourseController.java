@@ -1,9 +1,11 @@
 package com.example.edusphere.controller;
 
+import com.example.edusphere.dto.request.BulkEnrollmentRequest;
 import com.example.edusphere.dto.request.CourseRequestDto;
 import com.example.edusphere.dto.request.EnrollmentRequest;
 import com.example.edusphere.dto.request.EnrollmentRequestDto;
 import com.example.edusphere.dto.request.UnenrollmentRequest;
+import com.example.edusphere.dto.response.BulkEnrollmentResponse;
 import com.example.edusphere.dto.response.CourseDetailsResponse;
 import com.example.edusphere.dto.response.CourseResponseDto;
 import com.example.edusphere.dto.response.CourseSummaryResponse;
@@ -40,6 +42,14 @@ public class CourseController {
         return courseService.findAllCoursesForUser(userDetails);
     }
 
+    /**
+     * GET /api/courses/summaries : Same list as GET /api/courses without the enrollment rosters.
+     */
+    @GetMapping("/summaries")
+    public List<CourseSummaryResponse> getCourseSummaries(@AuthenticationPrincipal UserDetails userDetails) {
+        return courseService.findCourseSummariesForUser(userDetails);
+    }
+
     /**
      * GET /api/courses/user-courses : Gets a list of courses for a specific user, used for inter-service communication.
      */
@@ -141,6 +151,18 @@ public class CourseController {
         }
     }
 
+    /**
+     * POST /{courseId}/enroll/bulk : Enroll a whole roster for one academic year.
+     * Students already enrolled are counted, not rejected.
+     */
+    @PostMapping("/{courseId}/enroll/bulk")
+    public ResponseEntity<BulkEnrollmentResponse> enrollRoster(@PathVariable String courseId, @RequestBody BulkEnrollmentRequest request) {
+        if (request == null || request.getStudentIds() == null || request.getStudentIds().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(courseService.enrollRoster(courseId, request));
+    }
+
     /**
      * DELETE /api/courses/{courseId}/enrollments : Unenroll one or more students from a course.
      */
@@ -0,0 +1,44 @@
+package com.example.edusphere.controller;
+
+import com.example.edusphere.service.CourseAccessService;
+import com.example.edusphere.service.EnrollmentService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Manual steps of the move from embedded course enrollments to the enrollments collection.
+ * Both are idempotent and safe to rerun.
+ */
+@RestController
+@RequestMapping("/api/admin/enrollments")
+public class EnrollmentMigrationController {
+
+    private final EnrollmentService enrollmentService;
+    private final CourseAccessService courseAccessService;
+
+    public EnrollmentMigrationController(EnrollmentService enrollmentService, CourseAccessService courseAccessService) {
+        this.enrollmentService = enrollmentService;
+        this.courseAccessService = courseAccessService;
+    }
+
+    @PostMapping("/backfill")
+    public ResponseEntity<Map<String, Object>> backfill() {
+        Map<String, Object> result = enrollmentService.backfillFromEmbedded();
+        courseAccessService.evictAll();
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Final step: only call once every instance runs with app.enrollments.legacy-dual-write=false.
+     */
+    @PostMapping("/drop-embedded")
+    public ResponseEntity<Map<String, Object>> dropEmbedded() {
+        Map<String, Object> result = enrollmentService.dropEmbedded();
+        courseAccessService.evictAll();
+        return ResponseEntity.ok(result);
+    }
+}
@@ -3,21 +3,35 @@ package com.example.edusphere.controller;
 import com.example.edusphere.entity.Exam;
 import com.example.edusphere.entity.ExamQuestion;
 import com.example.edusphere.entity.ExamResponse;
+import com.example.edusphere.export.ExamExportJob;
+import com.example.edusphere.grading.AutoGradeJob;
+import com.example.common.cascade.CascadeDeletion;
 import com.example.common.entity.UserEntity;
 import com.example.edusphere.service.ExamService;
 import com.example.common.service.UserService;
+import com.example.common.exceptions.BadRequestException;
+import com.example.common.idempotency.Idempotent;
+import com.example.common.streaming.CsvColumn;
+import com.example.common.streaming.StreamFormat;
+import com.example.common.streaming.StreamingResponseWriter;
 import com.example.edusphere.dto.request.*;
 import com.example.edusphere.dto.response.*;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 import java.time.LocalDateTime;
+import java.net.URI;
 import java.util.*;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = "http://localhost:3000", allowCredentials = "false")
@@ -26,10 +40,13 @@ public class ExamController {
     private final ExamService examService;
     // âœ… FIXED: Inject UserService to resolve usernames to user IDs
     private final UserService userService;
+    private final StreamingResponseWriter streamingResponseWriter;
 
-    public ExamController(ExamService examService, UserService userService) {
+    public ExamController(ExamService examService, UserService userService,
+                          StreamingResponseWriter streamingResponseWriter) {
         this.examService = examService;
         this.userService = userService;
+        this.streamingResponseWriter = streamingResponseWriter;
     }
 
     // ===================================
@@ -59,7 +76,7 @@ public class ExamController {
                 }
             }
         } catch (Exception e) {
-            System.err.println("âš ï¸ Could not extract user ID from principal: " + e.getMessage());
+            log.warn("Could not extract user ID from principal: {}", e.getMessage());
         }
 
         // Option 3: âœ… FIXED - Lookup user ID by username using UserService
@@ -70,15 +87,14 @@ public class ExamController {
                 return user.getId();
             }
 
-            System.err.println("âŒ User not found for username: " + authName);
+            log.warn("User not found for username: {}", authName);
 
         } catch (Exception e) {
-            System.err.println("âŒ Error resolving username to user ID: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error resolving username to user ID", e);
         }
 
         // Fallback: return username (this will cause the original problem)
-        System.err.println("âš ï¸ FALLBACK: Using username instead of user ID: " + authName);
+        log.warn("FALLBACK: Using username instead of user ID: {}", authName);
         return authName;
     }
 
@@ -109,8 +125,28 @@ public class ExamController {
             }
             return ResponseEntity.ok(exams);
         } catch (Exception e) {
-            System.err.println("âŒ Error fetching exams: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching exams", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to fetch exams: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/courses/{courseId}/exams/summaries : List-screen summaries of a course's exams,
+     * without question bodies or answer keys
+     */
+    @GetMapping("/courses/{courseId}/exams/summaries")
+    @PreAuthorize("hasRole('LECTURER') or hasRole('STUDENT')")
+    public ResponseEntity<?> getCourseExamSummaries(@PathVariable String courseId, Authentication auth) {
+        try {
+            boolean isLecturer = auth.getAuthorities().stream()
+                    .anyMatch(a -> a.getAuthority().equals("ROLE_LECTURER"));
+
+            // Students only see published and visible exams; the filter runs in the query
+            List<ExamListResponse> exams = examService.getExamSummariesByCourse(courseId, !isLecturer);
+            return ResponseEntity.ok(exams);
+        } catch (Exception e) {
+            log.error("Error fetching exam summaries", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch exams: " + e.getMessage()));
         }
@@ -137,12 +173,11 @@ public class ExamController {
             }
             return ResponseEntity.ok(exam);
         } catch (RuntimeException e) {
-            System.err.println("âŒ Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch exam: " + e.getMessage()));
         }
@@ -156,11 +191,9 @@ public class ExamController {
     public ResponseEntity<?> getExamForGrading(@PathVariable String examId, Authentication auth) {
         try {
 
+            // Shared cached instance: read only, never mutate
             Exam exam = examService.getExamById(examId);
 
-            // Ensure total points are calculated
-            exam.recalculateTotalPoints();
-
             // Add grading-specific metadata
             Map<String, Object> examForGrading = new HashMap<>();
             examForGrading.put("id", exam.getId());
@@ -168,7 +201,7 @@ public class ExamController {
             examForGrading.put("description", exam.getDescription());
             examForGrading.put("instructions", exam.getInstructions());
             examForGrading.put("courseId", exam.getCourseId());
-            examForGrading.put("totalPoints", exam.getTotalPoints());
+            examForGrading.put("totalPoints", exam.computeTotalPoints());
             examForGrading.put("passPercentage", exam.getPassPercentage());
             examForGrading.put("questions", exam.getQuestions());
 
@@ -185,12 +218,11 @@ public class ExamController {
             examForGrading.put("questionCount", exam.getQuestions().size());
             return ResponseEntity.ok(examForGrading);
         } catch (RuntimeException e) {
-            System.err.println("âŒ Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch exam for grading: " + e.getMessage()));
         }
@@ -213,12 +245,11 @@ public class ExamController {
                     "message", "Exam created successfully with corresponding grade column"
             ), HttpStatus.CREATED);
         } catch (RuntimeException e) {
-            System.err.println("âŒ Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to create exam: " + e.getMessage()));
         }
@@ -244,12 +275,11 @@ public class ExamController {
                     "message", "Exam and corresponding grade column updated successfully"
             ));
         } catch (RuntimeException e) {
-            System.err.println("âŒ Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to update exam: " + e.getMessage()));
         }
@@ -266,18 +296,20 @@ public class ExamController {
 
             // âœ… FIXED: Use proper user ID for instructors
             String instructorId = getUserIdFromAuth(auth);
-            examService.deleteExam(examId, instructorId);
+            CascadeDeletion deletion = examService.deleteExam(examId, instructorId);
+            if (!deletion.isDone()) {
+                return ResponseEntity.accepted().location(URI.create("/api/deletions/" + deletion.getId())).body(deletion);
+            }
 
             return ResponseEntity.ok(Map.of(
                     "message", "Exam and corresponding grade column deleted successfully"
             ));
         } catch (RuntimeException e) {
-            System.err.println("âŒ Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to delete exam: " + e.getMessage()));
         }
@@ -305,12 +337,11 @@ public class ExamController {
                     "message", "Exam published successfully, grade column updated"
             ));
         } catch (RuntimeException e) {
-            System.err.println("âŒ Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to publish exam: " + e.getMessage()));
         }
@@ -329,12 +360,11 @@ public class ExamController {
             Exam unpublishedExam = examService.unpublishExam(examId, instructorId);
             return ResponseEntity.ok(unpublishedExam);
         } catch (RuntimeException e) {
-            System.err.println("âŒ Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to unpublish exam: " + e.getMessage()));
         }
@@ -361,12 +391,11 @@ public class ExamController {
             Exam updatedExam = examService.updateExamStatus(examId, status, instructorId);
             return ResponseEntity.ok(updatedExam);
         } catch (RuntimeException e) {
-            System.err.println("âŒ Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to update exam status: " + e.getMessage()));
         }
@@ -396,12 +425,11 @@ public class ExamController {
                     "message", "Question added successfully, grade column max points updated"
             ), HttpStatus.CREATED);
         } catch (RuntimeException e) {
-            System.err.println("âŒ Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to add question: " + e.getMessage()));
         }
@@ -428,12 +456,11 @@ public class ExamController {
                     "message", "Question updated successfully, grade column max points updated"
             ));
         } catch (RuntimeException e) {
-            System.err.println("âŒ Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to update question: " + e.getMessage()));
         }
@@ -458,12 +485,11 @@ public class ExamController {
                     "message", "Question deleted successfully, grade column max points updated"
             ));
         } catch (RuntimeException e) {
-            System.err.println("âŒ Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to delete question: " + e.getMessage()));
         }
@@ -490,12 +516,11 @@ public class ExamController {
             examService.reorderQuestions(examId, questionIds, instructorId);
             return ResponseEntity.ok(Map.of("message", "Questions reordered successfully"));
         } catch (RuntimeException e) {
-            System.err.println("âŒ Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to reorder questions: " + e.getMessage()));
         }
@@ -519,12 +544,11 @@ public class ExamController {
             ExamResponse response = examService.startExam(examId, studentId);
             return new ResponseEntity<>(response, HttpStatus.CREATED);
         } catch (RuntimeException e) {
-            System.err.println("âŒ Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to start exam: " + e.getMessage()));
         }
@@ -545,21 +569,48 @@ public class ExamController {
             ExamResponse response = examService.saveProgress(request, studentId);
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
-            System.err.println("âŒ Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to save progress: " + e.getMessage()));
         }
     }
 
+    /**
+     * PATCH /api/exams/{examId}/answers : Autosave changed answers only
+     *  Coalesced server-side and written within a couple of seconds; 202 once queued
+     */
+    @PatchMapping("/exams/{examId}/answers")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<?> autosaveAnswers(@PathVariable String examId,
+                                             @Valid @RequestBody ExamAutosaveRequest request,
+                                             Authentication auth) {
+        try {
+
+            String studentId = getUserIdFromAuth(auth);
+            examService.autosaveAnswers(examId, request, studentId);
+            return ResponseEntity.accepted().body(Map.of(
+                    "status", "QUEUED",
+                    "seq", request.getSeq()
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        } catch (RuntimeException e) {
+            log.warn("Error: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * âœ… FIXED: POST /api/exams/submit : Submit exam
      */
     @PostMapping("/exams/submit")
+    @Idempotent
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<?> submitExam(@Valid @RequestBody ExamResponseRequest request,
                                         Authentication auth) {
@@ -571,12 +622,11 @@ public class ExamController {
             ExamResponse response = examService.submitExam(request, studentId);
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
-            System.err.println("âŒ Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to submit exam: " + e.getMessage()));
         }
@@ -586,19 +636,55 @@ public class ExamController {
     // RESPONSE MANAGEMENT
     // ===================================
 
+    private static final List<CsvColumn<ExamResponse>> EXAM_RESPONSE_CSV_COLUMNS = List.of(
+            CsvColumn.of("responseId", ExamResponse::getId),
+            CsvColumn.of("studentId", ExamResponse::getStudentId),
+            CsvColumn.of("attemptNumber", ExamResponse::getAttemptNumber),
+            CsvColumn.of("status", ExamResponse::getStatus),
+            CsvColumn.of("startedAt", ExamResponse::getStartedAt),
+            CsvColumn.of("submittedAt", ExamResponse::getSubmittedAt),
+            CsvColumn.of("timeSpent", ExamResponse::getTimeSpent),
+            CsvColumn.of("totalScore", ExamResponse::getTotalScore),
+            CsvColumn.of("maxScore", ExamResponse::getMaxScore),
+            CsvColumn.of("percentage", ExamResponse::getPercentage),
+            CsvColumn.of("passed", ExamResponse::getPassed),
+            CsvColumn.of("graded", ExamResponse::getGraded),
+            CsvColumn.of("lateSubmission", ExamResponse::getLateSubmission),
+            CsvColumn.of("flaggedForReview", ExamResponse::getFlaggedForReview)
+    );
+
     /**
      * GET /api/exams/{examId}/responses : Get exam responses
+     * Pass ?format=ndjson or ?format=csv to stream rows instead of building one JSON array,
+     * or cursor/limit to get a keyset page.
      */
     @GetMapping("/exams/{examId}/responses")
     @PreAuthorize("hasRole('LECTURER')")
-    public ResponseEntity<?> getExamResponses(@PathVariable String examId) {
+    public ResponseEntity<?> getExamResponses(@PathVariable String examId,
+                                              @RequestParam(value = "format", required = false) String format,
+                                              @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer limit) {
         try {
 
+            if (cursor != null || limit != null) {
+                return ResponseEntity.ok(examService.getExamResponsesPage(examId, cursor, limit));
+            }
+
+            StreamFormat streamFormat = StreamFormat.resolve(format, accept);
+            if (streamFormat != null) {
+                return streamingResponseWriter.stream(streamFormat,
+                        () -> examService.streamExamResponses(examId),
+                        EXAM_RESPONSE_CSV_COLUMNS,
+                        "exam-" + examId + "-responses");
+            }
+
             List<ExamResponse> responses = examService.getExamResponses(examId);
             return ResponseEntity.ok(responses);
+        } catch (BadRequestException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Error fetching responses: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching responses", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch responses: " + e.getMessage()));
         }
@@ -615,12 +701,11 @@ public class ExamController {
             ExamResponse response = examService.getResponse(responseId);
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
-            System.err.println("âŒ Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch response: " + e.getMessage()));
         }
@@ -680,12 +765,11 @@ public class ExamController {
             detailedResponse.put("examPassPercentage", exam.getPassPercentage());
             return ResponseEntity.ok(detailedResponse);
         } catch (RuntimeException e) {
-            System.err.println("âŒ Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch detailed response: " + e.getMessage()));
         }
@@ -703,8 +787,7 @@ public class ExamController {
             List<ExamResponse> responses = examService.getStudentResponses(studentId, courseId);
             return ResponseEntity.ok(responses);
         } catch (Exception e) {
-            System.err.println("âŒ Error fetching student responses: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching student responses", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch student responses: " + e.getMessage()));
         }
@@ -753,8 +836,7 @@ public class ExamController {
                     .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
             return ResponseEntity.ok(transformedResponses);
         } catch (Exception e) {
-            System.err.println("âŒ Error fetching response history: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching response history", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch response history: " + e.getMessage()));
         }
@@ -778,12 +860,11 @@ public class ExamController {
             ExamResponse gradedResponse = examService.gradeResponse(request, instructorId);
             return ResponseEntity.ok(gradedResponse);
         } catch (RuntimeException e) {
-            System.err.println("âŒ Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to grade response: " + e.getMessage()));
         }
@@ -797,7 +878,7 @@ public class ExamController {
 
             String responseId = (String) gradeData.get("responseId");
             if (responseId == null || responseId.trim().isEmpty()) {
-                System.err.println("âŒ Missing responseId in request");
+                log.warn("Missing responseId in request");
                 return ResponseEntity.badRequest()
                         .body(Map.of("error", "Response ID is required"));
             }
@@ -807,7 +888,7 @@ public class ExamController {
             Map<String, Integer> questionScores = new HashMap<>();
 
             if (questionScoresObj == null) {
-                System.err.println("âŒ Missing questionScores in request");
+                log.warn("Missing questionScores in request");
                 return ResponseEntity.badRequest()
                         .body(Map.of("error", "Question scores are required"));
             }
@@ -830,14 +911,14 @@ public class ExamController {
                             try {
                                 score = Integer.parseInt((String) scoreValue);
                             } catch (NumberFormatException e) {
-                                System.err.println("âŒ Invalid score format for question " + questionId + ": " + scoreValue);
+                                log.warn("Invalid score format for question {}: {}", questionId, scoreValue);
                                 return ResponseEntity.badRequest()
                                         .body(Map.of("error", "Invalid score format for question " + questionId));
                             }
                         }
 
                         if (score == null || score < 0) {
-                            System.err.println("âŒ Invalid score value for question " + questionId + ": " + scoreValue);
+                            log.warn("Invalid score value for question {}: {}", questionId, scoreValue);
                             return ResponseEntity.badRequest()
                                     .body(Map.of("error", "Invalid score value for question " + questionId));
                         }
@@ -845,19 +926,18 @@ public class ExamController {
                         questionScores.put(questionId, score);
                     }
                 } else {
-                    System.err.println("âŒ questionScores is not a Map: " + questionScoresObj.getClass());
+                    log.warn("questionScores is not a Map: {}", questionScoresObj.getClass());
                     return ResponseEntity.badRequest()
                             .body(Map.of("error", "Question scores must be provided as an object"));
                 }
             } catch (Exception e) {
-                System.err.println("âŒ Error processing questionScores: " + e.getMessage());
-                e.printStackTrace();
+                log.error("Error processing questionScores", e);
                 return ResponseEntity.badRequest()
                         .body(Map.of("error", "Error processing question scores: " + e.getMessage()));
             }
 
             if (questionScores.isEmpty()) {
-                System.err.println("âŒ No valid question scores found");
+                log.warn("No valid question scores found");
                 return ResponseEntity.badRequest()
                         .body(Map.of("error", "At least one question score is required"));
             }
@@ -877,13 +957,11 @@ public class ExamController {
                     "response", gradedResponse
             ));
         } catch (RuntimeException e) {
-            System.err.println("âŒ Runtime error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Runtime error", e);
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to manually grade response: " + e.getMessage()));
         }
@@ -916,12 +994,11 @@ public class ExamController {
                     "response", updatedResponse
             ));
         } catch (RuntimeException e) {
-            System.err.println("âŒ Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to update question score: " + e.getMessage()));
         }
@@ -938,39 +1015,64 @@ public class ExamController {
             ExamResponse gradedResponse = examService.autoGradeResponse(responseId);
             return ResponseEntity.ok(gradedResponse);
         } catch (RuntimeException e) {
-            System.err.println("âŒ Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to auto-grade response: " + e.getMessage()));
         }
     }
 
     /**
-     * POST /api/exams/{examId}/auto-grade-all : Auto-grade all responses
+     * POST /api/exams/{examId}/auto-grade-all : Auto-grade all responses in the background
+     *  Returns 202 with the job; poll the Location for done/total/failed
      */
     @PostMapping("/exams/{examId}/auto-grade-all")
     @PreAuthorize("hasRole('LECTURER')")
-    public ResponseEntity<?> autoGradeAllResponses(@PathVariable String examId) {
+    public ResponseEntity<?> autoGradeAllResponses(@PathVariable String examId, Authentication auth) {
         try {
 
-            List<ExamResponse> gradedResponses = examService.autoGradeAllResponses(examId);
-            return ResponseEntity.ok(Map.of(
-                    "message", "Auto-grading completed",
-                    "gradedCount", gradedResponses.size(),
-                    "responses", gradedResponses
-            ));
+            AutoGradeJob job = examService.autoGradeAllResponses(examId, getUserIdFromAuth(auth));
+            URI location = URI.create("/api/exams/" + examId + "/auto-grade-all/" + job.getId());
+            if (!job.isFinished()) {
+                return ResponseEntity.accepted().location(location).body(job);
+            }
+            return ResponseEntity.ok().location(location).body(job);
+        } catch (RuntimeException e) {
+            log.warn("Error: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to auto-grade responses: " + e.getMessage()));
         }
     }
 
+    /**
+     * GET /api/exams/{examId}/auto-grade-all/{jobId} : Progress of an auto-grade run
+     *  Visible to the lecturer who started it and to admins
+     */
+    @GetMapping("/exams/{examId}/auto-grade-all/{jobId}")
+    @PreAuthorize("hasRole('LECTURER')")
+    public ResponseEntity<?> getAutoGradeJob(@PathVariable String examId, @PathVariable String jobId, Authentication auth) {
+        try {
+
+            AutoGradeJob job = examService.getAutoGradeJob(examId, jobId);
+            boolean admin = auth.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+            if (!admin && !getUserIdFromAuth(auth).equals(job.getRequestedBy())) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Auto-grade job not found: " + jobId));
+            }
+            return ResponseEntity.ok(job);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      *  PUT /api/exam-responses/{responseId}/flag : Flag response for review
      */
@@ -992,12 +1094,11 @@ public class ExamController {
                     "response", flaggedResponse
             ));
         } catch (RuntimeException e) {
-            System.err.println("âŒ Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to flag response: " + e.getMessage()));
         }
@@ -1019,12 +1120,11 @@ public class ExamController {
                     "response", unflaggedResponse
             ));
         } catch (RuntimeException e) {
-            System.err.println("âŒ Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to unflag response: " + e.getMessage()));
         }
@@ -1058,12 +1158,11 @@ public class ExamController {
                     "responses", batchGradedResponses
             ));
         } catch (RuntimeException e) {
-            System.err.println("âŒ Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to batch grade responses: " + e.getMessage()));
         }
@@ -1084,8 +1183,7 @@ public class ExamController {
             ExamStatsResponse stats = examService.getExamStats(examId);
             return ResponseEntity.ok(stats);
         } catch (Exception e) {
-            System.err.println("âŒ Error fetching stats: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching stats", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch exam statistics: " + e.getMessage()));
         }
@@ -1102,13 +1200,46 @@ public class ExamController {
             Map<String, Object> gradingStats = examService.getExamGradingStats(examId);
             return ResponseEntity.ok(gradingStats);
         } catch (Exception e) {
-            System.err.println("âŒ Error fetching grading stats: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching grading stats", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch grading statistics: " + e.getMessage()));
         }
     }
 
+    /**
+     * GET /api/exams/{examId}/item-analysis : Per-question difficulty, discrimination and answer distribution
+     */
+    @GetMapping("/exams/{examId}/item-analysis")
+    @PreAuthorize("hasRole('LECTURER')")
+    public ResponseEntity<?> getItemAnalysis(@PathVariable String examId) {
+        try {
+
+            ExamItemAnalysisResponse analysis = examService.getItemAnalysis(examId);
+            return ResponseEntity.ok(analysis);
+        } catch (Exception e) {
+            log.error("Error fetching item analysis", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to fetch item analysis: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/exams/{examId}/live-stats : Running totals for the live exam dashboard
+     */
+    @GetMapping("/exams/{examId}/live-stats")
+    @PreAuthorize("hasRole('LECTURER')")
+    public ResponseEntity<?> getLiveStats(@PathVariable String examId) {
+        try {
+
+            ExamLiveStatsResponse stats = examService.getLiveStats(examId);
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            log.error("Error fetching live stats", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to fetch live exam statistics: " + e.getMessage()));
+        }
+    }
+
     /**
      * GET /api/courses/{courseId}/exam-stats : Get course exam statistics
      */
@@ -1120,8 +1251,7 @@ public class ExamController {
             List<ExamStatsResponse> stats = examService.getCourseExamStats(courseId);
             return ResponseEntity.ok(stats);
         } catch (Exception e) {
-            System.err.println("âŒ Error fetching course stats: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching course stats", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch course exam statistics: " + e.getMessage()));
         }
@@ -1154,8 +1284,7 @@ public class ExamController {
             );
             return ResponseEntity.ok(result);
         } catch (Exception e) {
-            System.err.println("âŒ Error checking eligibility: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error checking eligibility", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to check exam eligibility: " + e.getMessage()));
         }
@@ -1180,8 +1309,7 @@ public class ExamController {
             );
             return ResponseEntity.ok(result);
         } catch (Exception e) {
-            System.err.println("âŒ Error checking attempt count: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error checking attempt count", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to check attempt count: " + e.getMessage()));
         }
@@ -1192,7 +1320,8 @@ public class ExamController {
     // ===================================
 
     /**
-     *  POST /api/exam-responses/export-detailed : Export detailed exam responses
+     *  POST /api/exam-responses/export-detailed : Export detailed exam responses (csv or xlsx)
+     *  Returns 202 with the job; poll the Location until it carries the downloadUrl
      */
     @PostMapping("/exam-responses/export-detailed")
     @PreAuthorize("hasRole('LECTURER')")
@@ -1208,24 +1337,83 @@ public class ExamController {
 
             String format = (String) exportData.getOrDefault("format", "csv");
 
-            // For now, return a simple response indicating export is initiated
-            // In a real implementation, this would generate the file and return download URL
-            Map<String, Object> response = Map.of(
-                    "message", "Export initiated successfully",
-                    "examId", examId,
-                    "format", format,
-                    "status", "processing",
-                    "timestamp", LocalDateTime.now().toString()
-            );
-            return ResponseEntity.ok(response);
+            ExamExportJob job = examService.exportResponses(examId, format, getUserIdFromAuth(auth), isAdmin(auth));
+            URI location = URI.create("/api/exam-responses/exports/" + job.getId());
+            if (!job.isFinished()) {
+                return ResponseEntity.accepted().location(location).body(job);
+            }
+            return ResponseEntity.ok().location(location).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("âŒ Error initiating export: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error initiating export", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to initiate export: " + e.getMessage()));
         }
     }
 
+    /**
+     * GET /api/exam-responses/exports/{jobId} : Progress of an export, with the download link once done
+     *  Visible to the lecturer who started it and to admins
+     */
+    @GetMapping("/exam-responses/exports/{jobId}")
+    @PreAuthorize("hasRole('LECTURER')")
+    public ResponseEntity<?> getExportJob(@PathVariable String jobId, Authentication auth) {
+        try {
+
+            ExamExportJob job = examService.getExportJob(jobId);
+            if (!canSeeExport(job, auth)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Export not found: " + jobId));
+            }
+            return ResponseEntity.ok(job);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/exam-responses/exports/{jobId}/download : The exported file
+     */
+    @GetMapping("/exam-responses/exports/{jobId}/download")
+    @PreAuthorize("hasRole('LECTURER')")
+    public ResponseEntity<?> downloadExport(@PathVariable String jobId, Authentication auth) {
+        try {
+
+            ExamExportJob job = examService.getExportJob(jobId);
+            if (!canSeeExport(job, auth)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Export not found: " + jobId));
+            }
+            if (!ExamExportJob.DONE.equals(job.getStatus())) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", "Export is not ready", "status", job.getStatus()));
+            }
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(job.getFormat().getMediaType())
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + job.getFilename() + "\"");
+            if (job.getSize() != null) {
+                response.contentLength(job.getSize());
+            }
+            return response.body(new InputStreamResource(examService.openExport(job)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private boolean canSeeExport(ExamExportJob job, Authentication auth) {
+        return isAdmin(auth) || getUserIdFromAuth(auth).equals(job.getRequestedBy());
+    }
+
+    private static boolean isAdmin(Authentication auth) {
+        return auth.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+    }
+
     // ===================================
     // ADMIN AND DEBUG ENDPOINTS
     // ===================================
@@ -1238,39 +1426,28 @@ public class ExamController {
     public ResponseEntity<?> getExamSummary() {
         try {
 
-            // This would typically be implemented with aggregation queries
-            Map<String, Object> summary = Map.of(
-                    "message", "Exam summary endpoint - to be implemented with aggregation queries",
-                    "timestamp", LocalDateTime.now().toString()
-            );
-
+            ExamSystemSummaryResponse summary = examService.getSystemSummary();
             return ResponseEntity.ok(summary);
         } catch (Exception e) {
-            System.err.println("âŒ Error fetching exam summary: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching exam summary", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch exam summary: " + e.getMessage()));
         }
     }
 
     /**
-     * POST /api/admin/exams/cleanup : Clean up orphaned exam data
+     * POST /api/admin/exams/cleanup : Clean up stale attempts and orphaned exam data
+     *  Only reports what it would do unless called with dryRun=false
      */
     @PostMapping("/admin/exams/cleanup")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> cleanupExamData() {
+    public ResponseEntity<?> cleanupExamData(@RequestParam(defaultValue = "true") boolean dryRun) {
         try {
 
-            // Implementation would clean up orphaned responses, invalid data, etc.
-            Map<String, Object> result = Map.of(
-                    "message", "Exam data cleanup completed",
-                    "timestamp", LocalDateTime.now().toString()
-            );
-
-            return ResponseEntity.ok(result);
+            ExamCleanupReport report = examService.cleanupStaleAttempts(dryRun);
+            return ResponseEntity.ok(report);
         } catch (Exception e) {
-            System.err.println("âŒ Error during cleanup: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error during cleanup", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to cleanup exam data: " + e.getMessage()));
         }
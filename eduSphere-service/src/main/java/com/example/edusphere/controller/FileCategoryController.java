@@ -4,7 +4,11 @@ import com.example.edusphere.dto.request.FileUploadRequest;
 import com.example.edusphere.dto.response.FileResponse;
 import com.example.common.entity.UserEntity;
 import com.example.edusphere.service.FileService;
+import com.example.common.streaming.CsvColumn;
+import com.example.common.streaming.StreamFormat;
+import com.example.common.streaming.StreamingResponseWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -21,6 +25,21 @@ public class FileCategoryController {
     @Autowired
     private FileService fileService;
 
+    @Autowired
+    private StreamingResponseWriter streamingResponseWriter;
+
+    private static final List<CsvColumn<FileResponse>> FILE_CSV_COLUMNS = List.of(
+            CsvColumn.of("id", FileResponse::getId),
+            CsvColumn.of("name", FileResponse::getName),
+            CsvColumn.of("type", FileResponse::getType),
+            CsvColumn.of("category", FileResponse::getCategory),
+            CsvColumn.of("size", FileResponse::getSize),
+            CsvColumn.of("uploadedBy", FileResponse::getUploadedByUserName),
+            CsvColumn.of("uploadDate", FileResponse::getUploadDate),
+            CsvColumn.of("accessType", FileResponse::getAccessType),
+            CsvColumn.of("fileUrl", FileResponse::getFileUrl)
+    );
+
     @PostMapping("/upload")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
     public ResponseEntity<FileResponse> uploadFile(@RequestParam("file") MultipartFile file,
@@ -32,8 +51,16 @@ public class FileCategoryController {
     }
 
     @GetMapping
-    public ResponseEntity<List<FileResponse>> getFiles(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getFiles(@AuthenticationPrincipal UserDetails userDetails,
+                                      @RequestParam(value = "format", required = false) String format,
+                                      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         UserEntity currentUser = (UserEntity) userDetails;
+        StreamFormat streamFormat = StreamFormat.resolve(format, accept);
+        if (streamFormat != null) {
+            return streamingResponseWriter.stream(streamFormat,
+                    () -> fileService.streamAccessibleFiles(currentUser.getId(), currentUser.getRole(), null),
+                    FILE_CSV_COLUMNS, "files");
+        }
         List<FileResponse> files = fileService.getAccessibleFiles(currentUser.getId(), currentUser.getRole(), null); // Pass null for userDepartment
         return ResponseEntity.ok(files);
     }
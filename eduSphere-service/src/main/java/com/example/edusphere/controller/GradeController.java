@@ -4,6 +4,10 @@ import com.example.edusphere.entity.GradeColumn;
 import com.example.edusphere.entity.StudentGrade;
 import com.example.edusphere.service.GradeService;
 import com.example.edusphere.service.impl.GradeServiceImpl;
+import com.example.common.streaming.CsvColumn;
+import com.example.common.streaming.StreamFormat;
+import com.example.common.streaming.StreamingResponseWriter;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -12,7 +16,9 @@ import org.springframework.web.bind.annotation.*;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = "http://localhost:3000", allowCredentials = "false")
@@ -20,10 +26,13 @@ public class GradeController {
 
     private final GradeService gradeService;
     private final GradeServiceImpl gradeServiceImpl;
+    private final StreamingResponseWriter streamingResponseWriter;
 
-    public GradeController(GradeService gradeService, GradeServiceImpl gradeServiceImpl) {
+    public GradeController(GradeService gradeService, GradeServiceImpl gradeServiceImpl,
+                           StreamingResponseWriter streamingResponseWriter) {
         this.gradeService = gradeService;
         this.gradeServiceImpl = gradeServiceImpl;
+        this.streamingResponseWriter = streamingResponseWriter;
     }
 
     // Grade Columns Endpoints
@@ -40,8 +49,7 @@ public class GradeController {
 
             return ResponseEntity.ok(columns);
         } catch (Exception e) {
-            System.err.println("Error fetching grade columns: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching grade columns", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch grade columns: " + e.getMessage()));
         }
@@ -72,7 +80,7 @@ public class GradeController {
             }
 
             if (!errors.isEmpty()) {
-                System.err.println("Validation errors: " + errors);
+                log.warn("Validation errors: {}", errors);
                 return ResponseEntity.badRequest().body(Map.of("errors", errors));
             }
 
@@ -81,11 +89,10 @@ public class GradeController {
             return new ResponseEntity<>(created, HttpStatus.CREATED);
 
         } catch (RuntimeException e) {
-            System.err.println("Runtime error: " + e.getMessage());
+            log.warn("Runtime error: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -105,11 +112,10 @@ public class GradeController {
 
             return ResponseEntity.ok(updated);
         } catch (RuntimeException e) {
-            System.err.println("Runtime error: " + e.getMessage());
+            log.warn("Runtime error: {}", e.getMessage());
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -127,12 +133,11 @@ public class GradeController {
 
             return ResponseEntity.noContent().build();
         } catch (RuntimeException e) {
-            System.err.println("Runtime error: " + e.getMessage());
+            log.warn("Runtime error: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -142,23 +147,47 @@ public class GradeController {
 
     /**
      * GET /api/courses/{courseId}/grades : Get all student grades for a course
+     * Pass ?format=ndjson or ?format=csv to stream rows; the CSV has one column per active grade column.
      */
     @GetMapping("/courses/{courseId}/grades")
     @PreAuthorize("hasRole('LECTURER') or hasRole('STUDENT')")
-    public ResponseEntity<?> getCourseGrades(@PathVariable String courseId) {
+    public ResponseEntity<?> getCourseGrades(@PathVariable String courseId,
+                                             @RequestParam(value = "format", required = false) String format,
+                                             @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         try {
 
+            StreamFormat streamFormat = StreamFormat.resolve(format, accept);
+            if (streamFormat != null) {
+                return streamingResponseWriter.stream(streamFormat,
+                        () -> gradeService.streamGradesByCourse(courseId),
+                        buildGradeCsvColumns(courseId),
+                        "course-" + courseId + "-grades");
+            }
+
             List<StudentGrade> grades = gradeService.getGradesByCourse(courseId);
 
             return ResponseEntity.ok(grades);
         } catch (Exception e) {
-            System.err.println("Error fetching course grades: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching course grades", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch grades: " + e.getMessage()));
         }
     }
 
+    private List<CsvColumn<StudentGrade>> buildGradeCsvColumns(String courseId) {
+        List<CsvColumn<StudentGrade>> csvColumns = new ArrayList<>();
+        csvColumns.add(CsvColumn.of("studentId", StudentGrade::getStudentId));
+
+        for (GradeColumn column : gradeService.getGradeColumnsByCourse(courseId)) {
+            String columnId = column.getId();
+            csvColumns.add(CsvColumn.of(column.getName(), (StudentGrade grade) -> grade.getGrade(columnId)));
+        }
+
+        csvColumns.add(CsvColumn.of("finalGrade", StudentGrade::getFinalGrade));
+        csvColumns.add(CsvColumn.of("finalLetterGrade", StudentGrade::getFinalLetterGrade));
+        return csvColumns;
+    }
+
     /**
      * PUT /api/students/{studentId}/grades/{columnId} : Update a specific student's grade
      * ENHANCED VERSION with detailed logging and validation
@@ -187,13 +216,13 @@ public class GradeController {
                         try {
                             grade = Double.parseDouble(gradeStr.trim());
                         } catch (NumberFormatException e) {
-                            System.err.println("Number format error: " + e.getMessage());
+                            log.warn("Number format error: {}", e.getMessage());
                             return ResponseEntity.badRequest()
                                     .body(Map.of("error", "Invalid grade format: '" + gradeStr + "'"));
                         }
                     }
                 } else {
-                    System.err.println("Unexpected grade object type: " + gradeObj.getClass());
+                    log.warn("Unexpected grade object type: {}", gradeObj.getClass());
                     return ResponseEntity.badRequest()
                             .body(Map.of("error", "Unsupported grade type: " + gradeObj.getClass().getSimpleName()));
                 }
@@ -202,14 +231,14 @@ public class GradeController {
 
             // Validate grade range (allow null for removing grades)
             if (grade != null && (grade < 0 || grade > 100)) {
-                System.err.println("Grade out of range: " + grade);
+                log.warn("Grade out of range: {}", grade);
                 return ResponseEntity.badRequest()
                         .body(Map.of("error", "Grade must be between 0 and 100, got: " + grade));
             }
 
             // Validate that the grade column exists
             if (!gradeServiceImpl.columnExists(columnId)) {
-                System.err.println("Grade column does not exist: " + columnId);
+                log.warn("Grade column does not exist: {}", columnId);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(Map.of("error", "Grade column not found: " + columnId));
             }
@@ -220,13 +249,11 @@ public class GradeController {
             return ResponseEntity.ok(updated);
 
         } catch (RuntimeException e) {
-            System.err.println("Runtime error updating grade: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Runtime error updating grade", e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", "Grade update failed: " + e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Unexpected error updating grade: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error updating grade", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -254,8 +281,7 @@ public class GradeController {
             );
             return ResponseEntity.ok(result);
         } catch (Exception e) {
-            System.err.println("Error calculating final grade: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error calculating final grade", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to calculate final grade: " + e.getMessage()));
         }
@@ -277,8 +303,7 @@ public class GradeController {
                     "timestamp", LocalDateTime.now().toString()
             ));
         } catch (Exception e) {
-            System.err.println("Error recalculating final grades: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error recalculating final grades", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to recalculate grades: " + e.getMessage()));
         }
@@ -302,8 +327,7 @@ public class GradeController {
                     "timestamp", LocalDateTime.now().toString()
             ));
         } catch (Exception e) {
-            System.err.println("Error fixing grades: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fixing grades", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fix grades: " + e.getMessage()));
         }
@@ -325,8 +349,7 @@ public class GradeController {
                     "timestamp", LocalDateTime.now().toString()
             ));
         } catch (Exception e) {
-            System.err.println("Error recalculating course grades: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error recalculating course grades", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to recalculate course grades: " + e.getMessage()));
         }
@@ -398,8 +421,7 @@ public class GradeController {
 
             return ResponseEntity.ok(debug);
         } catch (Exception e) {
-            System.err.println("Error debugging student grades: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error debugging student grades", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Debug failed: " + e.getMessage()));
         }
@@ -465,8 +487,7 @@ public class GradeController {
 
             return ResponseEntity.ok(validation);
         } catch (Exception e) {
-            System.err.println("Error validating course: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error validating course", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Validation failed: " + e.getMessage()));
         }
@@ -488,8 +509,7 @@ public class GradeController {
                     "timestamp", LocalDateTime.now().toString()
             ));
         } catch (Exception e) {
-            System.err.println("Error cleaning up orphaned grades: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error cleaning up orphaned grades", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Cleanup failed: " + e.getMessage()));
         }
@@ -5,7 +5,11 @@ import com.example.edusphere.dto.request.MessageRequest;
 import com.example.edusphere.dto.response.MessageResponse;
 import com.example.common.entity.UserEntity;
 import com.example.edusphere.service.MessageService;
+import com.example.common.streaming.CsvColumn;
+import com.example.common.streaming.StreamFormat;
+import com.example.common.streaming.StreamingResponseWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -21,6 +25,22 @@ public class MessageController {
     @Autowired
     private MessageService messageService;
 
+    @Autowired
+    private StreamingResponseWriter streamingResponseWriter;
+
+    private static final List<CsvColumn<MessageResponse>> MESSAGE_CSV_COLUMNS = List.of(
+            CsvColumn.of("id", MessageResponse::getId),
+            CsvColumn.of("subject", MessageResponse::getSubject),
+            CsvColumn.of("senderId", MessageResponse::getSenderId),
+            CsvColumn.of("senderName", MessageResponse::getSenderName),
+            CsvColumn.of("recipientId", MessageResponse::getRecipientId),
+            CsvColumn.of("recipientName", MessageResponse::getRecipientName),
+            CsvColumn.of("priority", MessageResponse::getPriority),
+            CsvColumn.of("status", MessageResponse::getStatus),
+            CsvColumn.of("createdAt", MessageResponse::getCreatedAt),
+            CsvColumn.of("repliedAt", MessageResponse::getRepliedAt)
+    );
+
     @GetMapping("/received")
     public ResponseEntity<List<MessageResponse>> getReceivedMessages(@AuthenticationPrincipal UserDetails userDetails) {
         UserEntity currentUser = (UserEntity) userDetails;
@@ -58,7 +78,15 @@ public class MessageController {
 
     @GetMapping("/all")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
-    public ResponseEntity<List<MessageResponse>> getAllMessages() {
+    public ResponseEntity<?> getAllMessages(@RequestParam(value = "format", required = false) String format,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        // Opt-in streaming (?format=ndjson|csv) so the admin view doesn't load the whole collection at once
+        StreamFormat streamFormat = StreamFormat.resolve(format, accept);
+        if (streamFormat != null) {
+            return streamingResponseWriter.stream(streamFormat, messageService::streamAllMessages,
+                    MESSAGE_CSV_COLUMNS, "messages");
+        }
+
         List<MessageResponse> messages = messageService.getAllMessages();
         return ResponseEntity.ok(messages);
     }
@@ -1,6 +1,7 @@
 package com.example.edusphere.controller;
 
 import com.example.edusphere.dto.request.GenerateReportRequest;
+import com.example.common.bulkhead.Bulkhead;
 import com.example.edusphere.dto.response.GenerateReportResponse;
 import com.example.edusphere.entity.Report;
 import com.example.edusphere.service.ReportService;
@@ -24,6 +25,7 @@ public class ReportController {
     private final MongoTemplate mongoTemplate;
 
     @PostMapping("/generate")
+    @Bulkhead("openai")
     public ResponseEntity<GenerateReportResponse> generateReport(@RequestBody GenerateReportRequest request) {
         try {
             GenerateReportResponse response = reportService.generateReport(request);
@@ -13,7 +13,9 @@ import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 
 import java.util.*;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/student")
 @CrossOrigin(origins = "http://localhost:3000", allowCredentials = "false")
@@ -50,7 +52,7 @@ public class StudentExamController {
                 }
             }
         } catch (Exception e) {
-            System.err.println("Could not extract user ID from principal: " + e.getMessage());
+            log.warn("Could not extract user ID from principal: {}", e.getMessage());
         }
 
         // Lookup user ID by username using UserService
@@ -59,14 +61,13 @@ public class StudentExamController {
             if (user != null) {
                 return user.getId();
             }
-            System.err.println("User not found for username: " + authName);
+            log.warn("User not found for username: {}", authName);
         } catch (Exception e) {
-            System.err.println("Error resolving username to user ID: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error resolving username to user ID", e);
         }
 
         // Fallback
-        System.err.println("⚠️ FALLBACK: Using username instead of user ID: " + authName);
+        log.warn("FALLBACK: Using username instead of user ID: {}", authName);
         return authName;
     }
 
@@ -86,8 +87,7 @@ public class StudentExamController {
             List<Map<String, Object>> exams = studentExamService.getAvailableExamsForStudent(studentId, courseId);
             return ResponseEntity.ok(exams);
         } catch (Exception e) {
-            System.err.println("Error fetching available exams: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching available exams", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch available exams: " + e.getMessage()));
         }
@@ -105,12 +105,11 @@ public class StudentExamController {
             Map<String, Object> examDetails = studentExamService.getStudentExamDetails(examId, studentId);
             return ResponseEntity.ok(examDetails);
         } catch (RuntimeException e) {
-            System.err.println("Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch exam details: " + e.getMessage()));
         }
@@ -132,12 +131,11 @@ public class StudentExamController {
             Map<String, Object> examAttempt = studentExamService.startExamAttempt(examId, studentId);
             return new ResponseEntity<>(examAttempt, HttpStatus.CREATED);
         } catch (RuntimeException e) {
-            System.err.println("Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to start exam: " + e.getMessage()));
         }
@@ -159,12 +157,11 @@ public class StudentExamController {
             ExamResponse response = studentExamService.saveExamProgress(request, studentId);
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
-            System.err.println("Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to save progress: " + e.getMessage()));
         }
@@ -186,12 +183,11 @@ public class StudentExamController {
             Map<String, Object> result = studentExamService.submitExam(request, studentId);
             return ResponseEntity.ok(result);
         } catch (RuntimeException e) {
-            System.err.println("Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to submit exam: " + e.getMessage()));
         }
@@ -209,12 +205,11 @@ public class StudentExamController {
             Map<String, Object> resumedAttempt = studentExamService.resumeExamAttempt(examId, studentId);
             return ResponseEntity.ok(resumedAttempt);
         } catch (RuntimeException e) {
-            System.err.println("Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to resume exam: " + e.getMessage()));
         }
@@ -236,8 +231,7 @@ public class StudentExamController {
             Map<String, Object> eligibility = studentExamService.checkExamEligibility(examId, studentId);
             return ResponseEntity.ok(eligibility);
         } catch (Exception e) {
-            System.err.println("Error checking eligibility: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error checking eligibility", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to check exam eligibility: " + e.getMessage()));
         }
@@ -255,8 +249,7 @@ public class StudentExamController {
             List<Map<String, Object>> attempts = studentExamService.getStudentAttemptHistory(examId, studentId);
             return ResponseEntity.ok(attempts);
         } catch (Exception e) {
-            System.err.println("Error fetching attempt history: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching attempt history", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch attempt history: " + e.getMessage()));
         }
@@ -278,12 +271,11 @@ public class StudentExamController {
             Map<String, Object> results = studentExamService.getStudentExamResults(responseId, studentId);
             return ResponseEntity.ok(results);
         } catch (RuntimeException e) {
-            System.err.println("Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch exam results: " + e.getMessage()));
         }
@@ -301,12 +293,11 @@ public class StudentExamController {
             Map<String, Object> detailedResults = studentExamService.getDetailedExamResults(responseId, studentId);
             return ResponseEntity.ok(detailedResults);
         } catch (RuntimeException e) {
-            System.err.println("Error: " + e.getMessage());
+            log.warn("Error: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch detailed results: " + e.getMessage()));
         }
@@ -328,8 +319,7 @@ public class StudentExamController {
             Map<String, Object> stats = studentExamService.getStudentExamStats(studentId, courseId);
             return ResponseEntity.ok(stats);
         } catch (Exception e) {
-            System.err.println("Error fetching exam stats: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching exam stats", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch exam statistics: " + e.getMessage()));
         }
@@ -351,8 +341,7 @@ public class StudentExamController {
             Map<String, Object> activeAttempt = studentExamService.checkActiveAttempt(examId, studentId);
             return ResponseEntity.ok(activeAttempt);
         } catch (Exception e) {
-            System.err.println("Error checking active attempt: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error checking active attempt", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to check active attempt: " + e.getMessage()));
         }
@@ -370,8 +359,7 @@ public class StudentExamController {
             Map<String, Object> summary = studentExamService.getExamDashboardSummary(studentId);
             return ResponseEntity.ok(summary);
         } catch (Exception e) {
-            System.err.println("Error fetching dashboard summary: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching dashboard summary", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Failed to fetch dashboard summary: " + e.getMessage()));
         }
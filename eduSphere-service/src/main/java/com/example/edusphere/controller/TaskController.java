@@ -4,6 +4,7 @@ import com.example.edusphere.dto.request.TaskCreateRequest;
 import com.example.edusphere.dto.request.TaskUpdateRequest;
 import com.example.edusphere.dto.response.TaskDetailResponse;
 import com.example.edusphere.dto.response.TaskResponse;
+import com.example.common.cascade.CascadeDeletion;
 import com.example.common.entity.UserEntity;
 import com.example.common.repository.UserRepository;
 import com.example.edusphere.entity.Task;
@@ -28,6 +29,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.net.URI;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
@@ -555,7 +557,10 @@ public class TaskController {
             UserEntity currentUser = userRepository.findByUsername(userDetails.getUsername())
                     .orElseThrow(() -> new RuntimeException("User not found: " + userDetails.getUsername()));
 
-            taskService.deleteTask(taskId, currentUser.getId());
+            CascadeDeletion deletion = taskService.deleteTask(taskId, currentUser.getId());
+            if (!deletion.isDone()) {
+                return ResponseEntity.accepted().location(URI.create("/api/deletions/" + deletion.getId())).body(deletion);
+            }
 
             return ResponseEntity.noContent().build();
 
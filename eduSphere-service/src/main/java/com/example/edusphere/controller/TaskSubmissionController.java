@@ -4,6 +4,9 @@ import com.example.edusphere.entity.TaskSubmission;
 import com.example.common.entity.UserEntity;
 import com.example.common.repository.UserRepository;
 import com.example.edusphere.service.TaskSubmissionService;
+import com.example.common.exceptions.BadRequestException;
+import com.example.common.bulkhead.Bulkhead;
+import com.example.common.idempotency.Idempotent;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -14,7 +17,9 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/tasksubmissions")
 @CrossOrigin(origins = "http://localhost:3000", allowCredentials = "false")
@@ -41,9 +46,16 @@ public class TaskSubmissionController {
             @RequestParam(defaultValue = "desc") String sortDir,
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String taskId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             @AuthenticationPrincipal UserDetails userDetails) {
         try {
 
+            // Keyset page when the client asks for one; otherwise the full list as before
+            if (cursor != null || limit != null) {
+                return ResponseEntity.ok(taskSubmissionService.findSubmissionsPage(courseId, taskId, status, cursor, limit));
+            }
+
             List<TaskSubmission> submissions;
 
             if (taskId != null && !taskId.trim().isEmpty()) {
@@ -59,9 +71,10 @@ public class TaskSubmissionController {
 
             return ResponseEntity.ok(submissions);
 
+        } catch (BadRequestException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Ã¢ÂÅ’ Error fetching submissions: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching submissions", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -96,8 +109,7 @@ public class TaskSubmissionController {
             return ResponseEntity.ok(sub);
 
         } catch (Exception e) {
-            System.err.println("Ã¢ÂÅ’ Error fetching submission: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching submission", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -107,6 +119,8 @@ public class TaskSubmissionController {
      * POST /api/tasksubmissions : Create a new submission (with file upload support)
      */
     @PostMapping(consumes = {"multipart/form-data"})
+    @Idempotent
+    @Bulkhead("uploads")
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<?> createSubmissionWithFiles(
             @RequestParam("taskId") String taskId,
@@ -152,7 +166,7 @@ public class TaskSubmissionController {
                             fileNames.add(fileName);
                             fileSizes.add(fileSize);
                         } catch (Exception e) {
-                            System.err.println("Ã¢ÂÅ’ Error processing file: " + file.getOriginalFilename() + " - " + e.getMessage());
+                            log.warn("Error processing file: {}: {}", file.getOriginalFilename(), e.getMessage());
                             // Continue processing other files
                         }
                     }
@@ -168,8 +182,7 @@ public class TaskSubmissionController {
             return new ResponseEntity<>(createdSubmission, HttpStatus.CREATED);
 
         } catch (Exception e) {
-            System.err.println("Ã¢ÂÅ’ Error creating submission: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error creating submission", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -179,6 +192,7 @@ public class TaskSubmissionController {
      * POST /api/tasksubmissions/simple : Create a simple submission (JSON only)
      */
     @PostMapping("/simple")
+    @Idempotent
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<?> createSimpleSubmission(
             @RequestBody TaskSubmission submission,
@@ -203,8 +217,7 @@ public class TaskSubmissionController {
             return new ResponseEntity<>(createdSubmission, HttpStatus.CREATED);
 
         } catch (Exception e) {
-            System.err.println("Ã¢ÂÅ’ Error creating simple submission: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error creating simple submission", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -268,8 +281,7 @@ public class TaskSubmissionController {
             return ResponseEntity.ok(updatedSubmission);
 
         } catch (Exception e) {
-            System.err.println("Ã¢ÂÅ’ Error updating submission: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error updating submission", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -329,8 +341,7 @@ public class TaskSubmissionController {
             return ResponseEntity.ok(updatedSubmission);
 
         } catch (Exception e) {
-            System.err.println("Ã¢ÂÅ’ Error updating student submission: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error updating student submission", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -391,8 +402,7 @@ public class TaskSubmissionController {
             ));
 
         } catch (Exception e) {
-            System.err.println("Ã¢ÂÅ’ Error grading submission: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error grading submission", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -444,8 +454,7 @@ public class TaskSubmissionController {
             return ResponseEntity.noContent().build();
 
         } catch (Exception e) {
-            System.err.println("Ã¢ÂÅ’ Error deleting submission: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error deleting submission", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -468,8 +477,7 @@ public class TaskSubmissionController {
             return ResponseEntity.ok(submissions);
 
         } catch (Exception e) {
-            System.err.println("Ã¢ÂÅ’ Error fetching submissions by task: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching submissions by task", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -504,8 +512,7 @@ public class TaskSubmissionController {
             return ResponseEntity.ok(submissions);
 
         } catch (Exception e) {
-            System.err.println("Ã¢ÂÅ’ Error fetching submissions by student: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching submissions by student", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -545,8 +552,7 @@ public class TaskSubmissionController {
             }
 
         } catch (Exception e) {
-            System.err.println("Ã¢ÂÅ’ Error fetching submission: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching submission", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -610,8 +616,7 @@ public class TaskSubmissionController {
             return ResponseEntity.ok(result);
 
         } catch (Exception e) {
-            System.err.println("Error checking delete permission: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error checking delete permission", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Internal server error: " + e.getMessage()));
         }
@@ -0,0 +1,11 @@
+package com.example.edusphere.dto.request;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkEnrollmentRequest {
+    private int academicYear;
+    private List<String> studentIds;
+}
@@ -0,0 +1,25 @@
+package com.example.edusphere.dto.request;
+
+import lombok.Data;
+import jakarta.validation.constraints.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Answers changed since the last autosave. {@code seq} increases with every edit on the client;
+ * a stored answer is only replaced by one with a higher sequence, so retries and slower tabs
+ * arriving late can't roll an answer back.
+ */
+@Data
+public class ExamAutosaveRequest {
+
+    @NotEmpty(message = "Answers are required")
+    private Map<String, String> answers = new HashMap<>();
+
+    @NotNull(message = "Sequence is required")
+    @PositiveOrZero(message = "Sequence must not be negative")
+    private Long seq;
+
+    private Integer timeSpent; // in seconds
+}
@@ -0,0 +1,16 @@
+package com.example.edusphere.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEnrollmentResponse {
+    private String courseId;
+    private int academicYear;
+    private int requested;
+    private int enrolled;
+    private int alreadyEnrolled;
+}
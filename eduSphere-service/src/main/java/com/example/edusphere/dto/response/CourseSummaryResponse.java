@@ -1,7 +1,9 @@
 package com.example.edusphere.dto.response;
 
 import com.example.edusphere.entity.YearlyEnrollment;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
+
 import java.util.List;
 
 @Data
@@ -17,5 +19,7 @@ public class CourseSummaryResponse {
     private String semester;
     private Integer year;
     private Boolean selectable;
+    // Filled by GET /api/courses only; the /summaries listing leaves it out
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<YearlyEnrollment> enrollments;
-}
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+package com.example.edusphere.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExamCleanupReport {
+
+    private Boolean dryRun;
+
+    // In progress past their deadline: submitted and graded
+    private Long overdueAttempts;
+    private Long overdueSubmitted;
+
+    // In progress without a deadline and started before the abandon-after cut-off: marked ABANDONED
+    private Long abandonedAttempts;
+    private Long abandonedMarked;
+
+    // Responses of exams that no longer exist: deleted
+    private List<String> orphanedExamIds;
+    private Long orphanedResponses;
+    private Long orphanedDeleted;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
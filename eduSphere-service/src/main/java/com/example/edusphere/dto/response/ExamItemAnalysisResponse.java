@@ -0,0 +1,42 @@
+package com.example.edusphere.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExamItemAnalysisResponse {
+
+    private String examId;
+    private String examTitle;
+    private Long gradedResponses;
+    private Double averageScore;
+    private Double averageTimeSpent; // seconds per attempt; time isn't recorded per question
+    private List<QuestionAnalysis> questions;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class QuestionAnalysis {
+        private String questionId;
+        private String question;
+        private String type;
+        private Integer points;
+        private Long scoredResponses;
+        private Double averagePoints;
+        // Share of the points earned on average (0-1); higher is easier
+        private Double difficultyIndex;
+        // Difficulty in the top 27% of scores minus that in the bottom 27% (-1 to 1)
+        private Double discriminationIndex;
+        // Choice questions only: answer -> how many picked it
+        private Map<String, Long> optionDistribution;
+    }
+}
@@ -12,9 +12,15 @@ public class ExamListResponse {
     private String title;
     private String courseId;
     private String courseName;
+    private String instructorId;
+    private String description;
     private Integer duration;
     private LocalDateTime startTime;
     private LocalDateTime endTime;
+    private LocalDateTime publishTime;
+    private Integer maxAttempts;
+    private Boolean visibleToStudents;
+    private Double passPercentage;
     private String status;
     private Boolean isActive;
     private Boolean isUpcoming;
@@ -25,4 +31,5 @@ public class ExamListResponse {
     private Long submittedResponses;
     private Double averageScore;
     private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.example.edusphere.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExamLiveStatsResponse {
+
+    private String examId;
+    private Long startedAttempts;
+    private Long inProgressAttempts;
+    private Long submittedAttempts;
+    private Long gradedAttempts;
+    private Double averageScore;
+    private Double standardDeviation;
+    private Map<String, Long> scoreDistribution; // percentage range ("0-10" .. "90-100") -> graded attempts
+    private LocalDateTime updatedAt;
+    private LocalDateTime reconciledAt;
+}
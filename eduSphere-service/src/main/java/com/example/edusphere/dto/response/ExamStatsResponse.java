@@ -3,6 +3,8 @@ package com.example.edusphere.dto.response;
 import lombok.Data;
 import lombok.Builder;
 
+import java.util.Map;
+
 @Data
 @Builder
 public class ExamStatsResponse {
@@ -19,4 +21,5 @@ public class ExamStatsResponse {
     private Integer highestScore;
     private Integer lowestScore;
     private Double standardDeviation;
+    private Map<String, Long> scoreDistribution; // percentage range ("0-10" .. "90-100") -> graded responses
 }
\ No newline at end of file
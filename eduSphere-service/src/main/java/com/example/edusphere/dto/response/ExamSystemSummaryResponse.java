@@ -0,0 +1,31 @@
+package com.example.edusphere.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExamSystemSummaryResponse {
+
+    private Long totalExams;
+    private Map<String, Long> examsByStatus;
+    private Long courses; // courses with at least one exam
+    private Long totalResponses;
+    private Map<String, Long> responsesByStatus;
+    private Long gradedResponses;
+    private Double averageScore;
+    private Double passRate;
+    private Map<String, Double> courseAverageScores; // courseId -> average percentage, the courses with most graded attempts first
+    private Long overdueAttempts; // in progress past their deadline
+    private Long abandonedAttempts; // in progress without a deadline, started before the abandon-after cut-off
+    private Long orphanedExams; // exams that no longer exist but still have responses
+    private Long orphanedResponses;
+    private LocalDateTime generatedAt;
+}
@@ -7,6 +7,7 @@ import lombok.AllArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -31,6 +32,7 @@ public class Announcement {
     private String status;
 
     @CreatedDate
+    @Indexed
     private LocalDateTime createdAt;
     @LastModifiedDate
     private LocalDateTime updatedAt;
@@ -2,12 +2,14 @@ package com.example.edusphere.entity;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
 import java.time.Duration;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 
+@Slf4j
 @Data
 @EqualsAndHashCode(of = {"id"}) // Use ID for equality instead of userId+meetingId to allow multiple sessions
 public class AttendanceSession {
@@ -62,8 +64,7 @@ public class AttendanceSession {
                 // FIXED: Handle negative durations more gracefully
                 if (totalSeconds < 0) {
                     // Log warning but don't throw error
-                    System.err.println("Warning: Negative duration detected for session " + this.id +
-                            ". JoinTime: " + this.joinTime + ", LeaveTime: " + this.leaveTime);
+                    log.warn("Warning: Negative duration detected for session {}. JoinTime: {}, LeaveTime: {}", this.id, this.joinTime, this.leaveTime);
 
                     // Check if times are close (within 1 hour) - might be clock skew
                     if (Math.abs(totalSeconds) < 3600) { // 1 hour
@@ -85,7 +86,7 @@ public class AttendanceSession {
                 this.durationMinutes = Math.max(0, calculatedMinutes);
 
             } catch (Exception e) {
-                System.err.println("Error calculating duration for session " + this.id + ": " + e.getMessage());
+                log.warn("Error calculating duration for session {}: {}", this.id, e.getMessage());
                 this.durationMinutes = 0L;
             }
         } else {
@@ -145,7 +146,7 @@ public class AttendanceSession {
             }
             return Math.max(0, minutes);
         } catch (Exception e) {
-            System.err.println("Error calculating current duration for session " + this.id + ": " + e.getMessage());
+            log.warn("Error calculating current duration for session {}: {}", this.id, e.getMessage());
             return 0;
         }
     }
@@ -167,7 +168,7 @@ public class AttendanceSession {
             Duration duration = Duration.between(joinTime, endTime);
             return Math.max(0, duration.getSeconds());
         } catch (Exception e) {
-            System.err.println("Error calculating current duration seconds for session " + this.id + ": " + e.getMessage());
+            log.warn("Error calculating current duration seconds for session {}: {}", this.id, e.getMessage());
             return 0;
         }
     }
@@ -27,6 +27,8 @@ public class Course {
     @Field("lecturer_id")
     private String lecturerId;
 
+    // Legacy: enrollments now live in the enrollments collection (see EnrollmentService). Kept only so
+    // instances on the previous release keep reading it until the embedded arrays are dropped.
     private List<YearlyEnrollment> enrollments = new ArrayList<>();
     private String department;
     private int credits;
@@ -0,0 +1,51 @@
+package com.example.edusphere.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * One student enrolled in one course for one academic year.
+ *
+ * The id is derived from the three keys ({@code courseId:academicYear:studentId}), so enrolling is an
+ * idempotent upsert by _id and a change-stream event alone identifies the affected student.
+ */
+@Data
+@NoArgsConstructor
+@Document(collection = "enrollments")
+@CompoundIndexes({
+        // "students in course" (and per-year rosters) plus the uniqueness guarantee
+        @CompoundIndex(name = "course_year_student_uq", def = "{'courseId': 1, 'academicYear': 1, 'studentId': 1}", unique = true),
+        // "courses for student" and the membership check
+        @CompoundIndex(name = "student_course_idx", def = "{'studentId': 1, 'courseId': 1}")
+})
+public class Enrollment {
+
+    @Id
+    private String id;
+
+    private String courseId;
+    private int academicYear;
+    private String studentId;
+    private LocalDateTime enrolledAt;
+
+    public static String idFor(String courseId, int academicYear, String studentId) {
+        return courseId + ":" + academicYear + ":" + studentId;
+    }
+
+    /**
+     * Student id encoded in an enrollment id, or null if the id isn't in the derived format.
+     */
+    public static String studentIdFromId(String enrollmentId) {
+        if (enrollmentId == null) {
+            return null;
+        }
+        String[] parts = enrollmentId.split(":", 3);
+        return parts.length == 3 ? parts[2] : null;
+    }
+}
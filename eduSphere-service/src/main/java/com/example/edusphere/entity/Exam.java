@@ -1,6 +1,7 @@
 package com.example.edusphere.entity;
 
 import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
@@ -11,6 +12,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.ArrayList;
 
+@Slf4j
 @Data
 @Document(collection = "exams")
 public class Exam {
@@ -132,16 +134,19 @@ public class Exam {
      * Recalculates total points based on current questions
      */
     public void recalculateTotalPoints() {
-        if (questions == null || questions.isEmpty()) {
-            totalPoints = 0;
-        } else {
-            int calculatedTotal = questions.stream()
-                    .mapToInt(q -> q.getPoints() != null ? q.getPoints() : 0)
-                    .sum();
-
-            totalPoints = calculatedTotal;
+        totalPoints = computeTotalPoints();
+    }
 
+    /**
+     * Sum of the question points without writing to this entity, for instances shared through the cache
+     */
+    public int computeTotalPoints() {
+        if (questions == null || questions.isEmpty()) {
+            return 0;
         }
+        return questions.stream()
+                .mapToInt(q -> q.getPoints() != null ? q.getPoints() : 0)
+                .sum();
     }
 
     /**
@@ -186,7 +191,7 @@ public class Exam {
      */
     public boolean canBePublished() {
         if (questions == null || questions.isEmpty()) {
-            System.err.println("Cannot publish exam: No questions added");
+            log.warn("Cannot publish exam: No questions added");
             return false;
         }
 
@@ -195,16 +200,16 @@ public class Exam {
                 .allMatch(q -> q.getPoints() != null && q.getPoints() > 0);
 
         if (!allQuestionsValid) {
-            System.err.println("Cannot publish exam: Some questions have invalid points");
+            log.warn("Cannot publish exam: Some questions have invalid points");
             questions.stream()
                     .filter(q -> q.getPoints() == null || q.getPoints() <= 0)
-                    .forEach(q -> System.err.println("  - Question " + q.getId() + ": " + q.getPoints() + " points"));
+                    .forEach(q -> log.warn("- Question {}: {} points", q.getId(), q.getPoints()));
             return false;
         }
 
         // Check if there are auto-gradable questions or if manual grading is set up
         if (!hasAutoGradableQuestions() && !hasValidManualGradingSetup()) {
-            System.err.println("Cannot publish exam: No auto-gradable questions and manual grading not configured");
+            log.warn("Cannot publish exam: No auto-gradable questions and manual grading not configured");
             return false;
         }
 
@@ -329,22 +334,22 @@ public class Exam {
         try {
             // Check basic fields
             if (title == null || title.trim().isEmpty()) {
-                System.err.println("Exam validation failed: Title is required");
+                log.warn("Exam validation failed: Title is required");
                 return false;
             }
 
             if (courseId == null || instructorId == null) {
-                System.err.println("Exam validation failed: Course ID and Instructor ID are required");
+                log.warn("Exam validation failed: Course ID and Instructor ID are required");
                 return false;
             }
 
             if (startTime == null || endTime == null) {
-                System.err.println("Exam validation failed: Start and end times are required");
+                log.warn("Exam validation failed: Start and end times are required");
                 return false;
             }
 
             if (endTime.isBefore(startTime)) {
-                System.err.println("Exam validation failed: End time must be after start time");
+                log.warn("Exam validation failed: End time must be after start time");
                 return false;
             }
 
@@ -353,7 +358,7 @@ public class Exam {
                 for (int i = 0; i < questions.size(); i++) {
                     ExamQuestion question = questions.get(i);
                     if (question.getPoints() == null || question.getPoints() <= 0) {
-                        System.err.println("Exam validation failed: Question " + (i + 1) + " has invalid points");
+                        log.warn("Exam validation failed: Question {} has invalid points", (i + 1));
                         return false;
                     }
                 }
@@ -369,7 +374,7 @@ public class Exam {
             return true;
 
         } catch (Exception e) {
-            System.err.println("Exam validation failed with exception: " + e.getMessage());
+            log.warn("Exam validation failed with exception: {}", e.getMessage());
             return false;
         }
     }
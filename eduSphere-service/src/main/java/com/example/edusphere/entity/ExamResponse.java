@@ -4,6 +4,8 @@ import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -13,6 +15,13 @@ import java.util.HashMap;
 
 @Data
 @Document(collection = "exam_responses")
+@CompoundIndexes({
+        @CompoundIndex(name = "exam_submitted_idx", def = "{'examId': 1, 'submittedAt': -1, '_id': -1}"),
+        // Attempt counts and the active-attempt lookup when a student starts or resumes
+        @CompoundIndex(name = "exam_student_idx", def = "{'examId': 1, 'studentId': 1, 'status': 1}"),
+        // Rebuilding the auto-submit schedule: active attempts by deadline
+        @CompoundIndex(name = "status_deadline_idx", def = "{'status': 1, 'deadline': 1}")
+})
 public class ExamResponse {
 
     @Id
@@ -30,11 +39,13 @@ public class ExamResponse {
     // Response data
     private Map<String, String> answers = new HashMap<>(); // questionId -> answer
     private Map<String, Integer> questionScores = new HashMap<>(); // questionId -> points earned
+    private Map<String, Long> answerSeq = new HashMap<>(); // questionId -> client sequence of the stored autosaved answer
 
     // Timing - FIXED: Remove @Field annotations
     private LocalDateTime startedAt;
     private LocalDateTime submittedAt;
     private Integer timeSpent; // in seconds
+    private LocalDateTime deadline; // auto-submitted after this; null when the exam doesn't auto-submit
 
     // Status and scoring
     private String status = "IN_PROGRESS"; // IN_PROGRESS, SUBMITTED, GRADED, ABANDONED
@@ -56,6 +67,7 @@ public class ExamResponse {
     // Flags - FIXED: Remove @Field annotations
     private Boolean flaggedForReview = false;
     private Boolean lateSubmission = false;
+    private Boolean autoSubmitted = false;
 
     @CreatedDate
     private LocalDateTime createdAt;
@@ -4,6 +4,7 @@ import lombok.Data;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -16,6 +17,7 @@ import java.util.List;
  */
 @Data
 @Document(collection = "task_submissions")
+@CompoundIndex(name = "course_submitted_idx", def = "{'course_id': 1, 'submittedAt': -1, '_id': -1}")
 public class TaskSubmission {
 
     @Id
@@ -0,0 +1,39 @@
+package com.example.edusphere.event;
+
+import com.example.common.events.DomainEventListener;
+import com.example.edusphere.entity.ExamResponse;
+import com.example.edusphere.service.ExamService;
+import org.springframework.stereotype.Component;
+
+/**
+ * Auto-grades a submitted exam response and syncs the grade column, after the submit request has returned.
+ */
+@Component
+public class ExamAutoGradeListener implements DomainEventListener<ExamSubmittedEvent> {
+
+    private final ExamService examService;
+
+    public ExamAutoGradeListener(ExamService examService) {
+        this.examService = examService;
+    }
+
+    @Override
+    public Class<ExamSubmittedEvent> eventType() {
+        return ExamSubmittedEvent.class;
+    }
+
+    @Override
+    public void onEvent(ExamSubmittedEvent event) {
+        ExamResponse response = examService.getResponse(event.getResponseId());
+        // Redelivered after it was already graded: nothing to do
+        if (Boolean.TRUE.equals(response.getAutoGraded())) {
+            return;
+        }
+        examService.autoGradeResponse(event.getResponseId());
+    }
+
+    @Override
+    public int concurrency() {
+        return 4;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.edusphere.event;
+
+import com.example.common.events.DomainEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExamSubmittedEvent extends DomainEvent {
+    private String responseId;
+    private String examId;
+    private String studentId;
+}
@@ -0,0 +1,33 @@
+package com.example.edusphere.event;
+
+import com.example.common.events.DomainEventListener;
+import com.example.edusphere.service.TaskSubmissionService;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes a task's submission/graded counters and average after its submissions change.
+ */
+@Component
+public class TaskStatisticsListener implements DomainEventListener<TaskSubmissionChangedEvent> {
+
+    private final TaskSubmissionService taskSubmissionService;
+
+    public TaskStatisticsListener(TaskSubmissionService taskSubmissionService) {
+        this.taskSubmissionService = taskSubmissionService;
+    }
+
+    @Override
+    public Class<TaskSubmissionChangedEvent> eventType() {
+        return TaskSubmissionChangedEvent.class;
+    }
+
+    @Override
+    public void onEvent(TaskSubmissionChangedEvent event) {
+        taskSubmissionService.recalculateTaskStatistics(event.getTaskId());
+    }
+
+    @Override
+    public int concurrency() {
+        return 2;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.edusphere.event;
+
+import com.example.common.events.DomainEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A submission of the task was created, graded or deleted; its counters need recomputing.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSubmissionChangedEvent extends DomainEvent {
+    private String taskId;
+}
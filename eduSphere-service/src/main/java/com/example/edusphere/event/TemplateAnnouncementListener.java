@@ -0,0 +1,30 @@
+package com.example.edusphere.event;
+
+import com.example.common.events.DomainEventListener;
+import com.example.edusphere.service.TemplateService;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the personalised announcements of a used template, one per recipient. A redelivery after
+ * a crash mid-way repeats the announcements already created, which is preferable to losing the rest.
+ */
+@Component
+public class TemplateAnnouncementListener implements DomainEventListener<TemplateUsedEvent> {
+
+    private final TemplateService templateService;
+
+    public TemplateAnnouncementListener(TemplateService templateService) {
+        this.templateService = templateService;
+    }
+
+    @Override
+    public Class<TemplateUsedEvent> eventType() {
+        return TemplateUsedEvent.class;
+    }
+
+    @Override
+    public void onEvent(TemplateUsedEvent event) {
+        templateService.sendTemplateAnnouncements(event.getTemplateId(), event.getRequest(),
+                event.getCreatorId(), event.getCreatorName());
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.edusphere.event;
+
+import com.example.common.events.DomainEvent;
+import com.example.edusphere.dto.request.UseTemplateRequest;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TemplateUsedEvent extends DomainEvent {
+    private String templateId;
+    private UseTemplateRequest request;
+    private String creatorId;
+    private String creatorName;
+}
@@ -0,0 +1,57 @@
+package com.example.edusphere.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+final class CsvSheetWriter implements SheetWriter {
+
+    private final Writer writer;
+
+    CsvSheetWriter(OutputStream out) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        // BOM, so that Excel opens the file as UTF-8
+        writer.write('\uFEFF');
+    }
+
+    @Override
+    public void row(List<?> cells) throws IOException {
+        for (int i = 0; i < cells.size(); i++) {
+            if (i > 0) writer.write(',');
+            Object value = cells.get(i);
+            if (value == null) {
+                continue;
+            }
+            // Numbers are written as they are; text is student input and must never become a formula
+            writer.write(value instanceof Number ? value.toString() : escapeCsv(neutralise(value.toString())));
+        }
+        writer.write('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Text starting with {@code = + - @}, a tab or a carriage return is run as a formula by Excel and
+     * friends (CSV injection); a leading apostrophe makes them show it as plain text.
+     */
+    private static String neutralise(String value) {
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            return "'" + value;
+        }
+        return value;
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
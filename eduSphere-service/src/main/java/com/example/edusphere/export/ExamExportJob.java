@@ -0,0 +1,67 @@
+package com.example.edusphere.export;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Builder;
+import lombok.Getter;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Progress handle for one detailed response export, read from its {@code exam_export_jobs} record.
+ */
+@Getter
+@Builder
+public class ExamExportJob {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    private final String id;
+    private final String examId;
+    private final String requestedBy;
+    private final ExportFormat format;
+    private final String status;
+    /** Responses written so far. */
+    private final long rows;
+    private final String filename;
+    private final Long size;
+    @JsonIgnore
+    private final ObjectId fileId;
+    private final String error;
+    private final Instant startedAt;
+    private final Instant finishedAt;
+
+    public boolean isFinished() {
+        return !RUNNING.equals(status);
+    }
+
+    /** Where the file can be downloaded once the export is done, otherwise null. */
+    public String getDownloadUrl() {
+        return DONE.equals(status) ? "/api/exam-responses/exports/" + id + "/download" : null;
+    }
+
+    static ExamExportJob from(Document record) {
+        return ExamExportJob.builder()
+                .id(record.getString("_id"))
+                .examId(record.getString("examId"))
+                .requestedBy(record.getString("requestedBy"))
+                .format(ExportFormat.valueOf(record.getString("format")))
+                .status(record.getString("status"))
+                .rows(((Number) record.get("rows", 0L)).longValue())
+                .filename(record.getString("filename"))
+                .size(record.get("size") instanceof Number n ? n.longValue() : null)
+                .fileId(record.getObjectId("fileId"))
+                .error(record.getString("error"))
+                .startedAt(toInstant(record.getDate("startedAt")))
+                .finishedAt(toInstant(record.getDate("finishedAt")))
+                .build();
+    }
+
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+}
@@ -0,0 +1,322 @@
+package com.example.edusphere.export;
+
+import com.example.common.repository.UserRepository;
+import com.example.common.repository.projection.UserSummaryView;
+import com.example.edusphere.entity.Exam;
+import com.example.edusphere.entity.ExamQuestion;
+import com.example.edusphere.entity.ExamResponse;
+import com.example.edusphere.grading.GradingPlan;
+import com.mongodb.MongoException;
+import com.mongodb.MongoGridFSException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSBuckets;
+import com.mongodb.client.gridfs.GridFSUploadStream;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.mongodb.client.gridfs.model.GridFSUploadOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Exports every response of an exam, with each question's answer and score, as CSV or XLSX in the
+ * background.
+ *
+ * Responses are read through a single cursor in chunks of {@value #CHUNK}; each chunk costs one
+ * lookup of the students' names and is written straight into a GridFS upload stream, so memory use
+ * is one chunk however large the cohort, and the finished file can be downloaded from any instance.
+ * The {@code exam_export_jobs} record is the progress handle and carries the download link once
+ * done. Exports are deleted after {@code app.exam.export.retention}; a run cut short by a redeploy
+ * goes stale and is marked FAILED, and its partial upload is dropped when the record expires.
+ */
+@Slf4j
+@Service
+public class ExamExportService implements SmartLifecycle {
+
+    static final String JOBS = "exam_export_jobs";
+    static final String BUCKET = "exam_exports";
+
+    private static final int CHUNK = 500;
+    private static final Duration STALE_AFTER = Duration.ofMinutes(10);
+
+    private static final List<String> COLUMNS = List.of(
+            "responseId", "studentId", "studentName", "username", "attemptNumber", "status",
+            "startedAt", "submittedAt", "timeSpent", "totalScore", "maxScore", "percentage",
+            "passed", "graded", "autoGraded", "autoSubmitted", "lateSubmission", "flaggedForReview");
+
+    private final MongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+    private final int threads;
+    private final Duration retention;
+
+    private volatile ExecutorService runner;
+    private volatile ScheduledExecutorService cleaner;
+    private volatile boolean running;
+
+    public ExamExportService(MongoTemplate mongoTemplate,
+                             UserRepository userRepository,
+                             Environment environment) {
+        this.mongoTemplate = mongoTemplate;
+        this.userRepository = userRepository;
+        this.threads = Math.max(1, environment.getProperty("app.exam.export.threads", Integer.class, 2));
+        this.retention = environment.getProperty("app.exam.export.retention", Duration.class, Duration.ofHours(24));
+    }
+
+    /**
+     * Start exporting the responses of {@code exam}; poll {@link #get} for the download link.
+     */
+    public ExamExportJob start(Exam exam, ExportFormat format, String requestedBy) {
+        String id = UUID.randomUUID().toString();
+        Date now = new Date();
+        jobs().insertOne(new Document("_id", id)
+                .append("examId", exam.getId())
+                .append("requestedBy", requestedBy)
+                .append("format", format.name())
+                .append("status", ExamExportJob.RUNNING)
+                .append("rows", 0L)
+                .append("filename", "exam-" + exam.getId() + "-responses." + format.getExtension())
+                .append("heartbeat", now)
+                .append("startedAt", now));
+
+        ExecutorService pool = runner;
+        if (pool == null) {
+            run(id, exam, format);
+        } else {
+            pool.execute(() -> run(id, exam, format));
+        }
+        return get(id).orElseThrow();
+    }
+
+    public Optional<ExamExportJob> get(String id) {
+        return Optional.ofNullable(jobs().find(Filters.eq("_id", id)).first()).map(ExamExportJob::from);
+    }
+
+    /**
+     * The finished export's content; the caller closes it.
+     */
+    public InputStream open(ExamExportJob job) {
+        if (!ExamExportJob.DONE.equals(job.getStatus()) || job.getFileId() == null) {
+            throw new RuntimeException("Export is not ready: " + job.getId());
+        }
+        return bucket().openDownloadStream(job.getFileId());
+    }
+
+    // ===================================
+    // EXECUTION
+    // ===================================
+
+    private void run(String id, Exam exam, ExportFormat format) {
+        GridFSUploadStream upload = null;
+        long rows;
+        try {
+            upload = bucket().openUploadStream(id + "." + format.getExtension(),
+                    new GridFSUploadOptions().metadata(new Document("jobId", id).append("examId", exam.getId())));
+            // Recorded up front so that cleanup can drop the chunks of a run that never finishes
+            jobs().updateOne(Filters.eq("_id", id), Updates.set("fileId", upload.getObjectId()));
+
+            SheetWriter sheet = format.open(upload);
+            rows = write(id, exam, sheet);
+            sheet.finish();
+            upload.close();
+        } catch (IOException | RuntimeException e) {
+            if (upload != null) {
+                try {
+                    upload.abort();
+                } catch (MongoException abortFailure) {
+                    log.warn("Could not drop the partial upload of export {}: {}", id, abortFailure.getMessage());
+                }
+            }
+            log.error("Export {} of exam {} failed", id, exam.getId(), e);
+            jobs().updateOne(Filters.eq("_id", id), Updates.combine(
+                    Updates.set("status", ExamExportJob.FAILED),
+                    Updates.set("error", e.getMessage()),
+                    Updates.set("finishedAt", new Date())));
+            return;
+        }
+
+        GridFSFile file = bucket().find(Filters.eq("_id", upload.getObjectId())).first();
+        jobs().updateOne(Filters.eq("_id", id), Updates.combine(
+                Updates.set("status", ExamExportJob.DONE),
+                Updates.set("rows", rows),
+                Updates.set("size", file != null ? file.getLength() : null),
+                Updates.set("finishedAt", new Date())));
+        log.info("Exported {} response(s) of exam {} as {} ({})", rows, exam.getId(), format, id);
+    }
+
+    private long write(String id, Exam exam, SheetWriter sheet) throws IOException {
+        List<ExamQuestion> questions = exam.getQuestions() != null ? exam.getQuestions() : List.of();
+        List<String> header = new ArrayList<>(COLUMNS);
+        for (int i = 1; i <= questions.size(); i++) {
+            header.add("q" + i + "Answer");
+            header.add("q" + i + "Score");
+        }
+        sheet.row(header);
+
+        Query responses = Query.query(Criteria.where("examId").is(exam.getId()))
+                .with(Sort.by(Sort.Direction.DESC, "submittedAt", "_id"));
+        long rows = 0;
+        try (Stream<ExamResponse> stream = mongoTemplate.stream(responses, ExamResponse.class)) {
+            List<ExamResponse> chunk = new ArrayList<>(CHUNK);
+            for (Iterator<ExamResponse> it = stream.iterator(); it.hasNext(); ) {
+                chunk.add(it.next());
+                if (chunk.size() == CHUNK || !it.hasNext()) {
+                    writeChunk(sheet, questions, chunk);
+                    rows += chunk.size();
+                    chunk.clear();
+                    jobs().updateOne(Filters.eq("_id", id), Updates.combine(
+                            Updates.set("rows", rows),
+                            Updates.set("heartbeat", new Date())));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private void writeChunk(SheetWriter sheet, List<ExamQuestion> questions, List<ExamResponse> chunk) throws IOException {
+        Set<String> studentIds = chunk.stream()
+                .map(ExamResponse::getStudentId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, UserSummaryView> students = userRepository.findSummariesByIdIn(studentIds).stream()
+                .collect(Collectors.toMap(UserSummaryView::getId, Function.identity(), (a, b) -> a));
+
+        for (ExamResponse response : chunk) {
+            UserSummaryView student = students.get(response.getStudentId());
+            List<Object> cells = new ArrayList<>(COLUMNS.size() + questions.size() * 2);
+            cells.add(response.getId());
+            cells.add(response.getStudentId());
+            cells.add(student != null ? student.getName() : null);
+            cells.add(student != null ? student.getUsername() : null);
+            cells.add(response.getAttemptNumber());
+            cells.add(response.getStatus());
+            cells.add(response.getStartedAt());
+            cells.add(response.getSubmittedAt());
+            cells.add(response.getTimeSpent());
+            cells.add(response.getTotalScore());
+            cells.add(response.getMaxScore());
+            cells.add(response.getPercentage());
+            cells.add(response.getPassed());
+            cells.add(response.getGraded());
+            cells.add(response.getAutoGraded());
+            cells.add(response.getAutoSubmitted());
+            cells.add(response.getLateSubmission());
+            cells.add(response.getFlaggedForReview());
+
+            Map<String, String> answers = response.getAnswers() != null ? response.getAnswers() : Map.of();
+            Map<String, Integer> scores = response.getQuestionScores() != null ? response.getQuestionScores() : Map.of();
+            for (ExamQuestion question : questions) {
+                cells.add(GradingPlan.optionText(question, answers.get(question.getId())));
+                cells.add(scores.get(question.getId()));
+            }
+            sheet.row(cells);
+        }
+    }
+
+    // ===================================
+    // CLEANUP
+    // ===================================
+
+    private void cleanUp() {
+        try {
+            Date staleBefore = new Date(System.currentTimeMillis() - STALE_AFTER.toMillis());
+            jobs().updateMany(Filters.and(
+                            Filters.eq("status", ExamExportJob.RUNNING),
+                            Filters.lt("heartbeat", staleBefore)),
+                    Updates.combine(
+                            Updates.set("status", ExamExportJob.FAILED),
+                            Updates.set("error", "Abandoned: no progress for " + STALE_AFTER.toMinutes() + " minutes"),
+                            Updates.set("finishedAt", new Date())));
+
+            Date expiredBefore = new Date(System.currentTimeMillis() - retention.toMillis());
+            for (Document job : jobs().find(Filters.lt("startedAt", expiredBefore))) {
+                if (ExamExportJob.RUNNING.equals(job.getString("status"))) {
+                    continue;
+                }
+                ObjectId fileId = job.getObjectId("fileId");
+                if (fileId != null) {
+                    try {
+                        bucket().delete(fileId);
+                    } catch (MongoGridFSException e) {
+                        // No file document: the run never finished, its chunks are gone now all the same
+                    }
+                }
+                jobs().deleteOne(Filters.eq("_id", job.get("_id")));
+            }
+        } catch (MongoException e) {
+            log.warn("Exam export cleanup failed: {}", e.getMessage());
+        }
+    }
+
+    private GridFSBucket bucket() {
+        return GridFSBuckets.create(mongoTemplate.getDb(), BUCKET);
+    }
+
+    private MongoCollection<Document> jobs() {
+        return mongoTemplate.getCollection(JOBS);
+    }
+
+    // ===================================
+    // Lifecycle
+    // ===================================
+
+    @Override
+    public void start() {
+        AtomicInteger counter = new AtomicInteger();
+        runner = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "exam-export-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "exam-export-cleanup");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::cleanUp, 1, 60, TimeUnit.MINUTES);
+        cleaner = scheduler;
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        ExecutorService pool = runner;
+        ScheduledExecutorService scheduler = cleaner;
+        runner = null;
+        cleaner = null;
+        if (pool != null) {
+            // Runs in progress go stale and are marked FAILED by the next cleanup
+            pool.shutdownNow();
+        }
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
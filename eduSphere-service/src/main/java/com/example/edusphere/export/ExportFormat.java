@@ -0,0 +1,48 @@
+package com.example.edusphere.export;
+
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * File formats of the background exam response export.
+ */
+public enum ExportFormat {
+
+    CSV("text/csv", "csv"),
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+    private final String mediaType;
+    private final String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return MediaType.parseMediaType(mediaType);
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    SheetWriter open(OutputStream out) throws IOException {
+        return this == XLSX ? new XlsxSheetWriter(out) : new CsvSheetWriter(out);
+    }
+
+    /**
+     * @throws IllegalArgumentException for anything but csv or xlsx
+     */
+    public static ExportFormat resolve(String format) {
+        String normalized = format == null || format.isBlank() ? "csv" : format.trim().toLowerCase();
+        for (ExportFormat candidate : values()) {
+            if (candidate.extension.equals(normalized)) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + format);
+    }
+}
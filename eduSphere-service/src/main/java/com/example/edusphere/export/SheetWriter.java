@@ -0,0 +1,21 @@
+package com.example.edusphere.export;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes a single sheet of rows straight to an output stream, one row at a time.
+ */
+interface SheetWriter {
+
+    /**
+     * Cells may be null (empty), numbers (numeric cells where the format has them) or anything else,
+     * written as its {@code toString()}.
+     */
+    void row(List<?> cells) throws IOException;
+
+    /**
+     * Completes the file. The underlying stream is flushed but left open for the caller to close.
+     */
+    void finish() throws IOException;
+}
@@ -0,0 +1,119 @@
+package com.example.edusphere.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Minimal single-sheet XLSX (SpreadsheetML) writer. The package parts are fixed; only the sheet
+ * XML grows, and it is written through the zip stream row by row with inline strings, so nothing
+ * is held back in memory the way a shared string table or an in-memory workbook would.
+ */
+final class XlsxSheetWriter implements SheetWriter {
+
+    // Excel's limit on the characters in one cell
+    private static final int MAX_CELL_LENGTH = 32767;
+
+    private static final String CONTENT_TYPES = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">\
+            <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>\
+            <Default Extension="xml" ContentType="application/xml"/>\
+            <Override PartName="/xl/workbook.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml"/>\
+            <Override PartName="/xl/worksheets/sheet1.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml"/>\
+            </Types>""";
+    private static final String ROOT_RELS = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">\
+            <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" Target="xl/workbook.xml"/>\
+            </Relationships>""";
+    private static final String WORKBOOK = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <workbook xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" \
+            xmlns:r="http://schemas.openxmlformats.org/officeDocument/2006/relationships">\
+            <sheets><sheet name="Responses" sheetId="1" r:id="rId1"/></sheets>\
+            </workbook>""";
+    private static final String WORKBOOK_RELS = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">\
+            <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet" Target="worksheets/sheet1.xml"/>\
+            </Relationships>""";
+
+    private final ZipOutputStream zip;
+    private final Writer xml;
+
+    XlsxSheetWriter(OutputStream out) throws IOException {
+        this.zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        part("[Content_Types].xml", CONTENT_TYPES);
+        part("_rels/.rels", ROOT_RELS);
+        part("xl/workbook.xml", WORKBOOK);
+        part("xl/_rels/workbook.xml.rels", WORKBOOK_RELS);
+
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+        // Never closed: that would close the zip and the caller's stream with it
+        this.xml = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+        xml.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+    }
+
+    @Override
+    public void row(List<?> cells) throws IOException {
+        xml.write("<row>");
+        for (Object value : cells) {
+            if (value == null) {
+                xml.write("<c/>");
+            } else if (value instanceof Number number && Double.isFinite(number.doubleValue())) {
+                xml.write("<c><v>");
+                xml.write(number.toString());
+                xml.write("</v></c>");
+            } else {
+                xml.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                xml.write(escapeXml(value.toString()));
+                xml.write("</t></is></c>");
+            }
+        }
+        xml.write("</row>");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        xml.write("</sheetData></worksheet>");
+        xml.flush();
+        zip.closeEntry();
+        zip.finish();
+        zip.flush();
+    }
+
+    private void part(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private static String escapeXml(String value) {
+        String text = value.length() > MAX_CELL_LENGTH ? value.substring(0, MAX_CELL_LENGTH) : value;
+        StringBuilder escaped = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&' -> escaped.append("&amp;");
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '"' -> escaped.append("&quot;");
+                default -> {
+                    // Control characters other than tab and line breaks aren't allowed in XML
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.edusphere.grading;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.bson.Document;
+
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Progress handle for one "auto-grade all" run, read from its {@code auto_grade_jobs} record.
+ */
+@Getter
+@Builder
+public class AutoGradeJob {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    private final String id;
+    private final String examId;
+    private final String requestedBy;
+    private final String status;
+    /** Submitted, ungraded responses when the run started. */
+    private final long total;
+    private final long done;
+    private final long failed;
+    /** Responses graded or changed by someone else between the read and the write. */
+    private final long skipped;
+    private final String error;
+    private final Instant startedAt;
+    private final Instant finishedAt;
+
+    public boolean isFinished() {
+        return !RUNNING.equals(status);
+    }
+
+    static AutoGradeJob from(Document record) {
+        return AutoGradeJob.builder()
+                .id(record.getString("_id"))
+                .examId(record.getString("examId"))
+                .requestedBy(record.getString("requestedBy"))
+                .status(record.getString("status"))
+                .total(count(record, "total"))
+                .done(count(record, "done"))
+                .failed(count(record, "failed"))
+                .skipped(count(record, "skipped"))
+                .error(record.getString("error"))
+                .startedAt(toInstant(record.getDate("startedAt")))
+                .finishedAt(toInstant(record.getDate("finishedAt")))
+                .build();
+    }
+
+    private static long count(Document record, String field) {
+        return ((Number) record.get(field, 0L)).longValue();
+    }
+
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+}
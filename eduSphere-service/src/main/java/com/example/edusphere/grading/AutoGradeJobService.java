@@ -0,0 +1,499 @@
+package com.example.edusphere.grading;
+
+import com.example.edusphere.entity.Exam;
+import com.example.edusphere.entity.ExamResponse;
+import com.example.edusphere.entity.GradeColumn;
+import com.example.edusphere.repository.GradeColumnRepository;
+import com.example.edusphere.service.GradeService;
+import com.example.edusphere.stats.ExamLiveStats;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Updates;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Auto-grades every submitted, ungraded response of an exam in the background.
+ *
+ * Responses are read through a single cursor and handed out in batches to a bounded grading pool
+ * ({@code app.grading.threads}); when the pool is busy the reader grades a batch itself, so the
+ * cursor never runs ahead of the writers. Each batch goes back as one unordered bulk write, and the
+ * linked grade column is updated for the whole batch through {@link GradeService#updateStudentGrades}.
+ *
+ * Runs are recorded in {@code auto_grade_jobs}, which doubles as the progress handle. Re-running is
+ * safe: there is at most one RUNNING job per exam (a second request gets the running one back), and
+ * every write is conditional on the response still being SUBMITTED and ungraded, so responses graded
+ * by hand or by an earlier run in the meantime are counted as skipped rather than overwritten. A run
+ * cut short by a redeploy is simply left to go stale; the next request marks it FAILED and starts over
+ * on whatever is still ungraded.
+ *
+ * Jobs of different exams run side by side on {@code app.grading.jobs} runner threads. A job waiting
+ * for one keeps its heartbeat fresh so it isn't taken for stale, and a runner claims the job before
+ * grading anything, so a job marked FAILED meanwhile is dropped rather than run next to its successor.
+ */
+@Slf4j
+@Service
+public class AutoGradeJobService implements SmartLifecycle {
+
+    static final String JOBS = "auto_grade_jobs";
+
+    private static final int BATCH = 500;
+    private static final Duration STALE_AFTER = Duration.ofMinutes(10);
+    private static final Duration QUEUED_HEARTBEAT = STALE_AFTER.dividedBy(4);
+
+    private final MongoTemplate mongoTemplate;
+    private final GradeColumnRepository gradeColumnRepository;
+    private final GradeService gradeService;
+    private final GradingPlanCache gradingPlanCache;
+    private final ExamLiveStats examLiveStats;
+    private final int threads;
+    private final int jobThreads;
+    private final String owner;
+    private final AtomicBoolean indexesReady = new AtomicBoolean();
+    // Jobs inserted here and not yet claimed by a runner thread
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    private volatile ExecutorService runner;
+    private volatile ScheduledExecutorService heartbeats;
+    private volatile ThreadPoolExecutor workers;
+    private volatile boolean running;
+    private volatile boolean stopped;
+
+    public AutoGradeJobService(MongoTemplate mongoTemplate,
+                               GradeColumnRepository gradeColumnRepository,
+                               GradeService gradeService,
+                               GradingPlanCache gradingPlanCache,
+                               ExamLiveStats examLiveStats,
+                               Environment environment) {
+        this.mongoTemplate = mongoTemplate;
+        this.gradeColumnRepository = gradeColumnRepository;
+        this.gradeService = gradeService;
+        this.gradingPlanCache = gradingPlanCache;
+        this.examLiveStats = examLiveStats;
+        this.threads = Math.max(1, environment.getProperty("app.grading.threads", Integer.class, 4));
+        this.jobThreads = Math.max(1, environment.getProperty("app.grading.jobs", Integer.class, 2));
+        this.owner = environment.getProperty("spring.application.name", "app") + "-" + UUID.randomUUID();
+    }
+
+    /**
+     * Start auto-grading {@code exam}, or return the run already in progress for it. The exam's
+     * total points should be up to date; they become every response's max score.
+     */
+    public AutoGradeJob start(Exam exam, String requestedBy) {
+        ensureIndexes();
+        abandonStale(exam.getId());
+
+        Optional<AutoGradeJob> current = findRunning(exam.getId());
+        if (current.isPresent()) {
+            return current.get();
+        }
+
+        String id = UUID.randomUUID().toString();
+        Date now = new Date();
+        Document record = new Document("_id", id)
+                .append("examId", exam.getId())
+                .append("requestedBy", requestedBy)
+                .append("status", AutoGradeJob.RUNNING)
+                .append("owner", owner)
+                .append("heartbeat", now)
+                .append("total", mongoTemplate.count(ungraded(exam.getId()), ExamResponse.class))
+                .append("done", 0L)
+                .append("failed", 0L)
+                .append("skipped", 0L)
+                .append("startedAt", now);
+        try {
+            jobs().insertOne(record);
+        } catch (MongoWriteException e) {
+            if (e.getError().getCategory() == ErrorCategory.DUPLICATE_KEY) {
+                // Someone else started one between our check and the insert
+                return findRunning(exam.getId()).orElseThrow(() -> e);
+            }
+            throw e;
+        }
+
+        ExecutorService pool = runner;
+        if (pool == null) {
+            run(id, exam);
+        } else {
+            queued.add(id);
+            try {
+                pool.execute(() -> run(id, exam));
+            } catch (RejectedExecutionException e) {
+                // Shutting down: left RUNNING to go stale, like a run cut short
+                queued.remove(id);
+            }
+        }
+        return get(id).orElseThrow();
+    }
+
+    public Optional<AutoGradeJob> get(String id) {
+        return Optional.ofNullable(jobs().find(Filters.eq("_id", id)).first()).map(AutoGradeJob::from);
+    }
+
+    // ===================================
+    // EXECUTION
+    // ===================================
+
+    private void run(String id, Exam exam) {
+        queued.remove(id);
+        if (!claim(id)) {
+            log.info("Auto-grade job {} of exam {} was abandoned before it started", id, exam.getId());
+            return;
+        }
+        GradingPlan plan = gradingPlanCache.planFor(exam);
+        String columnId = plan.isManualGradingRequired() ? null : linkedColumnId(exam);
+        List<Future<?>> batches = new ArrayList<>();
+        String error = null;
+
+        try (Stream<ExamResponse> responses = mongoTemplate.stream(ungraded(exam.getId()), ExamResponse.class)) {
+            List<ExamResponse> batch = new ArrayList<>(BATCH);
+            Iterator<ExamResponse> it = responses.iterator();
+            while (it.hasNext() && !stopped) {
+                batch.add(it.next());
+                if (batch.size() == BATCH) {
+                    batches.add(submit(id, exam, plan, columnId, batch));
+                    batch = new ArrayList<>(BATCH);
+                }
+            }
+            if (!batch.isEmpty() && !stopped) {
+                batches.add(submit(id, exam, plan, columnId, batch));
+            }
+        } catch (RuntimeException e) {
+            error = e.getMessage();
+            log.warn("Auto-grade of exam {} stopped reading responses: {}", exam.getId(), e.getMessage());
+        }
+
+        for (Future<?> batch : batches) {
+            try {
+                batch.get();
+            } catch (ExecutionException e) {
+                error = e.getCause().getMessage();
+                log.warn("Auto-grade batch for exam {} failed: {}", exam.getId(), error);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        if (stopped) {
+            // Shutting down: leave the record RUNNING so it goes stale and the next request restarts it
+            return;
+        }
+        jobs().updateOne(Filters.eq("_id", id), Updates.combine(
+                Updates.set("status", error == null ? AutoGradeJob.DONE : AutoGradeJob.FAILED),
+                Updates.set("finishedAt", new Date()),
+                error == null ? Updates.unset("error") : Updates.set("error", error)));
+        log.info("Auto-grade of exam {} finished ({})", exam.getId(), id);
+    }
+
+    /**
+     * Take the job for this runner, unless it was marked FAILED as stale (or taken) while queued.
+     */
+    private boolean claim(String id) {
+        Date now = new Date();
+        return jobs().updateOne(Filters.and(
+                        Filters.eq("_id", id),
+                        Filters.eq("status", AutoGradeJob.RUNNING),
+                        Filters.exists("claimedAt", false)),
+                Updates.combine(
+                        Updates.set("owner", owner),
+                        Updates.set("heartbeat", now),
+                        Updates.set("claimedAt", now))).getModifiedCount() == 1;
+    }
+
+    /**
+     * Keep jobs waiting for a runner thread from going stale.
+     */
+    private void beatQueued() {
+        if (queued.isEmpty()) {
+            return;
+        }
+        try {
+            jobs().updateMany(Filters.and(
+                            Filters.in("_id", new ArrayList<>(queued)),
+                            Filters.eq("status", AutoGradeJob.RUNNING),
+                            Filters.exists("claimedAt", false)),
+                    Updates.set("heartbeat", new Date()));
+        } catch (MongoException e) {
+            log.warn("Could not refresh queued auto-grade jobs: {}", e.getMessage());
+        }
+    }
+
+    private Future<?> submit(String id, Exam exam, GradingPlan plan, String columnId, List<ExamResponse> batch) {
+        ThreadPoolExecutor pool = workers;
+        if (pool == null) {
+            gradeBatch(id, exam, plan, columnId, batch);
+            return CompletableFuture.completedFuture(null);
+        }
+        return pool.submit(() -> gradeBatch(id, exam, plan, columnId, batch));
+    }
+
+    private void gradeBatch(String id, Exam exam, GradingPlan plan, String columnId, List<ExamResponse> batch) {
+        BatchCounts counts = grade(exam, plan, columnId, batch);
+        jobs().updateOne(Filters.eq("_id", id), Updates.combine(
+                Updates.inc("done", counts.done()),
+                Updates.inc("failed", counts.failed()),
+                Updates.inc("skipped", counts.skipped()),
+                Updates.set("heartbeat", new Date())));
+    }
+
+    /**
+     * Grades submitted responses outside of a job, e.g. attempts closed at their deadline, with the
+     * same conditional bulk writes and batched grade column update.
+     *
+     * @return how many of them were graded (those graded elsewhere in the meantime are skipped)
+     */
+    public long gradeSubmitted(Exam exam, List<ExamResponse> responses) {
+        if (responses.isEmpty()) {
+            return 0;
+        }
+        GradingPlan plan = gradingPlanCache.planFor(exam);
+        String columnId = plan.isManualGradingRequired() ? null : linkedColumnId(exam);
+        return grade(exam, plan, columnId, responses).done();
+    }
+
+    private record BatchCounts(long done, long failed, long skipped) {
+    }
+
+    private BatchCounts grade(Exam exam, GradingPlan plan, String columnId, List<ExamResponse> batch) {
+        // Truncated to what Mongo stores, so the grade sync below can find this batch's writes again
+        LocalDateTime gradedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        BulkOperations graded = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ExamResponse.class);
+        List<ExamResponse> failures = new ArrayList<>();
+        List<String> gradedIds = new ArrayList<>(batch.size());
+
+        for (ExamResponse response : batch) {
+            try {
+                plan.applyTo(response, exam, gradedAt);
+                graded.updateOne(stillUngraded(response.getId()), new Update()
+                        .set("questionScores", response.getQuestionScores())
+                        .set("maxScore", response.getMaxScore())
+                        .set("totalScore", response.getTotalScore())
+                        .set("percentage", response.getPercentage())
+                        .set("passed", response.getPassed())
+                        .set("status", response.getStatus())
+                        .set("graded", response.getGraded())
+                        .set("autoGraded", true)
+                        .set("gradedAt", gradedAt)
+                        .set("updatedAt", gradedAt));
+                gradedIds.add(response.getId());
+            } catch (RuntimeException e) {
+                log.error("Failed to auto-grade response {}", response.getId(), e);
+                response.setInstructorFeedback("Auto-grading failed: " + e.getMessage());
+                failures.add(response);
+            }
+        }
+
+        long done = 0;
+        long failed = failures.size();
+        if (!gradedIds.isEmpty()) {
+            try {
+                done = graded.execute().getModifiedCount();
+            } catch (BulkOperationException e) {
+                done = e.getResult().getModifiedCount();
+                failed += e.getErrors().size();
+                log.warn("{} auto-grade write(s) for exam {} failed: {}", e.getErrors().size(), exam.getId(), e.getMessage());
+            }
+        }
+        long skipped = gradedIds.size() - done - (failed - failures.size());
+
+        if (!failures.isEmpty()) {
+            // Left for manual review, as a single auto-grade failure always has been
+            BulkOperations marks = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ExamResponse.class);
+            for (ExamResponse response : failures) {
+                marks.updateOne(stillUngraded(response.getId()), new Update()
+                        .set("status", "AUTO_GRADE_FAILED")
+                        .set("instructorFeedback", response.getInstructorFeedback())
+                        .set("updatedAt", gradedAt));
+            }
+            try {
+                marks.execute();
+            } catch (BulkOperationException e) {
+                log.warn("Failed to save auto-grade failure status: {}", e.getMessage());
+            }
+        }
+
+        if (done > 0) {
+            syncGrades(exam.getId(), columnId, gradedIds, gradedAt);
+        }
+        return new BatchCounts(done, failed, skipped);
+    }
+
+    /**
+     * Pushes the percentages of the responses this batch actually wrote (not the skipped ones) to the
+     * live stats and to the exam's grade column, each in one batched update.
+     */
+    private void syncGrades(String examId, String columnId, List<String> gradedIds, LocalDateTime gradedAt) {
+        Query written = Query.query(Criteria.where("_id").in(gradedIds)
+                .and("gradedAt").is(gradedAt)
+                .and("graded").is(true));
+        written.fields().include("studentId", "percentage");
+
+        Map<String, Double> grades = new HashMap<>();
+        List<Double> percentages = new ArrayList<>();
+        for (ExamResponse response : mongoTemplate.find(written, ExamResponse.class)) {
+            grades.put(response.getStudentId(), response.getPercentage());
+            percentages.add(response.getPercentage());
+        }
+        examLiveStats.scored(examId, percentages);
+        if (columnId == null) {
+            return;
+        }
+        try {
+            gradeService.updateStudentGrades(columnId, grades);
+        } catch (RuntimeException e) {
+            log.error("Failed to sync auto-graded exam grades to grade column {}", columnId, e);
+        }
+    }
+
+    private String linkedColumnId(Exam exam) {
+        List<GradeColumn> linked = gradeColumnRepository.findAllByCourseIdAndLinkedAssignmentId(exam.getCourseId(), exam.getId());
+        if (linked.isEmpty()) {
+            return null;
+        }
+        GradeColumn column = linked.get(0);
+        if (!Objects.equals(exam.getTotalPoints(), column.getMaxPoints())) {
+            column.setMaxPoints(exam.getTotalPoints());
+            gradeColumnRepository.save(column);
+        }
+        return column.getId();
+    }
+
+    // ===================================
+    // HELPERS
+    // ===================================
+
+    private static Query ungraded(String examId) {
+        return Query.query(Criteria.where("examId").is(examId)
+                .and("status").is("SUBMITTED")
+                .and("graded").ne(true));
+    }
+
+    private static Query stillUngraded(String responseId) {
+        return Query.query(Criteria.where("_id").is(responseId)
+                .and("status").is("SUBMITTED")
+                .and("graded").ne(true));
+    }
+
+    private Optional<AutoGradeJob> findRunning(String examId) {
+        return Optional.ofNullable(jobs().find(Filters.and(
+                        Filters.eq("examId", examId),
+                        Filters.eq("status", AutoGradeJob.RUNNING))).first())
+                .map(AutoGradeJob::from);
+    }
+
+    private void abandonStale(String examId) {
+        Date staleBefore = new Date(System.currentTimeMillis() - STALE_AFTER.toMillis());
+        jobs().updateMany(Filters.and(
+                        Filters.eq("examId", examId),
+                        Filters.eq("status", AutoGradeJob.RUNNING),
+                        Filters.lt("heartbeat", staleBefore)),
+                Updates.combine(
+                        Updates.set("status", AutoGradeJob.FAILED),
+                        Updates.set("error", "Abandoned: no progress for " + STALE_AFTER.toMinutes() + " minutes"),
+                        Updates.set("finishedAt", new Date())));
+    }
+
+    private MongoCollection<Document> jobs() {
+        return mongoTemplate.getCollection(JOBS);
+    }
+
+    private void ensureIndexes() {
+        if (!indexesReady.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            jobs().createIndex(Indexes.ascending("examId"), new IndexOptions()
+                    .name("one_running_job_per_exam")
+                    .unique(true)
+                    .partialFilterExpression(Filters.eq("status", AutoGradeJob.RUNNING)));
+        } catch (MongoException e) {
+            indexesReady.set(false);
+            log.warn("Could not create auto-grade job indexes: {}", e.getMessage());
+        }
+    }
+
+    // ===================================
+    // Lifecycle
+    // ===================================
+
+    @Override
+    public void start() {
+        AtomicInteger jobCounter = new AtomicInteger();
+        runner = Executors.newFixedThreadPool(jobThreads, r -> {
+            Thread t = new Thread(r, "auto-grade-job-" + jobCounter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "auto-grade-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = QUEUED_HEARTBEAT.toMillis();
+        scheduler.scheduleWithFixedDelay(this::beatQueued, interval, interval, TimeUnit.MILLISECONDS);
+        heartbeats = scheduler;
+        AtomicInteger counter = new AtomicInteger();
+        // A full queue makes the reading thread grade the batch itself, which throttles the cursor
+        workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads),
+                r -> {
+                    Thread t = new Thread(r, "auto-grade-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        stopped = false;
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        stopped = true;
+        ExecutorService pool = runner;
+        ThreadPoolExecutor grading = workers;
+        ScheduledExecutorService scheduler = heartbeats;
+        runner = null;
+        workers = null;
+        heartbeats = null;
+        queued.clear();
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        if (pool != null) {
+            pool.shutdown();
+        }
+        if (grading != null) {
+            grading.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
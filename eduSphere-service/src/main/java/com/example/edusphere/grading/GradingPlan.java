@@ -0,0 +1,287 @@
+package com.example.edusphere.grading;
+
+import com.example.edusphere.entity.Exam;
+import com.example.edusphere.entity.ExamQuestion;
+import com.example.edusphere.entity.ExamResponse;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * An exam compiled for auto-grading: one grader per auto-gradable question, with the answer key
+ * already normalized (trimmed/lower-cased text answers, option text to index, parsed true/false),
+ * so grading a response is a single pass over the graders with no type switching or re-parsing.
+ *
+ * Plans are immutable and tied to the exam's {@code updatedAt}; {@link GradingPlanCache} compiles
+ * a new one whenever the exam has been saved since.
+ */
+public final class GradingPlan {
+
+    private static final Set<String> MULTIPLE_CHOICE = Set.of("multiple-choice", "multiple_choice", "multiplechoice");
+    private static final Set<String> TRUE_FALSE = Set.of("true-false", "true_false", "truefalse", "boolean");
+    private static final Set<String> TEXT = Set.of("short-answer", "short_answer", "shortanswer", "text",
+            "fill-in-the-blank", "fill_in_the_blank");
+    private static final Set<String> TRUE_VALUES = Set.of("true", "1", "yes", "t", "y");
+
+    private final String examId;
+    private final LocalDateTime version;
+    private final List<QuestionGrader> graders;
+    private final boolean manualGradingRequired;
+
+    private GradingPlan(String examId, LocalDateTime version, List<QuestionGrader> graders, boolean manualGradingRequired) {
+        this.examId = examId;
+        this.version = version;
+        this.graders = graders;
+        this.manualGradingRequired = manualGradingRequired;
+    }
+
+    public static GradingPlan compile(Exam exam) {
+        List<QuestionGrader> graders = new ArrayList<>();
+        boolean manual = false;
+        if (exam.getQuestions() != null) {
+            for (ExamQuestion question : exam.getQuestions()) {
+                QuestionGrader grader = compile(question);
+                if (grader != null) {
+                    graders.add(grader);
+                } else {
+                    manual = true;
+                }
+            }
+        }
+        return new GradingPlan(exam.getId(), exam.getUpdatedAt(), List.copyOf(graders), manual);
+    }
+
+    /** Multiple-choice questions, answered with an option (its index from older clients). */
+    public static boolean isMultipleChoice(ExamQuestion question) {
+        return question.getType() != null && MULTIPLE_CHOICE.contains(question.getType().toLowerCase().trim());
+    }
+
+    /**
+     * The option text of a multiple-choice answer sent as an option index (older clients); any other
+     * answer is returned as it is.
+     */
+    public static String optionText(ExamQuestion question, String answer) {
+        List<String> options = question.getOptions();
+        if (answer == null || options == null || !isMultipleChoice(question)) {
+            return answer;
+        }
+        try {
+            int index = Integer.parseInt(answer.trim());
+            if (index >= 0 && index < options.size() && options.get(index) != null) {
+                return options.get(index);
+            }
+        } catch (NumberFormatException e) {
+            // Already the option text
+        }
+        return answer;
+    }
+
+    /** Multiple-choice and true/false questions, whose answers come from a fixed set. */
+    public static boolean isChoiceQuestion(ExamQuestion question) {
+        return isMultipleChoice(question)
+                || question.getType() != null && TRUE_FALSE.contains(question.getType().toLowerCase().trim());
+    }
+
+    /**
+     * @return null when the question needs a human (essays, unknown types, no usable answer key)
+     */
+    private static QuestionGrader compile(ExamQuestion question) {
+        if (question.getType() == null) {
+            return null;
+        }
+        String type = question.getType().toLowerCase().trim();
+        int points = question.getPoints() != null ? question.getPoints() : 0;
+
+        if (MULTIPLE_CHOICE.contains(type)) {
+            List<String> options = question.getOptions();
+            if (options == null || options.isEmpty() || question.getCorrectAnswerIndex() == null) {
+                return null;
+            }
+            Map<String, Integer> optionIndex = new HashMap<>();
+            for (int i = 0; i < options.size(); i++) {
+                if (options.get(i) != null) {
+                    optionIndex.putIfAbsent(options.get(i).trim(), i);
+                }
+            }
+            return new MultipleChoiceGrader(question.getId(), question.getType(), points,
+                    question.getCorrectAnswerIndex(), Map.copyOf(optionIndex));
+        }
+
+        if (TRUE_FALSE.contains(type)) {
+            String correct = question.getCorrectAnswer();
+            if (correct == null || correct.trim().isEmpty()) {
+                return null;
+            }
+            return new TrueFalseGrader(question.getId(), question.getType(), points, parseBoolean(correct));
+        }
+
+        if (TEXT.contains(type)) {
+            boolean caseSensitive = Boolean.TRUE.equals(question.getCaseSensitive());
+            Set<String> accepted = new HashSet<>();
+            if (question.getAcceptableAnswers() != null) {
+                for (String answer : question.getAcceptableAnswers()) {
+                    if (answer != null && !answer.trim().isEmpty()) {
+                        accepted.add(caseSensitive ? answer.trim() : answer.trim().toLowerCase());
+                    }
+                }
+            }
+            if (accepted.isEmpty()) {
+                return null;
+            }
+            return new TextGrader(question.getId(), question.getType(), points, caseSensitive, Set.copyOf(accepted));
+        }
+
+        return null;
+    }
+
+    /**
+     * Whether this plan still describes {@code exam}, i.e. the exam has not been saved since.
+     */
+    public boolean isCurrentFor(Exam exam) {
+        return Objects.equals(examId, exam.getId()) && Objects.equals(version, exam.getUpdatedAt());
+    }
+
+    /**
+     * Scores {@code response} in place: auto-gradable questions are (re)scored, manual scores are kept,
+     * and status, totals and pass/fail are set the way a single auto-grade always has. Touches nothing
+     * but the response, so callers decide how and when it is written.
+     */
+    public void applyTo(ExamResponse response, Exam exam, LocalDateTime gradedAt) {
+        response.setMaxScore(exam.getTotalPoints());
+        Map<String, String> answers = response.getAnswers() != null ? response.getAnswers() : Map.of();
+
+        Map<String, Integer> scores = response.getQuestionScores() != null
+                ? response.getQuestionScores() : new HashMap<>();
+        for (QuestionGrader grader : graders) {
+            scores.put(grader.getQuestionId(), grader.grade(answers.get(grader.getQuestionId())));
+        }
+        response.setQuestionScores(scores);
+
+        // Essays and the like still need a human, so the response stays open for manual review
+        response.setStatus(manualGradingRequired ? "PARTIALLY_GRADED" : "GRADED");
+        response.setGraded(!manualGradingRequired);
+        response.setAutoGraded(true);
+        response.setGradedAt(gradedAt);
+        response.recalculateTotal();
+
+        if (!manualGradingRequired) {
+            response.setPassed(response.getPercentage() >= exam.getPassPercentage());
+        }
+    }
+
+    public List<QuestionGrader> getGraders() {
+        return graders;
+    }
+
+    public boolean isManualGradingRequired() {
+        return manualGradingRequired;
+    }
+
+    private static boolean parseBoolean(String value) {
+        return TRUE_VALUES.contains(value.trim().toLowerCase());
+    }
+
+    // ===================================
+    // GRADERS
+    // ===================================
+
+    /**
+     * Grades one question's answer; a missing or blank answer always scores 0.
+     */
+    public abstract static sealed class QuestionGrader permits MultipleChoiceGrader, TrueFalseGrader, TextGrader {
+
+        private final String questionId;
+        private final String type;
+        protected final int points;
+
+        QuestionGrader(String questionId, String type, int points) {
+            this.questionId = questionId;
+            this.type = type;
+            this.points = points;
+        }
+
+        public String getQuestionId() {
+            return questionId;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public int getPoints() {
+            return points;
+        }
+
+        public int grade(String answer) {
+            if (answer == null) {
+                return 0;
+            }
+            String trimmed = answer.trim();
+            return trimmed.isEmpty() ? 0 : gradeTrimmed(trimmed);
+        }
+
+        abstract int gradeTrimmed(String answer);
+    }
+
+    static final class MultipleChoiceGrader extends QuestionGrader {
+
+        private final int correctIndex;
+        private final Map<String, Integer> optionIndex;
+
+        MultipleChoiceGrader(String questionId, String type, int points, int correctIndex, Map<String, Integer> optionIndex) {
+            super(questionId, type, points);
+            this.correctIndex = correctIndex;
+            this.optionIndex = optionIndex;
+        }
+
+        @Override
+        int gradeTrimmed(String answer) {
+            int chosen;
+            // Older clients send the option index, newer ones the option text. Only try the index when
+            // it can be one: a NumberFormatException per text answer cost more than the rest of grading
+            char first = answer.charAt(0);
+            if (Character.isDigit(first) || first == '-' || first == '+') {
+                try {
+                    chosen = Integer.parseInt(answer);
+                } catch (NumberFormatException e) {
+                    chosen = optionIndex.getOrDefault(answer, -1);
+                }
+            } else {
+                chosen = optionIndex.getOrDefault(answer, -1);
+            }
+            return chosen == correctIndex ? points : 0;
+        }
+    }
+
+    static final class TrueFalseGrader extends QuestionGrader {
+
+        private final boolean correct;
+
+        TrueFalseGrader(String questionId, String type, int points, boolean correct) {
+            super(questionId, type, points);
+            this.correct = correct;
+        }
+
+        @Override
+        int gradeTrimmed(String answer) {
+            return parseBoolean(answer) == correct ? points : 0;
+        }
+    }
+
+    static final class TextGrader extends QuestionGrader {
+
+        private final boolean caseSensitive;
+        private final Set<String> accepted;
+
+        TextGrader(String questionId, String type, int points, boolean caseSensitive, Set<String> accepted) {
+            super(questionId, type, points);
+            this.caseSensitive = caseSensitive;
+            this.accepted = accepted;
+        }
+
+        @Override
+        int gradeTrimmed(String answer) {
+            return accepted.contains(caseSensitive ? answer : answer.toLowerCase()) ? points : 0;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.edusphere.grading;
+
+import com.example.common.config.CacheNames;
+import com.example.edusphere.entity.Exam;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compiled {@link GradingPlan}s by exam id. A cached plan is only reused while the exam's
+ * {@code updatedAt} still matches, so edits to questions are picked up on the next grade without
+ * any explicit eviction; the change-stream invalidator drops entries for exams edited elsewhere.
+ */
+@Component
+public class GradingPlanCache {
+
+    private final Cache cache;
+
+    public GradingPlanCache(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(CacheNames.GRADING_PLANS);
+    }
+
+    public GradingPlan planFor(Exam exam) {
+        GradingPlan plan = exam.getId() != null ? cache.get(exam.getId(), GradingPlan.class) : null;
+        if (plan == null || !plan.isCurrentFor(exam)) {
+            plan = GradingPlan.compile(exam);
+            if (exam.getId() != null) {
+                cache.put(exam.getId(), plan);
+            }
+        }
+        return plan;
+    }
+}
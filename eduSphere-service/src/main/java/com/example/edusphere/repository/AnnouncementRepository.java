@@ -6,6 +6,7 @@ import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AnnouncementRepository extends MongoRepository<Announcement, String> {
@@ -17,4 +18,7 @@ public interface AnnouncementRepository extends MongoRepository<Announcement, St
     List<Announcement> findByTargetAudienceType(String targetAudienceType);
 
     List<Announcement> findByTargetAudienceTypeAndTargetCourseIdIn(String targetAudienceType, List<String> targetCourseIds);
+
+    // Cursor over every announcement, newest first; the caller must close the stream
+    Stream<Announcement> streamAllByOrderByCreatedAtDesc();
 }
\ No newline at end of file
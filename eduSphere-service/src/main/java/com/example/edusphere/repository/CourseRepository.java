@@ -2,8 +2,10 @@ package com.example.edusphere.repository;
 
 import com.example.edusphere.entity.Course;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -14,9 +16,6 @@ import java.util.List;
 public interface CourseRepository extends MongoRepository<Course, String> {
     List<Course> findByDepartment(String department);
 
-    // Finds all courses where a student is enrolled in any academic year.
-    List<Course> findByEnrollments_StudentIds(String studentId);
-
     // Finds all courses taught by a specific lecturer
     List<Course> findByLecturerId(String lecturerId);
 
@@ -24,4 +23,26 @@ public interface CourseRepository extends MongoRepository<Course, String> {
     List<Course> findByLecturerIdAndDepartment(String lecturerId, String department);
 
     List<Course> findByIdIn(List<String> courseIds);
+
+    // Fields rendered by the course list; the legacy embedded enrollments are deliberately left out
+    String SUMMARY_FIELDS = "{ 'name': 1, 'code': 1, 'imageUrl': 1, 'department': 1, 'credits': 1, 'lecturerId': 1, "
+            + "'academicYear': 1, 'semester': 1, 'year': 1, 'selectable': 1 }";
+
+    @Query(value = "{}", fields = SUMMARY_FIELDS)
+    List<Course> findAllSummaries();
+
+    @Query(value = "{ 'lecturerId': ?0 }", fields = SUMMARY_FIELDS)
+    List<Course> findSummariesByLecturerId(String lecturerId);
+
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = SUMMARY_FIELDS)
+    List<Course> findSummariesByIdIn(Collection<String> courseIds);
+
+    // Just enough to answer "is this one of my courses" and department-scoped visibility checks
+    String ACCESS_FIELDS = "{ 'department': 1, 'lecturerId': 1 }";
+
+    @Query(value = "{ 'lecturerId': ?0 }", fields = ACCESS_FIELDS)
+    List<Course> findAccessKeysByLecturerId(String lecturerId);
+
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = ACCESS_FIELDS)
+    List<Course> findAccessKeysByIdIn(Collection<String> courseIds);
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.example.edusphere.repository;
+
+import com.example.edusphere.entity.Enrollment;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EnrollmentRepository extends MongoRepository<Enrollment, String> {
+
+    // Courses for a student: served by the {studentId, courseId} index
+    @Query(value = "{ 'studentId': ?0 }", fields = "{ 'courseId': 1, 'academicYear': 1 }")
+    List<Enrollment> findCourseKeysByStudentId(String studentId);
+
+    // Students in a course: served by the {courseId, academicYear, studentId} index
+    @Query(value = "{ 'courseId': ?0 }", fields = "{ 'studentId': 1, 'academicYear': 1 }")
+    List<Enrollment> findRosterByCourseId(String courseId);
+
+    @Query(value = "{ 'courseId': { $in: ?0 } }", fields = "{ 'courseId': 1, 'studentId': 1, 'academicYear': 1 }")
+    List<Enrollment> findRostersByCourseIdIn(Collection<String> courseIds);
+
+    boolean existsByCourseIdAndStudentId(String courseId, String studentId);
+
+    boolean existsByCourseIdAndAcademicYearAndStudentId(String courseId, int academicYear, String studentId);
+
+    long countByCourseId(String courseId);
+
+    long countByCourseIdIn(Collection<String> courseIds);
+}
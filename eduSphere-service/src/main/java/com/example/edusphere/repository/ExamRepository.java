@@ -15,6 +15,17 @@ public interface ExamRepository extends MongoRepository<Exam, String> {
 
     List<Exam> findByCourseIdOrderByCreatedAtDesc(String courseId);
 
+    // List-screen fields only; of the embedded questions just 'points' is read, enough for count and total
+    String SUMMARY_FIELDS = "{ 'courseId': 1, 'instructorId': 1, 'title': 1, 'description': 1, 'duration': 1, "
+            + "'startTime': 1, 'endTime': 1, 'publishTime': 1, 'maxAttempts': 1, 'visibleToStudents': 1, "
+            + "'passPercentage': 1, 'status': 1, 'createdAt': 1, 'updatedAt': 1, 'questions.points': 1 }";
+
+    @Query(value = "{ 'courseId': ?0 }", fields = SUMMARY_FIELDS, sort = "{ 'createdAt': -1 }")
+    List<Exam> findSummariesByCourseId(String courseId);
+
+    @Query(value = "{ 'courseId': ?0, 'visibleToStudents': true, 'status': 'PUBLISHED' }", fields = SUMMARY_FIELDS, sort = "{ 'createdAt': -1 }")
+    List<Exam> findVisibleSummariesByCourseId(String courseId);
+
     List<Exam> findByInstructorId(String instructorId);
 
     List<Exam> findByCourseIdAndStatus(String courseId, String status);
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ExamResponseRepository extends MongoRepository<ExamResponse, String> {
@@ -26,6 +27,11 @@ public interface ExamResponseRepository extends MongoRepository<ExamResponse, St
      */
     List<ExamResponse> findByExamIdOrderBySubmittedAtDesc(String examId);
 
+    /**
+     * Cursor-backed variant of findByExamIdOrderBySubmittedAtDesc; the caller must close the stream
+     */
+    Stream<ExamResponse> streamByExamIdOrderBySubmittedAtDesc(String examId);
+
     /**
      * Find all responses by a student
      */
@@ -6,6 +6,7 @@ import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface FileRepository extends MongoRepository<File, String> {
@@ -20,4 +21,16 @@ public interface FileRepository extends MongoRepository<File, String> {
     List<File> findFilesForBaseFiltering();
 
     List<File> findAllByOrderByUploadDateDesc();
+
+    // Cursor-backed variants of the two queries above; callers must close the stream
+    @Query("{$or: ["
+            + "{'accessType': 'public'},"
+            + "{'accessType': 'students'},"
+            + "{'accessType': 'lecturers'},"
+            + "{'accessType': 'course'},"
+            + "{'accessType': 'personal'}"
+            + "]}")
+    Stream<File> streamFilesForBaseFiltering();
+
+    Stream<File> streamAllByOrderByUploadDateDesc();
 }
\ No newline at end of file
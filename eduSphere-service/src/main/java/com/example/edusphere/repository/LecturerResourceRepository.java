@@ -9,4 +9,6 @@ import java.util.List;
 @Repository
 public interface LecturerResourceRepository extends MongoRepository<LecturerResource, String> {
     List<LecturerResource> findByLecturerId(String lecturerId);
+
+    long countByLecturerId(String lecturerId);
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MessageRepository extends MongoRepository<Message, String> {
@@ -17,4 +18,7 @@ public interface MessageRepository extends MongoRepository<Message, String> {
 
     // Custom query to find all messages for a specific sender and recipient
     List<Message> findBySenderIdAndRecipientIdOrderByCreatedAtDesc(String senderId, String recipientId);
+
+    // Cursor over every message, for the admin export; the caller must close the stream
+    Stream<Message> streamAllBy();
 }
\ No newline at end of file
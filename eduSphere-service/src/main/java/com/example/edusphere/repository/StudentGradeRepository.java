@@ -7,6 +7,7 @@ import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface StudentGradeRepository extends MongoRepository<StudentGrade, String> {
@@ -22,6 +23,11 @@ public interface StudentGradeRepository extends MongoRepository<StudentGrade, St
      */
     List<StudentGrade> findByCourseId(String courseId);
 
+    /**
+     * Stream all grades for a course from the database cursor (caller must close the stream)
+     */
+    Stream<StudentGrade> streamByCourseId(String courseId);
+
     /**
      * Find all grades for a student
      */
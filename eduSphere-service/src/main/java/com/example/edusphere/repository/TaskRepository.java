@@ -10,6 +10,7 @@ import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TaskRepository extends MongoRepository<Task, String> {
@@ -115,6 +116,10 @@ public interface TaskRepository extends MongoRepository<Task, String> {
     // Exists check for task in course
     boolean existsByCourseIdAndId(String courseId, String taskId);
 
+    // Just enough to decide who may open the task: its course plus student visibility
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'courseId': 1, 'visibleToStudents': 1, 'publishDate': 1 }")
+    Optional<Task> findAccessKeysById(String taskId);
+
     // Delete tasks by course (for cleanup)
     void deleteByCourseId(String courseId);
 
@@ -2,15 +2,21 @@ package com.example.edusphere.service;
 
 import com.example.edusphere.dto.request.AnnouncementRequest;
 import com.example.edusphere.dto.response.AnnouncementResponse;
+import com.example.common.pagination.CursorPage;
 import com.example.edusphere.dto.response.CourseDto; // We'll need a DTO for courses
 import com.example.edusphere.dto.response.DepartmentDto; // And for departments
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface AnnouncementService {
 
     List<AnnouncementResponse> getAnnouncementsForUser(String userId, String userRole);
 
+    Stream<AnnouncementResponse> streamAnnouncementsForUser(String userId, String userRole);
+
+    CursorPage<AnnouncementResponse> getAnnouncementsForUserPage(String userId, String userRole, String cursor, Integer limit);
+
     List<AnnouncementResponse> getMyAnnouncements(String userId);
 
     AnnouncementResponse getAnnouncementById(String announcementId);
@@ -0,0 +1,57 @@
+package com.example.edusphere.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cached authorization decisions for course-scoped resources.
+ *
+ * Decisions are keyed by (user, role, resource type, resource id) and computed from a compact
+ * per-user "my courses" set instead of loading the full course with every enrolled student id.
+ * Callers that change enrollments or lecturer assignments must evict. Task decisions are not
+ * cached: the task's visibility and publish date are read with every check, and only the course
+ * membership behind them is.
+ */
+public interface CourseAccessService {
+
+    enum ResourceType { COURSE }
+
+    /**
+     * Ids and departments of the courses a lecturer teaches or a student is enrolled in.
+     * Admins get an empty set: they are never scoped by course.
+     */
+    MyCourses getMyCourses(String userId, String userRole);
+
+    boolean canAccessCourse(String userId, String userRole, String courseId);
+
+    boolean canAccessTask(String userId, String userRole, String taskId);
+
+    /**
+     * Drop the user's course set and every decision made for them (enrollment or assignment changed).
+     */
+    void evictUser(String userId);
+
+    /**
+     * Drop decisions about one course and the course sets that contain it.
+     */
+    void evictCourse(String courseId);
+
+    void evictResource(ResourceType type, String resourceId);
+
+    void evictAll();
+
+    /**
+     * Hit rates of both caches plus audit-mode counters.
+     */
+    Map<String, Object> getStats();
+
+    @Getter
+    @AllArgsConstructor
+    class MyCourses {
+        private final Set<String> courseIds;
+        private final Set<String> departments;
+    }
+}
@@ -1,9 +1,11 @@
 package com.example.edusphere.service;
 
+import com.example.edusphere.dto.request.BulkEnrollmentRequest;
 import com.example.edusphere.dto.request.CourseRequestDto;
 import com.example.edusphere.dto.request.EnrollmentRequest;
 import com.example.edusphere.dto.request.EnrollmentRequestDto;
 import com.example.edusphere.dto.request.UnenrollmentRequest;
+import com.example.edusphere.dto.response.BulkEnrollmentResponse;
 import com.example.edusphere.dto.response.CourseDetailsResponse;
 import com.example.edusphere.dto.response.CourseResponseDto;
 import com.example.edusphere.dto.response.CourseSummaryResponse;
@@ -17,6 +19,11 @@ import java.util.Optional;
 public interface CourseService {
     List<CourseSummaryResponse> findAllCoursesForUser(UserDetails userDetails);
 
+    /**
+     * Same courses as {@link #findAllCoursesForUser(UserDetails)} without the enrollment rosters.
+     */
+    List<CourseSummaryResponse> findCourseSummariesForUser(UserDetails userDetails);
+
     // New methods for inter-service communication
     List<Course> getUserCourses(String userId, String userRole);
     boolean canUserAccessCourse(String userId, String userRole, String courseId);
@@ -28,6 +35,7 @@ public interface CourseService {
     Course updateCourse(String id, Course courseDetails);
     void deleteCourse(String id);
     Course enrollStudent(String courseId, EnrollmentRequest enrollmentRequest);
+    BulkEnrollmentResponse enrollRoster(String courseId, BulkEnrollmentRequest request);
     Course unenrollStudents(String courseId, List<String> studentIds);
     List<EnrollmentResponseDto> getStudentEnrollments(String studentId);
     EnrollmentResponseDto addStudentEnrollment(EnrollmentRequestDto enrollmentDto);
@@ -0,0 +1,89 @@
+package com.example.edusphere.service;
+
+import com.example.edusphere.dto.response.BulkEnrollmentResponse;
+import com.example.edusphere.entity.Course;
+import com.example.edusphere.entity.YearlyEnrollment;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Course membership, stored one document per (course, academic year, student) in the
+ * enrollments collection. Every write is a single atomic upsert or delete, so concurrent
+ * enrollments into the same course no longer overwrite each other.
+ */
+public interface EnrollmentService {
+
+    // ===================================
+    // WRITES
+    // ===================================
+
+    /**
+     * Enroll a student; returns false if they were already enrolled for that year.
+     */
+    boolean enroll(String courseId, String studentId, int academicYear);
+
+    /**
+     * Enroll a whole roster with batched unordered upserts.
+     */
+    BulkEnrollmentResponse enrollRoster(String courseId, int academicYear, List<String> studentIds);
+
+    /**
+     * Remove the students from the course for every academic year; returns the number of enrollments removed.
+     */
+    long unenroll(String courseId, Collection<String> studentIds);
+
+    void deleteCourseEnrollments(String courseId);
+
+    // ===================================
+    // READS
+    // ===================================
+
+    boolean isEnrolled(String courseId, String studentId);
+
+    boolean isEnrolled(String courseId, String studentId, int academicYear);
+
+    List<String> getCourseIdsForStudent(String studentId);
+
+    /**
+     * The student's courses, loaded by id after one indexed enrollment lookup.
+     */
+    List<Course> getCoursesForStudent(String studentId);
+
+    /**
+     * courseId -> academic year the student is enrolled in (earliest when enrolled in several).
+     */
+    Map<String, Integer> getEnrollmentYearsForStudent(String studentId);
+
+    List<String> getStudentIdsForCourse(String courseId);
+
+    long countEnrollments(String courseId);
+
+    long countEnrollments(Collection<String> courseIds);
+
+    /**
+     * The course roster grouped by year, in the shape the embedded course field used to have.
+     */
+    List<YearlyEnrollment> getYearlyEnrollments(String courseId);
+
+    /**
+     * {@link #getYearlyEnrollments(String)} for several courses in one query, keyed by course id.
+     */
+    Map<String, List<YearlyEnrollment>> getYearlyEnrollments(Collection<String> courseIds);
+
+    // ===================================
+    // MIGRATION
+    // ===================================
+
+    /**
+     * Copy enrollments still embedded in course documents into the collection. Idempotent.
+     */
+    Map<String, Object> backfillFromEmbedded();
+
+    /**
+     * Backfill, then remove the embedded arrays from course documents that were not modified meanwhile.
+     * Only run once no instance still reads the embedded arrays.
+     */
+    Map<String, Object> dropEmbedded();
+}
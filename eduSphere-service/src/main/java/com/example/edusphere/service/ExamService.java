@@ -5,9 +5,15 @@ import com.example.edusphere.entity.ExamQuestion;
 import com.example.edusphere.entity.ExamResponse;
 import com.example.edusphere.dto.request.*;
 import com.example.edusphere.dto.response.*;
+import com.example.edusphere.export.ExamExportJob;
+import com.example.edusphere.grading.AutoGradeJob;
+import com.example.common.cascade.CascadeDeletion;
+import com.example.common.pagination.CursorPage;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 public interface ExamService {
 
@@ -20,6 +26,12 @@ public interface ExamService {
      */
     List<Exam> getExamsByCourse(String courseId);
 
+    /**
+     * Get list-screen summaries for a course's exams without loading question bodies.
+     * When publishedOnly is set, only exams published and visible to students are returned.
+     */
+    List<ExamListResponse> getExamSummariesByCourse(String courseId, boolean publishedOnly);
+
     /**
      * Get exam by ID
      */
@@ -36,9 +48,9 @@ public interface ExamService {
     Exam updateExam(String examId, ExamUpdateRequest request, String instructorId);
 
     /**
-     * Delete an exam
+     * Delete an exam with its responses and linked grade columns
      */
-    void deleteExam(String examId, String instructorId);
+    CascadeDeletion deleteExam(String examId, String instructorId);
 
     // ===================================
     // EXAM STATUS MANAGEMENT
@@ -102,6 +114,11 @@ public interface ExamService {
      */
     ExamResponse saveProgress(ExamResponseRequest request, String studentId);
 
+    /**
+     * Queue changed answers for the student's active attempt; written in coalesced batches
+     */
+    void autosaveAnswers(String examId, ExamAutosaveRequest request, String studentId);
+
     /**
      * Submit exam
      */
@@ -116,6 +133,16 @@ public interface ExamService {
      */
     List<ExamResponse> getExamResponses(String examId);
 
+    /**
+     * Stream all responses for an exam straight from the database cursor (caller closes the stream)
+     */
+    Stream<ExamResponse> streamExamResponses(String examId);
+
+    /**
+     * Keyset page of responses for an exam, newest submission first
+     */
+    CursorPage<ExamResponse> getExamResponsesPage(String examId, String cursor, Integer limit);
+
     /**
      * Get a specific response by ID
      */
@@ -146,9 +173,15 @@ public interface ExamService {
     ExamResponse autoGradeResponse(String responseId);
 
     /**
-     * Auto-grade all responses for an exam
+     * Start auto-grading all submitted responses for an exam in the background,
+     * or return the run already in progress
+     */
+    AutoGradeJob autoGradeAllResponses(String examId, String requestedBy);
+
+    /**
+     * Progress of an auto-grade run for an exam
      */
-    List<ExamResponse> autoGradeAllResponses(String examId);
+    AutoGradeJob getAutoGradeJob(String examId, String jobId);
 
     /**
      *  Update individual question score
@@ -189,6 +222,47 @@ public interface ExamService {
      */
     List<ExamStatsResponse> getCourseExamStats(String courseId);
 
+    /**
+     * Per-question item analysis (difficulty, discrimination, answer distribution) of the graded responses
+     */
+    ExamItemAnalysisResponse getItemAnalysis(String examId);
+
+    /**
+     * Running totals of an exam for the live dashboard, read from one document
+     */
+    ExamLiveStatsResponse getLiveStats(String examId);
+
+    // ===================================
+    // EXPORT
+    // ===================================
+
+    /**
+     * Start exporting every response of an exam with per-question answers and scores (csv or xlsx).
+     * Lecturers may only export exams of the courses they teach; admins any exam.
+     */
+    ExamExportJob exportResponses(String examId, String format, String requestedBy, boolean admin);
+
+    ExamExportJob getExportJob(String jobId);
+
+    /**
+     * Content of a finished export; the caller closes it
+     */
+    InputStream openExport(ExamExportJob job);
+
+    // ===================================
+    // ADMINISTRATION
+    // ===================================
+
+    /**
+     * Exam and response counts, scores and stuck attempts across the whole system
+     */
+    ExamSystemSummaryResponse getSystemSummary();
+
+    /**
+     * Submit overdue attempts, mark abandoned ones and delete responses of deleted exams; a dry run only counts
+     */
+    ExamCleanupReport cleanupStaleAttempts(boolean dryRun);
+
     // ===================================
     // VALIDATION
     // ===================================
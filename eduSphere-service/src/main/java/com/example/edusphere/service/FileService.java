@@ -5,6 +5,7 @@ import com.example.edusphere.dto.response.FileResponse;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface FileService {
 
@@ -12,6 +13,8 @@ public interface FileService {
 
     List<FileResponse> getAccessibleFiles(String userId, String userRole, String userDepartment);
 
+    Stream<FileResponse> streamAccessibleFiles(String userId, String userRole, String userDepartment);
+
     FileResponse getFileMetadata(String fileId);
 
     void deleteFile(String fileId, String deleterId, String userRole);
@@ -4,6 +4,8 @@ import com.example.edusphere.entity.GradeColumn;
 import com.example.edusphere.entity.StudentGrade;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public interface GradeService {
     // Grade Columns
@@ -14,7 +16,9 @@ public interface GradeService {
 
     // Student Grades
     List<StudentGrade> getGradesByCourse(String courseId);
+    Stream<StudentGrade> streamGradesByCourse(String courseId);
     StudentGrade updateStudentGrade(String studentId, String columnId, Double grade);
+    int updateStudentGrades(String columnId, Map<String, Double> gradesByStudent);
     void deleteStudentGrades(String studentId, String courseId);
     Double calculateFinalGrade(String studentId, String courseId);
     String calculateLetterGrade(Double percentage);
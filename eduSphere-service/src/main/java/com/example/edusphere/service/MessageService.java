@@ -6,6 +6,7 @@ import com.example.edusphere.dto.request.MessageReplyRequest;
 import com.example.edusphere.dto.response.MessageResponse;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface MessageService {
 
@@ -20,4 +21,6 @@ public interface MessageService {
     MessageResponse replyToMessage(String messageId, MessageReplyRequest replyRequest, String replierId);
 
     List<MessageResponse> getAllMessages();
+
+    Stream<MessageResponse> streamAllMessages();
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.example.edusphere.service;
 
+import com.example.common.cascade.CascadeDeletion;
 import com.example.edusphere.dto.request.TaskCreateRequest;
 import com.example.edusphere.dto.request.TaskUpdateRequest;
 import com.example.edusphere.dto.response.TaskDetailResponse;
@@ -24,9 +25,9 @@ public interface TaskService {
     TaskResponse updateTask(String taskId, TaskUpdateRequest request, String instructorId);
 
     /**
-     * Delete a task
+     * Delete a task with its submissions and linked grade column
      */
-    void deleteTask(String taskId, String instructorId);
+    CascadeDeletion deleteTask(String taskId, String instructorId);
 
     /**
      * Get a task by ID
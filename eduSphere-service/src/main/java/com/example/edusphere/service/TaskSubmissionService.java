@@ -1,6 +1,7 @@
 package com.example.edusphere.service;
 
 import com.example.edusphere.entity.TaskSubmission;
+import com.example.common.pagination.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -48,6 +49,11 @@ public interface TaskSubmissionService {
      */
     Page<TaskSubmission> findSubmissionsByTaskId(String taskId, Pageable pageable);
 
+    /**
+     * Keyset page of submissions for a course, newest first, optionally narrowed to one task and/or status
+     */
+    CursorPage<TaskSubmission> findSubmissionsPage(String courseId, String taskId, String status, String cursor, Integer limit);
+
     /**
      * Find submissions by student ID
      */
@@ -19,4 +19,7 @@ public interface TemplateService {
     void deleteTemplate(String templateId, String deleterId);
 
     void useTemplate(String templateId, UseTemplateRequest useTemplateRequest, String creatorId, String creatorName);
+
+    // Creates the personalised announcements; runs off the request path, see TemplateAnnouncementListener
+    void sendTemplateAnnouncements(String templateId, UseTemplateRequest useTemplateRequest, String creatorId, String creatorName);
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.example.edusphere.service.impl;
 
+import com.example.common.mongo.ReadFromSecondary;
 import com.example.edusphere.dto.response.LecturerStatsDto;
 import com.example.edusphere.dto.response.StudentStatsDto;
 import com.example.edusphere.entity.StudentGrade;
@@ -8,6 +9,7 @@ import com.example.edusphere.repository.CourseRepository;
 import com.example.edusphere.repository.StudentGradeRepository;
 import com.example.edusphere.repository.LecturerResourceRepository;
 import com.example.edusphere.service.AnalyticsService;
+import com.example.edusphere.service.EnrollmentService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -24,8 +26,10 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     private final StudentGradeRepository studentGradeRepository;
     private final CourseRepository courseRepository;
     private final LecturerResourceRepository lecturerResourceRepository;
+    private final EnrollmentService enrollmentService;
 
     @Override
+    @ReadFromSecondary
     public StudentStatsDto getStudentStats(String studentId) {
         StudentStatsDto dto = new StudentStatsDto();
 
@@ -88,24 +92,22 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     }
 
     @Override
+    @ReadFromSecondary
     public LecturerStatsDto getLecturerStats(String lecturerId) {
         LecturerStatsDto dto = new LecturerStatsDto();
 
         try {
             // Count active courses for lecturer
-            List<Course> lecturerCourses = courseRepository.findByLecturerId(lecturerId);
-            int activeCourses = lecturerCourses.size();
-
-            // Count total students across all courses
-            int totalStudents = 0;
-            for (Course course : lecturerCourses) {
-                if (course.getEnrollments() != null) {
-                    totalStudents += course.getEnrollments().size();
-                }
-            }
+            List<String> lecturerCourseIds = courseRepository.findAccessKeysByLecturerId(lecturerId).stream()
+                    .map(Course::getId)
+                    .collect(Collectors.toList());
+            int activeCourses = lecturerCourseIds.size();
+
+            // Count total students across all courses, straight from the enrollments index
+            int totalStudents = (int) enrollmentService.countEnrollments(lecturerCourseIds);
 
             // Count publications/resources
-            int totalPublications = lecturerResourceRepository.findByLecturerId(lecturerId).size();
+            int totalPublications = (int) lecturerResourceRepository.countByLecturerId(lecturerId);
 
             // Set calculated values
             dto.setActiveCourses(activeCourses);
@@ -136,6 +138,7 @@ public class AnalyticsServiceImpl implements AnalyticsService {
      * Helper method to calculate GPA for a specific student
      * Can be used by other services that need GPA calculation
      */
+    @ReadFromSecondary
     public double calculateStudentGPA(String studentId) {
         try {
             List<StudentGrade> studentGrades = studentGradeRepository.findByStudentId(studentId);
@@ -171,6 +174,7 @@ public class AnalyticsServiceImpl implements AnalyticsService {
     /**
      * Helper method to get total credits earned by a student
      */
+    @ReadFromSecondary
     public int calculateTotalCredits(String studentId) {
         try {
             List<StudentGrade> studentGrades = studentGradeRepository.findByStudentId(studentId);
@@ -8,16 +8,23 @@ import com.example.edusphere.dto.response.DepartmentDto;
 import com.example.edusphere.entity.*;
 import com.example.edusphere.repository.AnnouncementRepository;
 import com.example.edusphere.repository.CourseRepository;
-import com.example.edusphere.repository.DepartmentRepository;
 import com.example.common.repository.UserRepository;
 import com.example.edusphere.service.AnnouncementService;
+import com.example.edusphere.service.DepartmentService;
+import com.example.edusphere.service.EnrollmentService;
+import com.example.common.pagination.CursorPage;
+import com.example.common.pagination.KeysetPaginator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -29,9 +36,13 @@ public class AnnouncementServiceImpl implements AnnouncementService {
     @Autowired
     private CourseRepository courseRepository;
     @Autowired
-    private DepartmentRepository departmentRepository;
+    private DepartmentService departmentService;
+    @Autowired
+    private EnrollmentService enrollmentService;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private KeysetPaginator keysetPaginator;
 
     @Override
     public List<AnnouncementResponse> getAnnouncementsForUser(String userId, String userRole) {
@@ -51,12 +62,10 @@ public class AnnouncementServiceImpl implements AnnouncementService {
             announcementsSet.addAll(announcementRepository.findByTargetAudienceType("lecturer"));
             announcementsSet.addAll(announcementRepository.findByTargetUserId(userId));
         } else if ("1300".equals(userRole)) { // Student
-            List<Course> enrolledCourses = courseRepository.findByEnrollments_StudentIds(userId);
-
             announcementsSet.addAll(announcementRepository.findByTargetAudienceType("all"));
             announcementsSet.addAll(announcementRepository.findByTargetAudienceType("student"));
 
-            List<String> enrolledCourseIds = enrolledCourses.stream().map(Course::getId).collect(Collectors.toList());
+            List<String> enrolledCourseIds = enrollmentService.getCourseIdsForStudent(userId);
             if (!enrolledCourseIds.isEmpty()) {
                 announcementsSet.addAll(announcementRepository.findByTargetAudienceTypeAndTargetCourseIdIn("course", enrolledCourseIds));
             }
@@ -70,6 +79,61 @@ public class AnnouncementServiceImpl implements AnnouncementService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Stream<AnnouncementResponse> streamAnnouncementsForUser(String userId, String userRole) {
+        // Admins see the whole collection, so read it from the cursor instead of collecting it first.
+        // Other roles get a small de-duplicated union, which is cheap to build in memory.
+        if ("1100".equals(userRole)) {
+            return announcementRepository.streamAllByOrderByCreatedAtDesc().map(this::mapToResponse);
+        }
+        return getAnnouncementsForUser(userId, userRole).stream();
+    }
+
+    @Override
+    public CursorPage<AnnouncementResponse> getAnnouncementsForUserPage(String userId, String userRole, String cursor, Integer limit) {
+        return keysetPaginator.fetch(visibleToUser(userId, userRole), Announcement.class,
+                "createdAt", Sort.Direction.DESC, cursor, limit,
+                Announcement::getCreatedAt, Announcement::getId
+        ).map(this::mapToResponse);
+    }
+
+    /**
+     * Same visibility rules as getAnnouncementsForUser, expressed as a single $or so it can be paged in the database.
+     * Returns null for admins (no restriction).
+     */
+    private Criteria visibleToUser(String userId, String userRole) {
+        if ("1100".equals(userRole)) { // Admin
+            return null;
+        }
+
+        List<Criteria> branches = new ArrayList<>();
+        branches.add(Criteria.where("targetUserId").is(userId));
+
+        if ("1200".equals(userRole)) { // Lecturer
+            List<String> lecturerCourses = courseRepository.findByLecturerId(userId).stream()
+                    .map(Course::getId)
+                    .collect(Collectors.toList());
+
+            branches.add(Criteria.where("creatorId").is(userId));
+            branches.add(Criteria.where("targetAudienceType").in("all", "lecturer"));
+            if (!lecturerCourses.isEmpty()) {
+                branches.add(Criteria.where("targetAudienceType").is("course").and("targetCourseId").in(lecturerCourses));
+            }
+        } else if ("1300".equals(userRole)) { // Student
+            List<String> enrolledCourseIds = enrollmentService.getCourseIdsForStudent(userId);
+
+            branches.add(Criteria.where("targetAudienceType").in("all", "student"));
+            if (!enrolledCourseIds.isEmpty()) {
+                branches.add(Criteria.where("targetAudienceType").is("course").and("targetCourseId").in(enrolledCourseIds));
+            }
+        } else {
+            // Unknown roles see nothing, matching getAnnouncementsForUser
+            return Criteria.where("id").is(null);
+        }
+
+        return new Criteria().orOperator(branches.toArray(new Criteria[0]));
+    }
+
     @Override
     public List<AnnouncementResponse> getMyAnnouncements(String userId) {
         List<Announcement> announcements = announcementRepository.findByCreatorIdOrderByCreatedAtDesc(userId);
@@ -187,7 +251,7 @@ public class AnnouncementServiceImpl implements AnnouncementService {
     @Override
     public List<DepartmentDto> getDepartmentsForUser(String userId, String userRole) {
         if ("1100".equals(userRole)) { // Admin
-            List<Department> departments = departmentRepository.findAll();
+            List<Department> departments = departmentService.findAll();
             return departments.stream().map(d -> new DepartmentDto(d.getName())).collect(Collectors.toList());
         } else if ("1200".equals(userRole)) { // Lecturer
             List<String> departmentNames = courseRepository.findByLecturerId(userId).stream()
@@ -8,6 +8,7 @@ import com.example.edusphere.repository.AssignmentFileRepository;
 import com.example.edusphere.repository.CourseRepository;
 import com.example.edusphere.repository.TaskRepository;
 import com.example.edusphere.service.AssignmentFileService;
+import com.example.edusphere.service.CourseAccessService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
@@ -25,13 +26,16 @@ import java.security.MessageDigest;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 public class AssignmentFileServiceImpl implements AssignmentFileService {
 
     private final AssignmentFileRepository assignmentFileRepository;
     private final CourseRepository courseRepository;
     private final TaskRepository taskRepository;
+    private final CourseAccessService courseAccessService;
 
     // File storage configuration
     @Value("${app.file-storage.upload-dir:./uploads/assignments}")
@@ -45,10 +49,12 @@ public class AssignmentFileServiceImpl implements AssignmentFileService {
 
     public AssignmentFileServiceImpl(AssignmentFileRepository assignmentFileRepository,
                                      CourseRepository courseRepository,
-                                     TaskRepository taskRepository) {
+                                     TaskRepository taskRepository,
+                                     CourseAccessService courseAccessService) {
         this.assignmentFileRepository = assignmentFileRepository;
         this.courseRepository = courseRepository;
         this.taskRepository = taskRepository;
+        this.courseAccessService = courseAccessService;
     }
 
     @Override
@@ -120,11 +126,10 @@ public class AssignmentFileServiceImpl implements AssignmentFileService {
             return convertToResponse(savedFile);
 
         } catch (IOException e) {
-            System.err.println("IO error uploading assignment file: " + e.getMessage());
+            log.warn("IO error uploading assignment file: {}", e.getMessage());
             throw new RuntimeException("Failed to store assignment file: " + e.getMessage());
         } catch (Exception e) {
-            System.err.println("Unexpected error uploading assignment file: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error uploading assignment file", e);
             throw new RuntimeException("Failed to upload assignment file: " + e.getMessage());
         }
     }
@@ -142,7 +147,7 @@ public class AssignmentFileServiceImpl implements AssignmentFileService {
             return convertToResponse(assignmentFile);
 
         } catch (Exception e) {
-            System.err.println("Error getting assignment file info: " + e.getMessage());
+            log.warn("Error getting assignment file info: {}", e.getMessage());
             throw new RuntimeException("Failed to get assignment file information: " + e.getMessage());
         }
     }
@@ -170,10 +175,10 @@ public class AssignmentFileServiceImpl implements AssignmentFileService {
             }
 
         } catch (MalformedURLException e) {
-            System.err.println("Malformed URL for assignment file: " + e.getMessage());
+            log.warn("Malformed URL for assignment file: {}", e.getMessage());
             throw new RuntimeException("Failed to load assignment file: " + e.getMessage());
         } catch (Exception e) {
-            System.err.println("Error loading assignment file resource: " + e.getMessage());
+            log.warn("Error loading assignment file resource: {}", e.getMessage());
             throw new RuntimeException("Failed to load assignment file: " + e.getMessage());
         }
     }
@@ -195,7 +200,7 @@ public class AssignmentFileServiceImpl implements AssignmentFileService {
             try {
                 Files.deleteIfExists(filePath);
             } catch (IOException e) {
-                System.err.println("⚠️ Could not delete physical assignment file: " + e.getMessage());
+                log.warn("Could not delete physical assignment file: {}", e.getMessage());
                 // Continue with database deletion
             }
 
@@ -208,7 +213,7 @@ public class AssignmentFileServiceImpl implements AssignmentFileService {
             removeFileFromAssignment(assignmentFile.getAssignmentId(), fileId);
 
         } catch (Exception e) {
-            System.err.println("Error deleting assignment file: " + e.getMessage());
+            log.warn("Error deleting assignment file: {}", e.getMessage());
             throw new RuntimeException("Failed to delete assignment file: " + e.getMessage());
         }
     }
@@ -241,7 +246,7 @@ public class AssignmentFileServiceImpl implements AssignmentFileService {
             return responses;
 
         } catch (Exception e) {
-            System.err.println("Error getting files by assignment: " + e.getMessage());
+            log.warn("Error getting files by assignment: {}", e.getMessage());
             throw new RuntimeException("Failed to get assignment files: " + e.getMessage());
         }
     }
@@ -277,7 +282,7 @@ public class AssignmentFileServiceImpl implements AssignmentFileService {
             return responses;
 
         } catch (Exception e) {
-            System.err.println("Error getting files by course: " + e.getMessage());
+            log.warn("Error getting files by course: {}", e.getMessage());
             throw new RuntimeException("Failed to get course files: " + e.getMessage());
         }
     }
@@ -309,7 +314,7 @@ public class AssignmentFileServiceImpl implements AssignmentFileService {
                     .collect(Collectors.toList());
 
         } catch (Exception e) {
-            System.err.println("Error getting files by uploader: " + e.getMessage());
+            log.warn("Error getting files by uploader: {}", e.getMessage());
             throw new RuntimeException("Failed to get files by uploader: " + e.getMessage());
         }
     }
@@ -341,7 +346,7 @@ public class AssignmentFileServiceImpl implements AssignmentFileService {
             return false;
 
         } catch (Exception e) {
-            System.err.println("Error checking file access: " + e.getMessage());
+            log.warn("Error checking file access: {}", e.getMessage());
             return false;
         }
     }
@@ -367,7 +372,7 @@ public class AssignmentFileServiceImpl implements AssignmentFileService {
             return false;
 
         } catch (Exception e) {
-            System.err.println("Error checking file deletion permission: " + e.getMessage());
+            log.warn("Error checking file deletion permission: {}", e.getMessage());
             return false;
         }
     }
@@ -398,7 +403,7 @@ public class AssignmentFileServiceImpl implements AssignmentFileService {
             return convertToResponse(updatedFile);
 
         } catch (Exception e) {
-            System.err.println("Error updating assignment file metadata: " + e.getMessage());
+            log.warn("Error updating assignment file metadata: {}", e.getMessage());
             throw new RuntimeException("Failed to update assignment file metadata: " + e.getMessage());
         }
     }
@@ -481,7 +486,7 @@ public class AssignmentFileServiceImpl implements AssignmentFileService {
             return stats;
 
         } catch (Exception e) {
-            System.err.println("Error getting assignment file stats: " + e.getMessage());
+            log.warn("Error getting assignment file stats: {}", e.getMessage());
             throw new RuntimeException("Failed to get assignment file statistics: " + e.getMessage());
         }
     }
@@ -504,7 +509,7 @@ public class AssignmentFileServiceImpl implements AssignmentFileService {
             return new CourseFileStats(courseId, files.size(), totalSize, totalDownloads, totalViews, totalAssignmentsWithFiles);
 
         } catch (Exception e) {
-            System.err.println("Error getting course file stats: " + e.getMessage());
+            log.warn("Error getting course file stats: {}", e.getMessage());
             throw new RuntimeException("Failed to get course file statistics: " + e.getMessage());
         }
     }
@@ -522,7 +527,7 @@ public class AssignmentFileServiceImpl implements AssignmentFileService {
             }
 
         } catch (Exception e) {
-            System.err.println("Error deleting all files for assignment: " + e.getMessage());
+            log.warn("Error deleting all files for assignment: {}", e.getMessage());
             throw new RuntimeException("Failed to delete all files for assignment: " + e.getMessage());
         }
     }
@@ -550,7 +555,7 @@ public class AssignmentFileServiceImpl implements AssignmentFileService {
             return cleanedCount;
 
         } catch (Exception e) {
-            System.err.println("Error cleaning up orphaned files: " + e.getMessage());
+            log.warn("Error cleaning up orphaned files: {}", e.getMessage());
             return 0;
         }
     }
@@ -611,7 +616,7 @@ public class AssignmentFileServiceImpl implements AssignmentFileService {
             }
             return sb.toString();
         } catch (Exception e) {
-            System.err.println("⚠️ Could not calculate file hash: " + e.getMessage());
+            log.warn("Could not calculate file hash: {}", e.getMessage());
             return null;
         }
     }
@@ -628,7 +633,7 @@ public class AssignmentFileServiceImpl implements AssignmentFileService {
                 taskRepository.save(task);
             }
         } catch (Exception e) {
-            System.err.println("⚠️ Could not update assignment with file info: " + e.getMessage());
+            log.warn("Could not update assignment with file info: {}", e.getMessage());
         }
     }
 
@@ -646,7 +651,7 @@ public class AssignmentFileServiceImpl implements AssignmentFileService {
                 }
             }
         } catch (Exception e) {
-            System.err.println("⚠️ Could not remove file reference from assignment: " + e.getMessage());
+            log.warn("Could not remove file reference from assignment: {}", e.getMessage());
         }
     }
 
@@ -688,13 +693,7 @@ public class AssignmentFileServiceImpl implements AssignmentFileService {
 
     private boolean isStudentEnrolledInCourse(String userId, String courseId) {
         try {
-            Optional<Course> courseOpt = courseRepository.findById(courseId);
-            if (courseOpt.isPresent()) {
-                Course course = courseOpt.get();
-                return course.getEnrollments().stream()
-                        .anyMatch(enrollment -> enrollment.getStudentIds().contains(userId));
-            }
-            return false;
+            return courseAccessService.canAccessCourse(userId, "1300", courseId);
         } catch (Exception e) {
             return false;
         }
@@ -702,8 +701,7 @@ public class AssignmentFileServiceImpl implements AssignmentFileService {
 
     private boolean isLecturerOfCourse(String userId, String courseId) {
         try {
-            Optional<Course> courseOpt = courseRepository.findById(courseId);
-            return courseOpt.isPresent() && userId.equals(courseOpt.get().getLecturerId());
+            return courseAccessService.canAccessCourse(userId, "1200", courseId);
         } catch (Exception e) {
             return false;
         }
@@ -10,7 +10,9 @@ import com.example.edusphere.repository.AssignmentRepository;
 import com.example.edusphere.repository.CourseRepository;
 import com.example.edusphere.repository.EventRepository;
 import com.example.edusphere.service.CalendarService;
-import com.example.common.service.UserService;
+import com.example.edusphere.service.EnrollmentService;
+import com.example.common.repository.projection.UserSummaryView;
+import com.example.common.service.UserResolver;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
@@ -28,7 +30,9 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 public class CalendarServiceImpl implements CalendarService {
 
@@ -41,7 +45,9 @@ public class CalendarServiceImpl implements CalendarService {
     @Autowired
     private EventRepository eventRepository;
     @Autowired
-    private UserService userService;
+    private UserResolver userResolver;
+    @Autowired
+    private EnrollmentService enrollmentService;
 
     @Override
     public List<CalendarEventDto> getCalendarEventsForUser(LocalDate requestedDate, CalendarFilterDto filters) {
@@ -63,8 +69,7 @@ public class CalendarServiceImpl implements CalendarService {
                 String learningGroupId = "Nursing_Year1_2025";
                 eventRules.addAll(eventRepository.findByLearningGroupId(learningGroupId));
 
-                List<Course> enrolledCourses = courseRepository.findByEnrollments_StudentIds(userId);
-                List<String> courseIds = enrolledCourses.stream().map(Course::getId).collect(Collectors.toList());
+                List<String> courseIds = enrollmentService.getCourseIdsForStudent(userId);
                 if (!courseIds.isEmpty()) {
                     assignments.addAll(assignmentRepository.findByCourseIn(courseIds));
                 }
@@ -92,6 +97,9 @@ public class CalendarServiceImpl implements CalendarService {
                 break;
         }
 
+        // Instructor names for every event instance come from one batched lookup
+        userResolver.prime(eventRules.stream().map(Event::getInstructorId).collect(Collectors.toList()));
+
         Stream<CalendarEventDto> recurringEvents = eventRules.stream()
                 .flatMap(rule -> generateEventsForWeek(rule, weekStartDate, weekEndDate));
 
@@ -168,14 +176,12 @@ public class CalendarServiceImpl implements CalendarService {
         String instructorName = "N/A";
         String instructorImage = null; // Default to null
         if (rule.getInstructorId() != null && !rule.getInstructorId().isEmpty()) {
-            try {
-                UserEntity instructor = userService.getUserById(rule.getInstructorId());
-                if (instructor != null) {
-                    instructorName = instructor.getName();
-                    instructorImage = instructor.getProfilePic(); // Get the profile picture URL
-                }
-            } catch (Exception e) {
-                System.err.println("Instructor not found for ID: " + rule.getInstructorId());
+            Optional<UserSummaryView> instructor = userResolver.resolve(rule.getInstructorId());
+            if (instructor.isPresent()) {
+                instructorName = instructor.get().getName();
+                instructorImage = instructor.get().getProfilePic(); // Get the profile picture URL
+            } else {
+                log.warn("Instructor not found for ID: {}", rule.getInstructorId());
             }
         }
         // --- End of new logic ---
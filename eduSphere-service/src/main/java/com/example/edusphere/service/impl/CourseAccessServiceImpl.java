@@ -0,0 +1,301 @@
+package com.example.edusphere.service.impl;
+
+import com.example.common.cache.CacheInvalidationEvent;
+import com.example.common.config.CacheNames;
+import com.example.edusphere.entity.Course;
+import com.example.edusphere.entity.Enrollment;
+import com.example.edusphere.entity.Task;
+import com.example.edusphere.repository.CourseRepository;
+import com.example.edusphere.repository.EnrollmentRepository;
+import com.example.edusphere.repository.TaskRepository;
+import com.example.edusphere.service.CourseAccessService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class CourseAccessServiceImpl implements CourseAccessService {
+
+    private final CourseRepository courseRepository;
+    private final TaskRepository taskRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final Cache myCoursesCache;
+    private final Cache decisionCache;
+
+    // Audit mode re-runs the original full-document check for every decision and reports disagreements
+    private final boolean auditMode;
+    private final AtomicLong auditChecks = new AtomicLong();
+    private final AtomicLong auditMismatches = new AtomicLong();
+
+    public CourseAccessServiceImpl(CourseRepository courseRepository,
+                                   TaskRepository taskRepository,
+                                   EnrollmentRepository enrollmentRepository,
+                                   CacheManager cacheManager,
+                                   Environment environment) {
+        this.courseRepository = courseRepository;
+        this.taskRepository = taskRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.myCoursesCache = cacheManager.getCache(CacheNames.MY_COURSES);
+        this.decisionCache = cacheManager.getCache(CacheNames.ACCESS_DECISIONS);
+        this.auditMode = environment.getProperty("app.authz.audit", Boolean.class, false);
+    }
+
+    // ===================================
+    // MY COURSES
+    // ===================================
+
+    @Override
+    public MyCourses getMyCourses(String userId, String userRole) {
+        if (userId == null) {
+            return new MyCourses(Set.of(), Set.of());
+        }
+        // Role is part of the key, so a role change never reuses the old set
+        return myCoursesCache.get(userKey(userId, userRole), () -> loadMyCourses(userId, userRole));
+    }
+
+    private MyCourses loadMyCourses(String userId, String userRole) {
+        List<Course> courses;
+        if ("1200".equals(userRole)) {
+            courses = courseRepository.findAccessKeysByLecturerId(userId);
+        } else if ("1300".equals(userRole)) {
+            Set<String> enrolledCourseIds = enrollmentRepository.findCourseKeysByStudentId(userId).stream()
+                    .map(Enrollment::getCourseId)
+                    .collect(Collectors.toSet());
+            courses = enrolledCourseIds.isEmpty() ? List.of() : courseRepository.findAccessKeysByIdIn(enrolledCourseIds);
+        } else {
+            courses = List.of();
+        }
+
+        Set<String> courseIds = courses.stream().map(Course::getId).collect(Collectors.toUnmodifiableSet());
+        Set<String> departments = courses.stream()
+                .map(Course::getDepartment)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet());
+        return new MyCourses(courseIds, departments);
+    }
+
+    // ===================================
+    // DECISIONS
+    // ===================================
+
+    @Override
+    public boolean canAccessCourse(String userId, String userRole, String courseId) {
+        if (userId == null || courseId == null) {
+            return false;
+        }
+        return decide(userId, userRole, ResourceType.COURSE, courseId,
+                () -> {
+                    if ("1100".equals(userRole)) {
+                        return courseRepository.existsById(courseId);
+                    }
+                    return getMyCourses(userId, userRole).getCourseIds().contains(courseId);
+                },
+                () -> slowCourseAccess(userId, userRole, courseId));
+    }
+
+    @Override
+    public boolean canAccessTask(String userId, String userRole, String taskId) {
+        if (userId == null || taskId == null) {
+            return false;
+        }
+        // Not cached as a whole: visibility is toggled by lecturers and publishing depends on the
+        // clock, so only the course membership below comes from the caches
+        boolean decision = taskAccess(userId, userRole, taskId);
+
+        if (auditMode) {
+            auditChecks.incrementAndGet();
+            boolean expected = slowTaskAccess(userId, userRole, taskId);
+            if (expected != decision) {
+                auditMismatches.incrementAndGet();
+                log.warn("Access decision mismatch for {}|TASK|{}: fast={}, full check={}",
+                        userKey(userId, userRole), taskId, decision, expected);
+                return expected;
+            }
+        }
+        return decision;
+    }
+
+    private boolean taskAccess(String userId, String userRole, String taskId) {
+        Optional<Task> taskOpt = taskRepository.findAccessKeysById(taskId);
+        if (taskOpt.isEmpty()) return false;
+        Task task = taskOpt.get();
+
+        if ("1100".equals(userRole)) return true;
+
+        boolean inMyCourses = task.getCourseId() != null && canAccessCourse(userId, userRole, task.getCourseId());
+        if ("1200".equals(userRole)) return inMyCourses;
+        if ("1300".equals(userRole)) {
+            return inMyCourses && Boolean.TRUE.equals(task.getVisibleToStudents()) && task.isPublished();
+        }
+        return false;
+    }
+
+    private boolean decide(String userId, String userRole, ResourceType type, String resourceId,
+                           BooleanSupplier fastPath, BooleanSupplier slowPath) {
+        String key = userKey(userId, userRole) + "|" + type + "|" + resourceId;
+
+        Boolean decision = decisionCache.get(key, Boolean.class);
+        if (decision == null) {
+            decision = fastPath.getAsBoolean();
+            decisionCache.put(key, decision);
+        }
+
+        if (auditMode) {
+            auditChecks.incrementAndGet();
+            boolean expected = slowPath.getAsBoolean();
+            if (expected != decision) {
+                auditMismatches.incrementAndGet();
+                log.warn("Access decision mismatch for {}: cached={}, full check={}", key, decision, expected);
+                decisionCache.put(key, expected);
+                return expected;
+            }
+        }
+        return decision;
+    }
+
+    // The original checks, reading the whole course document; only used to audit the cached path
+
+    private boolean slowCourseAccess(String userId, String userRole, String courseId) {
+        Optional<Course> courseOpt = courseRepository.findById(courseId);
+        if (courseOpt.isEmpty()) return false;
+        Course course = courseOpt.get();
+
+        if ("1100".equals(userRole)) return true;
+        if ("1200".equals(userRole)) return userId.equals(course.getLecturerId());
+        if ("1300".equals(userRole)) return isEnrolled(course, userId);
+        return false;
+    }
+
+    private boolean slowTaskAccess(String userId, String userRole, String taskId) {
+        Optional<Task> taskOpt = taskRepository.findById(taskId);
+        if (taskOpt.isEmpty()) return false;
+        Task task = taskOpt.get();
+
+        if ("1100".equals(userRole)) return true;
+
+        Optional<Course> courseOpt = courseRepository.findById(task.getCourseId());
+        if (courseOpt.isEmpty()) return false;
+        Course course = courseOpt.get();
+
+        if ("1200".equals(userRole)) return userId.equals(course.getLecturerId());
+        if ("1300".equals(userRole)) {
+            return isEnrolled(course, userId) && Boolean.TRUE.equals(task.getVisibleToStudents()) && task.isPublished();
+        }
+        return false;
+    }
+
+    private boolean isEnrolled(Course course, String userId) {
+        return enrollmentRepository.existsByCourseIdAndStudentId(course.getId(), userId);
+    }
+
+    // ===================================
+    // INVALIDATION
+    // ===================================
+
+    @Override
+    public void evictUser(String userId) {
+        if (userId == null) return;
+        String prefix = userId + "|";
+        removeKeys(myCoursesCache, key -> key.startsWith(prefix));
+        removeKeys(decisionCache, key -> key.startsWith(prefix));
+    }
+
+    @Override
+    public void evictCourse(String courseId) {
+        if (courseId == null) return;
+        evictResource(ResourceType.COURSE, courseId);
+        removeEntries(myCoursesCache, value -> value instanceof MyCourses my && my.getCourseIds().contains(courseId));
+    }
+
+    @Override
+    public void evictResource(ResourceType type, String resourceId) {
+        String suffix = "|" + type + "|" + resourceId;
+        removeKeys(decisionCache, key -> key.endsWith(suffix));
+    }
+
+    @Override
+    public void evictAll() {
+        myCoursesCache.clear();
+        decisionCache.clear();
+    }
+
+    /**
+     * Writes made by other instances or services arrive through the change stream. A course change
+     * may have added a student or lecturer this instance has never seen, so everything is dropped;
+     * a user change (role, deactivation) or an enrollment change only affects that user.
+     */
+    @EventListener
+    public void onCacheInvalidation(CacheInvalidationEvent event) {
+        if ("courses".equals(event.getCollection())) {
+            evictAll();
+        } else if ("users".equals(event.getCollection())) {
+            evictUser(event.getDocumentId());
+        } else if ("enrollments".equals(event.getCollection())) {
+            evictUser(Enrollment.studentIdFromId(event.getDocumentId()));
+        }
+    }
+
+    private void removeKeys(Cache cache, Predicate<String> keyFilter) {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = nativeCache(cache);
+        if (nativeCache == null) {
+            cache.clear();
+            return;
+        }
+        nativeCache.asMap().keySet().removeIf(key -> keyFilter.test(String.valueOf(key)));
+    }
+
+    private void removeEntries(Cache cache, Predicate<Object> valueFilter) {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = nativeCache(cache);
+        if (nativeCache == null) {
+            cache.clear();
+            return;
+        }
+        nativeCache.asMap().values().removeIf(valueFilter);
+    }
+
+    private static com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache(Cache cache) {
+        return cache instanceof CaffeineCache caffeineCache ? caffeineCache.getNativeCache() : null;
+    }
+
+    private static String userKey(String userId, String userRole) {
+        return userId + "|" + userRole;
+    }
+
+    // ===================================
+    // STATS
+    // ===================================
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("myCourses", cacheStats(myCoursesCache));
+        stats.put("decisions", cacheStats(decisionCache));
+        stats.put("auditMode", auditMode);
+        stats.put("auditChecks", auditChecks.get());
+        stats.put("auditMismatches", auditMismatches.get());
+        return stats;
+    }
+
+    private static Map<String, Object> cacheStats(Cache cache) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = nativeCache(cache);
+        if (nativeCache != null) {
+            stats.put("size", nativeCache.estimatedSize());
+            stats.put("hits", nativeCache.stats().hitCount());
+            stats.put("misses", nativeCache.stats().missCount());
+            stats.put("hitRate", nativeCache.stats().hitRate());
+        }
+        return stats;
+    }
+}
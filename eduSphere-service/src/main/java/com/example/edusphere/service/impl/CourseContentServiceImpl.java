@@ -9,6 +9,7 @@ import com.example.edusphere.repository.CourseRepository;
 import com.example.edusphere.repository.FileCategoryRepository;
 import com.example.edusphere.service.CourseContentService;
 import com.example.edusphere.service.CourseFileStorageService;
+import com.example.edusphere.service.EnrollmentService;
 import com.example.common.exceptions.FileStorageException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -19,7 +20,9 @@ import org.springframework.web.multipart.MultipartFile;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 public class CourseContentServiceImpl implements CourseContentService {
 
@@ -27,6 +30,7 @@ public class CourseContentServiceImpl implements CourseContentService {
     private final CourseFileRepository courseFileRepository;
     private final CourseRepository courseRepository;
     private final CourseFileStorageService courseFileStorageService;
+    private final EnrollmentService enrollmentService;
 
     // File validation constants
     private static final Set<String> ALLOWED_MIME_TYPES = Set.of(
@@ -45,11 +49,13 @@ public class CourseContentServiceImpl implements CourseContentService {
     public CourseContentServiceImpl(FileCategoryRepository fileCategoryRepository,
                                     CourseFileRepository courseFileRepository,
                                     CourseRepository courseRepository,
-                                    CourseFileStorageService courseFileStorageService) {
+                                    CourseFileStorageService courseFileStorageService,
+                                    EnrollmentService enrollmentService) {
         this.fileCategoryRepository = fileCategoryRepository;
         this.courseFileRepository = courseFileRepository;
         this.courseRepository = courseRepository;
         this.courseFileStorageService = courseFileStorageService;
+        this.enrollmentService = enrollmentService;
     }
 
     // --- Category Implementations ---
@@ -145,7 +151,7 @@ public class CourseContentServiceImpl implements CourseContentService {
                     courseFileStorageService.deleteFile(file.getStoredFileName());
                 } catch (Exception e) {
                     // Log the error but continue with deletion
-                    System.err.println("Failed to delete physical file: " + file.getStoredFileName() + ". Error: " + e.getMessage());
+                    log.warn("Failed to delete physical file: {}. Error: {}", file.getStoredFileName(), e.getMessage());
                 }
             }
 
@@ -205,7 +211,7 @@ public class CourseContentServiceImpl implements CourseContentService {
             courseFileStorageService.deleteFile(file.getStoredFileName());
         } catch (Exception e) {
             // Log the error but continue with metadata deletion
-            System.err.println("Failed to delete physical file: " + file.getStoredFileName() + ". Error: " + e.getMessage());
+            log.warn("Failed to delete physical file: {}. Error: {}", file.getStoredFileName(), e.getMessage());
         }
 
         // 3. Delete the file metadata record from the database
@@ -240,9 +246,7 @@ public class CourseContentServiceImpl implements CourseContentService {
         if ("1200".equals(userRole)) return course.getLecturerId().equals(userId); // Lecturer
         if ("1300".equals(userRole)) {
             // Check if student is enrolled for the academic year
-            return course.getEnrollments().stream()
-                    .anyMatch(enrollment -> enrollment.getAcademicYear() == category.getAcademicYear()
-                            && enrollment.getStudentIds().contains(userId));
+            return enrollmentService.isEnrolled(course.getId(), userId, category.getAcademicYear());
         }
         return false;
     }
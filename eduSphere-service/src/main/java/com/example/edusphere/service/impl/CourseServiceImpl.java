@@ -1,17 +1,31 @@
 package com.example.edusphere.service.impl;
 
+import com.example.common.config.CacheNames;
+import com.example.edusphere.dto.request.BulkEnrollmentRequest;
 import com.example.edusphere.dto.request.CourseRequestDto;
 import com.example.edusphere.dto.request.EnrollmentRequest;
 import com.example.edusphere.dto.request.EnrollmentRequestDto;
 import com.example.edusphere.dto.response.*;
 import com.example.edusphere.entity.Assignment;
 import com.example.edusphere.entity.Course;
-import com.example.common.entity.UserEntity;
 import com.example.edusphere.entity.YearlyEnrollment;
+import com.example.common.entity.UserEntity;
 import com.example.edusphere.repository.AssignmentRepository;
 import com.example.edusphere.repository.CourseRepository;
 import com.example.common.repository.UserRepository;
+import com.example.common.repository.projection.UserSummaryView;
+import com.example.common.service.UserService;
+import com.example.edusphere.service.CourseAccessService;
 import com.example.edusphere.service.CourseService;
+import com.example.edusphere.service.EnrollmentService;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -27,15 +41,34 @@ public class CourseServiceImpl implements CourseService {
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
     private final AssignmentRepository assignmentRepository;
-
-    public CourseServiceImpl(CourseRepository courseRepository, UserRepository userRepository, AssignmentRepository assignmentRepository) {
+    private final UserService userService;
+    private final CourseAccessService courseAccessService;
+    private final EnrollmentService enrollmentService;
+    private final MongoTemplate mongoTemplate;
+
+    public CourseServiceImpl(CourseRepository courseRepository, UserRepository userRepository, AssignmentRepository assignmentRepository,
+                             UserService userService, CourseAccessService courseAccessService, EnrollmentService enrollmentService,
+                             MongoTemplate mongoTemplate) {
         this.courseRepository = courseRepository;
         this.userRepository = userRepository;
         this.assignmentRepository = assignmentRepository;
+        this.userService = userService;
+        this.courseAccessService = courseAccessService;
+        this.enrollmentService = enrollmentService;
+        this.mongoTemplate = mongoTemplate;
     }
 
     @Override
     public List<CourseSummaryResponse> findAllCoursesForUser(UserDetails userDetails) {
+        List<CourseSummaryResponse> summaries = findCourseSummariesForUser(userDetails);
+        Map<String, List<YearlyEnrollment>> rosters = enrollmentService.getYearlyEnrollments(
+                summaries.stream().map(CourseSummaryResponse::getId).collect(Collectors.toList()));
+        summaries.forEach(dto -> dto.setEnrollments(rosters.getOrDefault(dto.getId(), new ArrayList<>())));
+        return summaries;
+    }
+
+    @Override
+    public List<CourseSummaryResponse> findCourseSummariesForUser(UserDetails userDetails) {
         UserEntity currentUser = userRepository.findByUsername(userDetails.getUsername())
                 .orElseThrow(() -> new RuntimeException("User not found: " + userDetails.getUsername()));
 
@@ -43,11 +76,12 @@ public class CourseServiceImpl implements CourseService {
         List<Course> courses;
 
         if ("1100".equals(role)) { // Admin
-            courses = courseRepository.findAll();
+            courses = courseRepository.findAllSummaries();
         } else if ("1200".equals(role)) { // Lecturer
-            courses = courseRepository.findByLecturerId(currentUser.getId());
+            courses = courseRepository.findSummariesByLecturerId(currentUser.getId());
         } else if ("1300".equals(role)) { // Student
-            courses = courseRepository.findByEnrollments_StudentIds(currentUser.getId());
+            List<String> courseIds = enrollmentService.getCourseIdsForStudent(currentUser.getId());
+            courses = courseIds.isEmpty() ? Collections.emptyList() : courseRepository.findSummariesByIdIn(courseIds);
         } else {
             courses = Collections.emptyList();
         }
@@ -63,33 +97,18 @@ public class CourseServiceImpl implements CourseService {
         } else if ("1200".equals(userRole) || "LECTURER".equals(userRole)) {
             return courseRepository.findByLecturerId(userId);
         } else if ("1300".equals(userRole) || "STUDENT".equals(userRole)) {
-            return courseRepository.findByEnrollments_StudentIds(userId);
+            return enrollmentService.getCoursesForStudent(userId);
         }
         return new ArrayList<>();
     }
 
     @Override
     public boolean canUserAccessCourse(String userId, String userRole, String courseId) {
-        Optional<Course> courseOpt = courseRepository.findById(courseId);
-        if (courseOpt.isEmpty()) {
-            return false;
-        }
-
-        Course course = courseOpt.get();
-        if ("1100".equals(userRole)) {
-            return true;
-        }
-        if ("1200".equals(userRole)) {
-            return userId.equals(course.getLecturerId());
-        }
-        if ("1300".equals(userRole)) {
-            return course.getEnrollments().stream()
-                    .anyMatch(enrollment -> enrollment.getStudentIds().contains(userId));
-        }
-        return false;
+        return courseAccessService.canAccessCourse(userId, userRole, courseId);
     }
 
     @Override
+    @Cacheable(value = CacheNames.COURSE_NAMES, key = "#courseId")
     public String getCourseName(String courseId) {
         return courseRepository.findById(courseId)
                 .map(Course::getName)
@@ -97,6 +116,7 @@ public class CourseServiceImpl implements CourseService {
     }
 
     @Override
+    @Cacheable(value = CacheNames.COURSES, key = "#id", unless = "#result == null")
     public Optional<Course> findById(String id) {
         return courseRepository.findById(id);
     }
@@ -109,8 +129,10 @@ public class CourseServiceImpl implements CourseService {
                 .distinct()
                 .collect(Collectors.toList());
 
-        // Fetch all required lecturers in a single query
-        List<UserEntity> lecturers = userRepository.findAllById(lecturerIds);
+        // Fetch all required lecturer names in a single projected query
+        Map<String, String> lecturerNames = userRepository.findSummariesByIdIn(lecturerIds).stream()
+                .filter(l -> l.getName() != null)
+                .collect(Collectors.toMap(UserSummaryView::getId, UserSummaryView::getName, (a, b) -> a));
 
         // Map courses to DTOs
         return courses.stream().map(course -> {
@@ -121,14 +143,11 @@ public class CourseServiceImpl implements CourseService {
             dto.setImageUrl(course.getImageUrl());
             dto.setDepartment(course.getDepartment());
             dto.setCredits(course.getCredits());
-            dto.setEnrollments(course.getEnrollments());
-
-            // Find the lecturer's name from our pre-fetched list
-            lecturers.stream()
-                    .filter(l -> l.getId().equals(course.getLecturerId()))
-                    .findFirst()
-                    .ifPresent(l -> dto.setLecturerName(l.getName()));
-
+            dto.setAcademicYear(course.getAcademicYear());
+            dto.setSemester(course.getSemester());
+            dto.setYear(course.getYear());
+            dto.setSelectable(course.getSelectable());
+            dto.setLecturerName(lecturerNames.get(course.getLecturerId()));
             return dto;
         }).collect(Collectors.toList());
     }
@@ -140,98 +159,114 @@ public class CourseServiceImpl implements CourseService {
 
     @Override
     public Course createCourse(Course course) {
-        if (course.getEnrollments() == null) {
-            course.setEnrollments(new ArrayList<>());
-        }
-        return courseRepository.save(course);
+        // Enrollments live in their own collection; never seed the legacy embedded field from a request body
+        course.setEnrollments(null);
+        Course saved = courseRepository.save(course);
+        courseAccessService.evictUser(saved.getLecturerId());
+        return saved;
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(value = CacheNames.COURSES, key = "#id"),
+            @CacheEvict(value = CacheNames.COURSE_NAMES, key = "#id")
+    })
     public Course updateCourse(String id, Course courseDetails) {
-        Course existingCourse = courseRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Course not found with id: " + id));
-
         // Update all metadata fields, but NOT the enrollments list
-        if (courseDetails.getName() != null) existingCourse.setName(courseDetails.getName());
-        if (courseDetails.getCode() != null) existingCourse.setCode(courseDetails.getCode());
-        if (courseDetails.getDescription() != null) existingCourse.setDescription(courseDetails.getDescription());
-        if (courseDetails.getImageUrl() != null) existingCourse.setImageUrl(courseDetails.getImageUrl());
-        if (courseDetails.getAcademicYear() != null) existingCourse.setAcademicYear(courseDetails.getAcademicYear());
-        if (courseDetails.getSemester() != null) existingCourse.setSemester(courseDetails.getSemester());
-        if (courseDetails.getYear() != null) existingCourse.setYear(courseDetails.getYear());
-        if (courseDetails.getSelectable() != null) existingCourse.setSelectable(courseDetails.getSelectable());
-        if (courseDetails.getLecturerId() != null) existingCourse.setLecturerId(courseDetails.getLecturerId());
-        if (courseDetails.getDepartment() != null) existingCourse.setDepartment(courseDetails.getDepartment());
-        if (courseDetails.getLanguage() != null) existingCourse.setLanguage(courseDetails.getLanguage());
-        if (courseDetails.getProgress() != null) existingCourse.setProgress(courseDetails.getProgress());
-        if (courseDetails.getPrerequisites() != null) existingCourse.setPrerequisites(courseDetails.getPrerequisites());
-        if (courseDetails.getFinalExam() != null) existingCourse.setFinalExam(courseDetails.getFinalExam());
-        existingCourse.setCredits(courseDetails.getCredits());
-
-        return courseRepository.save(existingCourse);
+        Update update = new Update();
+        if (courseDetails.getName() != null) update.set("name", courseDetails.getName());
+        if (courseDetails.getCode() != null) update.set("code", courseDetails.getCode());
+        if (courseDetails.getDescription() != null) update.set("description", courseDetails.getDescription());
+        if (courseDetails.getImageUrl() != null) update.set("imageUrl", courseDetails.getImageUrl());
+        if (courseDetails.getAcademicYear() != null) update.set("academicYear", courseDetails.getAcademicYear());
+        if (courseDetails.getSemester() != null) update.set("semester", courseDetails.getSemester());
+        if (courseDetails.getYear() != null) update.set("year", courseDetails.getYear());
+        if (courseDetails.getSelectable() != null) update.set("selectable", courseDetails.getSelectable());
+        if (courseDetails.getLecturerId() != null) update.set("lecturerId", courseDetails.getLecturerId());
+        if (courseDetails.getDepartment() != null) update.set("department", courseDetails.getDepartment());
+        if (courseDetails.getLanguage() != null) update.set("language", courseDetails.getLanguage());
+        if (courseDetails.getProgress() != null) update.set("progress", courseDetails.getProgress());
+        if (courseDetails.getPrerequisites() != null) update.set("prerequisites", courseDetails.getPrerequisites());
+        if (courseDetails.getFinalExam() != null) update.set("finalExam", courseDetails.getFinalExam());
+        update.set("credits", courseDetails.getCredits());
+
+        Course saved = updateFields(Query.query(Criteria.where("_id").is(id)), update);
+        if (saved == null) {
+            throw new RuntimeException("Course not found with id: " + id);
+        }
+        // Lecturer or department may have changed: drop every course set holding this course, and the new lecturer's
+        courseAccessService.evictCourse(id);
+        courseAccessService.evictUser(saved.getLecturerId());
+        return saved;
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(value = CacheNames.COURSES, key = "#id"),
+            @CacheEvict(value = CacheNames.COURSE_NAMES, key = "#id")
+    })
     public void deleteCourse(String id) {
         if (!courseRepository.existsById(id)) {
             throw new RuntimeException("Course not found with id: " + id);
         }
         courseRepository.deleteById(id);
+        enrollmentService.deleteCourseEnrollments(id);
+        courseAccessService.evictCourse(id);
     }
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = CacheNames.COURSES, key = "#courseId"),
+            @CacheEvict(value = CacheNames.COURSE_NAMES, key = "#courseId")
+    })
     public Course enrollStudent(String courseId, EnrollmentRequest enrollmentRequest) {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new RuntimeException("Course not found with id: " + courseId));
 
-        int academicYear = enrollmentRequest.getAcademicYear();
         String studentId = enrollmentRequest.getStudentId();
 
-        // Safety check: Initialize enrollments list if it's null (for older data)
-        if (course.getEnrollments() == null) {
-            course.setEnrollments(new ArrayList<>());
-        }
+        // One atomic upsert; concurrent enrollments into the same course no longer overwrite each other
+        enrollmentService.enroll(courseId, studentId, enrollmentRequest.getAcademicYear());
+        courseAccessService.evictUser(studentId);
 
-        // Find if an enrollment object for this year already exists
-        Optional<YearlyEnrollment> existingEnrollmentOpt = course.getEnrollments().stream()
-                .filter(e -> e.getAcademicYear() == academicYear)
-                .findFirst();
+        course.setEnrollments(enrollmentService.getYearlyEnrollments(courseId));
+        return course;
+    }
 
-        YearlyEnrollment yearlyEnrollment;
-        if (existingEnrollmentOpt.isPresent()) {
-            // If it exists, use it
-            yearlyEnrollment = existingEnrollmentOpt.get();
-        } else {
-            // If not, create a new one and add it to the course's list
-            yearlyEnrollment = new YearlyEnrollment(academicYear);
-            course.getEnrollments().add(yearlyEnrollment);
+    @Override
+    @Caching(evict = {
+            @CacheEvict(value = CacheNames.COURSES, key = "#courseId"),
+            @CacheEvict(value = CacheNames.COURSE_NAMES, key = "#courseId")
+    })
+    public BulkEnrollmentResponse enrollRoster(String courseId, BulkEnrollmentRequest request) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found with id: " + courseId);
         }
 
-        // Add the student to the list for the correct year, avoiding duplicates
-        if (!yearlyEnrollment.getStudentIds().contains(studentId)) {
-            yearlyEnrollment.getStudentIds().add(studentId);
+        BulkEnrollmentResponse response =
+                enrollmentService.enrollRoster(courseId, request.getAcademicYear(), request.getStudentIds());
+        if (request.getStudentIds() != null) {
+            request.getStudentIds().forEach(courseAccessService::evictUser);
         }
-
-        return courseRepository.save(course);
+        return response;
     }
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = CacheNames.COURSES, key = "#courseId"),
+            @CacheEvict(value = CacheNames.COURSE_NAMES, key = "#courseId")
+    })
     public Course unenrollStudents(String courseId, List<String> studentIdsToUnenroll) {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new RuntimeException("Course not found with id: " + courseId));
 
-        if (course.getEnrollments() != null) {
-            // Iterate over each yearly enrollment list
-            course.getEnrollments().forEach(yearlyEnrollment -> {
-                // Remove all matching student IDs from the list for that year
-                yearlyEnrollment.getStudentIds().removeAll(studentIdsToUnenroll);
-            });
-        }
+        enrollmentService.unenroll(courseId, studentIdsToUnenroll);
+        studentIdsToUnenroll.forEach(courseAccessService::evictUser);
 
-        // Save the updated course with the students removed
-        return courseRepository.save(course);
+        course.setEnrollments(enrollmentService.getYearlyEnrollments(courseId));
+        return course;
     }
 
     @Override
@@ -242,6 +277,7 @@ public class CourseServiceImpl implements CourseService {
 
         // Convert the course entity to our base DTO
         CourseDetailsResponse responseDTO = CourseDetailsResponse.fromEntity(course);
+        responseDTO.setEnrollments(enrollmentService.getYearlyEnrollments(id));
 
         // Fetch the lecturer's name (if lecturerId exists)
         if (course.getLecturerId() != null && !course.getLecturerId().trim().isEmpty()) {
@@ -278,23 +314,22 @@ public class CourseServiceImpl implements CourseService {
      */
     @Override
     public List<EnrollmentResponseDto> getStudentEnrollments(String studentId) {
-        List<Course> enrolledCourses = courseRepository.findByEnrollments_StudentIds(studentId);
+        Map<String, Integer> enrollmentYears = enrollmentService.getEnrollmentYearsForStudent(studentId);
+        if (enrollmentYears.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Course> enrolledCourses = courseRepository.findByIdIn(new ArrayList<>(enrollmentYears.keySet()));
 
         return enrolledCourses.stream()
                 .map(course -> {
                     // Find the enrollment year for this student
-                    Optional<YearlyEnrollment> studentEnrollment = course.getEnrollments().stream()
-                            .filter(ye -> ye.getStudentIds().contains(studentId))
-                            .findFirst();
-
-                    // Get lecturer name - fixed version
-                    String lecturerName = course.getLecturerId() != null ?
-                            userRepository.findById(course.getLecturerId())
-                                    .map(UserEntity::getName)
-                                    .orElse("Not Assigned") :
-                            "Not Assigned";
-
-                    return studentEnrollment.map(ye -> {
+                    Optional<Integer> studentEnrollment = Optional.ofNullable(enrollmentYears.get(course.getId()));
+
+                    // Lecturer names are served from the display-name cache, one lookup per lecturer at most
+                    String lecturerName = Optional.ofNullable(userService.getDisplayName(course.getLecturerId()))
+                            .orElse("Not Assigned");
+
+                    return studentEnrollment.map(academicYear -> {
                         EnrollmentResponseDto dto = new EnrollmentResponseDto();
                         dto.setId(course.getId());
                         dto.setStudentId(studentId);
@@ -303,7 +338,7 @@ public class CourseServiceImpl implements CourseService {
                         dto.setCourseName(course.getName());
                         dto.setCredits(course.getCredits());
                         dto.setSemester(course.getSemester());
-                        dto.setAcademicYear(ye.getAcademicYear());
+                        dto.setAcademicYear(academicYear);
                         dto.setLecturer(lecturerName);
                         dto.setStatus("enrolled");
                         return dto;
@@ -314,31 +349,24 @@ public class CourseServiceImpl implements CourseService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(value = CacheNames.COURSES, key = "#enrollmentDto.courseId"),
+            @CacheEvict(value = CacheNames.COURSE_NAMES, key = "#enrollmentDto.courseId")
+    })
     public EnrollmentResponseDto addStudentEnrollment(EnrollmentRequestDto enrollmentDto) {
         Course course = courseRepository.findById(enrollmentDto.getCourseId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
 
         // Check if student is already enrolled
-        boolean isEnrolled = course.getEnrollments().stream()
-                .anyMatch(ye -> ye.getStudentIds().contains(enrollmentDto.getStudentId()));
-
-        if (isEnrolled) {
+        if (enrollmentService.isEnrolled(course.getId(), enrollmentDto.getStudentId())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Student is already enrolled in this course");
         }
 
-        // Add student to the first enrollment year, or create a new one
-        YearlyEnrollment currentYearEnrollment = course.getEnrollments().stream()
-                .filter(ye -> ye.getAcademicYear() == 2025) // Assuming current year for simplicity
-                .findFirst()
-                .orElseGet(() -> {
-                    YearlyEnrollment newEnrollment = new YearlyEnrollment(2025);
-                    course.getEnrollments().add(newEnrollment);
-                    return newEnrollment;
-                });
-
-        currentYearEnrollment.getStudentIds().add(enrollmentDto.getStudentId());
+        // Assuming current year for simplicity; the upsert makes a concurrent duplicate request a no-op
+        enrollmentService.enroll(course.getId(), enrollmentDto.getStudentId(), 2025);
+        courseAccessService.evictUser(enrollmentDto.getStudentId());
 
-        Course updatedCourse = courseRepository.save(course);
+        Course updatedCourse = course;
 
         // Fetch lecturer name
         String lecturerName = "Not Assigned";
@@ -364,15 +392,16 @@ public class CourseServiceImpl implements CourseService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(value = CacheNames.COURSES, key = "#courseId"),
+            @CacheEvict(value = CacheNames.COURSE_NAMES, key = "#courseId")
+    })
     public EnrollmentResponseDto updateStudentEnrollment(String courseId, EnrollmentRequestDto enrollmentDto) {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
 
         // Check if the student is actually enrolled
-        boolean isEnrolled = course.getEnrollments().stream()
-                .anyMatch(ye -> ye.getStudentIds().contains(enrollmentDto.getStudentId()));
-
-        if (!isEnrolled) {
+        if (!enrollmentService.isEnrolled(courseId, enrollmentDto.getStudentId())) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Student is not enrolled in this course");
         }
 
@@ -426,12 +455,8 @@ public class CourseServiceImpl implements CourseService {
                     dto.setSemester(course.getSemester());
                     dto.setDepartment(course.getDepartment());
 
-                    // Calculate class size from the list of enrollments
-                    Integer classSize = course.getEnrollments().stream()
-                            .flatMap(ye -> ye.getStudentIds().stream())
-                            .distinct()
-                            .collect(Collectors.toList())
-                            .size();
+                    // Calculate class size from the course's enrollments
+                    Integer classSize = enrollmentService.getStudentIdsForCourse(course.getId()).size();
                     dto.setClassSize(classSize);
 
                     // A simple way to determine status based on the current year
@@ -447,6 +472,10 @@ public class CourseServiceImpl implements CourseService {
      * Assigns an existing course to a lecturer.
      */
     @Override
+    @Caching(evict = {
+            @CacheEvict(value = CacheNames.COURSES, key = "#courseDto.courseId"),
+            @CacheEvict(value = CacheNames.COURSE_NAMES, key = "#courseDto.courseId")
+    })
     public CourseResponseDto assignCourseToLecturer(CourseRequestDto courseDto) {
         Course course = courseRepository.findById(courseDto.getCourseId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
@@ -455,10 +484,17 @@ public class CourseServiceImpl implements CourseService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Course is already assigned to a lecturer");
         }
 
-        course.setLecturerId(courseDto.getLecturerId());
-        course.setSemester(courseDto.getSemester());
         // You can update other fields from the DTO if needed
-        Course updatedCourse = courseRepository.save(course);
+        Course updatedCourse = updateFields(
+                Query.query(Criteria.where("_id").is(course.getId()).and("lecturerId").is(null)),
+                new Update()
+                        .set("lecturerId", courseDto.getLecturerId())
+                        .set("semester", courseDto.getSemester()));
+        if (updatedCourse == null) {
+            // Assigned by someone else since it was read
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Course is already assigned to a lecturer");
+        }
+        courseAccessService.evictUser(courseDto.getLecturerId());
 
         // Map the updated course to a DTO and return
         CourseResponseDto responseDto = new CourseResponseDto();
@@ -478,17 +514,19 @@ public class CourseServiceImpl implements CourseService {
      * Updates an existing course that is assigned to a lecturer.
      */
     @Override
+    @Caching(evict = {
+            @CacheEvict(value = CacheNames.COURSES, key = "#courseId"),
+            @CacheEvict(value = CacheNames.COURSE_NAMES, key = "#courseId")
+    })
     public CourseResponseDto updateLecturerCourse(String courseId, CourseRequestDto courseDto) {
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
-
         // Only update fields that can be changed
-        if (courseDto.getSemester() != null) {
-            course.setSemester(courseDto.getSemester());
+        Course updatedCourse = courseDto.getSemester() != null
+                ? updateFields(Query.query(Criteria.where("_id").is(courseId)), new Update().set("semester", courseDto.getSemester()))
+                : courseRepository.findById(courseId).orElse(null);
+        if (updatedCourse == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found");
         }
 
-        Course updatedCourse = courseRepository.save(course);
-
         // Map the updated course to a DTO
         CourseResponseDto responseDto = new CourseResponseDto();
         responseDto.setId(updatedCourse.getId());
@@ -498,11 +536,7 @@ public class CourseServiceImpl implements CourseService {
         responseDto.setSemester(updatedCourse.getSemester());
         responseDto.setDepartment(updatedCourse.getDepartment());
 
-        Integer classSize = updatedCourse.getEnrollments().stream()
-                .flatMap(ye -> ye.getStudentIds().stream())
-                .distinct()
-                .collect(Collectors.toList())
-                .size();
+        Integer classSize = enrollmentService.getStudentIdsForCourse(courseId).size();
         responseDto.setClassSize(classSize);
         responseDto.setStatus("Active");
 
@@ -513,6 +547,10 @@ public class CourseServiceImpl implements CourseService {
      * Unassigns a course from a lecturer by clearing the lecturerId field.
      */
     @Override
+    @Caching(evict = {
+            @CacheEvict(value = CacheNames.COURSES, key = "#courseId"),
+            @CacheEvict(value = CacheNames.COURSE_NAMES, key = "#courseId")
+    })
     public void unassignCourseFromLecturer(String courseId, String lecturerId) {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
@@ -521,8 +559,20 @@ public class CourseServiceImpl implements CourseService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Course is not assigned to this lecturer");
         }
 
-        course.setLecturerId(null);
-        courseRepository.save(course);
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(courseId).and("lecturerId").is(lecturerId)),
+                new Update().set("lecturerId", null),
+                Course.class);
+        courseAccessService.evictUser(lecturerId);
+    }
+
+    /**
+     * Applies {@code update} with targeted operators and returns the course as updated, or null when
+     * nothing matched. Never a full save: that would write back the embedded legacy enrollments as read,
+     * undoing a dual-write to them that landed in between.
+     */
+    private Course updateFields(Query query, Update update) {
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Course.class);
     }
 
 }
\ No newline at end of file
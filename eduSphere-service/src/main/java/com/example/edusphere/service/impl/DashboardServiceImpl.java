@@ -1,5 +1,6 @@
 package com.example.edusphere.service.impl;
 
+import com.example.common.mongo.ReadFromSecondary;
 import com.example.edusphere.dto.request.AssignmentRequestDto;
 import com.example.edusphere.dto.response.AssignmentResponseDto;
 import com.example.edusphere.dto.response.DashboardChartsDto;
@@ -42,6 +43,7 @@ public class DashboardServiceImpl implements DashboardService {
     }
 
     @Override
+    @ReadFromSecondary
     public DashboardDataResponseDto getDashboardDataForRole(String userRole) {
         List<Course> allCourses = courseRepository.findAll();
 
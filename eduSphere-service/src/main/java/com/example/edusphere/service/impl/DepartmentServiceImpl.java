@@ -3,6 +3,9 @@ package com.example.edusphere.service.impl;
 import com.example.edusphere.entity.Department;
 import com.example.edusphere.repository.DepartmentRepository;
 import com.example.edusphere.service.DepartmentService;
+import com.example.common.config.CacheNames;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -16,11 +19,13 @@ class DepartmentServiceImpl implements DepartmentService {
     }
 
     @Override
+    @Cacheable(value = CacheNames.DEPARTMENTS, key = "'all'")
     public List<Department> findAll() {
         return departmentRepository.findAll();
     }
 
     @Override
+    @CacheEvict(value = CacheNames.DEPARTMENTS, allEntries = true)
     public Department save(Department department) {
         return departmentRepository.save(department);
     }
@@ -0,0 +1,314 @@
+package com.example.edusphere.service.impl;
+
+import com.example.edusphere.dto.response.BulkEnrollmentResponse;
+import com.example.edusphere.entity.Course;
+import com.example.edusphere.entity.Enrollment;
+import com.example.edusphere.entity.YearlyEnrollment;
+import com.example.edusphere.repository.CourseRepository;
+import com.example.edusphere.repository.EnrollmentRepository;
+import com.example.edusphere.service.EnrollmentService;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+public class EnrollmentServiceImpl implements EnrollmentService {
+
+    private static final int BULK_BATCH_SIZE = 500;
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final CourseRepository courseRepository;
+    private final MongoTemplate mongoTemplate;
+
+    // While instances on the previous release still read Course.enrollments, mirror enrollments into it
+    private final boolean legacyDualWrite;
+
+    public EnrollmentServiceImpl(EnrollmentRepository enrollmentRepository,
+                                 CourseRepository courseRepository,
+                                 MongoTemplate mongoTemplate,
+                                 Environment environment) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.courseRepository = courseRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.legacyDualWrite = environment.getProperty("app.enrollments.legacy-dual-write", Boolean.class, true);
+    }
+
+    // ===================================
+    // WRITES
+    // ===================================
+
+    @Override
+    public boolean enroll(String courseId, String studentId, int academicYear) {
+        boolean created;
+        try {
+            UpdateResult result = mongoTemplate.upsert(byId(courseId, academicYear, studentId),
+                    insertOnly(courseId, academicYear, studentId), Enrollment.class);
+            created = result.getUpsertedId() != null;
+        } catch (DuplicateKeyException e) {
+            // A concurrent request enrolled the same student first
+            created = false;
+        }
+
+        if (legacyDualWrite) {
+            mirrorIntoEmbedded(courseId, academicYear, List.of(studentId));
+        }
+        return created;
+    }
+
+    @Override
+    public BulkEnrollmentResponse enrollRoster(String courseId, int academicYear, List<String> studentIds) {
+        List<String> roster = studentIds == null ? List.of() : studentIds.stream()
+                .filter(id -> id != null && !id.isBlank())
+                .distinct()
+                .collect(Collectors.toList());
+
+        int enrolled = bulkUpsert(courseId, academicYear, roster);
+
+        if (legacyDualWrite && !roster.isEmpty()) {
+            mirrorIntoEmbedded(courseId, academicYear, roster);
+        }
+        return new BulkEnrollmentResponse(courseId, academicYear, roster.size(), enrolled, roster.size() - enrolled);
+    }
+
+    @Override
+    public long unenroll(String courseId, Collection<String> studentIds) {
+        if (studentIds == null || studentIds.isEmpty()) {
+            return 0;
+        }
+        Query query = Query.query(Criteria.where("courseId").is(courseId).and("studentId").in(studentIds));
+        long removed = mongoTemplate.remove(query, Enrollment.class).getDeletedCount();
+
+        // Always pull from any embedded arrays still present, otherwise the next backfill would re-enroll them
+        Query legacy = Query.query(Criteria.where("_id").is(courseId).and("enrollments.studentIds").in(studentIds));
+        mongoTemplate.updateFirst(legacy, new Update().pullAll("enrollments.$[].studentIds", studentIds.toArray()), Course.class);
+
+        return removed;
+    }
+
+    @Override
+    public void deleteCourseEnrollments(String courseId) {
+        mongoTemplate.remove(Query.query(Criteria.where("courseId").is(courseId)), Enrollment.class);
+    }
+
+    private int bulkUpsert(String courseId, int academicYear, List<String> studentIds) {
+        int upserted = 0;
+        for (int from = 0; from < studentIds.size(); from += BULK_BATCH_SIZE) {
+            List<String> batch = studentIds.subList(from, Math.min(from + BULK_BATCH_SIZE, studentIds.size()));
+
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Enrollment.class);
+            for (String studentId : batch) {
+                ops.upsert(byId(courseId, academicYear, studentId), insertOnly(courseId, academicYear, studentId));
+            }
+
+            try {
+                BulkWriteResult result = ops.execute();
+                upserted += result.getUpserts().size();
+            } catch (BulkOperationException e) {
+                // Duplicate keys only mean a concurrent request enrolled that student first
+                boolean onlyDuplicates = e.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY);
+                if (!onlyDuplicates) {
+                    throw e;
+                }
+                upserted += e.getResult().getUpserts().size();
+            }
+        }
+        return upserted;
+    }
+
+    private void mirrorIntoEmbedded(String courseId, int academicYear, List<String> studentIds) {
+        Query yearBucket = Query.query(Criteria.where("_id").is(courseId).and("enrollments.academicYear").is(academicYear));
+        UpdateResult result = mongoTemplate.updateFirst(yearBucket,
+                new Update().addToSet("enrollments.$.studentIds").each(studentIds.toArray()), Course.class);
+
+        if (result.getMatchedCount() == 0) {
+            Query noBucket = Query.query(Criteria.where("_id").is(courseId).and("enrollments.academicYear").ne(academicYear));
+            mongoTemplate.updateFirst(noBucket, new Update().push("enrollments",
+                    new Document("academicYear", academicYear).append("studentIds", studentIds)), Course.class);
+        }
+    }
+
+    private static Query byId(String courseId, int academicYear, String studentId) {
+        return Query.query(Criteria.where("_id").is(Enrollment.idFor(courseId, academicYear, studentId)));
+    }
+
+    private static Update insertOnly(String courseId, int academicYear, String studentId) {
+        return new Update()
+                .setOnInsert("courseId", courseId)
+                .setOnInsert("academicYear", academicYear)
+                .setOnInsert("studentId", studentId)
+                .setOnInsert("enrolledAt", LocalDateTime.now());
+    }
+
+    // ===================================
+    // READS
+    // ===================================
+
+    @Override
+    public boolean isEnrolled(String courseId, String studentId) {
+        return enrollmentRepository.existsByCourseIdAndStudentId(courseId, studentId);
+    }
+
+    @Override
+    public boolean isEnrolled(String courseId, String studentId, int academicYear) {
+        return enrollmentRepository.existsByCourseIdAndAcademicYearAndStudentId(courseId, academicYear, studentId);
+    }
+
+    @Override
+    public List<String> getCourseIdsForStudent(String studentId) {
+        return enrollmentRepository.findCourseKeysByStudentId(studentId).stream()
+                .map(Enrollment::getCourseId)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Course> getCoursesForStudent(String studentId) {
+        List<String> courseIds = getCourseIdsForStudent(studentId);
+        return courseIds.isEmpty() ? new ArrayList<>() : courseRepository.findByIdIn(courseIds);
+    }
+
+    @Override
+    public Map<String, Integer> getEnrollmentYearsForStudent(String studentId) {
+        return enrollmentRepository.findCourseKeysByStudentId(studentId).stream()
+                .collect(Collectors.toMap(Enrollment::getCourseId, Enrollment::getAcademicYear, Math::min));
+    }
+
+    @Override
+    public List<String> getStudentIdsForCourse(String courseId) {
+        return enrollmentRepository.findRosterByCourseId(courseId).stream()
+                .map(Enrollment::getStudentId)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public long countEnrollments(String courseId) {
+        return enrollmentRepository.countByCourseId(courseId);
+    }
+
+    @Override
+    public long countEnrollments(Collection<String> courseIds) {
+        return courseIds.isEmpty() ? 0 : enrollmentRepository.countByCourseIdIn(courseIds);
+    }
+
+    @Override
+    public List<YearlyEnrollment> getYearlyEnrollments(String courseId) {
+        Map<Integer, YearlyEnrollment> byYear = new TreeMap<>();
+        for (Enrollment enrollment : enrollmentRepository.findRosterByCourseId(courseId)) {
+            byYear.computeIfAbsent(enrollment.getAcademicYear(), YearlyEnrollment::new)
+                    .getStudentIds().add(enrollment.getStudentId());
+        }
+        return new ArrayList<>(byYear.values());
+    }
+
+    @Override
+    public Map<String, List<YearlyEnrollment>> getYearlyEnrollments(Collection<String> courseIds) {
+        if (courseIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Map<Integer, YearlyEnrollment>> byCourse = new HashMap<>();
+        for (Enrollment enrollment : enrollmentRepository.findRostersByCourseIdIn(courseIds)) {
+            byCourse.computeIfAbsent(enrollment.getCourseId(), id -> new TreeMap<>())
+                    .computeIfAbsent(enrollment.getAcademicYear(), YearlyEnrollment::new)
+                    .getStudentIds().add(enrollment.getStudentId());
+        }
+        Map<String, List<YearlyEnrollment>> result = new HashMap<>();
+        byCourse.forEach((courseId, byYear) -> result.put(courseId, new ArrayList<>(byYear.values())));
+        return result;
+    }
+
+    // ===================================
+    // MIGRATION
+    // ===================================
+
+    @Override
+    public Map<String, Object> backfillFromEmbedded() {
+        long coursesScanned = 0;
+        long enrollmentsCopied = 0;
+
+        try (MongoCursor<Document> cursor = embeddedEnrollmentCourses()) {
+            while (cursor.hasNext()) {
+                enrollmentsCopied += copyEmbedded(cursor.next());
+                coursesScanned++;
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("coursesScanned", coursesScanned);
+        result.put("enrollmentsCopied", enrollmentsCopied);
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> dropEmbedded() {
+        MongoCollection<Document> courses = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Course.class));
+        long enrollmentsCopied = 0;
+        long coursesCleared = 0;
+        long coursesChangedMeanwhile = 0;
+
+        try (MongoCursor<Document> cursor = embeddedEnrollmentCourses()) {
+            while (cursor.hasNext()) {
+                Document course = cursor.next();
+                enrollmentsCopied += copyEmbedded(course);
+
+                // Only unset if the array is exactly what was just copied; a concurrent legacy write is retried next run
+                UpdateResult result = courses.updateOne(
+                        Filters.and(Filters.eq("_id", course.get("_id")), Filters.eq("enrollments", course.get("enrollments"))),
+                        Updates.unset("enrollments"));
+                if (result.getModifiedCount() > 0) {
+                    coursesCleared++;
+                } else {
+                    coursesChangedMeanwhile++;
+                }
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enrollmentsCopied", enrollmentsCopied);
+        result.put("coursesCleared", coursesCleared);
+        result.put("coursesChangedMeanwhile", coursesChangedMeanwhile);
+        return result;
+    }
+
+    private MongoCursor<Document> embeddedEnrollmentCourses() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Course.class))
+                .find(Filters.exists("enrollments.0"))
+                .projection(Projections.include("enrollments"))
+                .iterator();
+    }
+
+    private int copyEmbedded(Document course) {
+        String courseId = course.get("_id").toString();
+        int copied = 0;
+
+        for (Document yearly : course.getList("enrollments", Document.class, List.of())) {
+            Object year = yearly.get("academicYear");
+            List<String> studentIds = yearly.getList("studentIds", String.class, List.of());
+            if (!(year instanceof Number) || studentIds.isEmpty()) {
+                continue;
+            }
+            copied += bulkUpsert(courseId, ((Number) year).intValue(),
+                    studentIds.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList()));
+        }
+        return copied;
+    }
+}
@@ -5,23 +5,56 @@ import com.example.edusphere.entity.Exam;
 import com.example.edusphere.entity.ExamQuestion;
 import com.example.edusphere.entity.ExamResponse;
 import com.example.edusphere.entity.GradeColumn;
+import com.example.edusphere.event.ExamSubmittedEvent;
 import com.example.edusphere.repository.ExamRepository;
 import com.example.edusphere.repository.ExamResponseRepository;
 import com.example.edusphere.repository.GradeColumnRepository;
 import com.example.edusphere.service.ExamService;
 import com.example.edusphere.service.GradeService;
+import com.example.edusphere.service.CourseAccessService;
+import com.example.edusphere.attempt.AnswerAutosaveBuffer;
+import com.example.edusphere.attempt.ExamAttemptStarter;
+import com.example.edusphere.attempt.ExamSnapshot;
+import com.example.edusphere.attempt.ExamSnapshotCache;
+import com.example.edusphere.attempt.StaleAttemptCleanup;
+import com.example.edusphere.export.ExamExportJob;
+import com.example.edusphere.export.ExamExportService;
+import com.example.edusphere.export.ExportFormat;
+import com.example.edusphere.grading.AutoGradeJob;
+import com.example.edusphere.grading.AutoGradeJobService;
+import com.example.edusphere.grading.GradingPlan;
+import com.example.edusphere.grading.GradingPlanCache;
+import com.example.edusphere.stats.ExamLiveStats;
+import com.example.edusphere.stats.ExamStatsAggregator;
 import com.example.edusphere.dto.request.*;
 import com.example.edusphere.dto.response.*;
+import com.example.common.archive.ArchiveService;
+import com.example.common.cascade.CascadeDeleteService;
+import com.example.common.cascade.CascadeDeletion;
+import com.example.edusphere.config.CascadePlans;
+import com.example.common.events.DomainEventBus;
+import com.example.common.pagination.CursorPage;
+import com.example.common.pagination.KeysetPaginator;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import com.example.common.config.CacheNames;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.UUID;
 import java.util.ArrayList;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 @Transactional
 public class ExamServiceImpl implements ExamService {
@@ -30,15 +63,57 @@ public class ExamServiceImpl implements ExamService {
     private final ExamResponseRepository examResponseRepository;
     private final GradeColumnRepository gradeColumnRepository;
     private final GradeService gradeService;
+    private final KeysetPaginator keysetPaginator;
+    private final DomainEventBus eventBus;
+    private final ArchiveService archiveService;
+    private final CascadeDeleteService cascadeDeleteService;
+    private final GradingPlanCache gradingPlanCache;
+    private final AutoGradeJobService autoGradeJobService;
+    private final ExamSnapshotCache examSnapshotCache;
+    private final ExamAttemptStarter examAttemptStarter;
+    private final AnswerAutosaveBuffer answerAutosaveBuffer;
+    private final ExamStatsAggregator examStatsAggregator;
+    private final ExamLiveStats examLiveStats;
+    private final ExamExportService examExportService;
+    private final StaleAttemptCleanup staleAttemptCleanup;
+    private final CourseAccessService courseAccessService;
 
     public ExamServiceImpl(ExamRepository examRepository,
                            ExamResponseRepository examResponseRepository,
                            GradeColumnRepository gradeColumnRepository,
-                           GradeService gradeService) {
+                           GradeService gradeService,
+                           KeysetPaginator keysetPaginator,
+                           DomainEventBus eventBus,
+                           ArchiveService archiveService,
+                           CascadeDeleteService cascadeDeleteService,
+                           GradingPlanCache gradingPlanCache,
+                           AutoGradeJobService autoGradeJobService,
+                           ExamSnapshotCache examSnapshotCache,
+                           ExamAttemptStarter examAttemptStarter,
+                           AnswerAutosaveBuffer answerAutosaveBuffer,
+                           ExamStatsAggregator examStatsAggregator,
+                           ExamLiveStats examLiveStats,
+                           ExamExportService examExportService,
+                           StaleAttemptCleanup staleAttemptCleanup,
+                           CourseAccessService courseAccessService) {
         this.examRepository = examRepository;
         this.examResponseRepository = examResponseRepository;
         this.gradeColumnRepository = gradeColumnRepository;
         this.gradeService = gradeService;
+        this.keysetPaginator = keysetPaginator;
+        this.eventBus = eventBus;
+        this.archiveService = archiveService;
+        this.cascadeDeleteService = cascadeDeleteService;
+        this.gradingPlanCache = gradingPlanCache;
+        this.autoGradeJobService = autoGradeJobService;
+        this.examSnapshotCache = examSnapshotCache;
+        this.examAttemptStarter = examAttemptStarter;
+        this.answerAutosaveBuffer = answerAutosaveBuffer;
+        this.examStatsAggregator = examStatsAggregator;
+        this.examLiveStats = examLiveStats;
+        this.examExportService = examExportService;
+        this.staleAttemptCleanup = staleAttemptCleanup;
+        this.courseAccessService = courseAccessService;
     }
 
     @Override
@@ -47,12 +122,51 @@ public class ExamServiceImpl implements ExamService {
             List<Exam> exams = examRepository.findByCourseIdOrderByCreatedAtDesc(courseId);
             return exams;
         } catch (Exception e) {
-            System.err.println("Error fetching exams: " + e.getMessage());
+            log.warn("Error fetching exams: {}", e.getMessage());
             throw new RuntimeException("Failed to fetch exams: " + e.getMessage());
         }
     }
 
     @Override
+    public List<ExamListResponse> getExamSummariesByCourse(String courseId, boolean publishedOnly) {
+        List<Exam> exams = publishedOnly
+                ? examRepository.findVisibleSummariesByCourseId(courseId)
+                : examRepository.findSummariesByCourseId(courseId);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ExamListResponse> summaries = new ArrayList<>();
+        for (Exam exam : exams) {
+            boolean started = exam.getStartTime() != null && now.isAfter(exam.getStartTime());
+            boolean ended = exam.getEndTime() != null && now.isAfter(exam.getEndTime());
+
+            summaries.add(ExamListResponse.builder()
+                    .id(exam.getId())
+                    .courseId(exam.getCourseId())
+                    .instructorId(exam.getInstructorId())
+                    .title(exam.getTitle())
+                    .description(exam.getDescription())
+                    .duration(exam.getDuration())
+                    .startTime(exam.getStartTime())
+                    .endTime(exam.getEndTime())
+                    .publishTime(exam.getPublishTime())
+                    .maxAttempts(exam.getMaxAttempts())
+                    .visibleToStudents(exam.getVisibleToStudents())
+                    .passPercentage(exam.getPassPercentage())
+                    .status(exam.getStatus())
+                    .isActive("PUBLISHED".equals(exam.getStatus()) && started && !ended)
+                    .isUpcoming(exam.getStartTime() != null && !started)
+                    .isCompleted(ended)
+                    .questionCount(exam.getQuestionCount())
+                    .totalPoints(exam.getTotalPoints())
+                    .createdAt(exam.getCreatedAt())
+                    .updatedAt(exam.getUpdatedAt())
+                    .build());
+        }
+        return summaries;
+    }
+
+    @Override
+    @Cacheable(value = CacheNames.EXAMS, key = "#examId")
     public Exam getExamById(String examId) {
         return examRepository.findById(examId)
                 .orElseThrow(() -> new RuntimeException("Exam not found with ID: " + examId));
@@ -102,7 +216,7 @@ public class ExamServiceImpl implements ExamService {
             return savedExam;
 
         } catch (Exception e) {
-            System.err.println("Error creating exam: " + e.getMessage());
+            log.warn("Error creating exam: {}", e.getMessage());
             throw new RuntimeException("Failed to create exam: " + e.getMessage(), e);
         }
     }
@@ -147,8 +261,7 @@ public class ExamServiceImpl implements ExamService {
             GradeColumn savedColumn = gradeColumnRepository.save(gradeColumn);
 
         } catch (Exception e) {
-            System.err.println("⚠️ Failed to create grade column for exam: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Failed to create grade column for exam", e);
         }
     }
 
@@ -181,12 +294,13 @@ public class ExamServiceImpl implements ExamService {
             Integer maxOrder = existingColumns.get(0).getDisplayOrder();
             return (maxOrder != null ? maxOrder : 0) + 1;
         } catch (Exception e) {
-            System.err.println("⚠️ Error getting next display order: " + e.getMessage());
+            log.warn("Error getting next display order: {}", e.getMessage());
             return 1; // Default to 1 if error
         }
     }
 
     @Override
+    @CacheEvict(value = CacheNames.EXAMS, key = "#examId")
     public Exam updateExam(String examId, ExamUpdateRequest request, String instructorId) {
 
         Exam exam = getExamById(examId);
@@ -231,7 +345,7 @@ public class ExamServiceImpl implements ExamService {
             return updatedExam;
 
         } catch (Exception e) {
-            System.err.println("Error updating exam: " + e.getMessage());
+            log.warn("Error updating exam: {}", e.getMessage());
             throw new RuntimeException("Failed to update exam: " + e.getMessage(), e);
         }
     }
@@ -265,13 +379,13 @@ public class ExamServiceImpl implements ExamService {
                 }
             }
         } catch (Exception e) {
-            System.err.println("⚠️ Failed to update grade column for exam: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Failed to update grade column for exam", e);
         }
     }
 
     @Override
-    public void deleteExam(String examId, String instructorId) {
+    @CacheEvict(value = CacheNames.EXAMS, key = "#examId")
+    public CascadeDeletion deleteExam(String examId, String instructorId) {
 
         Exam exam = getExamById(examId);
 
@@ -280,37 +394,17 @@ public class ExamServiceImpl implements ExamService {
         }
 
         try {
-            // Delete linked grade column first
-            deleteGradeColumnForExam(exam);
-
-            // Delete all responses
-            examResponseRepository.deleteByExamId(examId);
-
-            // Delete the exam
-            examRepository.deleteById(examId);
+            // Exam, all responses and the linked grade columns
+            return cascadeDeleteService.delete(CascadePlans.EXAM, examId, instructorId);
 
         } catch (Exception e) {
-            System.err.println("Error deleting exam: " + e.getMessage());
+            log.warn("Error deleting exam: {}", e.getMessage());
             throw new RuntimeException("Failed to delete exam: " + e.getMessage(), e);
         }
     }
 
-    // Delete grade column when exam is deleted
-    private void deleteGradeColumnForExam(Exam exam) {
-        try {
-            List<GradeColumn> linkedColumns = gradeColumnRepository.findAllByCourseIdAndLinkedAssignmentId(
-                    exam.getCourseId(), exam.getId());
-
-            for (GradeColumn column : linkedColumns) {
-                gradeColumnRepository.delete(column);
-            }
-        } catch (Exception e) {
-            System.err.println("⚠️ Failed to delete grade column for exam: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
     @Override
+    @CacheEvict(value = CacheNames.EXAMS, key = "#examId")
     public Exam publishExam(String examId, String instructorId) {
 
         Exam exam = getExamById(examId);
@@ -353,12 +447,12 @@ public class ExamServiceImpl implements ExamService {
                 }
             }
         } catch (Exception e) {
-            System.err.println("⚠️ Failed to update grade column max points: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Failed to update grade column max points", e);
         }
     }
 
     @Override
+    @CacheEvict(value = CacheNames.EXAMS, key = "#examId")
     public Exam unpublishExam(String examId, String instructorId) {
 
         Exam exam = getExamById(examId);
@@ -375,6 +469,7 @@ public class ExamServiceImpl implements ExamService {
     }
 
     @Override
+    @CacheEvict(value = CacheNames.EXAMS, key = "#examId")
     public Exam updateExamStatus(String examId, String status, String instructorId) {
 
         Exam exam = getExamById(examId);
@@ -390,6 +485,7 @@ public class ExamServiceImpl implements ExamService {
     }
 
     @Override
+    @CacheEvict(value = CacheNames.EXAMS, key = "#examId")
     public ExamQuestion addQuestion(String examId, ExamQuestionRequest request, String instructorId) {
 
         Exam exam = getExamById(examId);
@@ -430,6 +526,7 @@ public class ExamServiceImpl implements ExamService {
     }
 
     @Override
+    @CacheEvict(value = CacheNames.EXAMS, key = "#examId")
     public ExamQuestion updateQuestion(String examId, String questionId, ExamQuestionRequest request, String instructorId) {
 
         Exam exam = getExamById(examId);
@@ -477,6 +574,7 @@ public class ExamServiceImpl implements ExamService {
     }
 
     @Override
+    @CacheEvict(value = CacheNames.EXAMS, key = "#examId")
     public void deleteQuestion(String examId, String questionId, String instructorId) {
 
         Exam exam = getExamById(examId);
@@ -493,6 +591,7 @@ public class ExamServiceImpl implements ExamService {
     }
 
     @Override
+    @CacheEvict(value = CacheNames.EXAMS, key = "#examId")
     public void reorderQuestions(String examId, List<String> questionIds, String instructorId) {
 
         Exam exam = getExamById(examId);
@@ -543,54 +642,40 @@ public class ExamServiceImpl implements ExamService {
     @Override
     public ExamResponse startExam(String examId, String studentId) {
 
-        if (!canStudentTakeExam(examId, studentId)) {
+        // Warmed snapshot, so a start storm doesn't read the exam once per student
+        ExamSnapshot exam = examSnapshotCache.get(examId);
+        int attemptCount = getStudentAttemptCount(examId, studentId);
+        if (!exam.isOpenAt(LocalDateTime.now()) || attemptCount >= exam.getMaxAttempts()) {
             throw new RuntimeException("Student cannot take this exam");
         }
 
-        if (hasActiveAttempt(examId, studentId)) {
+        // Atomic: either creates the attempt or finds the one a concurrent start created
+        ExamAttemptStarter.Attempt attempt = examAttemptStarter.start(exam, studentId, attemptCount + 1);
+        if (!attempt.isCreated()) {
             throw new RuntimeException("Student already has an active attempt");
         }
-
-        Exam exam = getExamById(examId);
-
-        // Ensure total points are calculated correctly
-        exam.recalculateTotalPoints();
-
-        ExamResponse response = new ExamResponse();
-        response.setExamId(examId);
-        response.setStudentId(studentId);
-        response.setCourseId(exam.getCourseId());
-        response.setStartedAt(LocalDateTime.now());
-        response.setStatus("IN_PROGRESS");
-        response.setMaxScore(exam.getTotalPoints());
-        response.setAttemptNumber(getStudentAttemptCount(examId, studentId) + 1);
-
-        ExamResponse savedResponse = examResponseRepository.save(response);
-        return savedResponse;
+        return attempt.getResponse();
     }
 
     @Override
     public ExamResponse saveProgress(ExamResponseRequest request, String studentId) {
 
-        ExamResponse response = examResponseRepository.findActiveResponse(request.getExamId(), studentId)
-                .orElseThrow(() -> new RuntimeException("No active exam attempt found"));
-
-        // Update answers
-        if (request.getAnswers() != null) {
-            response.getAnswers().putAll(request.getAnswers());
-        }
-
-        if (request.getTimeSpent() != null) {
-            response.setTimeSpent(request.getTimeSpent());
-        }
+        // Only the posted answers are written, the rest of the attempt is left as stored
+        Map<String, String> answers = request.getAnswers() != null ? request.getAnswers() : Map.of();
+        return answerAutosaveBuffer.saveNow(request.getExamId(), studentId, answers, request.getTimeSpent());
+    }
 
-        ExamResponse savedResponse = examResponseRepository.save(response);
-        return savedResponse;
+    @Override
+    public void autosaveAnswers(String examId, ExamAutosaveRequest request, String studentId) {
+        answerAutosaveBuffer.save(examId, studentId, request.getAnswers(), request.getSeq(), request.getTimeSpent());
     }
 
     @Override
     public ExamResponse submitExam(ExamResponseRequest request, String studentId) {
 
+        // Autosaves still in the coalescing window go in before the attempt closes
+        answerAutosaveBuffer.flush(request.getExamId(), studentId);
+
         ExamResponse response = examResponseRepository.findActiveResponse(request.getExamId(), studentId)
                 .orElseThrow(() -> new RuntimeException("No active exam attempt found"));
 
@@ -613,14 +698,10 @@ public class ExamServiceImpl implements ExamService {
         }
 
         ExamResponse submittedResponse = examResponseRepository.save(response);
+        examLiveStats.attemptsSubmitted(submittedResponse.getExamId(), 1);
 
-        // Try auto-grading
-        try {
-            autoGradeResponse(submittedResponse.getId());
-        } catch (Exception e) {
-            System.err.println("⚠️ Auto-grading failed: " + e.getMessage());
-            e.printStackTrace();
-        }
+        // Auto-grading and the grade column sync run after the response is sent; durable so no submission stays ungraded
+        eventBus.publishDurable(new ExamSubmittedEvent(submittedResponse.getId(), submittedResponse.getExamId(), studentId));
         return submittedResponse;
     }
 
@@ -643,7 +724,7 @@ public class ExamServiceImpl implements ExamService {
             try {
                 responses = examResponseRepository.findByExamIdOrderBySubmittedAtDesc(examId);
             } catch (Exception e) {
-                System.err.println("Method 1 failed: " + e.getMessage());
+                log.warn("Method 1 failed: {}", e.getMessage());
                 responses = new ArrayList<>();
             }
 
@@ -652,7 +733,7 @@ public class ExamServiceImpl implements ExamService {
                 try {
                     responses = examResponseRepository.findByExamId(examId);
                 } catch (Exception e) {
-                    System.err.println("Method 2 failed: " + e.getMessage());
+                    log.warn("Method 2 failed: {}", e.getMessage());
                     responses = new ArrayList<>();
                 }
             }
@@ -673,12 +754,12 @@ public class ExamServiceImpl implements ExamService {
 
                     // If we found responses this way, there might be an issue with the repository method
                     if (!responses.isEmpty()) {
-                        System.err.println("⚠️ WARNING: Manual filtering found responses but repository methods didn't!");
-                        System.err.println("⚠️ This suggests an issue with your repository method or MongoDB indexes");
+                        log.warn("WARNING: Manual filtering found responses but repository methods didn't!");
+                        log.warn("This suggests an issue with your repository method or MongoDB indexes");
                     }
 
                 } catch (Exception e) {
-                    System.err.println("Method 3 failed: " + e.getMessage());
+                    log.warn("Method 3 failed: {}", e.getMessage());
                     responses = new ArrayList<>();
                 }
             }
@@ -695,8 +776,7 @@ public class ExamServiceImpl implements ExamService {
             return responses;
 
         } catch (Exception e) {
-            System.err.println("Error fetching exam responses: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching exam responses", e);
             return new ArrayList<>();
         }
     }
@@ -711,17 +791,41 @@ public class ExamServiceImpl implements ExamService {
             for (ExamResponse response : allResponses) {
             }
         } catch (Exception e) {
-            System.err.println("Debug method failed: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Debug method failed", e);
         }
     }
 
     @Override
     public ExamResponse getResponse(String responseId) {
         return examResponseRepository.findById(responseId)
+                .or(() -> archiveService.findArchivedById(responseId, ExamResponse.class, "exam_responses"))
                 .orElseThrow(() -> new RuntimeException("Response not found with ID: " + responseId));
     }
 
+    /**
+     * The response from the live collection, for callers that change and save it. Archived responses
+     * are read-only: saving one would put it back into exam_responses while its archive copy stays.
+     */
+    private ExamResponse getLiveResponse(String responseId) {
+        return examResponseRepository.findById(responseId)
+                .orElseThrow(() -> new RuntimeException(
+                        archiveService.findArchivedById(responseId, ExamResponse.class, "exam_responses").isPresent()
+                                ? "Response is archived and can no longer be changed: " + responseId
+                                : "Response not found with ID: " + responseId));
+    }
+
+    @Override
+    public Stream<ExamResponse> streamExamResponses(String examId) {
+        return examResponseRepository.streamByExamIdOrderBySubmittedAtDesc(examId);
+    }
+
+    @Override
+    public CursorPage<ExamResponse> getExamResponsesPage(String examId, String cursor, Integer limit) {
+        return keysetPaginator.fetch(Criteria.where("examId").is(examId), ExamResponse.class,
+                "submittedAt", Sort.Direction.DESC, cursor, limit,
+                ExamResponse::getSubmittedAt, ExamResponse::getId);
+    }
+
     @Override
     public List<ExamResponse> getStudentResponses(String studentId, String courseId) {
         return examResponseRepository.findByStudentIdAndCourseId(studentId, courseId);
@@ -736,7 +840,8 @@ public class ExamServiceImpl implements ExamService {
     @Override
     public ExamResponse gradeResponse(ExamGradeRequest request, String instructorId) {
 
-        ExamResponse response = getResponse(request.getResponseId());
+        ExamResponse response = getLiveResponse(request.getResponseId());
+        Double previousGrade = ExamLiveStats.gradedPercentage(response);
 
         // Ensure the response has current exam max score
         Exam exam = getExamById(response.getExamId());
@@ -760,13 +865,13 @@ public class ExamServiceImpl implements ExamService {
         response.setPassed(response.getPercentage() >= exam.getPassPercentage());
 
         ExamResponse gradedResponse = examResponseRepository.save(response);
+        examLiveStats.scoreChanged(gradedResponse.getExamId(), previousGrade, ExamLiveStats.gradedPercentage(gradedResponse));
 
         // Sync with grade column
         try {
             syncExamGradeToGradeColumn(gradedResponse, exam);
         } catch (Exception e) {
-            System.err.println("⚠️ Failed to sync grade to grade column: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Failed to sync grade to grade column", e);
         }
 
         return gradedResponse;
@@ -776,263 +881,41 @@ public class ExamServiceImpl implements ExamService {
     @Override
     public ExamResponse autoGradeResponse(String responseId) {
 
-        ExamResponse response = getResponse(responseId);
+        ExamResponse response = getLiveResponse(responseId);
+        Double previousGrade = ExamLiveStats.gradedPercentage(response);
         Exam exam = getExamById(response.getExamId());
 
         // Ensure exam total points are up to date
         exam.recalculateTotalPoints();
 
-        // Update response max score to current exam total
-        response.setMaxScore(exam.getTotalPoints());
-
-        Map<String, Integer> autoScores = new HashMap<>();
-        boolean hasManualGradingRequired = false;
-
-        // Enhanced grading logic with better error handling
-        for (ExamQuestion question : exam.getQuestions()) {
-
-            // FIXED: Use our enhanced method to check if question can be auto-graded
-            boolean canAutoGrade = canQuestionBeAutoGraded(question);
-
-            if (canAutoGrade) {
-                try {
-                    String studentAnswer = response.getAnswers().get(question.getId());
-
-                    int score = gradeQuestionWithEnhancedDebugging(question, studentAnswer);
-                    autoScores.put(question.getId(), score);
-                } catch (Exception e) {
-                    System.err.println("⚠️ Error grading question " + question.getId() + ": " + e.getMessage());
-                    e.printStackTrace();
-                    // Set score to 0 for failed auto-grading
-                    autoScores.put(question.getId(), 0);
-                }
-            } else {
-                // Essay questions or other non-auto-gradable questions
-                hasManualGradingRequired = true;
-            }
-        }
-
-        // Update response with auto-graded scores, preserve manual grades
-        Map<String, Integer> existingScores = response.getQuestionScores();
-        if (existingScores == null) {
-            existingScores = new HashMap<>();
-        }
-
-        // Only update scores for auto-gradable questions, preserve manual grades
-        existingScores.putAll(autoScores);
-        response.setQuestionScores(existingScores);
-
-        // Set appropriate grading status
-        if (hasManualGradingRequired) {
-            response.setStatus("PARTIALLY_GRADED");
-            response.setGraded(false); // Still needs manual review
-        } else {
-            response.setStatus("GRADED");
-            response.setGraded(true);
-        }
-
-        response.setAutoGraded(true);
-        response.setGradedAt(LocalDateTime.now());
-
-        // Recalculate totals
-        response.recalculateTotal();
-
-        // Determine if passed (only if fully graded)
-        if (!hasManualGradingRequired) {
-            response.setPassed(response.getPercentage() >= exam.getPassPercentage());
-        }
+        // Answer keys are compiled once per exam version; manual scores already on the response are kept
+        GradingPlan plan = gradingPlanCache.planFor(exam);
+        boolean hasManualGradingRequired = plan.isManualGradingRequired();
+        plan.applyTo(response, exam, LocalDateTime.now());
 
         ExamResponse gradedResponse = examResponseRepository.save(response);
+        examLiveStats.scoreChanged(gradedResponse.getExamId(), previousGrade, ExamLiveStats.gradedPercentage(gradedResponse));
+        log.debug("Auto-graded response {} for exam {}: {} / {}, status {}", responseId, exam.getId(),
+                gradedResponse.getTotalScore(), gradedResponse.getMaxScore(), gradedResponse.getStatus());
 
         // Sync with grade column (only if fully graded)
         if (!hasManualGradingRequired) {
             try {
                 syncExamGradeToGradeColumn(gradedResponse, exam);
             } catch (Exception e) {
-                System.err.println("⚠️ Failed to sync grade to grade column: " + e.getMessage());
-                e.printStackTrace();
+                log.error("Failed to sync grade to grade column", e);
             }
         }
 
         return gradedResponse;
     }
 
-    // FIXED: Better method to check if a question can be auto-graded
-    private boolean canQuestionBeAutoGraded(ExamQuestion question) {
-
-        if (question.getType() == null) {
-            return false;
-        }
-
-        String type = question.getType().toLowerCase().trim();
-
-        switch (type) {
-            case "multiple-choice":
-            case "multiple_choice":
-            case "multiplechoice":
-                boolean hasOptions = question.getOptions() != null && !question.getOptions().isEmpty();
-                boolean hasCorrectIndex = question.getCorrectAnswerIndex() != null;
-                return hasOptions && hasCorrectIndex;
-
-            case "true-false":
-            case "true_false":
-            case "truefalse":
-            case "boolean":
-                boolean hasCorrectAnswer = question.getCorrectAnswer() != null && !question.getCorrectAnswer().trim().isEmpty();
-                return hasCorrectAnswer;
-
-            case "short-answer":
-            case "short_answer":
-            case "shortanswer":
-            case "text":
-            case "fill-in-the-blank":
-            case "fill_in_the_blank":
-                List<String> acceptableAnswers = question.getAcceptableAnswers();
-                boolean hasAcceptableAnswers = acceptableAnswers != null && !acceptableAnswers.isEmpty();
-                if (hasAcceptableAnswers) {
-                    for (int i = 0; i < acceptableAnswers.size(); i++) {
-                        String answer = acceptableAnswers.get(i);
-                        boolean isValidAnswer = answer != null && !answer.trim().isEmpty();
-                    }
-                    // Check if at least one acceptable answer is valid
-                    for (String answer : acceptableAnswers) {
-                        if (answer != null && !answer.trim().isEmpty()) {
-                            return true;
-                        }
-                    }
-                    return false;
-                }
-                return false;
-
-            case "essay":
-            case "long-answer":
-            case "long_answer":
-            case "paragraph":
-                return false;
-
-            default:
-                return false;
-        }
-    }
-
-    // FIXED: Enhanced grading method with better debugging
-    private int gradeQuestionWithEnhancedDebugging(ExamQuestion question, String studentAnswer) {
-
-        if (studentAnswer == null || studentAnswer.trim().isEmpty()) {
-            return 0;
-        }
-
-        try {
-            String type = question.getType().toLowerCase().trim();
-
-            switch (type) {
-                case "multiple-choice":
-                case "multiple_choice":
-                case "multiplechoice":
-                    return gradeMultipleChoice(question, studentAnswer);
-
-                case "true-false":
-                case "true_false":
-                case "truefalse":
-                case "boolean":
-                    return gradeTrueFalse(question, studentAnswer);
-
-                case "short-answer":
-                case "short_answer":
-                case "shortanswer":
-                case "text":
-                case "fill-in-the-blank":
-                case "fill_in_the_blank":
-                    return gradeTextQuestionWithEnhancedDebugging(question, studentAnswer);
-
-                default:
-                    return 0;
-            }
-
-        } catch (Exception e) {
-            System.err.println("Error grading question " + question.getId() + ": " + e.getMessage());
-            e.printStackTrace();
-            return 0;
-        }
-    }
-
-    // FIXED: Enhanced text question grading with detailed debugging
-    private int gradeTextQuestionWithEnhancedDebugging(ExamQuestion question, String studentAnswer) {
-
-        List<String> acceptableAnswers = question.getAcceptableAnswers();
-
-        if (acceptableAnswers != null && !acceptableAnswers.isEmpty()) {
-            for (int i = 0; i < acceptableAnswers.size(); i++) {
-            }
-        }
-
-        Boolean caseSensitive = question.getCaseSensitive();
-        boolean isCaseSensitive = caseSensitive != null && caseSensitive;
-
-        Integer questionPoints = question.getPoints();
-
-        if (acceptableAnswers == null || acceptableAnswers.isEmpty()) {
-            return 0;
-        }
-
-        // Trim student answer and handle null case
-        if (studentAnswer == null) {
-            return 0;
-        }
-
-        String trimmedStudentAnswer = studentAnswer.trim();
-        if (trimmedStudentAnswer.isEmpty()) {
-            return 0;
-        }
-
-        final String answerToCheck = isCaseSensitive ? trimmedStudentAnswer : trimmedStudentAnswer.toLowerCase();
-
-        // Check if answer matches any acceptable answer
-        boolean correct = false;
-        for (int i = 0; i < acceptableAnswers.size(); i++) {
-            String acceptable = acceptableAnswers.get(i);
-
-            if (acceptable == null) {
-                continue;
-            }
-
-            String trimmedAcceptable = acceptable.trim();
-            if (trimmedAcceptable.isEmpty()) {
-                continue;
-            }
-
-            String acceptableAnswer = isCaseSensitive ? trimmedAcceptable : trimmedAcceptable.toLowerCase();
-
-            if (acceptableAnswer.equals(answerToCheck)) {
-                correct = true;
-                break;
-            } else {
-
-                // Character-by-character comparison for debugging
-                if (acceptableAnswer.length() == answerToCheck.length()) {
-                    for (int j = 0; j < acceptableAnswer.length(); j++) {
-                        char expected = acceptableAnswer.charAt(j);
-                        char actual = answerToCheck.charAt(j);
-                        if (expected != actual) {
-                        }
-                    }
-                }
-            }
-        }
-
-        int pointsToAward = 0;
-        if (correct) {
-            pointsToAward = questionPoints != null ? questionPoints : 0;
-        } else {
-        }
-        return pointsToAward;
-    }
-
     //  Update individual question score
     @Override
     public ExamResponse updateQuestionScore(String responseId, String questionId, Integer score, String feedback, String instructorId) {
 
-        ExamResponse response = getResponse(responseId);
+        ExamResponse response = getLiveResponse(responseId);
+        Double previousGrade = ExamLiveStats.gradedPercentage(response);
         Exam exam = getExamById(response.getExamId());
 
         // Find the question to validate max points
@@ -1085,14 +968,14 @@ public class ExamServiceImpl implements ExamService {
         }
 
         ExamResponse updatedResponse = examResponseRepository.save(response);
+        examLiveStats.scoreChanged(updatedResponse.getExamId(), previousGrade, ExamLiveStats.gradedPercentage(updatedResponse));
 
         // Sync with grade column if fully graded
         if (allQuestionsGraded) {
             try {
                 syncExamGradeToGradeColumn(updatedResponse, exam);
             } catch (Exception e) {
-                System.err.println("⚠️ Failed to sync grade to grade column: " + e.getMessage());
-                e.printStackTrace();
+                log.error("Failed to sync grade to grade column", e);
             }
         }
         return updatedResponse;
@@ -1102,7 +985,7 @@ public class ExamServiceImpl implements ExamService {
     @Override
     public ExamResponse flagResponseForReview(String responseId, String reason, String priority, String instructorId) {
 
-        ExamResponse response = getResponse(responseId);
+        ExamResponse response = getLiveResponse(responseId);
 
         response.setFlaggedForReview(true);
         if (response.getInstructorFeedback() == null) {
@@ -1118,7 +1001,7 @@ public class ExamServiceImpl implements ExamService {
     @Override
     public ExamResponse unflagResponse(String responseId, String instructorId) {
 
-        ExamResponse response = getResponse(responseId);
+        ExamResponse response = getLiveResponse(responseId);
 
         response.setFlaggedForReview(false);
         // Remove flag markers from feedback
@@ -1140,7 +1023,7 @@ public class ExamServiceImpl implements ExamService {
 
         for (String responseId : responseIds) {
             try {
-                ExamResponse response = getResponse(responseId);
+                ExamResponse response = getLiveResponse(responseId);
 
                 // Update feedback if provided
                 if (instructorFeedback != null && !instructorFeedback.trim().isEmpty()) {
@@ -1159,8 +1042,7 @@ public class ExamServiceImpl implements ExamService {
                 batchGradedResponses.add(savedResponse);
 
             } catch (Exception e) {
-                System.err.println("Error batch grading response " + responseId + ": " + e.getMessage());
-                e.printStackTrace();
+                log.error("Error batch grading response {}", responseId, e);
             }
         }
         return batchGradedResponses;
@@ -1169,79 +1051,7 @@ public class ExamServiceImpl implements ExamService {
     //  Get grading statistics for an exam
     @Override
     public Map<String, Object> getExamGradingStats(String examId) {
-
-        List<ExamResponse> responses = examResponseRepository.findByExamId(examId);
-
-        Map<String, Object> stats = new HashMap<>();
-
-        if (responses.isEmpty()) {
-            stats.put("totalResponses", 0);
-            stats.put("gradedResponses", 0);
-            stats.put("autoGradedResponses", 0);
-            stats.put("manuallyGradedResponses", 0);
-            stats.put("needsGrading", 0);
-            stats.put("flaggedResponses", 0);
-            stats.put("averageGradingTimeSeconds", 0);
-            stats.put("gradingProgress", 0.0);
-            return stats;
-        }
-
-        // Calculate statistics without lambda expressions
-        long totalResponses = responses.size();
-
-        long gradedResponses = 0;
-        long autoGradedResponses = 0;
-        long manuallyGradedResponses = 0;
-        long needsGrading = 0;
-        long flaggedResponses = 0;
-        long passedResponses = 0;
-        long inProgressResponses = 0;
-        long submittedResponses = 0;
-
-        for (ExamResponse response : responses) {
-            if (Boolean.TRUE.equals(response.getGraded())) {
-                gradedResponses++;
-                if (Boolean.TRUE.equals(response.getAutoGraded())) {
-                    autoGradedResponses++;
-                } else {
-                    manuallyGradedResponses++;
-                }
-            }
-
-            if (!Boolean.TRUE.equals(response.getGraded()) && "SUBMITTED".equals(response.getStatus())) {
-                needsGrading++;
-            }
-
-            if (Boolean.TRUE.equals(response.getFlaggedForReview())) {
-                flaggedResponses++;
-            }
-
-            if (Boolean.TRUE.equals(response.getPassed())) {
-                passedResponses++;
-            }
-
-            if ("IN_PROGRESS".equals(response.getStatus())) {
-                inProgressResponses++;
-            }
-
-            if ("SUBMITTED".equals(response.getStatus())) {
-                submittedResponses++;
-            }
-        }
-
-        double gradingProgress = totalResponses > 0 ? (gradedResponses * 100.0) / totalResponses : 0.0;
-
-        stats.put("totalResponses", totalResponses);
-        stats.put("gradedResponses", gradedResponses);
-        stats.put("autoGradedResponses", autoGradedResponses);
-        stats.put("manuallyGradedResponses", manuallyGradedResponses);
-        stats.put("needsGrading", needsGrading);
-        stats.put("flaggedResponses", flaggedResponses);
-        stats.put("passedResponses", passedResponses);
-        stats.put("gradingProgress", Math.round(gradingProgress * 100.0) / 100.0);
-        stats.put("inProgressResponses", responses.stream().filter(r -> "IN_PROGRESS".equals(r.getStatus())).count());
-        stats.put("submittedResponses", responses.stream().filter(r -> "SUBMITTED".equals(r.getStatus())).count());
-        return stats;
+        return examStatsAggregator.gradingStats(examId);
     }
 
     // Sync exam grade to grade column
@@ -1271,119 +1081,91 @@ public class ExamServiceImpl implements ExamService {
             gradeService.updateStudentGrade(examResponse.getStudentId(), gradeColumn.getId(), gradePercentage);
 
         } catch (Exception e) {
-            System.err.println("Error syncing exam grade to grade column: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error syncing exam grade to grade column", e);
             throw new RuntimeException("Failed to sync exam grade to grade column: " + e.getMessage());
         }
     }
 
     @Override
-    public List<ExamResponse> autoGradeAllResponses(String examId) {
+    @CacheEvict(value = CacheNames.EXAMS, key = "#examId")
+    public AutoGradeJob autoGradeAllResponses(String examId, String requestedBy) {
 
         // Verify exam exists and get updated total points
         Exam exam = getExamById(examId);
         exam.recalculateTotalPoints();
-        examRepository.save(exam);
-
-        List<ExamResponse> ungraded = examResponseRepository.findUngraded(examId);
-        List<ExamResponse> graded = new ArrayList<>();
-        int successCount = 0;
-        int failCount = 0;
+        Exam saved = examRepository.save(exam);
 
-        for (ExamResponse response : ungraded) {
-            try {
-                // Skip if response is already being manually graded
-                if ("GRADING_IN_PROGRESS".equals(response.getStatus())) {
-                    continue;
-                }
+        // Graded in the background; the caller polls the job for progress
+        return autoGradeJobService.start(saved, requestedBy);
+    }
 
-                ExamResponse gradedResponse = autoGradeResponse(response.getId());
-                graded.add(gradedResponse);
-                successCount++;
+    @Override
+    public AutoGradeJob getAutoGradeJob(String examId, String jobId) {
+        return autoGradeJobService.get(jobId)
+                .filter(job -> examId.equals(job.getExamId()))
+                .orElseThrow(() -> new RuntimeException("Auto-grade job not found: " + jobId));
+    }
 
-            } catch (Exception e) {
-                System.err.println("Failed to auto-grade response " + response.getId() + ": " + e.getMessage());
-                e.printStackTrace();
-                failCount++;
+    @Override
+    public ExamStatsResponse getExamStats(String examId) {
+        return examStatsAggregator.examStats(getExamById(examId));
+    }
 
-                // Mark as failed auto-grading for manual review
-                try {
-                    response.setStatus("AUTO_GRADE_FAILED");
-                    response.setInstructorFeedback("Auto-grading failed: " + e.getMessage());
-                    examResponseRepository.save(response);
-                } catch (Exception saveError) {
-                    System.err.println("Failed to save error status: " + saveError.getMessage());
-                }
-            }
-        }
+    @Override
+    public List<ExamStatsResponse> getCourseExamStats(String courseId) {
+        // One aggregation for all the course's exams
+        return examStatsAggregator.examStats(examRepository.findByCourseId(courseId));
+    }
 
-        return graded;
+    @Override
+    public ExamItemAnalysisResponse getItemAnalysis(String examId) {
+        return examStatsAggregator.itemAnalysis(getExamById(examId));
     }
 
     @Override
-    public ExamStatsResponse getExamStats(String examId) {
+    public ExamLiveStatsResponse getLiveStats(String examId) {
+        getExamById(examId);
+        return examLiveStats.get(examId);
+    }
 
+    @Override
+    public ExamExportJob exportResponses(String examId, String format, String requestedBy, boolean admin) {
+        ExportFormat exportFormat = ExportFormat.resolve(format);
         Exam exam = getExamById(examId);
-        List<ExamResponse> responses = examResponseRepository.findByExamId(examId);
-
-        // Calculate graded responses without lambda
-        List<ExamResponse> graded = new ArrayList<>();
-        for (ExamResponse response : responses) {
-            if (Boolean.TRUE.equals(response.getGraded())) {
-                graded.add(response);
-            }
+        // Every student's answers, scores and name: only for the lecturers of the course
+        if (!admin && !courseAccessService.canAccessCourse(requestedBy, "1200", exam.getCourseId())) {
+            throw new AccessDeniedException("You can only export exams of courses you teach");
         }
+        // Written in the background; the caller polls the job for the download link
+        return examExportService.start(exam, exportFormat, requestedBy);
+    }
 
-        // Calculate average score without lambda
-        double averageScore = 0.0;
-        if (!graded.isEmpty()) {
-            double total = 0.0;
-            for (ExamResponse response : graded) {
-                total += response.getPercentage();
-            }
-            averageScore = total / graded.size();
-        }
+    @Override
+    public ExamExportJob getExportJob(String jobId) {
+        return examExportService.get(jobId)
+                .orElseThrow(() -> new RuntimeException("Export not found: " + jobId));
+    }
 
-        // Calculate passed count without lambda
-        long passed = 0;
-        for (ExamResponse response : graded) {
-            if (Boolean.TRUE.equals(response.getPassed())) {
-                passed++;
-            }
-        }
+    @Override
+    public InputStream openExport(ExamExportJob job) {
+        return examExportService.open(job);
+    }
 
-        // Calculate submitted count without lambda
-        long submittedCount = 0;
-        for (ExamResponse response : responses) {
-            if (response.isSubmitted()) {
-                submittedCount++;
-            }
-        }
+    // ===================================
+    // ADMINISTRATION
+    // ===================================
 
-        return ExamStatsResponse.builder()
-                .examId(examId)
-                .examTitle(exam.getTitle())
-                .totalResponses((long) responses.size())
-                .submittedResponses(submittedCount)
-                .gradedResponses((long) graded.size())
-                .passedResponses(passed)
-                .averageScore(averageScore)
-                .passRate(graded.isEmpty() ? 0.0 : (passed * 100.0) / graded.size())
-                .completionRate(responses.isEmpty() ? 0.0 : (submittedCount * 100.0) / responses.size())
-                .build();
+    @Override
+    public ExamSystemSummaryResponse getSystemSummary() {
+        LocalDateTime now = LocalDateTime.now();
+        // Counted with the same cut-offs the cleanup acts on
+        return examStatsAggregator.systemSummary(
+                staleAttemptCleanup.overdueBefore(now), staleAttemptCleanup.abandonedBefore(now));
     }
 
     @Override
-    public List<ExamStatsResponse> getCourseExamStats(String courseId) {
-        List<Exam> exams = examRepository.findByCourseId(courseId);
-        List<ExamStatsResponse> statsResponses = new ArrayList<>();
-
-        for (Exam exam : exams) {
-            ExamStatsResponse stats = getExamStats(exam.getId());
-            statsResponses.add(stats);
-        }
-
-        return statsResponses;
+    public ExamCleanupReport cleanupStaleAttempts(boolean dryRun) {
+        return staleAttemptCleanup.run(dryRun);
     }
 
     @Override
@@ -1424,164 +1206,6 @@ public class ExamServiceImpl implements ExamService {
         }
     }
 
-    // ORIGINAL: Keep the original gradeQuestion method for backward compatibility
-    private int gradeQuestion(ExamQuestion question, String studentAnswer) {
-        if (studentAnswer == null || studentAnswer.trim().isEmpty()) {
-            return 0;
-        }
-
-        try {
-            if (question.isMultipleChoice()) {
-                return gradeMultipleChoice(question, studentAnswer);
-            }
-
-            if (question.isTrueFalse()) {
-                return gradeTrueFalse(question, studentAnswer);
-            }
-
-            if (question.isTextQuestion()) {
-                return gradeTextQuestion(question, studentAnswer);
-            }
-
-            // Essay questions cannot be auto-graded
-            return 0;
-
-        } catch (Exception e) {
-            System.err.println("Error grading question " + question.getId() + ": " + e.getMessage());
-            e.printStackTrace();
-            return 0;
-        }
-    }
-
-    private int gradeMultipleChoice(ExamQuestion question, String studentAnswer) {
-        Integer correctIndex = question.getCorrectAnswerIndex();
-        if (correctIndex == null) {
-            System.err.println("No correct answer index set for multiple choice question " + question.getId());
-            return 0;
-        }
-
-        List<String> options = question.getOptions();
-        if (options == null || options.isEmpty()) {
-            System.err.println("No options available for multiple choice question " + question.getId());
-            return 0;
-        }
-
-        int studentAnswerIndex = -1;
-
-        // Try to parse as index first (for backward compatibility)
-        try {
-            studentAnswerIndex = Integer.parseInt(studentAnswer.trim());
-        } catch (NumberFormatException e) {
-            // If not a number, treat as text answer and find its index
-
-            for (int i = 0; i < options.size(); i++) {
-                if (options.get(i) != null && options.get(i).trim().equals(studentAnswer.trim())) {
-                    studentAnswerIndex = i;
-                    break;
-                }
-            }
-
-            if (studentAnswerIndex == -1) {
-                System.err.println("Student answer '" + studentAnswer + "' not found in options for question " + question.getId());
-                return 0;
-            }
-        }
-
-        // Check if the answer is correct
-        if (studentAnswerIndex == correctIndex) {
-            return question.getPoints() != null ? question.getPoints() : 0;
-        } else {
-            return 0;
-        }
-    }
-
-    private int gradeTrueFalse(ExamQuestion question, String studentAnswer) {
-        String correctAnswer = question.getCorrectAnswer();
-        if (correctAnswer == null) {
-            System.err.println("No correct answer set for true/false question " + question.getId());
-            return 0;
-        }
-
-        // Normalize answers for comparison
-        String normalizedStudentAnswer = studentAnswer.trim().toLowerCase();
-        String normalizedCorrectAnswer = correctAnswer.trim().toLowerCase();
-
-        // Handle various true/false formats
-        boolean studentBool = parseBoolean(normalizedStudentAnswer);
-        boolean correctBool = parseBoolean(normalizedCorrectAnswer);
-
-        boolean correct = (studentBool == correctBool);
-
-        if (correct) {
-            return question.getPoints() != null ? question.getPoints() : 0;
-        } else {
-            return 0;
-        }
-    }
-
-    private boolean parseBoolean(String value) {
-        if (value == null) return false;
-        value = value.trim().toLowerCase();
-
-        // Handle various true representations
-        if (value.equals("true") || value.equals("1") || value.equals("yes") ||
-                value.equals("t") || value.equals("y")) {
-            return true;
-        }
-
-        // Handle various false representations
-        if (value.equals("false") || value.equals("0") || value.equals("no") ||
-                value.equals("f") || value.equals("n")) {
-            return false;
-        }
-
-        // Default to false for unrecognized values
-        return false;
-    }
-
-    // FIXED: Enhanced original gradeTextQuestion method
-    private int gradeTextQuestion(ExamQuestion question, String studentAnswer) {
-
-        List<String> acceptableAnswers = question.getAcceptableAnswers();
-
-        if (acceptableAnswers == null || acceptableAnswers.isEmpty()) {
-            return 0;
-        }
-
-        Boolean caseSensitive = question.getCaseSensitive();
-        boolean isCaseSensitive = caseSensitive != null && caseSensitive;
-
-        // Handle null/empty student answer
-        if (studentAnswer == null || studentAnswer.trim().isEmpty()) {
-            return 0;
-        }
-
-        // Make this variable final by not reassigning it
-        final String answerToCheck = isCaseSensitive ? studentAnswer.trim() : studentAnswer.trim().toLowerCase();
-
-        // Check if answer matches any acceptable answer without using lambda
-        boolean correct = false;
-        for (String acceptable : acceptableAnswers) {
-            if (acceptable == null || acceptable.trim().isEmpty()) {
-                continue;
-            }
-
-            String acceptableAnswer = isCaseSensitive ? acceptable.trim() : acceptable.trim().toLowerCase();
-
-            if (acceptableAnswer.equals(answerToCheck)) {
-                correct = true;
-                break;
-            }
-        }
-
-        if (correct) {
-            int points = question.getPoints() != null ? question.getPoints() : 0;
-            return points;
-        } else {
-            return 0;
-        }
-    }
-
     public boolean canStudentViewResponse(String responseId, String username) {
         try {
             ExamResponse response = getResponse(responseId);
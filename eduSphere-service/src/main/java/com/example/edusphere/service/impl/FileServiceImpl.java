@@ -1,25 +1,26 @@
 package com.example.edusphere.service.impl;
 
-import com.example.common.controller.FileUploadController;
+import com.example.common.exceptions.FileStorageException;
 import com.example.common.exceptions.ResourceNotFoundException;
+import com.example.common.upload.UploadRegistry;
+import com.example.common.upload.UploadStorage;
 import com.example.edusphere.dto.request.FileUploadRequest;
 import com.example.edusphere.dto.response.FileResponse;
-import com.example.edusphere.entity.Course;
 import com.example.edusphere.entity.File;
 import com.example.edusphere.repository.FileRepository;
-import com.example.edusphere.repository.CourseRepository;
+import com.example.edusphere.service.CourseAccessService;
 import com.example.edusphere.service.FileService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.http.ResponseEntity;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class FileServiceImpl implements FileService {
@@ -28,33 +29,36 @@ public class FileServiceImpl implements FileService {
     private FileRepository fileRepository;
 
     @Autowired
-    private FileUploadController fileUploadController;
+    private UploadStorage uploadStorage;
 
     @Autowired
-    private CourseRepository courseRepository;
+    private UploadRegistry uploadRegistry;
+
+    @Autowired
+    private CourseAccessService courseAccessService;
 
     @Override
     public FileResponse uploadFileWithMetadata(MultipartFile file, FileUploadRequest fileMetadata, String uploaderId, String uploaderName) {
-        ResponseEntity<Map<String, String>> uploadResponse = fileUploadController.uploadFile("edusphere", "file", file);
-
-        if (!uploadResponse.getStatusCode().is2xxSuccessful() || uploadResponse.getBody() == null) {
-            throw new RuntimeException("File upload failed via FileUploadController");
+        UploadStorage.StoredFile stored;
+        try {
+            stored = uploadStorage.store("edusphere", "file", file);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("File upload failed: " + e.getMessage(), e);
         }
-
-        Map<String, String> body = uploadResponse.getBody();
+        uploadRegistry.recordUpload(stored.url(), uploaderId);
 
         File fileEntity = new File();
         fileEntity.setName(fileMetadata.getName());
         fileEntity.setDescription(fileMetadata.getDescription());
         fileEntity.setCategory(fileMetadata.getCategory());
 
-        String originalFilename = body.get("originalName");
+        String originalFilename = stored.originalName();
         fileEntity.setType(originalFilename != null && originalFilename.lastIndexOf(".") != -1
                 ? originalFilename.substring(originalFilename.lastIndexOf(".") + 1)
                 : "Unknown");
-        fileEntity.setSize(body.get("size"));
-        fileEntity.setFileUrl(body.get("url"));
-        fileEntity.setFilename(body.get("filename"));
+        fileEntity.setSize(String.valueOf(stored.size()));
+        fileEntity.setFileUrl(stored.url());
+        fileEntity.setFilename(stored.filename());
 
         fileEntity.setUploadedByUserId(uploaderId);
         fileEntity.setUploadedByUserName(uploaderName);
@@ -72,104 +76,117 @@ public class FileServiceImpl implements FileService {
 
     @Override
     public List<FileResponse> getAccessibleFiles(String userId, String userRole, String userDepartment) {
-        List<File> allFiles = fileRepository.findFilesForBaseFiltering();
         List<File> files;
 
         if ("1100".equals(userRole)) { // Admin
             files = fileRepository.findAllByOrderByUploadDateDesc();
-        } else if ("1200".equals(userRole)) { // Lecturer
-            Set<String> lecturerDepartments = courseRepository.findByLecturerId(userId).stream()
-                    .map(Course::getDepartment)
-                    .collect(Collectors.toSet());
-
-            Set<String> lecturerCourseIds = courseRepository.findByLecturerId(userId).stream()
-                    .map(Course::getId)
-                    .collect(Collectors.toSet());
-
-            files = allFiles.stream()
-                    .filter(file -> {
-                        String accessType = file.getAccessType();
-                        String accessBy = file.getAccessBy();
-                        String accessValue = file.getAccessValue();
-                        List<String> recipientIds = file.getRecipientIds();
-
-                        // Check if user is specifically targeted
-                        if (recipientIds != null && recipientIds.contains(userId)) {
-                            return true;
-                        }
-
-                        // Public files
-                        if ("public".equals(accessType)) {
-                            return true;
-                        }
-
-                        // Files for all lecturers
-                        if ("lecturers".equals(accessType)) {
-                            return true;
-                        }
-
-                        // Files for students in lecturer's departments
-                        if ("students".equals(accessType) && "Department".equals(accessBy) && lecturerDepartments.contains(accessValue)) {
-                            return true;
-                        }
-
-                        // Files for specific courses lecturer teaches
-                        if ("course".equals(accessType) && lecturerCourseIds.contains(accessValue)) {
-                            return true;
-                        }
-
-                        return false;
-                    })
-                    .collect(Collectors.toList());
-        } else { // Student
-            Set<String> studentDepartments = courseRepository.findByEnrollments_StudentIds(userId).stream()
-                    .map(Course::getDepartment)
-                    .collect(Collectors.toSet());
-
-            Set<String> studentCourseIds = courseRepository.findByEnrollments_StudentIds(userId).stream()
-                    .map(Course::getId)
-                    .collect(Collectors.toSet());
-
-            files = allFiles.stream()
-                    .filter(file -> {
-                        String accessType = file.getAccessType();
-                        String accessBy = file.getAccessBy();
-                        String accessValue = file.getAccessValue();
-                        List<String> recipientIds = file.getRecipientIds();
-
-                        // Check if user is specifically targeted
-                        if (recipientIds != null && recipientIds.contains(userId)) {
-                            return true;
-                        }
-
-                        // Public files
-                        if ("public".equals(accessType)) {
-                            return true;
-                        }
-
-                        // Files for students in their departments
-                        if ("students".equals(accessType) && "Department".equals(accessBy) && studentDepartments.contains(accessValue)) {
-                            return true;
-                        }
-
-                        // Files for lecturers in their departments (students can see these too)
-                        if ("lecturers".equals(accessType) && "Department".equals(accessBy) && studentDepartments.contains(accessValue)) {
-                            return true;
-                        }
-
-                        // Files for specific courses student is enrolled in
-                        if ("course".equals(accessType) && studentCourseIds.contains(accessValue)) {
-                            return true;
-                        }
-
-                        return false;
-                    })
+        } else {
+            Predicate<File> accessFilter = buildAccessFilter(userId, userRole);
+            files = fileRepository.findFilesForBaseFiltering().stream()
+                    .filter(accessFilter)
                     .collect(Collectors.toList());
         }
 
         return files.stream().map(this::mapToResponse).collect(Collectors.toList());
     }
 
+    @Override
+    public Stream<FileResponse> streamAccessibleFiles(String userId, String userRole, String userDepartment) {
+        if ("1100".equals(userRole)) { // Admin
+            return fileRepository.streamAllByOrderByUploadDateDesc().map(this::mapToResponse);
+        }
+
+        Predicate<File> accessFilter = buildAccessFilter(userId, userRole);
+        return fileRepository.streamFilesForBaseFiltering()
+                .filter(accessFilter)
+                .map(this::mapToResponse);
+    }
+
+    /**
+     * Builds the non-admin visibility rules once per request so the same check can run
+     * over an in-memory list or a database cursor.
+     */
+    private Predicate<File> buildAccessFilter(String userId, String userRole) {
+        if ("1200".equals(userRole)) { // Lecturer
+            CourseAccessService.MyCourses lecturerCourses = courseAccessService.getMyCourses(userId, userRole);
+            Set<String> lecturerDepartments = lecturerCourses.getDepartments();
+            Set<String> lecturerCourseIds = lecturerCourses.getCourseIds();
+
+            return file -> {
+                String accessType = file.getAccessType();
+                String accessBy = file.getAccessBy();
+                String accessValue = file.getAccessValue();
+                List<String> recipientIds = file.getRecipientIds();
+
+                // Check if user is specifically targeted
+                if (recipientIds != null && recipientIds.contains(userId)) {
+                    return true;
+                }
+
+                // Public files
+                if ("public".equals(accessType)) {
+                    return true;
+                }
+
+                // Files for all lecturers
+                if ("lecturers".equals(accessType)) {
+                    return true;
+                }
+
+                // Files for students in lecturer's departments
+                if ("students".equals(accessType) && "Department".equals(accessBy) && lecturerDepartments.contains(accessValue)) {
+                    return true;
+                }
+
+                // Files for specific courses lecturer teaches
+                if ("course".equals(accessType) && lecturerCourseIds.contains(accessValue)) {
+                    return true;
+                }
+
+                return false;
+            };
+        }
+
+        // Student
+        CourseAccessService.MyCourses studentCourses = courseAccessService.getMyCourses(userId, userRole);
+        Set<String> studentDepartments = studentCourses.getDepartments();
+        Set<String> studentCourseIds = studentCourses.getCourseIds();
+
+        return file -> {
+            String accessType = file.getAccessType();
+            String accessBy = file.getAccessBy();
+            String accessValue = file.getAccessValue();
+            List<String> recipientIds = file.getRecipientIds();
+
+            // Check if user is specifically targeted
+            if (recipientIds != null && recipientIds.contains(userId)) {
+                return true;
+            }
+
+            // Public files
+            if ("public".equals(accessType)) {
+                return true;
+            }
+
+            // Files for students in their departments
+            if ("students".equals(accessType) && "Department".equals(accessBy) && studentDepartments.contains(accessValue)) {
+                return true;
+            }
+
+            // Files for lecturers in their departments (students can see these too)
+            if ("lecturers".equals(accessType) && "Department".equals(accessBy) && studentDepartments.contains(accessValue)) {
+                return true;
+            }
+
+            // Files for specific courses student is enrolled in
+            if ("course".equals(accessType) && studentCourseIds.contains(accessValue)) {
+                return true;
+            }
+
+            return false;
+        };
+    }
+
     @Override
     public FileResponse getFileMetadata(String fileId) {
         File file = fileRepository.findById(fileId)
@@ -186,9 +203,11 @@ public class FileServiceImpl implements FileService {
             throw new AccessDeniedException("You do not have permission to delete this file.");
         }
 
-        String context = "edusphere";
-        String type = "file";
-        fileUploadController.deleteFile(context, type, fileToDelete.getFilename());
+        try {
+            uploadStorage.delete("edusphere", "file", fileToDelete.getFilename());
+        } catch (FileStorageException e) {
+            // The record goes regardless; a file left on disk is only wasted space
+        }
 
         fileRepository.delete(fileToDelete);
     }
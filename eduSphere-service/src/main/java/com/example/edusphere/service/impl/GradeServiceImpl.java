@@ -5,32 +5,51 @@ import com.example.edusphere.entity.StudentGrade;
 import com.example.edusphere.repository.GradeColumnRepository;
 import com.example.edusphere.repository.StudentGradeRepository;
 import com.example.edusphere.service.GradeService;
+import com.example.common.config.CacheNames;
+import com.mongodb.bulk.BulkWriteResult;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 @Transactional
 public class GradeServiceImpl implements GradeService {
 
+    private static final int BULK_BATCH_SIZE = 500;
+
     private final GradeColumnRepository gradeColumnRepository;
     private final StudentGradeRepository studentGradeRepository;
+    private final MongoTemplate mongoTemplate;
 
     public GradeServiceImpl(GradeColumnRepository gradeColumnRepository,
-                            StudentGradeRepository studentGradeRepository) {
+                            StudentGradeRepository studentGradeRepository,
+                            MongoTemplate mongoTemplate) {
         this.gradeColumnRepository = gradeColumnRepository;
         this.studentGradeRepository = studentGradeRepository;
+        this.mongoTemplate = mongoTemplate;
     }
 
+    // Evicted by GradeColumnCacheEvictionListener on every grade column write, whichever service makes it
     @Override
+    @Cacheable(value = CacheNames.GRADE_COLUMNS, key = "#courseId")
     public List<GradeColumn> getGradeColumnsByCourse(String courseId) {
         try {
             List<GradeColumn> columns = gradeColumnRepository.findByCourseIdAndIsActiveTrue(courseId);
             return columns;
         } catch (Exception e) {
-            System.err.println("Error fetching grade columns: " + e.getMessage());
+            log.warn("Error fetching grade columns: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -143,11 +162,16 @@ public class GradeServiceImpl implements GradeService {
             List<StudentGrade> grades = studentGradeRepository.findByCourseId(courseId);
             return grades;
         } catch (Exception e) {
-            System.err.println("Error fetching grades: " + e.getMessage());
+            log.warn("Error fetching grades: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
 
+    @Override
+    public Stream<StudentGrade> streamGradesByCourse(String courseId) {
+        return studentGradeRepository.streamByCourseId(courseId);
+    }
+
     @Override
     public StudentGrade updateStudentGrade(String studentId, String columnId, Double grade) {
 
@@ -192,22 +216,102 @@ public class GradeServiceImpl implements GradeService {
             return savedGrade;
 
         } catch (Exception e) {
-            System.err.println("Error updating student grade: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error updating student grade", e);
             throw new RuntimeException("Failed to update student grade: " + e.getMessage());
         }
     }
 
+    /**
+     * Sets one column's grade for many students at once: the column is checked once, the existing
+     * records are read in one query per batch, and the grade plus the recalculated final grade go
+     * back in a single unordered bulk write per batch. Only {@code grades.<columnId>} and the final
+     * grade fields are written, so other columns updated concurrently are left alone.
+     *
+     * @return number of student records written
+     */
+    @Override
+    public int updateStudentGrades(String columnId, Map<String, Double> gradesByStudent) {
+        if (gradesByStudent.isEmpty()) {
+            return 0;
+        }
+
+        GradeColumn column = gradeColumnRepository.findById(columnId)
+                .orElseThrow(() -> new RuntimeException("Grade column not found with ID: " + columnId));
+        if (!column.getIsActive()) {
+            throw new RuntimeException("Cannot update grade for inactive column: " + columnId);
+        }
+        for (Map.Entry<String, Double> entry : gradesByStudent.entrySet()) {
+            Double grade = entry.getValue();
+            if (grade != null && (grade < 0 || grade > 100)) {
+                throw new RuntimeException("Grade must be between 0 and 100, got: " + grade);
+            }
+        }
+
+        String courseId = column.getCourseId();
+        List<GradeColumn> columns = getGradeColumnsByCourse(courseId);
+        List<String> studentIds = new ArrayList<>(gradesByStudent.keySet());
+        int written = 0;
+
+        for (int from = 0; from < studentIds.size(); from += BULK_BATCH_SIZE) {
+            List<String> batch = studentIds.subList(from, Math.min(from + BULK_BATCH_SIZE, studentIds.size()));
+
+            Map<String, List<StudentGrade>> existing = mongoTemplate.find(
+                            Query.query(Criteria.where("courseId").is(courseId).and("studentId").in(batch)),
+                            StudentGrade.class)
+                    .stream()
+                    .collect(Collectors.groupingBy(StudentGrade::getStudentId));
+
+            LocalDateTime now = LocalDateTime.now();
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, StudentGrade.class);
+            for (String studentId : batch) {
+                List<StudentGrade> records = existing.getOrDefault(studentId, List.of());
+                StudentGrade record;
+                if (records.isEmpty()) {
+                    record = new StudentGrade();
+                    record.setStudentId(studentId);
+                    record.setCourseId(courseId);
+                } else {
+                    record = records.size() == 1 ? records.get(0) : mergeDuplicateRecords(new ArrayList<>(records));
+                }
+
+                Double grade = gradesByStudent.get(studentId);
+                Update update = new Update().set("updatedAt", now);
+                if (grade == null) {
+                    record.removeGrade(columnId);
+                    update.unset("grades." + columnId);
+                } else {
+                    record.setGrade(columnId, grade);
+                    update.set("grades." + columnId, grade);
+                }
+                Double finalGrade = calculateFinalGradeFromRecord(record, columns);
+                update.set("finalGrade", finalGrade).set("finalLetterGrade", calculateLetterGrade(finalGrade));
+
+                if (record.getId() != null) {
+                    ops.updateOne(Query.query(Criteria.where("_id").is(record.getId())), update);
+                } else {
+                    update.setOnInsert("createdAt", now);
+                    ops.upsert(Query.query(Criteria.where("studentId").is(studentId).and("courseId").is(courseId)), update);
+                }
+            }
+
+            BulkWriteResult result = ops.execute();
+            written += result.getMatchedCount() + result.getUpserts().size();
+        }
+        return written;
+    }
+
     /**
      * FIXED: Calculate final grade from an existing StudentGrade record
      * Now properly handles total percentages > 100% by normalizing to 100%
      */
     private Double calculateFinalGradeFromRecord(StudentGrade studentGrade, String courseId) {
+        // Get active grade columns for the course
+        return calculateFinalGradeFromRecord(studentGrade, getGradeColumnsByCourse(courseId));
+    }
 
-        try {
-            // Get active grade columns for the course
-            List<GradeColumn> columns = getGradeColumnsByCourse(courseId);
+    private Double calculateFinalGradeFromRecord(StudentGrade studentGrade, List<GradeColumn> columns) {
 
+        try {
             if (columns.isEmpty()) {
                 return 0.0;
             }
@@ -268,8 +372,7 @@ public class GradeServiceImpl implements GradeService {
             return finalGrade;
 
         } catch (Exception e) {
-            System.err.println("Error calculating final grade from record: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error calculating final grade from record", e);
             return 0.0;
         }
     }
@@ -368,8 +471,7 @@ public class GradeServiceImpl implements GradeService {
             return calculateFinalGradeFromRecord(studentGrade, courseId);
 
         } catch (Exception e) {
-            System.err.println("Error calculating final grade: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error calculating final grade", e);
             return 0.0;
         }
     }
@@ -451,13 +553,12 @@ public class GradeServiceImpl implements GradeService {
                         updatedCount++;
                     }
                 } catch (Exception e) {
-                    System.err.println("Error updating grades for student " + studentId + ": " + e.getMessage());
+                    log.warn("Error updating grades for student {}: {}", studentId, e.getMessage());
                 }
             }
 
         } catch (Exception e) {
-            System.err.println("Error during bulk recalculation: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error during bulk recalculation", e);
         }
     }
 
@@ -480,8 +581,7 @@ public class GradeServiceImpl implements GradeService {
             }
 
         } catch (Exception e) {
-            System.err.println("Error fixing all grades: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fixing all grades", e);
             throw new RuntimeException("Failed to fix all grades: " + e.getMessage());
         }
     }
@@ -550,8 +650,7 @@ public class GradeServiceImpl implements GradeService {
             }
 
         } catch (Exception e) {
-            System.err.println("Error during cleanup: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error during cleanup", e);
         }
     }
 }
\ No newline at end of file
@@ -15,6 +15,7 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class MessageServiceImpl implements MessageService {
@@ -137,6 +138,11 @@ public class MessageServiceImpl implements MessageService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Stream<MessageResponse> streamAllMessages() {
+        return messageRepository.streamAllBy().map(this::mapToResponse);
+    }
+
     private MessageResponse mapToResponse(Message message) {
         return new MessageResponse(
                 message.getId(),
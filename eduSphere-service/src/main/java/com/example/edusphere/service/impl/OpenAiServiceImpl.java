@@ -1,5 +1,6 @@
 package com.example.edusphere.service.impl;
 
+import com.example.common.config.CacheNames;
 import com.example.edusphere.service.OpenAiService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -73,7 +74,7 @@ public class OpenAiServiceImpl implements OpenAiService {
     private final Map<String, String> queryCache = new HashMap<>();
 
     @Override
-    @Cacheable(value = "mongoQueries", key = "#naturalLanguagePrompt.hashCode()")
+    @Cacheable(value = CacheNames.MONGO_QUERIES, key = "#naturalLanguagePrompt.hashCode()")
     public String generateMongoQuery(@NotBlank String naturalLanguagePrompt) {
         log.info("Generating MongoDB query for: {}", naturalLanguagePrompt.length() > 100 ?
                 naturalLanguagePrompt.substring(0, 100) + "..." : naturalLanguagePrompt);
@@ -1,11 +1,13 @@
 package com.example.edusphere.service.impl;
 
+import com.example.common.mongo.ReadFromSecondary;
 import com.example.edusphere.dto.request.GenerateReportRequest;
 import com.example.edusphere.dto.response.GenerateReportResponse;
 import com.example.edusphere.entity.Report;
 import com.example.edusphere.service.OpenAiService;
 import com.example.edusphere.service.ReportService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.bson.Document;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
@@ -24,6 +26,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ReportServiceImpl implements ReportService {
@@ -32,6 +35,7 @@ public class ReportServiceImpl implements ReportService {
     private final OpenAiService openAiService;
 
     @Override
+    @ReadFromSecondary
     public GenerateReportResponse generateReport(GenerateReportRequest request) {
         // ... (existing generateReport logic)
         String userQuery = request.getQuery();
@@ -104,7 +108,7 @@ public class ReportServiceImpl implements ReportService {
                     .build();
 
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             return GenerateReportResponse.builder().data(List.of()).build();
         }
     }
@@ -170,7 +174,7 @@ public class ReportServiceImpl implements ReportService {
                 result.add(row);
             }
         } catch (IOException e) {
-            e.printStackTrace();
+            log.error("Unexpected error", e);
         }
         return result;
     }
@@ -3,9 +3,8 @@ package com.example.edusphere.service.impl;
 import com.example.edusphere.dto.request.RequestRequestDto;
 import com.example.edusphere.dto.response.RequestResponseDto;
 import com.example.edusphere.entity.StudentRequest;
-import com.example.common.entity.UserEntity;
 import com.example.edusphere.repository.StudentRequestRepository;
-import com.example.common.repository.UserRepository;
+import com.example.common.service.UserResolver;
 import com.example.edusphere.service.RequestService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -21,11 +20,12 @@ import java.util.stream.Collectors;
 public class RequestServiceImpl implements RequestService {
 
     private final StudentRequestRepository requestRepository;
-    private final UserRepository userRepository;
+    private final UserResolver userResolver;
 
     @Override
     public List<RequestResponseDto> getRequestsByLecturerId(String lecturerId) {
         List<StudentRequest> requests = requestRepository.findByReceiverId(lecturerId);
+        userResolver.prime(requests.stream().map(StudentRequest::getSenderId).collect(Collectors.toList()));
         return requests.stream()
                 .map(this::mapToDto)
                 .collect(Collectors.toList());
@@ -81,8 +81,9 @@ public class RequestServiceImpl implements RequestService {
         dto.setSenderId(request.getSenderId());
 
         // Fetch sender's name
-        UserEntity sender = userRepository.findById(request.getSenderId()).orElse(null);
-        dto.setSenderName(sender != null ? sender.getName() : "Unknown Student");
+        dto.setSenderName(userResolver.resolve(request.getSenderId())
+                .map(sender -> sender.getName())
+                .orElse("Unknown Student"));
 
         dto.setReceiverId(request.getReceiverId());
         dto.setSubject(request.getSubject());
@@ -8,6 +8,13 @@ import com.example.edusphere.repository.ExamResponseRepository;
 import com.example.edusphere.service.StudentExamService;
 import com.example.edusphere.service.ExamService;
 import com.example.edusphere.dto.request.ExamResponseRequest;
+import com.example.common.archive.ArchiveService;
+import com.example.edusphere.attempt.AnswerAutosaveBuffer;
+import com.example.edusphere.attempt.ExamAttemptStarter;
+import com.example.edusphere.attempt.ExamSnapshot;
+import com.example.edusphere.attempt.ExamSnapshotCache;
+import com.example.edusphere.stats.ExamLiveStats;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,7 +22,9 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 @Transactional
 public class StudentExamServiceImpl implements StudentExamService {
@@ -23,13 +32,28 @@ public class StudentExamServiceImpl implements StudentExamService {
     private final ExamRepository examRepository;
     private final ExamResponseRepository examResponseRepository;
     private final ExamService examService; // For reusing auto-grading logic
+    private final ArchiveService archiveService;
+    private final ExamSnapshotCache examSnapshotCache;
+    private final ExamAttemptStarter examAttemptStarter;
+    private final AnswerAutosaveBuffer answerAutosaveBuffer;
+    private final ExamLiveStats examLiveStats;
 
     public StudentExamServiceImpl(ExamRepository examRepository,
                                   ExamResponseRepository examResponseRepository,
-                                  ExamService examService) {
+                                  ExamService examService,
+                                  ArchiveService archiveService,
+                                  ExamSnapshotCache examSnapshotCache,
+                                  ExamAttemptStarter examAttemptStarter,
+                                  AnswerAutosaveBuffer answerAutosaveBuffer,
+                                  ExamLiveStats examLiveStats) {
         this.examRepository = examRepository;
         this.examResponseRepository = examResponseRepository;
         this.examService = examService;
+        this.archiveService = archiveService;
+        this.examSnapshotCache = examSnapshotCache;
+        this.examAttemptStarter = examAttemptStarter;
+        this.answerAutosaveBuffer = answerAutosaveBuffer;
+        this.examLiveStats = examLiveStats;
     }
 
     // ===================================
@@ -57,8 +81,7 @@ public class StudentExamServiceImpl implements StudentExamService {
             return availableExams;
 
         } catch (Exception e) {
-            System.err.println("Error fetching available exams: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching available exams", e);
             throw new RuntimeException("Failed to fetch available exams: " + e.getMessage());
         }
     }
@@ -109,11 +132,10 @@ public class StudentExamServiceImpl implements StudentExamService {
             return examDetails;
 
         } catch (RuntimeException e) {
-            System.err.println("Runtime error: " + e.getMessage());
+            log.warn("Runtime error: {}", e.getMessage());
             throw e;
         } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             throw new RuntimeException("Failed to fetch exam details: " + e.getMessage());
         }
     }
@@ -126,43 +148,28 @@ public class StudentExamServiceImpl implements StudentExamService {
     public Map<String, Object> startExamAttempt(String examId, String studentId) {
 
         try {
-            // Check eligibility first
-            Map<String, Object> eligibility = checkExamEligibility(examId, studentId);
-            Boolean canTake = (Boolean) eligibility.get("canTake");
-
-            if (!canTake) {
-                String reason = (String) eligibility.get("reason");
+            // Served from the warmed snapshot: the exam itself is not read on the start path
+            ExamSnapshot exam = examSnapshotCache.get(examId);
+            String reason = exam.unavailableReason(LocalDateTime.now());
+            if (reason != null) {
                 throw new RuntimeException("Cannot start exam: " + reason);
             }
 
-            // Check for existing active attempt
-            Optional<ExamResponse> activeAttempt = examResponseRepository.findActiveResponse(examId, studentId);
-            if (activeAttempt.isPresent()) {
-                throw new RuntimeException("You already have an active attempt for this exam. Please resume or complete it first.");
+            int attemptCount = (int) examResponseRepository.countByExamIdAndStudentId(examId, studentId);
+            if (attemptCount >= exam.getMaxAttempts()) {
+                throw new RuntimeException("Cannot start exam: Maximum attempts (" + exam.getMaxAttempts() + ") reached");
             }
+            int attemptNumber = attemptCount + 1;
 
-            Exam exam = examRepository.findById(examId)
-                    .orElseThrow(() -> new RuntimeException("Exam not found with ID: " + examId));
-
-            // Calculate attempt number
-            int attemptNumber = (int) examResponseRepository.countByExamIdAndStudentId(examId, studentId) + 1;
-
-            // Create new exam response
-            ExamResponse response = new ExamResponse();
-            response.setExamId(examId);
-            response.setStudentId(studentId);
-            response.setCourseId(exam.getCourseId());
-            response.setStartedAt(LocalDateTime.now());
-            response.setStatus("IN_PROGRESS");
-            response.setMaxScore(exam.getTotalPoints());
-            response.setAttemptNumber(attemptNumber);
-            response.setAnswers(new HashMap<>());
-            response.setQuestionScores(new HashMap<>());
-
-            ExamResponse savedResponse = examResponseRepository.save(response);
+            // One conditional upsert: a double-click finds the attempt the first click created
+            ExamAttemptStarter.Attempt attempt = examAttemptStarter.start(exam, studentId, attemptNumber);
+            if (!attempt.isCreated()) {
+                throw new RuntimeException("You already have an active attempt for this exam. Please resume or complete it first.");
+            }
+            ExamResponse savedResponse = attempt.getResponse();
 
             // Prepare exam data for student (remove sensitive information)
-            Map<String, Object> examData = sanitizeExamForStudent(exam);
+            Map<String, Object> examData = exam.getStudentView();
 
             // Create response data
             Map<String, Object> attemptData = new HashMap<>();
@@ -176,11 +183,10 @@ public class StudentExamServiceImpl implements StudentExamService {
             return attemptData;
 
         } catch (RuntimeException e) {
-            System.err.println("Runtime error: " + e.getMessage());
+            log.warn("Runtime error: {}", e.getMessage());
             throw e;
         } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             throw new RuntimeException("Failed to start exam attempt: " + e.getMessage());
         }
     }
@@ -220,11 +226,10 @@ public class StudentExamServiceImpl implements StudentExamService {
             return savedResponse;
 
         } catch (RuntimeException e) {
-            System.err.println("Runtime error: " + e.getMessage());
+            log.warn("Runtime error: {}", e.getMessage());
             throw e;
         } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             throw new RuntimeException("Failed to save exam progress: " + e.getMessage());
         }
     }
@@ -233,6 +238,9 @@ public class StudentExamServiceImpl implements StudentExamService {
     public Map<String, Object> submitExam(ExamResponseRequest request, String studentId) {
 
         try {
+            // Autosaves still in the coalescing window go in before the attempt closes
+            answerAutosaveBuffer.flush(request.getExamId(), studentId);
+
             ExamResponse response = examResponseRepository.findActiveResponse(request.getExamId(), studentId)
                     .orElseThrow(() -> new RuntimeException("No active exam attempt found"));
 
@@ -271,6 +279,7 @@ public class StudentExamServiceImpl implements StudentExamService {
             }
 
             ExamResponse submittedResponse = examResponseRepository.save(response);
+            examLiveStats.attemptsSubmitted(submittedResponse.getExamId(), 1);
 
             // Attempt auto-grading
             boolean autoGraded = false;
@@ -285,8 +294,7 @@ public class StudentExamServiceImpl implements StudentExamService {
                 }
 
             } catch (Exception e) {
-                System.err.println("⚠️ Auto-grading failed: " + e.getMessage());
-                e.printStackTrace();
+                log.error("Auto-grading failed", e);
                 // Continue without auto-grading
             }
 
@@ -310,11 +318,10 @@ public class StudentExamServiceImpl implements StudentExamService {
             return submitResult;
 
         } catch (RuntimeException e) {
-            System.err.println("Runtime error: " + e.getMessage());
+            log.warn("Runtime error: {}", e.getMessage());
             throw e;
         } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             throw new RuntimeException("Failed to submit exam: " + e.getMessage());
         }
     }
@@ -331,8 +338,7 @@ public class StudentExamServiceImpl implements StudentExamService {
                 throw new RuntimeException("Unauthorized: This exam attempt does not belong to you");
             }
 
-            Exam exam = examRepository.findById(examId)
-                    .orElseThrow(() -> new RuntimeException("Exam not found"));
+            ExamSnapshot exam = examSnapshotCache.get(examId);
 
             // Check if exam is still available
             LocalDateTime now = LocalDateTime.now();
@@ -349,13 +355,13 @@ public class StudentExamServiceImpl implements StudentExamService {
             }
 
             // Prepare exam data for student
-            Map<String, Object> examData = sanitizeExamForStudent(exam);
+            Map<String, Object> examData = exam.getStudentView();
 
             // FIXED: Convert stored answers back to shuffled format for frontend display
             Map<String, String> currentAnswers = activeResponse.getAnswers();
             Map<String, String> displayAnswers = new HashMap<>();
 
-            if (currentAnswers != null && exam.getShuffleOptions()) {
+            if (currentAnswers != null && exam.isShuffleOptions()) {
                 // Note: This is complex because we need the original shuffle mapping
                 // For now, we'll pass the stored answers as-is and let frontend handle
                 displayAnswers = currentAnswers;
@@ -378,11 +384,10 @@ public class StudentExamServiceImpl implements StudentExamService {
             return resumeData;
 
         } catch (RuntimeException e) {
-            System.err.println("Runtime error: " + e.getMessage());
+            log.warn("Runtime error: {}", e.getMessage());
             throw e;
         } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             throw new RuntimeException("Failed to resume exam attempt: " + e.getMessage());
         }
     }
@@ -395,33 +400,23 @@ public class StudentExamServiceImpl implements StudentExamService {
     public Map<String, Object> checkExamEligibility(String examId, String studentId) {
 
         try {
-            Exam exam = examRepository.findById(examId)
-                    .orElseThrow(() -> new RuntimeException("Exam not found with ID: " + examId));
+            ExamSnapshot exam = examSnapshotCache.get(examId);
 
             Map<String, Object> eligibility = new HashMap<>();
             LocalDateTime now = LocalDateTime.now();
             boolean canTake = true;
-            String reason = "";
+            String reason = exam.unavailableReason(now);
 
-            // Check if exam is published and visible
-            if (!"PUBLISHED".equals(exam.getStatus())) {
-                canTake = false;
-                reason = "Exam is not published";
-            } else if (!exam.getVisibleToStudents()) {
-                canTake = false;
-                reason = "Exam is not visible to students";
-            }
-            // Check time window
-            else if (now.isBefore(exam.getStartTime())) {
-                canTake = false;
-                reason = "Exam has not started yet";
-                eligibility.put("startsAt", exam.getStartTime());
-            } else if (now.isAfter(exam.getEndTime())) {
+            // Published, visible and within the time window
+            if (reason != null) {
                 canTake = false;
-                reason = "Exam time has expired";
+                if (now.isBefore(exam.getStartTime())) {
+                    eligibility.put("startsAt", exam.getStartTime());
+                }
             }
             // Check attempt limit
             else {
+                reason = "";
                 int attemptCount = (int) examResponseRepository.countByExamIdAndStudentId(examId, studentId);
                 if (attemptCount >= exam.getMaxAttempts()) {
                     canTake = false;
@@ -445,18 +440,17 @@ public class StudentExamServiceImpl implements StudentExamService {
             eligibility.put("hasActiveAttempt", hasActiveAttempt);
             eligibility.put("reason", reason);
             eligibility.put("examStatus", exam.getStatus());
-            eligibility.put("isVisible", exam.getVisibleToStudents());
+            eligibility.put("isVisible", exam.isVisibleToStudents());
             eligibility.put("startTime", exam.getStartTime());
             eligibility.put("endTime", exam.getEndTime());
             eligibility.put("isWithinTimeWindow", !now.isBefore(exam.getStartTime()) && !now.isAfter(exam.getEndTime()));
             return eligibility;
 
         } catch (RuntimeException e) {
-            System.err.println("Runtime error: " + e.getMessage());
+            log.warn("Runtime error: {}", e.getMessage());
             throw e;
         } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             throw new RuntimeException("Failed to check exam eligibility: " + e.getMessage());
         }
     }
@@ -474,8 +468,7 @@ public class StudentExamServiceImpl implements StudentExamService {
             return attemptHistory;
 
         } catch (Exception e) {
-            System.err.println("Error fetching attempt history: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching attempt history", e);
             throw new RuntimeException("Failed to fetch attempt history: " + e.getMessage());
         }
     }
@@ -543,11 +536,10 @@ public class StudentExamServiceImpl implements StudentExamService {
             return results;
 
         } catch (RuntimeException e) {
-            System.err.println("Runtime error: " + e.getMessage());
+            log.warn("Runtime error: {}", e.getMessage());
             throw e;
         } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             throw new RuntimeException("Failed to fetch exam results: " + e.getMessage());
         }
     }
@@ -683,11 +675,10 @@ public class StudentExamServiceImpl implements StudentExamService {
             return detailedResults;
 
         } catch (RuntimeException e) {
-            System.err.println("Runtime error: " + e.getMessage());
+            log.warn("Runtime error: {}", e.getMessage());
             throw e;
         } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error", e);
             throw new RuntimeException("Failed to fetch detailed exam results: " + e.getMessage());
         }
     }
@@ -755,8 +746,7 @@ public class StudentExamServiceImpl implements StudentExamService {
             return stats;
 
         } catch (Exception e) {
-            System.err.println("Error fetching exam stats: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching exam stats", e);
             throw new RuntimeException("Failed to fetch exam statistics: " + e.getMessage());
         }
     }
@@ -790,8 +780,7 @@ public class StudentExamServiceImpl implements StudentExamService {
             return result;
 
         } catch (Exception e) {
-            System.err.println("Error checking active attempt: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error checking active attempt", e);
             throw new RuntimeException("Failed to check active attempt: " + e.getMessage());
         }
     }
@@ -800,7 +789,9 @@ public class StudentExamServiceImpl implements StudentExamService {
     public Map<String, Object> getExamDashboardSummary(String studentId) {
 
         try {
-            List<ExamResponse> allResponses = examResponseRepository.findByStudentId(studentId);
+            List<ExamResponse> allResponses = archiveService.withArchived(
+                    examResponseRepository.findByStudentId(studentId), Criteria.where("studentId").is(studentId),
+                    null, ExamResponse.class, "exam_responses", ExamResponse::getId);
             LocalDateTime now = LocalDateTime.now();
 
             Map<String, Object> summary = new HashMap<>();
@@ -849,8 +840,7 @@ public class StudentExamServiceImpl implements StudentExamService {
             return summary;
 
         } catch (Exception e) {
-            System.err.println("Error fetching dashboard summary: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching dashboard summary", e);
             throw new RuntimeException("Failed to fetch dashboard summary: " + e.getMessage());
         }
     }
@@ -929,60 +919,6 @@ public class StudentExamServiceImpl implements StudentExamService {
         return examInfo;
     }
 
-    private Map<String, Object> sanitizeExamForStudent(Exam exam) {
-        Map<String, Object> sanitizedExam = new HashMap<>();
-
-        // Basic information
-        sanitizedExam.put("id", exam.getId());
-        sanitizedExam.put("title", exam.getTitle());
-        sanitizedExam.put("description", exam.getDescription());
-        sanitizedExam.put("instructions", exam.getInstructions());
-        sanitizedExam.put("duration", exam.getDuration());
-        sanitizedExam.put("totalPoints", exam.getTotalPoints());
-        sanitizedExam.put("passPercentage", exam.getPassPercentage());
-
-        // Student settings
-        sanitizedExam.put("showResults", exam.getShowResults());
-        sanitizedExam.put("shuffleQuestions", exam.getShuffleQuestions());
-        sanitizedExam.put("shuffleOptions", exam.getShuffleOptions());
-        sanitizedExam.put("allowNavigation", exam.getAllowNavigation());
-        sanitizedExam.put("showTimer", exam.getShowTimer());
-        sanitizedExam.put("autoSubmit", exam.getAutoSubmit());
-        sanitizedExam.put("requireSafeBrowser", exam.getRequireSafeBrowser());
-
-        // Sanitize questions - remove correct answers and explanations
-        if (exam.getQuestions() != null) {
-            List<Map<String, Object>> sanitizedQuestions = new ArrayList<>();
-
-            for (ExamQuestion question : exam.getQuestions()) {
-                Map<String, Object> sanitizedQuestion = new HashMap<>();
-                sanitizedQuestion.put("id", question.getId());
-                sanitizedQuestion.put("type", question.getType());
-                sanitizedQuestion.put("question", question.getQuestion());
-                sanitizedQuestion.put("points", question.getPoints());
-                sanitizedQuestion.put("required", question.getRequired());
-                sanitizedQuestion.put("timeLimit", question.getTimeLimit());
-                sanitizedQuestion.put("displayOrder", question.getDisplayOrder());
-                sanitizedQuestion.put("caseSensitive", question.getCaseSensitive());
-                sanitizedQuestion.put("maxLength", question.getMaxLength());
-
-                // Include options for multiple choice but not correct answers
-                if ("multiple-choice".equals(question.getType()) && question.getOptions() != null) {
-                    sanitizedQuestion.put("options", new ArrayList<>(question.getOptions()));
-                    // Include correct answer index for frontend shuffling logic
-                    sanitizedQuestion.put("correctAnswerIndex", question.getCorrectAnswerIndex());
-                }
-
-                // Don't include: correctAnswer, explanation, acceptableAnswers for security
-                sanitizedQuestions.add(sanitizedQuestion);
-            }
-
-            sanitizedExam.put("questions", sanitizedQuestions);
-        }
-
-        return sanitizedExam;
-    }
-
     private Map<String, Object> createAttemptSummary(ExamResponse attempt) {
         Map<String, Object> summary = new HashMap<>();
         summary.put("id", attempt.getId());
@@ -1,5 +1,6 @@
 package com.example.edusphere.service.impl;
 
+import com.example.common.mongo.ReadFromSecondary;
 import com.example.edusphere.dto.response.ChartDataPoint;
 import com.example.edusphere.entity.Assignment;
 import com.example.edusphere.entity.Submission;
@@ -43,6 +44,7 @@ class SubmissionServiceImpl implements SubmissionService {
     }
 
     @Override
+    @ReadFromSecondary
     public CourseAnalyticsDTO getCourseAnalytics(String courseId, int year) {
         // 1. Fetch all submissions for the given course
         LocalDateTime startOfYear = Year.of(year).atDay(1).atStartOfDay();
@@ -11,8 +11,14 @@ import com.example.edusphere.entity.GradeColumn;
 import com.example.edusphere.repository.CourseRepository;
 import com.example.edusphere.repository.TaskRepository;
 import com.example.edusphere.repository.TaskSubmissionRepository;
-import com.example.common.repository.UserRepository;
+import com.example.common.service.UserResolver;
+import com.example.common.cascade.CascadeDeleteService;
+import com.example.common.cascade.CascadeDeletion;
+import com.example.common.upload.UploadRegistry;
+import com.example.edusphere.config.CascadePlans;
 import com.example.edusphere.repository.GradeColumnRepository;
+import com.example.edusphere.service.CourseAccessService;
+import com.example.edusphere.service.EnrollmentService;
 import com.example.edusphere.service.TaskService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -23,7 +29,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 @Transactional
 public class TaskServiceImpl implements TaskService {
@@ -31,19 +39,31 @@ public class TaskServiceImpl implements TaskService {
     private final TaskRepository taskRepository;
     private final CourseRepository courseRepository;
     private final TaskSubmissionRepository taskSubmissionRepository;
-    private final UserRepository userRepository;
+    private final UserResolver userResolver;
     private final GradeColumnRepository gradeColumnRepository;
+    private final CourseAccessService courseAccessService;
+    private final EnrollmentService enrollmentService;
+    private final CascadeDeleteService cascadeDeleteService;
+    private final UploadRegistry uploadRegistry;
 
     public TaskServiceImpl(TaskRepository taskRepository,
                            CourseRepository courseRepository,
                            TaskSubmissionRepository taskSubmissionRepository,
-                           UserRepository userRepository,
-                           GradeColumnRepository gradeColumnRepository) {
+                           UserResolver userResolver,
+                           GradeColumnRepository gradeColumnRepository,
+                           CourseAccessService courseAccessService,
+                           EnrollmentService enrollmentService,
+                           CascadeDeleteService cascadeDeleteService,
+                           UploadRegistry uploadRegistry) {
         this.taskRepository = taskRepository;
         this.courseRepository = courseRepository;
         this.taskSubmissionRepository = taskSubmissionRepository;
-        this.userRepository = userRepository;
+        this.userResolver = userResolver;
         this.gradeColumnRepository = gradeColumnRepository;
+        this.courseAccessService = courseAccessService;
+        this.enrollmentService = enrollmentService;
+        this.cascadeDeleteService = cascadeDeleteService;
+        this.uploadRegistry = uploadRegistry;
     }
 
     /**
@@ -93,8 +113,7 @@ public class TaskServiceImpl implements TaskService {
             return savedColumn;
 
         } catch (Exception e) {
-            System.err.println("Error auto-creating grade column: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error auto-creating grade column", e);
             // Don't throw error - task creation should still succeed
             return null;
         }
@@ -174,6 +193,7 @@ public class TaskServiceImpl implements TaskService {
             task.setAverageGrade(0.0);
 
             Task savedTask = taskRepository.save(task);
+            uploadRegistry.attach(savedTask.getFileUrl(), instructorId, "tasks", savedTask.getId());
 
             // AUTO-CREATE GRADE COLUMN FOR THE TASK
             GradeColumn gradeColumn = autoCreateGradeColumnForTask(savedTask, instructorId);
@@ -181,11 +201,10 @@ public class TaskServiceImpl implements TaskService {
             return convertToResponse(savedTask);
 
         } catch (RuntimeException e) {
-            System.err.println("Error creating task: " + e.getMessage());
+            log.warn("Error creating task: {}", e.getMessage());
             throw e;
         } catch (Exception e) {
-            System.err.println("Unexpected error creating task: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error creating task", e);
             throw new RuntimeException("Failed to create task: " + e.getMessage());
         }
     }
@@ -279,6 +298,9 @@ public class TaskServiceImpl implements TaskService {
             }
 
             Task savedTask = taskRepository.save(task);
+            if (request.getFileUrl() != null) {
+                uploadRegistry.attach(request.getFileUrl(), instructorId, "tasks", taskId);
+            }
 
             // UPDATE CORRESPONDING GRADE COLUMN IF EXISTS
             Optional<GradeColumn> linkedColumn = gradeColumnRepository
@@ -311,49 +333,34 @@ public class TaskServiceImpl implements TaskService {
             return convertToResponse(savedTask);
 
         } catch (RuntimeException e) {
-            System.err.println("Error updating task: " + e.getMessage());
+            log.warn("Error updating task: {}", e.getMessage());
             throw e;
         } catch (Exception e) {
-            System.err.println("Unexpected error updating task: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error updating task", e);
             throw new RuntimeException("Failed to update task: " + e.getMessage());
         }
     }
 
     @Override
-    public void deleteTask(String taskId, String instructorId) {
+    public CascadeDeletion deleteTask(String taskId, String instructorId) {
 
         try {
-            Task task = taskRepository.findById(taskId)
-                    .orElseThrow(() -> new RuntimeException("Task not found: " + taskId));
+            if (!taskRepository.existsById(taskId)) {
+                throw new RuntimeException("Task not found: " + taskId);
+            }
 
             if (!canUserModifyTask(taskId, instructorId, "1200")) {
                 throw new RuntimeException("Access denied: You don't have permission to delete this task");
             }
 
-            // Check if there are submissions
-            List<TaskSubmission> submissions = taskSubmissionRepository.findByTaskId(taskId);
-            if (!submissions.isEmpty()) {
-                // Delete submissions as well
-                taskSubmissionRepository.deleteAll(submissions);
-            }
-
-            // DELETE CORRESPONDING GRADE COLUMN IF EXISTS
-            Optional<GradeColumn> linkedColumn = gradeColumnRepository
-                    .findByCourseIdAndLinkedAssignmentId(task.getCourseId(), taskId);
-
-            if (linkedColumn.isPresent()) {
-                gradeColumnRepository.delete(linkedColumn.get());
-            }
-
-            taskRepository.deleteById(taskId);
+            // Task, submissions (and their uploads) and the linked grade column
+            return cascadeDeleteService.delete(CascadePlans.TASK, taskId, instructorId);
 
         } catch (RuntimeException e) {
-            System.err.println("Error deleting task: " + e.getMessage());
+            log.warn("Error deleting task: {}", e.getMessage());
             throw e;
         } catch (Exception e) {
-            System.err.println("Unexpected error deleting task: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error deleting task", e);
             throw new RuntimeException("Failed to delete task: " + e.getMessage());
         }
     }
@@ -364,7 +371,7 @@ public class TaskServiceImpl implements TaskService {
             return taskRepository.findById(taskId)
                     .map(this::convertToResponse);
         } catch (Exception e) {
-            System.err.println("Error fetching task: " + e.getMessage());
+            log.warn("Error fetching task: {}", e.getMessage());
             return Optional.empty();
         }
     }
@@ -383,7 +390,7 @@ public class TaskServiceImpl implements TaskService {
                     .map(this::convertToResponse)
                     .collect(Collectors.toList());
         } catch (Exception e) {
-            System.err.println("Error fetching tasks by course: " + e.getMessage());
+            log.warn("Error fetching tasks by course: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -394,7 +401,7 @@ public class TaskServiceImpl implements TaskService {
             Page<Task> tasksPage = taskRepository.findByCourseIdOrderByDueDateAsc(courseId, pageable);
             return tasksPage.map(this::convertToResponse);
         } catch (Exception e) {
-            System.err.println("Error fetching tasks page: " + e.getMessage());
+            log.warn("Error fetching tasks page: {}", e.getMessage());
             return Page.empty();
         }
     }
@@ -407,7 +414,7 @@ public class TaskServiceImpl implements TaskService {
                     .map(this::convertToResponse)
                     .collect(Collectors.toList());
         } catch (Exception e) {
-            System.err.println("Error fetching tasks by status: " + e.getMessage());
+            log.warn("Error fetching tasks by status: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -421,7 +428,7 @@ public class TaskServiceImpl implements TaskService {
                     .map(this::convertToResponse)
                     .collect(Collectors.toList());
         } catch (Exception e) {
-            System.err.println("Error fetching overdue tasks: " + e.getMessage());
+            log.warn("Error fetching overdue tasks: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -436,7 +443,7 @@ public class TaskServiceImpl implements TaskService {
                     .map(this::convertToResponse)
                     .collect(Collectors.toList());
         } catch (Exception e) {
-            System.err.println("Error fetching upcoming tasks: " + e.getMessage());
+            log.warn("Error fetching upcoming tasks: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -449,7 +456,7 @@ public class TaskServiceImpl implements TaskService {
                     .map(this::convertToResponse)
                     .collect(Collectors.toList());
         } catch (Exception e) {
-            System.err.println("Error searching tasks: " + e.getMessage());
+            log.warn("Error searching tasks: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -486,7 +493,7 @@ public class TaskServiceImpl implements TaskService {
             return taskResponses;
 
         } catch (Exception e) {
-            System.err.println("Error fetching tasks for student: " + e.getMessage());
+            log.warn("Error fetching tasks for student: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -529,7 +536,7 @@ public class TaskServiceImpl implements TaskService {
             return overdueTasks;
 
         } catch (Exception e) {
-            System.err.println("Error fetching overdue tasks for student: " + e.getMessage());
+            log.warn("Error fetching overdue tasks for student: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -570,7 +577,7 @@ public class TaskServiceImpl implements TaskService {
             return upcomingTasks;
 
         } catch (Exception e) {
-            System.err.println("Error fetching upcoming tasks for student: " + e.getMessage());
+            log.warn("Error fetching upcoming tasks for student: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -614,7 +621,7 @@ public class TaskServiceImpl implements TaskService {
             }
 
         } catch (Exception e) {
-            System.err.println("Error enhancing task response for student: " + e.getMessage());
+            log.warn("Error enhancing task response for student: {}", e.getMessage());
         }
     }
 
@@ -645,7 +652,7 @@ public class TaskServiceImpl implements TaskService {
             return true;
 
         } catch (Exception e) {
-            System.err.println("Error checking if student can submit: " + e.getMessage());
+            log.warn("Error checking if student can submit: {}", e.getMessage());
             return false;
         }
     }
@@ -663,21 +670,16 @@ public class TaskServiceImpl implements TaskService {
 
             // Get instructor name
             if (task.getInstructorId() != null) {
-                userRepository.findById(task.getInstructorId()).ifPresent(instructor -> {
+                userResolver.resolve(task.getInstructorId()).ifPresent(instructor -> {
                     response.setInstructorName(instructor.getName());
                 });
             }
 
             // Calculate enrolled students count
-            courseRepository.findById(task.getCourseId()).ifPresent(course -> {
-                int enrolledCount = course.getEnrollments().stream()
-                        .mapToInt(enrollment -> enrollment.getStudentIds().size())
-                        .sum();
-                response.setEnrolledStudents(enrolledCount);
-            });
+            response.setEnrolledStudents((int) enrollmentService.countEnrollments(task.getCourseId()));
 
         } catch (Exception e) {
-            System.err.println("Error enhancing task response: " + e.getMessage());
+            log.warn("Error enhancing task response: {}", e.getMessage());
         }
 
         return response;
@@ -692,35 +694,10 @@ public class TaskServiceImpl implements TaskService {
     @Override
     public boolean canUserAccessTask(String taskId, String userId, String userRole) {
         try {
-            Optional<Task> taskOpt = taskRepository.findById(taskId);
-            if (taskOpt.isEmpty()) return false;
-
-            Task task = taskOpt.get();
-
-            // Admin can access any task
-            if ("1100".equals(userRole)) return true;
-
-            // Lecturer can access tasks in their courses
-            if ("1200".equals(userRole)) {
-                Optional<Course> courseOpt = courseRepository.findById(task.getCourseId());
-                return courseOpt.isPresent() && courseOpt.get().getLecturerId().equals(userId);
-            }
-
-            // Students can access published, visible tasks in their enrolled courses
-            if ("1300".equals(userRole)) {
-                Optional<Course> courseOpt = courseRepository.findById(task.getCourseId());
-                if (courseOpt.isEmpty()) return false;
-
-                Course course = courseOpt.get();
-                boolean isEnrolled = course.getEnrollments().stream()
-                        .anyMatch(enrollment -> enrollment.getStudentIds().contains(userId));
-
-                return isEnrolled && task.getVisibleToStudents() && task.isPublished();
-            }
-
-            return false;
+            // Admin: any task; lecturer: tasks in their courses; student: published, visible tasks in enrolled courses
+            return courseAccessService.canAccessTask(userId, userRole, taskId);
         } catch (Exception e) {
-            System.err.println("Error checking task access: " + e.getMessage());
+            log.warn("Error checking task access: {}", e.getMessage());
             return false;
         }
     }
@@ -740,14 +717,13 @@ public class TaskServiceImpl implements TaskService {
             if ("1200".equals(userRole)) {
                 if (task.getInstructorId().equals(userId)) return true;
 
-                Optional<Course> courseOpt = courseRepository.findById(task.getCourseId());
-                return courseOpt.isPresent() && courseOpt.get().getLecturerId().equals(userId);
+                return courseAccessService.getMyCourses(userId, userRole).getCourseIds().contains(task.getCourseId());
             }
 
             // Students cannot modify tasks
             return false;
         } catch (Exception e) {
-            System.err.println("Error checking task modification rights: " + e.getMessage());
+            log.warn("Error checking task modification rights: {}", e.getMessage());
             return false;
         }
     }
@@ -819,6 +795,9 @@ public class TaskServiceImpl implements TaskService {
                     submissions = submissions.subList(0, 10); // Limit to 10 most recent
                 }
 
+                // One $in for all student names instead of a lookup per submission
+                userResolver.prime(submissions.stream().map(TaskSubmission::getStudentId).collect(Collectors.toList()));
+
                 List<TaskDetailResponse.TaskSubmissionSummary> submissionSummaries = submissions.stream()
                         .map(this::convertToSubmissionSummary)
                         .collect(Collectors.toList());
@@ -842,18 +821,17 @@ public class TaskServiceImpl implements TaskService {
                 }
 
             } catch (Exception e) {
-                System.err.println("⚠️ Error loading additional task details: " + e.getMessage());
+                log.warn("Error loading additional task details: {}", e.getMessage());
                 // Continue without additional details
             }
 
             return response;
 
         } catch (RuntimeException e) {
-            System.err.println("Error fetching task details: " + e.getMessage());
+            log.warn("Error fetching task details: {}", e.getMessage());
             throw e;
         } catch (Exception e) {
-            System.err.println("Unexpected error fetching task details: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Unexpected error fetching task details", e);
             throw new RuntimeException("Failed to fetch task details: " + e.getMessage());
         }
     }
@@ -871,7 +849,7 @@ public class TaskServiceImpl implements TaskService {
 
         // Get student name
         try {
-            userRepository.findById(submission.getStudentId()).ifPresent(student -> {
+            userResolver.resolve(submission.getStudentId()).ifPresent(student -> {
                 summary.setStudentName(student.getName());
             });
         } catch (Exception e) {
@@ -888,14 +866,9 @@ public class TaskServiceImpl implements TaskService {
             // Get enrolled students count
             int enrolledStudents = 0;
             try {
-                Optional<Course> courseOpt = courseRepository.findById(task.getCourseId());
-                if (courseOpt.isPresent()) {
-                    enrolledStudents = courseOpt.get().getEnrollments().stream()
-                            .mapToInt(enrollment -> enrollment.getStudentIds().size())
-                            .sum();
-                }
+                enrolledStudents = (int) enrollmentService.countEnrollments(task.getCourseId());
             } catch (Exception e) {
-                System.err.println("⚠️ Could not calculate enrolled students: " + e.getMessage());
+                log.warn("Could not calculate enrolled students: {}", e.getMessage());
             }
 
             stats.setTotalStudents(enrolledStudents);
@@ -941,7 +914,7 @@ public class TaskServiceImpl implements TaskService {
             stats.setStudentsCompleted(gradedCount);
 
         } catch (Exception e) {
-            System.err.println("⚠️ Error calculating task statistics: " + e.getMessage());
+            log.warn("Error calculating task statistics: {}", e.getMessage());
         }
 
         return stats;
@@ -969,7 +942,7 @@ public class TaskServiceImpl implements TaskService {
                     .map(this::convertToResponse)
                     .collect(Collectors.toList());
         } catch (Exception e) {
-            System.err.println("Error fetching tasks by instructor: " + e.getMessage());
+            log.warn("Error fetching tasks by instructor: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -983,7 +956,7 @@ public class TaskServiceImpl implements TaskService {
                     .map(this::convertToResponse)
                     .collect(Collectors.toList());
         } catch (Exception e) {
-            System.err.println("Error fetching available tasks for students: " + e.getMessage());
+            log.warn("Error fetching available tasks for students: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -996,7 +969,7 @@ public class TaskServiceImpl implements TaskService {
                     .map(this::convertToResponse)
                     .collect(Collectors.toList());
         } catch (Exception e) {
-            System.err.println("Error fetching tasks by category: " + e.getMessage());
+            log.warn("Error fetching tasks by category: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -1009,7 +982,7 @@ public class TaskServiceImpl implements TaskService {
                     .map(this::convertToResponse)
                     .collect(Collectors.toList());
         } catch (Exception e) {
-            System.err.println("Error fetching tasks by priority: " + e.getMessage());
+            log.warn("Error fetching tasks by priority: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -1022,7 +995,7 @@ public class TaskServiceImpl implements TaskService {
                     .map(this::convertToResponse)
                     .collect(Collectors.toList());
         } catch (Exception e) {
-            System.err.println("Error fetching tasks needing grading: " + e.getMessage());
+            log.warn("Error fetching tasks needing grading: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
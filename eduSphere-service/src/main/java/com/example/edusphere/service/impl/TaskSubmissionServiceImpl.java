@@ -3,14 +3,21 @@ package com.example.edusphere.service.impl;
 import com.example.edusphere.entity.Task;
 import com.example.edusphere.entity.TaskSubmission;
 import com.example.edusphere.entity.GradeColumn;
+import com.example.edusphere.event.TaskSubmissionChangedEvent;
 import com.example.edusphere.repository.TaskRepository;
 import com.example.edusphere.repository.TaskSubmissionRepository;
 import com.example.common.repository.UserRepository;
 import com.example.edusphere.repository.GradeColumnRepository;
 import com.example.edusphere.service.TaskSubmissionService;
 import com.example.edusphere.service.GradeService;
+import com.example.common.archive.ArchiveService;
+import com.example.common.events.DomainEventBus;
+import com.example.common.pagination.CursorPage;
+import com.example.common.pagination.KeysetPaginator;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,7 +27,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 @Transactional
 public class TaskSubmissionServiceImpl implements TaskSubmissionService {
@@ -30,17 +39,26 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
     private final UserRepository userRepository;
     private final GradeColumnRepository gradeColumnRepository;
     private final GradeService gradeService;
+    private final KeysetPaginator keysetPaginator;
+    private final DomainEventBus eventBus;
+    private final ArchiveService archiveService;
 
     public TaskSubmissionServiceImpl(TaskSubmissionRepository taskSubmissionRepository,
                                      TaskRepository taskRepository,
                                      UserRepository userRepository,
                                      GradeColumnRepository gradeColumnRepository,
-                                     GradeService gradeService) {
+                                     GradeService gradeService,
+                                     KeysetPaginator keysetPaginator,
+                                     DomainEventBus eventBus,
+                                     ArchiveService archiveService) {
         this.taskSubmissionRepository = taskSubmissionRepository;
         this.taskRepository = taskRepository;
         this.userRepository = userRepository;
         this.gradeColumnRepository = gradeColumnRepository;
         this.gradeService = gradeService;
+        this.keysetPaginator = keysetPaginator;
+        this.eventBus = eventBus;
+        this.archiveService = archiveService;
     }
 
     @Override
@@ -94,12 +112,12 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
 
             TaskSubmission savedSubmission = taskSubmissionRepository.save(submission);
 
-            // Update task statistics
-            recalculateTaskStatistics(submission.getTaskId());
+            // Update task statistics off the request path
+            eventBus.publish(new TaskSubmissionChangedEvent(submission.getTaskId()));
             return savedSubmission;
 
         } catch (Exception e) {
-            System.err.println("Error creating task submission: " + e.getMessage());
+            log.warn("Error creating task submission: {}", e.getMessage());
             throw new RuntimeException("Failed to create submission: " + e.getMessage());
         }
     }
@@ -141,12 +159,12 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
 
             // Update task statistics if grade was changed
             if (submission.getGrade() != null) {
-                recalculateTaskStatistics(existing.getTaskId());
+                eventBus.publish(new TaskSubmissionChangedEvent(existing.getTaskId()));
             }
             return savedSubmission;
 
         } catch (Exception e) {
-            System.err.println("Error updating task submission: " + e.getMessage());
+            log.warn("Error updating task submission: {}", e.getMessage());
             throw new RuntimeException("Failed to update submission: " + e.getMessage());
         }
     }
@@ -167,11 +185,11 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
 
             taskSubmissionRepository.deleteById(submissionId);
 
-            // Update task statistics
-            recalculateTaskStatistics(taskId);
+            // Update task statistics off the request path
+            eventBus.publish(new TaskSubmissionChangedEvent(taskId));
 
         } catch (Exception e) {
-            System.err.println("Error deleting task submission: " + e.getMessage());
+            log.warn("Error deleting task submission: {}", e.getMessage());
             throw new RuntimeException("Failed to delete submission: " + e.getMessage());
         }
     }
@@ -193,7 +211,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
 
             return submission;
         } catch (Exception e) {
-            System.err.println("Error finding submission by ID: " + e.getMessage());
+            log.warn("Error finding submission by ID: {}", e.getMessage());
             return Optional.empty();
         }
     }
@@ -204,7 +222,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
             List<TaskSubmission> submissions = taskSubmissionRepository.findByTaskIdOrderBySubmittedAtDesc(taskId);
             return fixMissingCourseIds(submissions);
         } catch (Exception e) {
-            System.err.println("Error finding submissions by task ID: " + e.getMessage());
+            log.warn("Error finding submissions by task ID: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -233,7 +251,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
                     .collect(Collectors.toList());
             return submissions;
         } catch (Exception e) {
-            System.err.println("Error finding submissions by course ID: " + e.getMessage());
+            log.warn("Error finding submissions by course ID: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -242,9 +260,13 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
     public List<TaskSubmission> findSubmissionsByStudentId(String studentId) {
         try {
             List<TaskSubmission> submissions = taskSubmissionRepository.findByStudentIdOrderBySubmittedAtDesc(studentId);
+            // A student's full history reaches back past the archive cut-off
+            submissions = archiveService.withArchived(submissions, Criteria.where("studentId").is(studentId),
+                    Sort.by(Sort.Direction.DESC, "submittedAt"), TaskSubmission.class, "task_submissions",
+                    TaskSubmission::getId);
             return fixMissingCourseIds(submissions);
         } catch (Exception e) {
-            System.err.println("Error finding submissions by student ID: " + e.getMessage());
+            log.warn("Error finding submissions by student ID: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -283,11 +305,26 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
         try {
             return taskSubmissionRepository.findByTaskIdOrderBySubmittedAtDesc(taskId, pageable);
         } catch (Exception e) {
-            System.err.println("Error finding submissions page by task ID: " + e.getMessage());
+            log.warn("Error finding submissions page by task ID: {}", e.getMessage());
             return Page.empty();
         }
     }
 
+    @Override
+    public CursorPage<TaskSubmission> findSubmissionsPage(String courseId, String taskId, String status,
+                                                          String cursor, Integer limit) {
+        Criteria filter = Criteria.where("courseId").is(courseId);
+        if (taskId != null && !taskId.trim().isEmpty()) {
+            filter = filter.and("taskId").is(taskId);
+        }
+        if (status != null && !status.trim().isEmpty()) {
+            filter = filter.and("status").is(status);
+        }
+
+        return keysetPaginator.fetch(filter, TaskSubmission.class, "submittedAt", Sort.Direction.DESC,
+                cursor, limit, TaskSubmission::getSubmittedAt, TaskSubmission::getId);
+    }
+
     @Override
     public Optional<TaskSubmission> findSubmissionByTaskAndStudent(String taskId, String studentId) {
         try {
@@ -305,7 +342,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
 
             return submission;
         } catch (Exception e) {
-            System.err.println("Error finding submission by task and student: " + e.getMessage());
+            log.warn("Error finding submission by task and student: {}", e.getMessage());
             return Optional.empty();
         }
     }
@@ -330,7 +367,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
 
             return submissions;
         } catch (Exception e) {
-            System.err.println("Error finding submissions by student and course: " + e.getMessage());
+            log.warn("Error finding submissions by student and course: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -349,12 +386,12 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
 
             TaskSubmission savedSubmission = taskSubmissionRepository.save(submission);
 
-            // Update task statistics
-            recalculateTaskStatistics(submission.getTaskId());
+            // Update task statistics off the request path
+            eventBus.publish(new TaskSubmissionChangedEvent(submission.getTaskId()));
             return savedSubmission;
 
         } catch (Exception e) {
-            System.err.println("Error updating submission grade: " + e.getMessage());
+            log.warn("Error updating submission grade: {}", e.getMessage());
             throw new RuntimeException("Failed to update grade: " + e.getMessage());
         }
     }
@@ -371,7 +408,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
             return submission;
 
         } catch (Exception e) {
-            System.err.println("Error updating submission grade with sync: " + e.getMessage());
+            log.warn("Error updating submission grade with sync: {}", e.getMessage());
             throw new RuntimeException("Failed to update and sync grade: " + e.getMessage());
         }
     }
@@ -423,7 +460,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
             return true;
 
         } catch (Exception e) {
-            System.err.println("Error checking if student can update submission: " + e.getMessage());
+            log.warn("Error checking if student can update submission: {}", e.getMessage());
             return false;
         }
     }
@@ -472,7 +509,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
             return true;
 
         } catch (Exception e) {
-            System.err.println("Error checking if student can delete submission: " + e.getMessage());
+            log.warn("Error checking if student can delete submission: {}", e.getMessage());
             return false;
         }
     }
@@ -486,7 +523,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
             // Find the task to get course information
             Optional<Task> taskOpt = taskRepository.findById(submission.getTaskId());
             if (taskOpt.isEmpty()) {
-                System.err.println("Task not found for submission: " + submission.getTaskId());
+                log.warn("Task not found for submission: {}", submission.getTaskId());
                 return;
             }
 
@@ -502,7 +539,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
                 // Try to auto-create grade column
                 GradeColumn autoCreatedColumn = autoCreateGradeColumnForTask(task);
                 if (autoCreatedColumn == null) {
-                    System.err.println("Failed to auto-create grade column");
+                    log.warn("Failed to auto-create grade column");
                     return;
                 }
                 gradeColumnOpt = Optional.of(autoCreatedColumn);
@@ -517,8 +554,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
             gradeService.updateStudentGrade(submission.getStudentId(), gradeColumn.getId(), gradePercentage);
 
         } catch (Exception e) {
-            System.err.println("Error syncing grade to grade column: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error syncing grade to grade column", e);
             // Don't throw exception - submission grade should still be saved
         }
     }
@@ -548,7 +584,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
             }
 
         } catch (Exception e) {
-            System.err.println("Error removing grade from column: " + e.getMessage());
+            log.warn("Error removing grade from column: {}", e.getMessage());
         }
     }
 
@@ -599,8 +635,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
             return savedColumn;
 
         } catch (Exception e) {
-            System.err.println("Error auto-creating grade column: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error auto-creating grade column", e);
             return null;
         }
     }
@@ -648,7 +683,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
         try {
             return taskSubmissionRepository.findUngraduatedSubmissionsByTask(taskId);
         } catch (Exception e) {
-            System.err.println("Error finding ungraduated submissions: " + e.getMessage());
+            log.warn("Error finding ungraduated submissions: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -658,7 +693,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
         try {
             return taskSubmissionRepository.findSubmissionsNeedingAttention(courseId);
         } catch (Exception e) {
-            System.err.println("Error finding submissions needing grading: " + e.getMessage());
+            log.warn("Error finding submissions needing grading: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -668,7 +703,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
         try {
             return taskSubmissionRepository.countByTaskId(taskId);
         } catch (Exception e) {
-            System.err.println("Error counting submissions by task: " + e.getMessage());
+            log.warn("Error counting submissions by task: {}", e.getMessage());
             return 0;
         }
     }
@@ -678,7 +713,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
         try {
             return taskSubmissionRepository.findByStudentIdOrderBySubmittedAtDesc(studentId).size();
         } catch (Exception e) {
-            System.err.println("Error counting submissions by student: " + e.getMessage());
+            log.warn("Error counting submissions by student: {}", e.getMessage());
             return 0;
         }
     }
@@ -688,7 +723,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
         try {
             return taskSubmissionRepository.countGradedSubmissionsByTask(taskId);
         } catch (Exception e) {
-            System.err.println("Error counting graded submissions: " + e.getMessage());
+            log.warn("Error counting graded submissions: {}", e.getMessage());
             return 0;
         }
     }
@@ -709,7 +744,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
 
             return sum / gradedSubmissions.size();
         } catch (Exception e) {
-            System.err.println("Error calculating average grade: " + e.getMessage());
+            log.warn("Error calculating average grade: {}", e.getMessage());
             return 0.0;
         }
     }
@@ -724,7 +759,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
 
             return taskSubmissionRepository.save(submission);
         } catch (Exception e) {
-            System.err.println("Error adding file to submission: " + e.getMessage());
+            log.warn("Error adding file to submission: {}", e.getMessage());
             throw new RuntimeException("Failed to add file: " + e.getMessage());
         }
     }
@@ -739,7 +774,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
 
             return taskSubmissionRepository.save(submission);
         } catch (Exception e) {
-            System.err.println("Error removing file from submission: " + e.getMessage());
+            log.warn("Error removing file from submission: {}", e.getMessage());
             throw new RuntimeException("Failed to remove file: " + e.getMessage());
         }
     }
@@ -757,7 +792,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
             return updatedSubmissions;
 
         } catch (Exception e) {
-            System.err.println("Error in batch grading: " + e.getMessage());
+            log.warn("Error in batch grading: {}", e.getMessage());
             throw new RuntimeException("Failed to batch grade submissions: " + e.getMessage());
         }
     }
@@ -773,14 +808,14 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
                     TaskSubmission updated = updateSubmissionGradeWithSync(submissionId, grade, feedback);
                     updatedSubmissions.add(updated);
                 } catch (Exception e) {
-                    System.err.println("Error grading submission " + submissionId + ": " + e.getMessage());
+                    log.warn("Error grading submission {}: {}", submissionId, e.getMessage());
                     // Continue with other submissions
                 }
             }
             return updatedSubmissions;
 
         } catch (Exception e) {
-            System.err.println("Error in batch grading with sync: " + e.getMessage());
+            log.warn("Error in batch grading with sync: {}", e.getMessage());
             throw new RuntimeException("Failed to batch grade submissions with sync: " + e.getMessage());
         }
     }
@@ -791,7 +826,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
 
             Optional<Task> taskOpt = taskRepository.findById(taskId);
             if (taskOpt.isEmpty()) {
-                System.err.println("Task not found for statistics update: " + taskId);
+                log.warn("Task not found for statistics update: {}", taskId);
                 return;
             }
 
@@ -814,7 +849,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
             taskRepository.save(task);
 
         } catch (Exception e) {
-            System.err.println("Error recalculating task statistics: " + e.getMessage());
+            log.warn("Error recalculating task statistics: {}", e.getMessage());
         }
     }
 
@@ -823,7 +858,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
         try {
             return taskSubmissionRepository.findByTaskIdAndIsLateTrue(taskId);
         } catch (Exception e) {
-            System.err.println("Error finding late submissions: " + e.getMessage());
+            log.warn("Error finding late submissions: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -833,7 +868,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
         try {
             return taskSubmissionRepository.findByCourseIdAndSubmittedAtBetween(courseId, start, end);
         } catch (Exception e) {
-            System.err.println("Error finding submissions by date range: " + e.getMessage());
+            log.warn("Error finding submissions by date range: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -845,7 +880,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
             return taskSubmissionRepository.findByCourseIdAndSubmittedAtBetween(
                     courseId, sinceDate, LocalDateTime.now());
         } catch (Exception e) {
-            System.err.println("Error finding recent submissions: " + e.getMessage());
+            log.warn("Error finding recent submissions: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -892,7 +927,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
 
             return true;
         } catch (Exception e) {
-            System.err.println("Error checking if student can submit: " + e.getMessage());
+            log.warn("Error checking if student can submit: {}", e.getMessage());
             return false;
         }
     }
@@ -902,7 +937,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
         try {
             return taskSubmissionRepository.existsByTaskIdAndStudentId(taskId, studentId);
         } catch (Exception e) {
-            System.err.println("Error checking if student has submitted: " + e.getMessage());
+            log.warn("Error checking if student has submitted: {}", e.getMessage());
             return false;
         }
     }
@@ -912,7 +947,7 @@ public class TaskSubmissionServiceImpl implements TaskSubmissionService {
         try {
             return (int) taskSubmissionRepository.countByTaskIdAndStudentId(taskId, studentId);
         } catch (Exception e) {
-            System.err.println("Error getting submission attempt count: " + e.getMessage());
+            log.warn("Error getting submission attempt count: {}", e.getMessage());
             return 0;
         }
     }
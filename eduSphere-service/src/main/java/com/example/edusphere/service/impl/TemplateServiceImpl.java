@@ -1,11 +1,13 @@
 package com.example.edusphere.service.impl;
 
+import com.example.common.events.DomainEventBus;
 import com.example.common.exceptions.ResourceNotFoundException;
 import com.example.edusphere.dto.request.AnnouncementRequest;
 import com.example.edusphere.dto.request.TemplateRequest;
 import com.example.edusphere.dto.request.UseTemplateRequest;
 import com.example.edusphere.dto.response.TemplateResponse;
 import com.example.edusphere.entity.Template;
+import com.example.edusphere.event.TemplateUsedEvent;
 import com.example.common.entity.UserEntity;
 import com.example.edusphere.repository.TemplateRepository;
 import com.example.common.repository.UserRepository;
@@ -29,6 +31,8 @@ public class TemplateServiceImpl implements TemplateService {
     private UserRepository userRepository;
     @Autowired
     private AnnouncementService announcementService;
+    @Autowired
+    private DomainEventBus eventBus;
 
     @Override
     public List<TemplateResponse> getAllTemplates() {
@@ -98,6 +102,16 @@ public class TemplateServiceImpl implements TemplateService {
 
     @Override
     public void useTemplate(String templateId, UseTemplateRequest useTemplateRequest, String creatorId, String creatorName) {
+        if (!templateRepository.existsById(templateId)) {
+            throw new ResourceNotFoundException("Template not found with id " + templateId);
+        }
+
+        // One announcement per recipient can take a while for a large list; durable so none is lost
+        eventBus.publishDurable(new TemplateUsedEvent(templateId, useTemplateRequest, creatorId, creatorName));
+    }
+
+    @Override
+    public void sendTemplateAnnouncements(String templateId, UseTemplateRequest useTemplateRequest, String creatorId, String creatorName) {
         Template template = templateRepository.findById(templateId)
                 .orElseThrow(() -> new ResourceNotFoundException("Template not found with id " + templateId));
 
@@ -1,5 +1,6 @@
 package com.example.edusphere.service.impl;
 
+import com.example.common.mongo.ReadFromSecondary;
 import com.example.edusphere.entity.Course;
 import com.example.edusphere.entity.Meeting;
 import com.example.edusphere.entity.AttendanceSession;
@@ -7,6 +8,7 @@ import com.example.common.entity.UserEntity;
 import com.example.edusphere.repository.MeetingRepository;
 import com.example.edusphere.repository.CourseRepository;
 import com.example.common.repository.UserRepository;
+import com.example.edusphere.service.EnrollmentService;
 import com.example.edusphere.service.VideoMeetingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -31,6 +33,9 @@ public class VideoMeetingServiceImpl implements VideoMeetingService {
     @Autowired
     private CourseRepository courseRepository;
 
+    @Autowired
+    private EnrollmentService enrollmentService;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -146,15 +151,11 @@ public class VideoMeetingServiceImpl implements VideoMeetingService {
                         .forEach(meetings::add);
             } else {
                 // Student: get meetings for courses they're enrolled in
-                List<Course> studentCourses = courseRepository.findByEnrollments_StudentIds(userId);
-                if (studentCourses.isEmpty()) {
+                List<String> courseIds = enrollmentService.getCourseIdsForStudent(userId);
+                if (courseIds.isEmpty()) {
                     return new ArrayList<>();
                 }
 
-                List<String> courseIds = studentCourses.stream()
-                        .map(Course::getId)
-                        .collect(Collectors.toList());
-
                 meetings = meetingRepository.findByCourseIdIn(courseIds);
             }
 
@@ -566,7 +567,7 @@ public class VideoMeetingServiceImpl implements VideoMeetingService {
     @Override
     public List<Course> getStudentCourses(String studentId) {
         try {
-            return courseRepository.findByEnrollments_StudentIds(studentId);
+            return enrollmentService.getCoursesForStudent(studentId);
         } catch (Exception e) {
             log.error("Failed to get student courses for {}: {}", studentId, e.getMessage(), e);
             return new ArrayList<>();
@@ -619,16 +620,11 @@ public class VideoMeetingServiceImpl implements VideoMeetingService {
     @Override
     public List<UserEntity> getCourseStudents(String courseId) {
         try {
-            Course course = courseRepository.findById(courseId).orElse(null);
-            if (course == null || course.getEnrollments() == null) {
+            List<String> studentIds = enrollmentService.getStudentIdsForCourse(courseId);
+            if (studentIds.isEmpty()) {
                 return new ArrayList<>();
             }
 
-            List<String> studentIds = course.getEnrollments().stream()
-                    .flatMap(enrollment -> enrollment.getStudentIds().stream())
-                    .distinct()
-                    .collect(Collectors.toList());
-
             return userRepository.findAllById(studentIds);
         } catch (Exception e) {
             log.error("Failed to get course students for {}: {}", courseId, e.getMessage(), e);
@@ -639,6 +635,7 @@ public class VideoMeetingServiceImpl implements VideoMeetingService {
     // ===== ANALYTICS =====
 
     @Override
+    @ReadFromSecondary
     public Map<String, Object> getMeetingAnalytics(String meetingId) {
         try {
             Meeting meeting = meetingRepository.findById(meetingId).orElse(null);
@@ -668,6 +665,7 @@ public class VideoMeetingServiceImpl implements VideoMeetingService {
     }
 
     @Override
+    @ReadFromSecondary
     public Map<String, Object> getCourseAnalytics(String courseId, Map<String, String> filters) {
         try {
             List<Meeting> meetings = meetingRepository.findByCourseIdOrderByDatetimeDesc(courseId);
@@ -688,6 +686,7 @@ public class VideoMeetingServiceImpl implements VideoMeetingService {
     }
 
     @Override
+    @ReadFromSecondary
     public Map<String, Object> getLecturerAnalytics(String lecturerId, Map<String, String> filters) {
         try {
             List<Meeting> meetings = meetingRepository.findByLecturerIdOrderByDatetimeDesc(lecturerId);
@@ -707,6 +706,7 @@ public class VideoMeetingServiceImpl implements VideoMeetingService {
     }
 
     @Override
+    @ReadFromSecondary
     public Map<String, Object> getStudentAnalytics(String studentId, Map<String, String> filters) {
         try {
             List<Meeting> meetings = meetingRepository.findByParticipantsContaining(studentId);
@@ -891,14 +891,11 @@ public class VideoMeetingServiceImpl implements VideoMeetingService {
     }
 
     private int calculateCourseStudentsCount(Course course) {
-        if (course == null || course.getEnrollments() == null) {
+        if (course == null) {
             return 0;
         }
 
-        return course.getEnrollments().stream()
-                .mapToInt(enrollment -> enrollment.getStudentIds() != null ?
-                        enrollment.getStudentIds().size() : 0)
-                .sum();
+        return (int) enrollmentService.countEnrollments(course.getId());
     }
 
     private double calculateAverageAttendanceTime(List<AttendanceSession> sessions) {
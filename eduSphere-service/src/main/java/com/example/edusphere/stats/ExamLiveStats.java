@@ -0,0 +1,330 @@
+package com.example.edusphere.stats;
+
+import com.example.edusphere.dto.response.ExamLiveStatsResponse;
+import com.example.edusphere.entity.ExamResponse;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Running totals of each exam for the live dashboard, one document per exam in
+ * {@code exam_live_stats}: attempts started, in progress, submitted and graded, the sum and sum of
+ * squares of the graded percentages (average and standard deviation without reading the responses)
+ * and the score histogram. Starting, submitting and grading an attempt adjust them with one
+ * {@code $inc}, so a dashboard refresh reads a single document however many students are sitting
+ * the exam.
+ *
+ * The totals are a cache of {@code exam_responses}, not a source of truth. They are built from the
+ * responses on first read, and every {@code app.exam.live-stats.reconcile-interval} the exams changed
+ * since their last rebuild are rebuilt again. Every increment also bumps a version, and a rebuild
+ * records the version it read before aggregating; an increment landing during the rebuild leaves the
+ * version ahead, so that exam is simply rebuilt once more. Increments never create the document, they
+ * only adjust one that was built.
+ *
+ * Drift that bumps no version (a failed increment, responses deleted or changed outside of these
+ * paths) is repaired by a rolling rebuild: each pass also rebuilds up to {@value #ROLLING_BATCH} of the
+ * exams whose last rebuild is older than {@code app.exam.live-stats.max-age}, oldest first.
+ */
+@Slf4j
+@Component
+public class ExamLiveStats implements SmartLifecycle {
+
+    static final String COLLECTION = "exam_live_stats";
+    // Exams rebuilt per pass only because their last rebuild got too old
+    private static final int ROLLING_BATCH = 50;
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration reconcileInterval;
+    private final Duration maxAge;
+
+    private volatile ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    public ExamLiveStats(MongoTemplate mongoTemplate, Environment environment) {
+        this.mongoTemplate = mongoTemplate;
+        this.reconcileInterval = environment.getProperty("app.exam.live-stats.reconcile-interval", Duration.class, Duration.ofMinutes(5));
+        this.maxAge = environment.getProperty("app.exam.live-stats.max-age", Duration.class, Duration.ofHours(1));
+    }
+
+    /** The percentage {@code response} counts with in the totals, or null while it isn't graded. */
+    public static Double gradedPercentage(ExamResponse response) {
+        return Boolean.TRUE.equals(response.getGraded()) ? response.getPercentage() : null;
+    }
+
+    // ===================================
+    // INCREMENTS
+    // ===================================
+
+    public void attemptStarted(String examId) {
+        Map<String, Number> inc = new HashMap<>();
+        inc.put("started", 1);
+        inc.put("inProgress", 1);
+        increment(examId, inc);
+    }
+
+    public void attemptsSubmitted(String examId, int count) {
+        if (count <= 0) {
+            return;
+        }
+        Map<String, Number> inc = new HashMap<>();
+        inc.put("inProgress", -count);
+        inc.put("submitted", count);
+        increment(examId, inc);
+    }
+
+    public void attemptsAbandoned(String examId, int count) {
+        if (count <= 0) {
+            return;
+        }
+        increment(examId, Map.of("inProgress", -count));
+    }
+
+    /**
+     * An attempt's grade changed from {@code before} to {@code after}, as given by
+     * {@link #gradedPercentage}; either may be null (not graded).
+     */
+    public void scoreChanged(String examId, Double before, Double after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        Map<String, Number> inc = new HashMap<>();
+        if (before != null) {
+            addScore(inc, before, -1);
+        }
+        if (after != null) {
+            addScore(inc, after, 1);
+        }
+        increment(examId, inc);
+    }
+
+    /**
+     * Attempts graded for the first time, e.g. a batch of the auto-grader.
+     */
+    public void scored(String examId, Collection<Double> percentages) {
+        if (percentages.isEmpty()) {
+            return;
+        }
+        Map<String, Number> inc = new HashMap<>();
+        for (Double percentage : percentages) {
+            addScore(inc, percentage != null ? percentage : 0.0, 1);
+        }
+        increment(examId, inc);
+    }
+
+    private static void addScore(Map<String, Number> inc, double percentage, int sign) {
+        inc.merge("graded", sign, (a, b) -> a.intValue() + b.intValue());
+        inc.merge("scoreSum", sign * percentage, (a, b) -> a.doubleValue() + b.doubleValue());
+        inc.merge("scoreSumSquares", sign * percentage * percentage, (a, b) -> a.doubleValue() + b.doubleValue());
+        inc.merge("histogram." + ExamStatsAggregator.bucketFor(percentage), sign, (a, b) -> a.intValue() + b.intValue());
+    }
+
+    private void increment(String examId, Map<String, Number> inc) {
+        List<Bson> updates = new ArrayList<>();
+        inc.forEach((field, amount) -> updates.add(Updates.inc(field, amount)));
+        updates.add(Updates.inc("version", 1L));
+        updates.add(Updates.currentDate("updatedAt"));
+        try {
+            stats().updateOne(Filters.eq("_id", examId), Updates.combine(updates));
+        } catch (MongoException e) {
+            // Never fail the student's request over the dashboard; the totals are rebuilt from the responses
+            log.warn("Could not update live stats of exam {}: {}", examId, e.getMessage());
+        }
+    }
+
+    // ===================================
+    // READING AND REBUILDING
+    // ===================================
+
+    public ExamLiveStatsResponse get(String examId) {
+        Document stats = stats().find(Filters.eq("_id", examId)).first();
+        if (stats == null) {
+            reconcile(examId);
+            stats = stats().find(Filters.eq("_id", examId)).first();
+        }
+        return toResponse(examId, stats != null ? stats : new Document());
+    }
+
+    /**
+     * Rebuild the exam's totals from its responses.
+     */
+    public void reconcile(String examId) {
+        Document current = stats().find(Filters.eq("_id", examId)).projection(new Document("version", 1)).first();
+        long version = current != null ? ExamStatsAggregator.longOf(current, "version") : 0L;
+        Document isGraded = ExamStatsAggregator.eq("graded", true);
+        Document totals = new Document("_id", null)
+                .append("started", new Document("$sum", 1))
+                .append("inProgress", ExamStatsAggregator.countIf(ExamStatsAggregator.eq("status", "IN_PROGRESS")))
+                .append("submitted", ExamStatsAggregator.countIf(new Document("$ne",
+                        Arrays.asList(new Document("$ifNull", Arrays.asList("$submittedAt", null)), null))))
+                .append("graded", ExamStatsAggregator.countIf(isGraded))
+                .append("scoreSum", new Document("$sum", ExamStatsAggregator.ifGraded("$percentage")))
+                .append("scoreSumSquares", new Document("$sum",
+                        ExamStatsAggregator.ifGraded(new Document("$multiply", List.of("$percentage", "$percentage")))));
+        Document facets = new Document()
+                .append("totals", List.of(new Document("$group", totals)))
+                .append("histogram", List.of(
+                        new Document("$match", new Document("graded", true)),
+                        ExamStatsAggregator.scoreBuckets()));
+
+        Document result = responses().aggregate(List.of(
+                        new Document("$match", new Document("examId", examId)),
+                        new Document("$facet", facets)))
+                .allowDiskUse(true)
+                .first();
+        List<Document> totalsFacet = result != null ? result.getList("totals", Document.class, List.of()) : List.of();
+        Document t = totalsFacet.isEmpty() ? new Document() : totalsFacet.get(0);
+
+        Document histogram = new Document();
+        for (String label : ExamStatsAggregator.bucketLabels()) {
+            histogram.put(label, 0L);
+        }
+        if (result != null) {
+            for (Document bucket : result.getList("histogram", Document.class, List.of())) {
+                if (bucket.get("_id") instanceof Number lower) {
+                    histogram.put(ExamStatsAggregator.bucketLabel(lower.intValue()), ExamStatsAggregator.longOf(bucket, "count"));
+                }
+            }
+        }
+
+        stats().updateOne(Filters.eq("_id", examId), Updates.combine(
+                Updates.set("started", ExamStatsAggregator.longOf(t, "started")),
+                Updates.set("inProgress", ExamStatsAggregator.longOf(t, "inProgress")),
+                Updates.set("submitted", ExamStatsAggregator.longOf(t, "submitted")),
+                Updates.set("graded", ExamStatsAggregator.longOf(t, "graded")),
+                Updates.set("scoreSum", ExamStatsAggregator.doubleOf(t, "scoreSum")),
+                Updates.set("scoreSumSquares", ExamStatsAggregator.doubleOf(t, "scoreSumSquares")),
+                Updates.set("histogram", histogram),
+                Updates.set("reconciledVersion", version),
+                Updates.currentDate("reconciledAt"),
+                Updates.setOnInsert("version", version),
+                Updates.setOnInsert("updatedAt", new Date())), new UpdateOptions().upsert(true));
+    }
+
+    private void reconcileChanged() {
+        try {
+            Bson changed = Filters.expr(new Document("$gt", List.of("$version", "$reconciledVersion")));
+            Set<String> examIds = new LinkedHashSet<>();
+            for (Document stats : stats().find(changed).projection(new Document("_id", 1))) {
+                examIds.add(stats.getString("_id"));
+            }
+            int changedCount = examIds.size();
+
+            // Rolling pass: totals not rebuilt for max-age are rebuilt whether or not they changed
+            Date staleBefore = new Date(System.currentTimeMillis() - maxAge.toMillis());
+            for (Document stats : stats().find(Filters.lt("reconciledAt", staleBefore))
+                    .projection(new Document("_id", 1))
+                    .sort(new Document("reconciledAt", 1))
+                    .limit(ROLLING_BATCH)) {
+                examIds.add(stats.getString("_id"));
+            }
+
+            for (String examId : examIds) {
+                reconcile(examId);
+            }
+            if (!examIds.isEmpty()) {
+                log.debug("Reconciled live stats of {} exam(s), {} changed and {} aged",
+                        examIds.size(), changedCount, examIds.size() - changedCount);
+            }
+        } catch (MongoException e) {
+            log.warn("Live stats reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Drop the totals of exams that no longer exist.
+     */
+    public void discard(Collection<String> examIds) {
+        if (!examIds.isEmpty()) {
+            stats().deleteMany(Filters.in("_id", examIds));
+        }
+    }
+
+    private static ExamLiveStatsResponse toResponse(String examId, Document stats) {
+        long graded = ExamStatsAggregator.longOf(stats, "graded");
+        double sum = ExamStatsAggregator.doubleOf(stats, "scoreSum");
+        double squares = ExamStatsAggregator.doubleOf(stats, "scoreSumSquares");
+        double average = graded > 0 ? sum / graded : 0.0;
+        // Population standard deviation from the running sums; clamped against rounding below zero
+        double deviation = graded > 0 ? Math.sqrt(Math.max(0.0, squares / graded - average * average)) : 0.0;
+
+        Document histogram = stats.get("histogram", Document.class);
+        Map<String, Long> distribution = new LinkedHashMap<>();
+        for (String label : ExamStatsAggregator.bucketLabels()) {
+            distribution.put(label, histogram != null ? Math.max(0L, ExamStatsAggregator.longOf(histogram, label)) : 0L);
+        }
+
+        return ExamLiveStatsResponse.builder()
+                .examId(examId)
+                .startedAttempts(ExamStatsAggregator.longOf(stats, "started"))
+                .inProgressAttempts(Math.max(0L, ExamStatsAggregator.longOf(stats, "inProgress")))
+                .submittedAttempts(ExamStatsAggregator.longOf(stats, "submitted"))
+                .gradedAttempts(graded)
+                .averageScore(ExamStatsAggregator.round(average))
+                .standardDeviation(ExamStatsAggregator.round(deviation))
+                .scoreDistribution(distribution)
+                .updatedAt(toLocal(stats.getDate("updatedAt")))
+                .reconciledAt(toLocal(stats.getDate("reconciledAt")))
+                .build();
+    }
+
+    private static LocalDateTime toLocal(Date date) {
+        return date != null ? LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()) : null;
+    }
+
+    private MongoCollection<Document> stats() {
+        return mongoTemplate.getCollection(COLLECTION);
+    }
+
+    private MongoCollection<Document> responses() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(ExamResponse.class));
+    }
+
+    // ===================================
+    // Lifecycle
+    // ===================================
+
+    @Override
+    public void start() {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "exam-live-stats");
+            t.setDaemon(true);
+            return t;
+        });
+        running = true;
+        long interval = reconcileInterval.toSeconds();
+        scheduler.scheduleWithFixedDelay(this::reconcileChanged, interval, interval, TimeUnit.SECONDS);
+        executor = scheduler;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        ScheduledExecutorService scheduler = executor;
+        executor = null;
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,529 @@
+package com.example.edusphere.stats;
+
+import com.example.edusphere.dto.response.ExamItemAnalysisResponse;
+import com.example.edusphere.dto.response.ExamStatsResponse;
+import com.example.edusphere.dto.response.ExamSystemSummaryResponse;
+import com.example.edusphere.entity.Exam;
+import com.example.edusphere.entity.ExamQuestion;
+import com.example.edusphere.entity.ExamResponse;
+import com.example.edusphere.grading.GradingPlan;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Exam statistics computed by aggregation pipelines on {@code exam_responses}, so only the totals
+ * come back from Mongo however many responses an exam has.
+ *
+ * Item analysis ranks the graded responses by total score with {@code $setWindowFields} (MongoDB
+ * 5.0+) and then computes everything per question in one {@code $facet} pass: the difficulty index
+ * (share of the points earned), the discrimination index (difficulty in the top 27% of scores minus
+ * the bottom 27%) and, for choice questions, how often each answer was picked.
+ *
+ * The system-wide summary reads the exams and the responses in a single pipeline: the exams are
+ * appended to the responses with {@code $unionWith}, tagged by kind, and one {@code $facet} computes
+ * every figure from that stream.
+ */
+@Component
+public class ExamStatsAggregator {
+
+    // Percentage ranges of the score distribution; 101 so that 100% falls in the last one
+    static final List<Integer> SCORE_BOUNDARIES = List.of(0, 10, 20, 30, 40, 50, 60, 70, 80, 90, 101);
+    // Share of the ranked responses in each of the upper and lower groups
+    private static final double DISCRIMINATION_GROUP = 0.27;
+    // Courses listed with their average score in the system summary
+    private static final int SUMMARY_COURSES = 10;
+
+    private final MongoTemplate mongoTemplate;
+
+    public ExamStatsAggregator(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // ===================================
+    // EXAM STATISTICS
+    // ===================================
+
+    public ExamStatsResponse examStats(Exam exam) {
+        Document facets = new Document()
+                .append("totals", List.of(new Document("$group", totals("$examId"))))
+                .append("distribution", List.of(
+                        new Document("$match", new Document("graded", true)),
+                        scoreBuckets()));
+
+        Document result = aggregateOne(List.of(
+                new Document("$match", new Document("examId", exam.getId())),
+                new Document("$facet", facets)));
+        ExamStatsResponse stats = toStats(exam, first(result, "totals"));
+
+        Map<String, Long> distribution = new LinkedHashMap<>();
+        for (String label : bucketLabels()) {
+            distribution.put(label, 0L);
+        }
+        for (Document bucket : result.getList("distribution", Document.class, List.of())) {
+            if (bucket.get("_id") instanceof Number lower) {
+                distribution.put(bucketLabel(lower.intValue()), longOf(bucket, "count"));
+            }
+        }
+        stats.setScoreDistribution(distribution);
+        return stats;
+    }
+
+    /**
+     * Statistics of several exams from one {@code $group} by exam; no score distribution.
+     */
+    public List<ExamStatsResponse> examStats(List<Exam> exams) {
+        if (exams.isEmpty()) {
+            return List.of();
+        }
+        List<String> examIds = exams.stream().map(Exam::getId).toList();
+        Map<String, Document> totalsByExam = new HashMap<>();
+        responses().aggregate(List.of(
+                        new Document("$match", new Document("examId", new Document("$in", examIds))),
+                        new Document("$group", totals("$examId"))))
+                .allowDiskUse(true)
+                .forEach(totals -> totalsByExam.put(totals.getString("_id"), totals));
+
+        List<ExamStatsResponse> stats = new ArrayList<>(exams.size());
+        for (Exam exam : exams) {
+            stats.add(toStats(exam, totalsByExam.get(exam.getId())));
+        }
+        return stats;
+    }
+
+    private static Document totals(String groupBy) {
+        Document isGraded = eq("graded", true);
+        return new Document("_id", groupBy)
+                .append("total", new Document("$sum", 1))
+                .append("submitted", countIf(new Document("$in", List.of("$status", List.of("SUBMITTED", "GRADED")))))
+                .append("graded", countIf(isGraded))
+                .append("passed", countIf(new Document("$and", List.of(isGraded, eq("passed", true)))))
+                // $avg, $max, $min and $stdDevPop skip the nulls, i.e. the ungraded responses
+                .append("averageScore", new Document("$avg", ifGraded("$percentage")))
+                .append("highestScore", new Document("$max", ifGraded("$totalScore")))
+                .append("lowestScore", new Document("$min", ifGraded("$totalScore")))
+                .append("standardDeviation", new Document("$stdDevPop", ifGraded("$percentage")));
+    }
+
+    private static ExamStatsResponse toStats(Exam exam, Document totals) {
+        Document t = totals != null ? totals : new Document();
+        long total = longOf(t, "total");
+        long submitted = longOf(t, "submitted");
+        long graded = longOf(t, "graded");
+        long passed = longOf(t, "passed");
+
+        return ExamStatsResponse.builder()
+                .examId(exam.getId())
+                .examTitle(exam.getTitle())
+                .totalResponses(total)
+                .submittedResponses(submitted)
+                .gradedResponses(graded)
+                .passedResponses(passed)
+                .averageScore(doubleOf(t, "averageScore"))
+                .passRate(graded == 0 ? 0.0 : (passed * 100.0) / graded)
+                .completionRate(total == 0 ? 0.0 : (submitted * 100.0) / total)
+                .highestScore(t.get("highestScore") instanceof Number n ? n.intValue() : null)
+                .lowestScore(t.get("lowestScore") instanceof Number n ? n.intValue() : null)
+                .standardDeviation(round(doubleOf(t, "standardDeviation")))
+                .build();
+    }
+
+    // ===================================
+    // GRADING STATISTICS
+    // ===================================
+
+    public Map<String, Object> gradingStats(String examId) {
+        Document isGraded = eq("graded", true);
+        Document group = new Document("_id", null)
+                .append("total", new Document("$sum", 1))
+                .append("graded", countIf(isGraded))
+                .append("autoGraded", countIf(new Document("$and", List.of(isGraded, eq("autoGraded", true)))))
+                .append("needsGrading", countIf(new Document("$and", List.of(
+                        new Document("$ne", List.of("$graded", true)), eq("status", "SUBMITTED")))))
+                .append("flagged", countIf(eq("flaggedForReview", true)))
+                .append("passed", countIf(eq("passed", true)))
+                .append("inProgress", countIf(eq("status", "IN_PROGRESS")))
+                .append("submitted", countIf(eq("status", "SUBMITTED")));
+
+        Document t = aggregateOne(List.of(
+                new Document("$match", new Document("examId", examId)),
+                new Document("$group", group)));
+
+        Map<String, Object> stats = new HashMap<>();
+        long total = longOf(t, "total");
+        if (total == 0) {
+            stats.put("totalResponses", 0);
+            stats.put("gradedResponses", 0);
+            stats.put("autoGradedResponses", 0);
+            stats.put("manuallyGradedResponses", 0);
+            stats.put("needsGrading", 0);
+            stats.put("flaggedResponses", 0);
+            stats.put("averageGradingTimeSeconds", 0);
+            stats.put("gradingProgress", 0.0);
+            return stats;
+        }
+
+        long graded = longOf(t, "graded");
+        long autoGraded = longOf(t, "autoGraded");
+        stats.put("totalResponses", total);
+        stats.put("gradedResponses", graded);
+        stats.put("autoGradedResponses", autoGraded);
+        stats.put("manuallyGradedResponses", graded - autoGraded);
+        stats.put("needsGrading", longOf(t, "needsGrading"));
+        stats.put("flaggedResponses", longOf(t, "flagged"));
+        stats.put("passedResponses", longOf(t, "passed"));
+        stats.put("gradingProgress", round((graded * 100.0) / total));
+        stats.put("inProgressResponses", longOf(t, "inProgress"));
+        stats.put("submittedResponses", longOf(t, "submitted"));
+        return stats;
+    }
+
+    // ===================================
+    // ITEM ANALYSIS
+    // ===================================
+
+    public ExamItemAnalysisResponse itemAnalysis(Exam exam) {
+        List<ExamQuestion> questions = exam.getQuestions() != null ? exam.getQuestions() : List.of();
+        List<String> choiceIds = questions.stream()
+                .filter(GradingPlan::isChoiceQuestion)
+                .map(ExamQuestion::getId)
+                .filter(Objects::nonNull)
+                .toList();
+
+        Document rank = new Document("$setWindowFields", new Document("sortBy", new Document("totalScore", 1))
+                .append("output", new Document()
+                        .append("position", new Document("$documentNumber", new Document()))
+                        .append("ranked", new Document("$count", new Document())
+                                .append("window", new Document("documents", List.of("unbounded", "unbounded"))))));
+        Document band = new Document("$set", new Document("band", new Document("$let", new Document()
+                .append("vars", new Document("group", new Document("$ceil",
+                        new Document("$multiply", List.of("$ranked", DISCRIMINATION_GROUP)))))
+                .append("in", new Document("$switch", new Document()
+                        .append("branches", List.of(
+                                new Document("case", new Document("$lte", List.of("$position", "$$group"))).append("then", "lower"),
+                                new Document("case", new Document("$gt", List.of("$position",
+                                        new Document("$subtract", List.of("$ranked", "$$group"))))).append("then", "upper")))
+                        .append("default", "middle"))))));
+
+        Document facets = new Document()
+                .append("overall", List.of(new Document("$group", new Document("_id", null)
+                        .append("count", new Document("$sum", 1))
+                        .append("averageScore", new Document("$avg", "$percentage"))
+                        .append("averageTimeSpent", new Document("$avg", "$timeSpent")))))
+                .append("questions", List.of(
+                        new Document("$project", new Document("band", 1)
+                                .append("score", new Document("$objectToArray", new Document("$ifNull", Arrays.asList("$questionScores", new Document()))))),
+                        new Document("$unwind", "$score"),
+                        new Document("$group", new Document("_id", "$score.k")
+                                .append("scored", new Document("$sum", 1))
+                                .append("averagePoints", new Document("$avg", "$score.v"))
+                                .append("upper", new Document("$avg", inBand("upper", "$score.v")))
+                                .append("lower", new Document("$avg", inBand("lower", "$score.v"))))))
+                .append("options", List.of(
+                        new Document("$project", new Document("answer", new Document("$filter", new Document()
+                                .append("input", new Document("$objectToArray", new Document("$ifNull", Arrays.asList("$answers", new Document()))))
+                                .append("cond", new Document("$in", List.of("$$this.k", choiceIds)))))),
+                        new Document("$unwind", "$answer"),
+                        new Document("$group", new Document("_id", new Document("question", "$answer.k").append("answer", "$answer.v"))
+                                .append("count", new Document("$sum", 1)))));
+
+        Document result = aggregateOne(List.of(
+                new Document("$match", new Document("examId", exam.getId()).append("graded", true)),
+                rank,
+                band,
+                new Document("$facet", facets)));
+
+        Map<String, Document> scoresByQuestion = new HashMap<>();
+        for (Document scores : result.getList("questions", Document.class, List.of())) {
+            scoresByQuestion.put(scores.getString("_id"), scores);
+        }
+        Map<String, Map<String, Long>> picks = new HashMap<>();
+        for (Document option : result.getList("options", Document.class, List.of())) {
+            Document id = option.get("_id", Document.class);
+            if (id.getString("answer") != null) {
+                picks.computeIfAbsent(id.getString("question"), k -> new HashMap<>())
+                        .merge(id.getString("answer"), longOf(option, "count"), Long::sum);
+            }
+        }
+
+        List<ExamItemAnalysisResponse.QuestionAnalysis> analysis = new ArrayList<>(questions.size());
+        for (ExamQuestion question : questions) {
+            analysis.add(analyse(question, scoresByQuestion.get(question.getId()), picks.get(question.getId())));
+        }
+
+        Document overall = first(result, "overall");
+        Document o = overall != null ? overall : new Document();
+        return ExamItemAnalysisResponse.builder()
+                .examId(exam.getId())
+                .examTitle(exam.getTitle())
+                .gradedResponses(longOf(o, "count"))
+                .averageScore(round(doubleOf(o, "averageScore")))
+                .averageTimeSpent(round(doubleOf(o, "averageTimeSpent")))
+                .questions(analysis)
+                .build();
+    }
+
+    private static ExamItemAnalysisResponse.QuestionAnalysis analyse(ExamQuestion question, Document scores, Map<String, Long> picks) {
+        int points = question.getPoints() != null ? question.getPoints() : 0;
+        Document s = scores != null ? scores : new Document();
+        Double averagePoints = s.get("averagePoints") instanceof Number n ? n.doubleValue() : null;
+
+        Double difficulty = null;
+        Double discrimination = null;
+        if (points > 0 && averagePoints != null) {
+            difficulty = round(averagePoints / points);
+            if (s.get("upper") instanceof Number upper && s.get("lower") instanceof Number lower) {
+                discrimination = round((upper.doubleValue() - lower.doubleValue()) / points);
+            }
+        }
+
+        return ExamItemAnalysisResponse.QuestionAnalysis.builder()
+                .questionId(question.getId())
+                .question(question.getQuestion())
+                .type(question.getType())
+                .points(points)
+                .scoredResponses(longOf(s, "scored"))
+                .averagePoints(averagePoints != null ? round(averagePoints) : null)
+                .difficultyIndex(difficulty)
+                .discriminationIndex(discrimination)
+                .optionDistribution(GradingPlan.isChoiceQuestion(question) ? distribution(question, picks) : null)
+                .build();
+    }
+
+    /**
+     * Answers by how often they were picked. Multiple-choice answers sent as an option index (older
+     * clients) are counted under the option's text, and unpicked options show up with zero.
+     */
+    private static Map<String, Long> distribution(ExamQuestion question, Map<String, Long> picks) {
+        Map<String, Long> distribution = new LinkedHashMap<>();
+        List<String> options = GradingPlan.isMultipleChoice(question) && question.getOptions() != null
+                ? question.getOptions() : List.of();
+        for (String option : options) {
+            if (option != null) {
+                distribution.put(option, 0L);
+            }
+        }
+        if (picks != null) {
+            picks.forEach((answer, count) -> distribution.merge(GradingPlan.optionText(question, answer.trim()), count, Long::sum));
+        }
+        return distribution;
+    }
+
+    // ===================================
+    // SYSTEM SUMMARY
+    // ===================================
+
+    /**
+     * Counts and scores across every exam. Attempts still in progress count as overdue when their
+     * deadline is before {@code overdueBefore}, and as abandoned when they have no deadline and started
+     * before {@code abandonedBefore}.
+     */
+    public ExamSystemSummaryResponse systemSummary(LocalDateTime overdueBefore, LocalDateTime abandonedBefore) {
+        Document isExam = new Document("kind", "exam");
+        Document isResponse = new Document("kind", "response");
+        Document hasDeadline = isSet("deadline");
+
+        Document facets = new Document()
+                .append("examsByStatus", List.of(
+                        new Document("$match", isExam),
+                        new Document("$group", new Document("_id", "$status").append("count", new Document("$sum", 1)))))
+                .append("courses", List.of(
+                        new Document("$match", isExam),
+                        new Document("$group", new Document("_id", "$courseId")),
+                        new Document("$count", "count")))
+                .append("responsesByStatus", List.of(
+                        new Document("$match", isResponse),
+                        new Document("$group", new Document("_id", "$status").append("count", new Document("$sum", 1)))))
+                .append("scores", List.of(
+                        new Document("$match", new Document(isResponse).append("graded", true)),
+                        new Document("$group", new Document("_id", null)
+                                .append("graded", new Document("$sum", 1))
+                                .append("passed", countIf(eq("passed", true)))
+                                .append("averageScore", new Document("$avg", "$percentage")))))
+                .append("courseScores", List.of(
+                        new Document("$match", new Document(isResponse).append("graded", true)
+                                .append("courseId", new Document("$ne", null))),
+                        new Document("$group", new Document("_id", "$courseId")
+                                .append("graded", new Document("$sum", 1))
+                                .append("averageScore", new Document("$avg", "$percentage"))),
+                        new Document("$sort", new Document("graded", -1).append("_id", 1)),
+                        new Document("$limit", SUMMARY_COURSES)))
+                .append("stuck", List.of(
+                        new Document("$match", new Document(isResponse).append("status", "IN_PROGRESS")),
+                        new Document("$group", new Document("_id", null)
+                                .append("overdue", countIf(new Document("$and", List.of(hasDeadline,
+                                        new Document("$lte", List.of("$deadline", toDate(overdueBefore)))))))
+                                .append("abandoned", countIf(new Document("$and", List.of(
+                                        new Document("$not", List.of(hasDeadline)), isSet("startedAt"),
+                                        new Document("$lte", List.of("$startedAt", toDate(abandonedBefore))))))))))
+                .append("orphaned", List.of(
+                        // Exam ids with responses but no exam document
+                        new Document("$group", new Document("_id", "$examId")
+                                .append("exams", countIf(eq("kind", "exam")))
+                                .append("responses", countIf(eq("kind", "response")))),
+                        new Document("$match", new Document("exams", 0)),
+                        new Document("$group", new Document("_id", null)
+                                .append("exams", new Document("$sum", 1))
+                                .append("responses", new Document("$sum", "$responses")))));
+
+        // Only the fields the facets read travel through the pipeline; exam ids are compared as strings
+        Document responseFields = new Document("_id", 0)
+                .append("kind", new Document("$literal", "response"))
+                .append("examId", 1)
+                .append("courseId", 1)
+                .append("status", 1)
+                .append("graded", 1)
+                .append("passed", 1)
+                .append("percentage", 1)
+                .append("deadline", 1)
+                .append("startedAt", 1);
+        Document examFields = new Document("_id", 0)
+                .append("kind", new Document("$literal", "exam"))
+                .append("examId", new Document("$toString", "$_id"))
+                .append("courseId", 1)
+                .append("status", 1);
+
+        Document result = aggregateOne(List.of(
+                new Document("$project", responseFields),
+                new Document("$unionWith", new Document("coll", mongoTemplate.getCollectionName(Exam.class))
+                        .append("pipeline", List.of(new Document("$project", examFields)))),
+                new Document("$facet", facets)));
+
+        Map<String, Long> examsByStatus = countsByKey(result, "examsByStatus");
+        Map<String, Long> responsesByStatus = countsByKey(result, "responsesByStatus");
+        Document scores = Objects.requireNonNullElseGet(first(result, "scores"), Document::new);
+        Document stuck = Objects.requireNonNullElseGet(first(result, "stuck"), Document::new);
+        Document orphaned = Objects.requireNonNullElseGet(first(result, "orphaned"), Document::new);
+        Document courses = first(result, "courses");
+        long graded = longOf(scores, "graded");
+
+        Map<String, Double> courseAverageScores = new LinkedHashMap<>();
+        for (Document course : result.getList("courseScores", Document.class, List.of())) {
+            courseAverageScores.put(String.valueOf(course.get("_id")), round(doubleOf(course, "averageScore")));
+        }
+
+        return ExamSystemSummaryResponse.builder()
+                .totalExams(examsByStatus.values().stream().mapToLong(Long::longValue).sum())
+                .examsByStatus(examsByStatus)
+                .courses(courses != null ? longOf(courses, "count") : 0L)
+                .totalResponses(responsesByStatus.values().stream().mapToLong(Long::longValue).sum())
+                .responsesByStatus(responsesByStatus)
+                .gradedResponses(graded)
+                .averageScore(round(doubleOf(scores, "averageScore")))
+                .passRate(graded == 0 ? 0.0 : round(longOf(scores, "passed") * 100.0 / graded))
+                .courseAverageScores(courseAverageScores)
+                .overdueAttempts(longOf(stuck, "overdue"))
+                .abandonedAttempts(longOf(stuck, "abandoned"))
+                .orphanedExams(longOf(orphaned, "exams"))
+                .orphanedResponses(longOf(orphaned, "responses"))
+                .generatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static Map<String, Long> countsByKey(Document result, String facet) {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Document group : result.getList(facet, Document.class, List.of())) {
+            counts.put(String.valueOf(group.get("_id")), longOf(group, "count"));
+        }
+        return counts;
+    }
+
+    // Stored the way Spring Data writes LocalDateTime, in the system time zone
+    private static Date toDate(LocalDateTime time) {
+        return Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    // ===================================
+    // HELPERS
+    // ===================================
+
+    private Document aggregateOne(List<Document> pipeline) {
+        Document result = responses().aggregate(pipeline).allowDiskUse(true).first();
+        return result != null ? result : new Document();
+    }
+
+    private MongoCollection<Document> responses() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(ExamResponse.class));
+    }
+
+    private static Document first(Document result, String facet) {
+        List<Document> documents = result.getList(facet, Document.class, List.of());
+        return documents.isEmpty() ? null : documents.get(0);
+    }
+
+    static Document eq(String field, Object value) {
+        return new Document("$eq", Arrays.asList("$" + field, value));
+    }
+
+    /** True when {@code field} is present and not null. */
+    static Document isSet(String field) {
+        return new Document("$ne", Arrays.asList(new Document("$ifNull", Arrays.asList("$" + field, null)), null));
+    }
+
+    static Document countIf(Document condition) {
+        return new Document("$sum", new Document("$cond", List.of(condition, 1, 0)));
+    }
+
+    static Document ifGraded(Object value) {
+        return new Document("$cond", Arrays.asList(eq("graded", true), value, null));
+    }
+
+    private static Document inBand(String band, String value) {
+        return new Document("$cond", Arrays.asList(new Document("$eq", List.of("$band", band)), value, null));
+    }
+
+    /**
+     * {@code $bucket} stage counting graded responses per score range. Percentages are clamped to
+     * 0-100 first, the same as {@link #bucketFor} does, so extra credit lands in the top range.
+     */
+    static Document scoreBuckets() {
+        Document clamped = new Document("$min", Arrays.asList(
+                new Document("$max", Arrays.asList(new Document("$ifNull", Arrays.asList("$percentage", 0)), 0)),
+                100));
+        return new Document("$bucket", new Document("groupBy", clamped)
+                .append("boundaries", SCORE_BOUNDARIES)
+                .append("default", "other")
+                .append("output", new Document("count", new Document("$sum", 1))));
+    }
+
+    static String bucketLabel(int lower) {
+        return lower + "-" + Math.min(lower + 10, 100);
+    }
+
+    /** The score distribution range {@code percentage} falls in. */
+    static String bucketFor(double percentage) {
+        int lower = SCORE_BOUNDARIES.get(0);
+        for (int i = 0; i < SCORE_BOUNDARIES.size() - 1; i++) {
+            if (percentage >= SCORE_BOUNDARIES.get(i)) {
+                lower = SCORE_BOUNDARIES.get(i);
+            }
+        }
+        return bucketLabel(lower);
+    }
+
+    /** Every range of the score distribution, lowest first. */
+    static List<String> bucketLabels() {
+        List<String> labels = new ArrayList<>(SCORE_BOUNDARIES.size() - 1);
+        for (int i = 0; i < SCORE_BOUNDARIES.size() - 1; i++) {
+            labels.add(bucketLabel(SCORE_BOUNDARIES.get(i)));
+        }
+        return labels;
+    }
+
+    static long longOf(Document document, String key) {
+        return document.get(key) instanceof Number n ? n.longValue() : 0L;
+    }
+
+    static double doubleOf(Document document, String key) {
+        return document.get(key) instanceof Number n ? n.doubleValue() : 0.0;
+    }
+
+    static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
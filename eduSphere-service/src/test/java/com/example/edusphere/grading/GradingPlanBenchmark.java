@@ -0,0 +1,277 @@
+package com.example.edusphere.grading;
+
+import com.example.edusphere.entity.Exam;
+import com.example.edusphere.entity.ExamQuestion;
+import com.example.edusphere.entity.ExamResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Auto-grading one response: the compiled {@link GradingPlan} against the per-question path it
+ * replaced ({@link LegacyGrading}, the removed ExamServiceImpl helpers minus their logging), plus the
+ * cost of a plan cache miss. The exam mixes multiple-choice (answered with option text), true/false
+ * and short-answer questions with one essay; setup checks both paths give the same scores.
+ *
+ * <pre>
+ * mvn -pl eduSphere-service -am test-compile
+ * mvn -pl eduSphere-service dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=target/test.classpath
+ * java -cp eduSphere-service/target/test-classes:eduSphere-service/target/classes:$(cat eduSphere-service/target/test.classpath) \
+ *     com.example.edusphere.grading.GradingPlanBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradingPlanBenchmark {
+
+    private static final int RESPONSES = 64;
+
+    @Param({"10", "50"})
+    public int questionCount;
+
+    private Exam exam;
+    private GradingPlan plan;
+    private ExamResponse[] responses;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        exam = exam(questionCount);
+        plan = GradingPlan.compile(exam);
+        responses = new ExamResponse[RESPONSES];
+        for (int i = 0; i < RESPONSES; i++) {
+            responses[i] = response(exam, i);
+            Map<String, String> answers = responses[i].getAnswers();
+            if (!scores(plan, answers).equals(LegacyGrading.scores(exam, answers))) {
+                throw new IllegalStateException("Plan and legacy grading disagree on response " + i);
+            }
+        }
+    }
+
+    @Benchmark
+    public Map<String, Integer> legacyPerQuestion() {
+        return LegacyGrading.scores(exam, nextResponse().getAnswers());
+    }
+
+    @Benchmark
+    public Map<String, Integer> planScores() {
+        return scores(plan, nextResponse().getAnswers());
+    }
+
+    @Benchmark
+    public ExamResponse planApplyTo() {
+        // Everything autoGradeResponse does in memory: scores, status, totals and pass/fail
+        ExamResponse response = nextResponse();
+        plan.applyTo(response, exam, LocalDateTime.MIN);
+        return response;
+    }
+
+    @Benchmark
+    public Map<String, Integer> compileAndScore() {
+        // A cache miss: the exam was edited since the plan was built
+        return scores(GradingPlan.compile(exam), nextResponse().getAnswers());
+    }
+
+    /**
+     * The scoring loop of {@link GradingPlan#applyTo}, without the response bookkeeping.
+     */
+    private static Map<String, Integer> scores(GradingPlan plan, Map<String, String> answers) {
+        Map<String, Integer> scores = new HashMap<>();
+        for (GradingPlan.QuestionGrader grader : plan.getGraders()) {
+            scores.put(grader.getQuestionId(), grader.grade(answers.get(grader.getQuestionId())));
+        }
+        return scores;
+    }
+
+    private ExamResponse nextResponse() {
+        next = (next + 1) % RESPONSES;
+        return responses[next];
+    }
+
+    // ===================================
+    // FIXTURES
+    // ===================================
+
+    private static Exam exam(int questionCount) {
+        Exam exam = new Exam();
+        exam.setId("65f0c0ffee0000000000e001");
+        exam.setUpdatedAt(LocalDateTime.of(2026, 3, 1, 9, 0));
+        exam.setPassPercentage(60.0);
+        List<ExamQuestion> questions = new ArrayList<>();
+        for (int i = 0; i < questionCount; i++) {
+            ExamQuestion question = new ExamQuestion();
+            question.setId("q" + i);
+            question.setPoints(5);
+            switch (i % 10) {
+                case 0, 1, 2, 3 -> {
+                    question.setType("multiple-choice");
+                    question.setOptions(List.of("Leader election", "Two-phase commit", "Vector clocks", "Gossip"));
+                    question.setCorrectAnswerIndex(i % 4);
+                }
+                case 4, 5, 6 -> {
+                    question.setType("true-false");
+                    question.setCorrectAnswer(i % 2 == 0 ? "true" : "false");
+                }
+                default -> {
+                    question.setType("short-answer");
+                    question.setAcceptableAnswers(List.of("Quorum", "Majority quorum", "Majority"));
+                }
+            }
+            questions.add(question);
+        }
+        ExamQuestion essay = new ExamQuestion();
+        essay.setId("essay");
+        essay.setType("essay");
+        essay.setPoints(20);
+        questions.add(essay);
+        exam.setQuestions(questions);
+        exam.recalculateTotalPoints();
+        return exam;
+    }
+
+    private static ExamResponse response(Exam exam, int seed) {
+        Map<String, String> answers = new HashMap<>();
+        for (ExamQuestion question : exam.getQuestions()) {
+            boolean right = (question.getId().hashCode() + seed) % 3 != 0;
+            String answer = switch (question.getType()) {
+                case "multiple-choice" -> question.getOptions().get(right
+                        ? question.getCorrectAnswerIndex() : (question.getCorrectAnswerIndex() + 1) % 4);
+                case "true-false" -> right == "true".equals(question.getCorrectAnswer()) ? "True" : "no";
+                case "short-answer" -> right ? "  majority quorum " : "paxos";
+                default -> "A quorum is any majority of replicas.";
+            };
+            answers.put(question.getId(), answer);
+        }
+        ExamResponse response = new ExamResponse();
+        response.setExamId(exam.getId());
+        response.setAnswers(answers);
+        return response;
+    }
+
+    /**
+     * The per-question grading ExamServiceImpl did before grading plans, kept as the baseline:
+     * type switch and answer-key normalization on every answer of every response.
+     */
+    static final class LegacyGrading {
+
+        static Map<String, Integer> scores(Exam exam, Map<String, String> answers) {
+            Map<String, Integer> scores = new HashMap<>();
+            for (ExamQuestion question : exam.getQuestions()) {
+                if (canAutoGrade(question)) {
+                    scores.put(question.getId(), grade(question, answers.get(question.getId())));
+                }
+            }
+            return scores;
+        }
+
+        private static boolean canAutoGrade(ExamQuestion question) {
+            if (question.getType() == null) {
+                return false;
+            }
+            switch (question.getType().toLowerCase().trim()) {
+                case "multiple-choice", "multiple_choice", "multiplechoice":
+                    return question.getOptions() != null && !question.getOptions().isEmpty()
+                            && question.getCorrectAnswerIndex() != null;
+                case "true-false", "true_false", "truefalse", "boolean":
+                    return question.getCorrectAnswer() != null && !question.getCorrectAnswer().trim().isEmpty();
+                case "short-answer", "short_answer", "shortanswer", "text", "fill-in-the-blank", "fill_in_the_blank":
+                    if (question.getAcceptableAnswers() == null) {
+                        return false;
+                    }
+                    for (String answer : question.getAcceptableAnswers()) {
+                        if (answer != null && !answer.trim().isEmpty()) {
+                            return true;
+                        }
+                    }
+                    return false;
+                default:
+                    return false;
+            }
+        }
+
+        private static int grade(ExamQuestion question, String studentAnswer) {
+            if (studentAnswer == null || studentAnswer.trim().isEmpty()) {
+                return 0;
+            }
+            switch (question.getType().toLowerCase().trim()) {
+                case "multiple-choice", "multiple_choice", "multiplechoice":
+                    return gradeMultipleChoice(question, studentAnswer);
+                case "true-false", "true_false", "truefalse", "boolean":
+                    return parseBoolean(studentAnswer) == parseBoolean(question.getCorrectAnswer()) ? points(question) : 0;
+                case "short-answer", "short_answer", "shortanswer", "text", "fill-in-the-blank", "fill_in_the_blank":
+                    return gradeText(question, studentAnswer);
+                default:
+                    return 0;
+            }
+        }
+
+        private static int gradeMultipleChoice(ExamQuestion question, String studentAnswer) {
+            List<String> options = question.getOptions();
+            int chosen = -1;
+            try {
+                chosen = Integer.parseInt(studentAnswer.trim());
+            } catch (NumberFormatException e) {
+                for (int i = 0; i < options.size(); i++) {
+                    if (options.get(i) != null && options.get(i).trim().equals(studentAnswer.trim())) {
+                        chosen = i;
+                        break;
+                    }
+                }
+            }
+            return chosen == question.getCorrectAnswerIndex() ? points(question) : 0;
+        }
+
+        private static int gradeText(ExamQuestion question, String studentAnswer) {
+            boolean caseSensitive = Boolean.TRUE.equals(question.getCaseSensitive());
+            String answer = caseSensitive ? studentAnswer.trim() : studentAnswer.trim().toLowerCase();
+            for (String acceptable : question.getAcceptableAnswers()) {
+                if (acceptable == null || acceptable.trim().isEmpty()) {
+                    continue;
+                }
+                if ((caseSensitive ? acceptable.trim() : acceptable.trim().toLowerCase()).equals(answer)) {
+                    return points(question);
+                }
+            }
+            return 0;
+        }
+
+        private static boolean parseBoolean(String value) {
+            String normalized = value.trim().toLowerCase();
+            return normalized.equals("true") || normalized.equals("1") || normalized.equals("yes")
+                    || normalized.equals("t") || normalized.equals("y");
+        }
+
+        private static int points(ExamQuestion question) {
+            return question.getPoints() != null ? question.getPoints() : 0;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(GradingPlanBenchmark.class.getName())
+                .build()).run();
+    }
+}
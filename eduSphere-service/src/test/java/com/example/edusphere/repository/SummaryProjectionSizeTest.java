@@ -0,0 +1,188 @@
+package com.example.edusphere.repository;
+
+import com.example.edusphere.entity.Course;
+import com.example.edusphere.entity.Exam;
+import com.example.edusphere.entity.ExamQuestion;
+import com.example.edusphere.entity.YearlyEnrollment;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DocumentCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes read per document by the list-screen projections against the full documents, using the
+ * application's own mapping. No database needed: the projection is applied to the encoded document
+ * the way the server applies an inclusion projection. Sizes are printed for the record.
+ */
+class SummaryProjectionSizeTest {
+
+    private MappingMongoConverter converter;
+    private QueryMapper queryMapper;
+    private MongoMappingContext mappingContext;
+
+    @BeforeEach
+    void setUp() {
+        // Same wiring as the Boot auto-configuration, so java.time values are written as dates
+        MongoCustomConversions conversions = new MongoCustomConversions(Collections.emptyList());
+        mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        queryMapper = new QueryMapper(converter);
+    }
+
+    @Test
+    void courseSummaryLeavesOutEmbeddedRosters() {
+        Course course = new Course();
+        course.setId("65f0c0ffee0000000000c001");
+        course.setName("Distributed Systems");
+        course.setCode("CS-4120");
+        course.setDescription("Consensus, replication and failure detection. ".repeat(20));
+        course.setImageUrl("http://localhost:8080/uploads/courses/cs4120.png");
+        course.setDepartment("Computer Science");
+        course.setCredits(4);
+        course.setLecturerId("65f0c0ffee0000000000a001");
+        course.setAcademicYear("2025-2026");
+        course.setSemester("B");
+        course.setYear(3);
+        course.setSelectable(true);
+        List<YearlyEnrollment> enrollments = new ArrayList<>();
+        for (int year = 2022; year <= 2025; year++) {
+            YearlyEnrollment roster = new YearlyEnrollment(year);
+            for (int i = 0; i < 250; i++) {
+                roster.getStudentIds().add(String.format("65f0c0ffee%014d", year * 1000L + i));
+            }
+            enrollments.add(roster);
+        }
+        course.setEnrollments(enrollments);
+
+        int full = size(write(course));
+        int summary = size(project(write(course), CourseRepository.SUMMARY_FIELDS, Course.class));
+        report("course", full, summary);
+
+        assertThat(summary).isLessThan(full / 20);
+    }
+
+    @Test
+    void examSummaryKeepsOnlyQuestionPoints() {
+        Exam exam = new Exam();
+        exam.setId("65f0c0ffee0000000000e001");
+        exam.setCourseId("65f0c0ffee0000000000c001");
+        exam.setInstructorId("65f0c0ffee0000000000a001");
+        exam.setTitle("Midterm");
+        exam.setDescription("Chapters 1-6");
+        exam.setDuration(120);
+        exam.setStartTime(LocalDateTime.of(2026, 3, 1, 9, 0));
+        exam.setEndTime(LocalDateTime.of(2026, 3, 1, 11, 0));
+        exam.setStatus("PUBLISHED");
+        exam.setVisibleToStudents(true);
+        List<ExamQuestion> questions = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            ExamQuestion question = new ExamQuestion();
+            question.setId("q" + i);
+            question.setType("multiple-choice");
+            question.setQuestion("Which of the following statements about quorum intersection holds? (" + i + ")");
+            question.setOptions(List.of("Every read quorum overlaps every write quorum",
+                    "Read quorums never overlap", "Only write quorums overlap", "None of the above"));
+            question.setCorrectAnswer("Every read quorum overlaps every write quorum");
+            question.setCorrectAnswerIndex(0);
+            question.setExplanation("With R + W > N any two quorums share at least one replica. ".repeat(3));
+            question.setPoints(5);
+            questions.add(question);
+        }
+        exam.setQuestions(questions);
+
+        int full = size(write(exam));
+        Document projected = project(write(exam), ExamRepository.SUMMARY_FIELDS, Exam.class);
+        int summary = size(projected);
+        report("exam", full, summary);
+
+        assertThat(projected.getList("questions", Document.class)).hasSize(40);
+        assertThat(projected.getList("questions", Document.class).get(0).keySet().size()).isEqualTo(1);
+        assertThat(summary).isLessThan(full / 5);
+    }
+
+    // ===================================
+    // HELPERS
+    // ===================================
+
+    private Document write(Object entity) {
+        Document document = new Document();
+        converter.write(entity, document);
+        return document;
+    }
+
+    /**
+     * Inclusion projection as the server applies it, with field names mapped exactly like a
+     * repository {@code @Query(fields = ...)}.
+     */
+    private Document project(Document source, String fields, Class<?> type) {
+        Document mapped = queryMapper.getMappedFields(Document.parse(fields), mappingContext.getPersistentEntity(type));
+        Document spec = new Document("_id", 1);
+        for (String path : mapped.keySet()) {
+            Document level = spec;
+            String[] parts = path.split("\\.");
+            for (int i = 0; i < parts.length - 1; i++) {
+                Object next = level.get(parts[i]);
+                if (!(next instanceof Document)) {
+                    next = new Document();
+                    level.put(parts[i], next);
+                }
+                level = (Document) next;
+            }
+            level.put(parts[parts.length - 1], 1);
+        }
+        return include(source, spec);
+    }
+
+    private static Document include(Document source, Document spec) {
+        Document result = new Document();
+        for (Map.Entry<String, Object> field : spec.entrySet()) {
+            if (!source.containsKey(field.getKey())) {
+                continue;
+            }
+            Object value = source.get(field.getKey());
+            result.put(field.getKey(), field.getValue() instanceof Document nested ? include(value, nested) : value);
+        }
+        return result;
+    }
+
+    private static Object include(Object value, Document spec) {
+        if (value instanceof Document document) {
+            return include(document, spec);
+        }
+        if (value instanceof List<?> list) {
+            List<Object> elements = new ArrayList<>();
+            for (Object element : list) {
+                if (element instanceof Document document) {
+                    elements.add(include(document, spec));
+                }
+            }
+            return elements;
+        }
+        return null;
+    }
+
+    private static int size(Document document) {
+        return new RawBsonDocument(document, new DocumentCodec()).getByteBuffer().remaining();
+    }
+
+    private static void report(String what, int full, int summary) {
+        System.out.printf("%s: full %d bytes, summary %d bytes (%.1f%%)%n", what, full, summary, 100.0 * summary / full);
+    }
+}
@@ -18,7 +18,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.ArrayList;
 import java.util.HashMap;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Service
 public class EduSphereClient {
 
@@ -52,7 +54,7 @@ public class EduSphereClient {
                 headers.setBearerAuth(serviceToken);
             }
         } catch (Exception e) {
-            System.err.println("⚠️ Warning: Could not create authenticated headers: " + e.getMessage());
+            log.warn("Warning: Could not create authenticated headers: {}", e.getMessage());
         }
 
         return headers;
@@ -69,10 +71,10 @@ public class EduSphereClient {
 
             return restTemplate.exchange(url, HttpMethod.GET, entity, responseType);
         } catch (HttpClientErrorException e) {
-            System.err.println("HTTP Error calling " + url + ": " + e.getStatusCode() + " - " + e.getResponseBodyAsString());
+            log.warn("HTTP Error calling {}: {} - {}", url, e.getStatusCode(), e.getResponseBodyAsString());
             throw e;
         } catch (Exception e) {
-            System.err.println("Error calling " + url + ": " + e.getMessage());
+            log.warn("Error calling {}: {}", url, e.getMessage());
             throw e;
         }
     }
@@ -115,7 +117,7 @@ public class EduSphereClient {
 
             return courses;
         } catch (Exception e) {
-            System.err.println("Error getting user courses: " + e.getMessage());
+            log.warn("Error getting user courses: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -130,7 +132,7 @@ public class EduSphereClient {
             // cache course names from the getUserCourses call
             return "Course " + courseId;
         } catch (Exception e) {
-            System.err.println("Error getting course name for " + courseId + ": " + e.getMessage());
+            log.warn("Error getting course name for {}: {}", courseId, e.getMessage());
             return "Unknown Course";
         }
     }
@@ -164,7 +166,7 @@ public class EduSphereClient {
 
             return allTasks;
         } catch (Exception e) {
-            System.err.println("Error getting tasks by course IDs: " + e.getMessage());
+            log.warn("Error getting tasks by course IDs: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -196,7 +198,7 @@ public class EduSphereClient {
 
             return allMeetings;
         } catch (Exception e) {
-            System.err.println("Error getting meetings by course IDs: " + e.getMessage());
+            log.warn("Error getting meetings by course IDs: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -221,7 +223,7 @@ public class EduSphereClient {
             }
             return announcements;
         } catch (Exception e) {
-            System.err.println("Error getting announcements: " + e.getMessage());
+            log.warn("Error getting announcements: {}", e.getMessage());
             return new ArrayList<>();
         }
     }
@@ -247,7 +249,7 @@ public class EduSphereClient {
                 return restTemplate.getForObject(url, Map.class);
             }
         } catch (Exception e) {
-            System.err.println("Error getting meeting by ID: " + e.getMessage());
+            log.warn("Error getting meeting by ID: {}", e.getMessage());
             return Map.of("error", "Meeting not found");
         }
     }
@@ -262,7 +264,7 @@ public class EduSphereClient {
             return userCourses.stream()
                     .anyMatch(course -> courseId.equals(course.get("id")));
         } catch (Exception e) {
-            System.err.println("Error checking course access: " + e.getMessage());
+            log.warn("Error checking course access: {}", e.getMessage());
             return false;
         }
     }
@@ -287,7 +289,7 @@ public class EduSphereClient {
             courseMap.put("credits", getFieldValue(courseObj, "credits"));
 
         } catch (Exception e) {
-            System.err.println("Error converting course to map: " + e.getMessage());
+            log.warn("Error converting course to map: {}", e.getMessage());
         }
 
         return courseMap;
@@ -316,7 +318,7 @@ public class EduSphereClient {
             taskMap.put("fileName", getFieldValue(taskObj, "fileName"));
 
         } catch (Exception e) {
-            System.err.println("Error converting task to map: " + e.getMessage());
+            log.warn("Error converting task to map: {}", e.getMessage());
         }
 
         return taskMap;
@@ -347,7 +349,7 @@ public class EduSphereClient {
             meetingMap.put("participants", new ArrayList<>()); // Default empty list
 
         } catch (Exception e) {
-            System.err.println("Error converting meeting to map: " + e.getMessage());
+            log.warn("Error converting meeting to map: {}", e.getMessage());
         }
 
         return meetingMap;
@@ -375,7 +377,7 @@ public class EduSphereClient {
             announcementMap.put("targetAcademicYear", getFieldValue(announcementObj, "targetAcademicYear"));
             announcementMap.put("targetUserId", getFieldValue(announcementObj, "targetUserId"));
         } catch (Exception e) {
-            System.err.println("Error converting announcement to map: " + e.getMessage());
+            log.warn("Error converting announcement to map: {}", e.getMessage());
         }
         return announcementMap;
     }
@@ -1,6 +1,7 @@
 package com.example.extension.controller;
 
 import com.example.extension.dto.response.ExtensionDashboardResponse;
+import com.example.common.bulkhead.Bulkhead;
 import com.example.extension.service.ExtensionService;
 import com.example.common.entity.UserEntity;
 import com.example.common.repository.UserRepository;
@@ -29,6 +30,7 @@ public class ExtensionController {
      * GET /api/extension/dashboard : Get dashboard data for extension
      */
     @GetMapping("/dashboard")
+    @Bulkhead("edusphere-client")
     public ResponseEntity<?> getDashboardData(@RequestParam String email) {
         try {
             if (email == null || email.trim().isEmpty()) {
@@ -56,6 +58,7 @@ public class ExtensionController {
      * GET /api/extension/meeting/{id} : Get specific meeting details for joining
      */
     @GetMapping("/meeting/{id}")
+    @Bulkhead("edusphere-client")
     public ResponseEntity<?> getMeetingDetails(@PathVariable String id, @RequestParam String email) {
         try {
             if (email == null || email.trim().isEmpty()) {
@@ -85,6 +88,7 @@ public class ExtensionController {
      * GET /api/extension/tasks : Get tasks for extension
      */
     @GetMapping("/tasks")
+    @Bulkhead("edusphere-client")
     public ResponseEntity<?> getTasks(
             @RequestParam String email,
             @RequestParam(required = false) String status,
@@ -121,6 +125,7 @@ public class ExtensionController {
      * GET /api/extension/announcements : Get announcements for extension
      */
     @GetMapping("/announcements")
+    @Bulkhead("edusphere-client")
     public ResponseEntity<?> getAnnouncements(
             @RequestParam String email,
             @RequestParam(defaultValue = "10") int limit) {
@@ -154,6 +159,7 @@ public class ExtensionController {
      * GET /api/extension/stats : Get statistics for extension
      */
     @GetMapping("/stats")
+    @Bulkhead("edusphere-client")
     public ResponseEntity<?> getStats(@RequestParam String email) {
         try {
             if (email == null || email.trim().isEmpty()) {
@@ -181,6 +187,7 @@ public class ExtensionController {
      * GET /api/extension/urgent : Get urgent items for extension
      */
     @GetMapping("/urgent")
+    @Bulkhead("edusphere-client")
     public ResponseEntity<?> getUrgentItems(@RequestParam String email) {
         try {
             if (email == null || email.trim().isEmpty()) {